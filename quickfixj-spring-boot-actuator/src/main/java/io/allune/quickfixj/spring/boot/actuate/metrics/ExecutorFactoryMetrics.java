@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.actuate.metrics;
+
+import io.allune.quickfixj.spring.boot.starter.connection.CountingRejectedExecutionHandler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * {@link MeterBinder} exposing the saturation of the executors of a {@link quickfix.ExecutorFactory}: the active and
+ * pooled threads, the queued tasks, the remaining queue capacity and, when the executor counts them with a
+ * {@link CountingRejectedExecutionHandler}, the rejected tasks. Only the executors backed by a
+ * {@link ThreadPoolTaskExecutor} are bound.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class ExecutorFactoryMetrics implements MeterBinder {
+
+	private final Map<String, Executor> executors;
+
+	private final Iterable<Tag> tags;
+
+	/**
+	 * @param executors the executors to bind, keyed by the value of their {@code executor} tag, e.g.
+	 *                  {@code long-lived} and {@code short-lived}
+	 * @param tags      the tags added to all the meters
+	 */
+	public ExecutorFactoryMetrics(Map<String, Executor> executors, Iterable<Tag> tags) {
+		this.executors = executors;
+		this.tags = tags;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		executors.forEach((name, executor) -> {
+			if (executor instanceof ThreadPoolTaskExecutor taskExecutor) {
+				bindExecutor(registry, Tags.concat(tags, "executor", name), taskExecutor.getThreadPoolExecutor());
+			}
+		});
+	}
+
+	private static void bindExecutor(MeterRegistry registry, Tags executorTags, ThreadPoolExecutor executor) {
+		Gauge.builder("quickfixj.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+				.tags(executorTags)
+				.description("Number of threads actively running tasks")
+				.baseUnit("threads")
+				.register(registry);
+
+		Gauge.builder("quickfixj.executor.pool.size", executor, ThreadPoolExecutor::getPoolSize)
+				.tags(executorTags)
+				.description("Current number of threads in the pool")
+				.baseUnit("threads")
+				.register(registry);
+
+		Gauge.builder("quickfixj.executor.pool.max", executor, ThreadPoolExecutor::getMaximumPoolSize)
+				.tags(executorTags)
+				.description("Maximum allowed number of threads in the pool")
+				.baseUnit("threads")
+				.register(registry);
+
+		Gauge.builder("quickfixj.executor.queued", executor, pool -> pool.getQueue().size())
+				.tags(executorTags)
+				.description("Number of tasks waiting in the queue")
+				.baseUnit("tasks")
+				.register(registry);
+
+		Gauge.builder("quickfixj.executor.queue.remaining", executor, pool -> pool.getQueue().remainingCapacity())
+				.tags(executorTags)
+				.description("Number of additional tasks the queue can hold before rejecting them")
+				.baseUnit("tasks")
+				.register(registry);
+
+		if (executor.getRejectedExecutionHandler() instanceof CountingRejectedExecutionHandler rejectedExecutionHandler) {
+			FunctionCounter.builder("quickfixj.executor.rejected", rejectedExecutionHandler,
+							CountingRejectedExecutionHandler::getRejectedCount)
+					.tags(executorTags)
+					.description("Number of tasks rejected because the pool and the queue were full")
+					.baseUnit("tasks")
+					.register(registry);
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.actuate.metrics;
+
+import io.allune.quickfixj.spring.boot.starter.store.GroupCommitFileStoreFactory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MeterBinder} exposing the number of commits, the pending messages, the distribution of the commit batch
+ * sizes and the percentiles of the fsync latency of a {@link GroupCommitFileStoreFactory}.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class GroupCommitFileStoreMetrics implements MeterBinder {
+
+	private final GroupCommitFileStoreFactory messageStoreFactory;
+
+	private final Iterable<Tag> tags;
+
+	public GroupCommitFileStoreMetrics(GroupCommitFileStoreFactory messageStoreFactory, Iterable<Tag> tags) {
+		this.messageStoreFactory = messageStoreFactory;
+		this.tags = tags;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("quickfixj.store.commits", messageStoreFactory, GroupCommitFileStoreFactory::getCommitCount)
+				.tags(tags)
+				.description("Number of group commits forcing the writes of the message stores to the storage device")
+				.baseUnit("commits")
+				.register(registry);
+
+		Gauge.builder("quickfixj.store.commit.pending", messageStoreFactory, GroupCommitFileStoreFactory::getPendingCount)
+				.tags(tags)
+				.description("Number of messages written to the message stores and not committed yet")
+				.baseUnit("messages")
+				.register(registry);
+
+		DistributionSummary commitBatchSize = DistributionSummary.builder("quickfixj.store.commit.batch.size")
+				.tags(tags)
+				.description("Number of messages made durable by each group commit")
+				.baseUnit("messages")
+				.publishPercentiles(0.5, 0.9, 0.99, 0.999)
+				.register(registry);
+		messageStoreFactory.setCommitBatchSizeRecorder(commitBatchSize::record);
+
+		Timer fsyncLatency = Timer.builder("quickfixj.store.fsync.latency")
+				.tags(tags)
+				.description("Time taken to force the writes of a message store to the storage device")
+				.publishPercentiles(0.5, 0.9, 0.99, 0.999)
+				.register(registry);
+		messageStoreFactory.setFsyncLatencyRecorder(nanos -> fsyncLatency.record(nanos, TimeUnit.NANOSECONDS));
+	}
+}
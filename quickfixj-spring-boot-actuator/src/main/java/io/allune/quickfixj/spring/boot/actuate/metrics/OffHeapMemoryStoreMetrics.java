@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.actuate.metrics;
+
+import io.allune.quickfixj.spring.boot.starter.store.OffHeapMemoryStore;
+import io.allune.quickfixj.spring.boot.starter.store.OffHeapMemoryStoreFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import quickfix.SessionID;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * {@link MeterBinder} exposing, per session, the direct memory reserved by the {@link OffHeapMemoryStore} created by
+ * an {@link OffHeapMemoryStoreFactory}, together with the number and size of the retained messages and the number of
+ * evicted messages. The meters of a session are registered when its store is created.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class OffHeapMemoryStoreMetrics implements MeterBinder {
+
+	private final OffHeapMemoryStoreFactory messageStoreFactory;
+
+	private final Iterable<Tag> tags;
+
+	public OffHeapMemoryStoreMetrics(OffHeapMemoryStoreFactory messageStoreFactory, Iterable<Tag> tags) {
+		this.messageStoreFactory = messageStoreFactory;
+		this.tags = tags;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		messageStoreFactory.setStoreCreatedListener(store -> bindTo(registry, store.getSessionID()));
+		for (OffHeapMemoryStore store : messageStoreFactory.getStores()) {
+			bindTo(registry, store.getSessionID());
+		}
+	}
+
+	private void bindTo(MeterRegistry registry, SessionID sessionID) {
+		Tags sessionTags = Tags.concat(tags, "sessionId", sessionID.toString());
+		Gauge.builder("quickfixj.store.offheap.reserved", messageStoreFactory, storeValue(sessionID, OffHeapMemoryStore::getReservedBytes))
+				.tags(sessionTags)
+				.description("Direct memory held by the slabs of the message store of the session")
+				.baseUnit("bytes")
+				.register(registry);
+
+		Gauge.builder("quickfixj.store.offheap.retained", messageStoreFactory, storeValue(sessionID, OffHeapMemoryStore::getRetainedBytes))
+				.tags(sessionTags)
+				.description("Size of the messages retained by the message store of the session")
+				.baseUnit("bytes")
+				.register(registry);
+
+		Gauge.builder("quickfixj.store.offheap.messages", messageStoreFactory, storeValue(sessionID, OffHeapMemoryStore::getRetainedCount))
+				.tags(sessionTags)
+				.description("Number of messages retained by the message store of the session")
+				.baseUnit("messages")
+				.register(registry);
+
+		FunctionCounter.builder("quickfixj.store.offheap.evicted", messageStoreFactory, storeValue(sessionID, OffHeapMemoryStore::getEvictedCount))
+				.tags(sessionTags)
+				.description("Number of messages evicted from the message store of the session to honour its retention window")
+				.baseUnit("messages")
+				.register(registry);
+	}
+
+	/**
+	 * Looks the store up on every read, so that the meters follow the store of the session if it is recreated.
+	 */
+	private static ToDoubleFunction<OffHeapMemoryStoreFactory> storeValue(SessionID sessionID, ToDoubleFunction<OffHeapMemoryStore> value) {
+		return factory -> {
+			OffHeapMemoryStore store = factory.getStore(sessionID);
+			return store != null ? value.applyAsDouble(store) : 0;
+		};
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.actuate.metrics;
+
+import io.allune.quickfixj.spring.boot.starter.application.RingBufferEventDispatcher;
+import io.allune.quickfixj.spring.boot.starter.model.Create;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.event.EventListener;
+import quickfix.SessionID;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MeterBinder} exposing the queue depth, high-water mark and lag of the ring buffer of each session of a
+ * {@link RingBufferEventDispatcher}, the number of dropped events and the percentiles of the time the events wait in
+ * the ring buffers. The meters of the sessions created after binding are registered when their
+ * {@link Create} event is received.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class RingBufferEventDispatcherMetrics implements MeterBinder {
+
+	private final RingBufferEventDispatcher eventDispatcher;
+
+	private final Iterable<Tag> tags;
+
+	private final Set<SessionID> boundSessionIDs = ConcurrentHashMap.newKeySet();
+
+	private volatile MeterRegistry registry;
+
+	public RingBufferEventDispatcherMetrics(RingBufferEventDispatcher eventDispatcher, Iterable<Tag> tags) {
+		this.eventDispatcher = eventDispatcher;
+		this.tags = tags;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("quickfixj.events.dropped", eventDispatcher, RingBufferEventDispatcher::getDroppedCount)
+				.tags(tags)
+				.description("Number of events dropped because the ring buffer of their session was full")
+				.baseUnit("events")
+				.register(registry);
+
+		Timer dispatchLatency = Timer.builder("quickfixj.events.dispatch.latency")
+				.tags(tags)
+				.description("Time the events wait in the ring buffer between being dispatched and being delivered to the listeners")
+				.publishPercentiles(0.5, 0.9, 0.99, 0.999)
+				.register(registry);
+		eventDispatcher.setDispatchLatencyRecorder(nanos -> dispatchLatency.record(nanos, TimeUnit.NANOSECONDS));
+
+		this.registry = registry;
+		eventDispatcher.getSessionIDs().forEach(sessionID -> bindSession(registry, sessionID));
+	}
+
+	@EventListener
+	public void onCreate(Create create) {
+		MeterRegistry meterRegistry = registry;
+		if (meterRegistry != null) {
+			bindSession(meterRegistry, create.getSessionId());
+		}
+	}
+
+	private void bindSession(MeterRegistry registry, SessionID sessionID) {
+		if (!boundSessionIDs.add(sessionID)) {
+			return;
+		}
+		Tags sessionTags = Tags.concat(tags, "sessionId", sessionID.toString());
+
+		Gauge.builder("quickfixj.events.queue.depth", eventDispatcher, dispatcher -> dispatcher.getQueueDepth(sessionID))
+				.tags(sessionTags)
+				.description("Number of events of the session waiting to be delivered to the listeners")
+				.baseUnit("events")
+				.register(registry);
+
+		Gauge.builder("quickfixj.events.queue.capacity", eventDispatcher, RingBufferEventDispatcher::getBufferSize)
+				.tags(sessionTags)
+				.description("Number of slots of the ring buffer of the session")
+				.baseUnit("events")
+				.register(registry);
+
+		Gauge.builder("quickfixj.events.queue.high.water.mark", eventDispatcher, dispatcher -> dispatcher.getHighWaterMark(sessionID))
+				.tags(sessionTags)
+				.description("Highest number of events of the session that have been waiting in the ring buffer")
+				.baseUnit("events")
+				.register(registry);
+
+		TimeGauge.builder("quickfixj.events.lag", eventDispatcher, TimeUnit.NANOSECONDS,
+						dispatcher -> dispatcher.getLag(sessionID).toNanos())
+				.tags(sessionTags)
+				.description("Time the last delivered event of the session waited in the ring buffer")
+				.register(registry);
+	}
+}
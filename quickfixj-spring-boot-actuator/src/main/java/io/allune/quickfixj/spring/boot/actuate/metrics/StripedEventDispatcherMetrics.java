@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.actuate.metrics;
+
+import io.allune.quickfixj.spring.boot.starter.application.StripedEventDispatcher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MeterBinder} exposing the queue depth, capacity and high-water mark of each lane of a
+ * {@link StripedEventDispatcher}, the number of dropped events and the percentiles of the time the events wait
+ * between being dispatched and being delivered to the listeners.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class StripedEventDispatcherMetrics implements MeterBinder {
+
+	private final StripedEventDispatcher eventDispatcher;
+
+	private final Iterable<Tag> tags;
+
+	public StripedEventDispatcherMetrics(StripedEventDispatcher eventDispatcher, Iterable<Tag> tags) {
+		this.eventDispatcher = eventDispatcher;
+		this.tags = tags;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		for (int i = 0; i < eventDispatcher.getLaneCount(); i++) {
+			int lane = i;
+			Tags laneTags = Tags.concat(tags, "lane", String.valueOf(lane));
+			Gauge.builder("quickfixj.events.lane.queue.depth", eventDispatcher, dispatcher -> dispatcher.getQueueDepth(lane))
+					.tags(laneTags)
+					.description("Number of events of the lane waiting to be delivered to the listeners")
+					.baseUnit("events")
+					.register(registry);
+
+			Gauge.builder("quickfixj.events.lane.queue.capacity", eventDispatcher, StripedEventDispatcher::getQueueCapacity)
+					.tags(laneTags)
+					.description("Maximum number of events waiting in the queue of the lane")
+					.baseUnit("events")
+					.register(registry);
+
+			Gauge.builder("quickfixj.events.lane.queue.high.water.mark", eventDispatcher, dispatcher -> dispatcher.getHighWaterMark(lane))
+					.tags(laneTags)
+					.description("Highest number of events that have been waiting in the queue of the lane")
+					.baseUnit("events")
+					.register(registry);
+		}
+
+		FunctionCounter.builder("quickfixj.events.dropped", eventDispatcher, StripedEventDispatcher::getDroppedCount)
+				.tags(tags)
+				.description("Number of events dropped because the queue of their lane was full")
+				.baseUnit("events")
+				.register(registry);
+
+		Timer dispatchLatency = Timer.builder("quickfixj.events.dispatch.latency")
+				.tags(tags)
+				.description("Time the events wait between being dispatched and being delivered to the listeners")
+				.publishPercentiles(0.5, 0.9, 0.99, 0.999)
+				.register(registry);
+		eventDispatcher.setDispatchLatencyRecorder(nanos -> dispatchLatency.record(nanos, TimeUnit.NANOSECONDS));
+	}
+}
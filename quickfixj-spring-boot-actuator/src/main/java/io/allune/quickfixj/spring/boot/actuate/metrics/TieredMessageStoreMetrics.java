@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.actuate.metrics;
+
+import io.allune.quickfixj.spring.boot.starter.store.TieredMessageStoreFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link MeterBinder} exposing the number of stored messages requested from the stores of a
+ * {@link TieredMessageStoreFactory}, and the number of hits and the hit ratio of each of its tiers.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class TieredMessageStoreMetrics implements MeterBinder {
+
+	private final TieredMessageStoreFactory messageStoreFactory;
+
+	private final Iterable<Tag> tags;
+
+	public TieredMessageStoreMetrics(TieredMessageStoreFactory messageStoreFactory, Iterable<Tag> tags) {
+		this.messageStoreFactory = messageStoreFactory;
+		this.tags = tags;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("quickfixj.store.tier.requests", messageStoreFactory, TieredMessageStoreFactory::getRequestedCount)
+				.tags(tags)
+				.description("Number of stored messages requested from the message stores")
+				.baseUnit("messages")
+				.register(registry);
+
+		bindTier(registry, "hot", TieredMessageStoreFactory::getHotHitCount);
+		bindTier(registry, "cold", TieredMessageStoreFactory::getColdHitCount);
+	}
+
+	private void bindTier(MeterRegistry registry, String tier, ToLongFunction<TieredMessageStoreFactory> hitCount) {
+		Tags tierTags = Tags.concat(tags, "tier", tier);
+		FunctionCounter.builder("quickfixj.store.tier.hits", messageStoreFactory, hitCount::applyAsLong)
+				.tags(tierTags)
+				.description("Number of requested messages served by the tier")
+				.baseUnit("messages")
+				.register(registry);
+
+		Gauge.builder("quickfixj.store.tier.hit.ratio", messageStoreFactory, factory -> {
+					long requested = factory.getRequestedCount();
+					return requested > 0 ? (double) hitCount.applyAsLong(factory) / requested : 0;
+				})
+				.tags(tierTags)
+				.description("Ratio of the requested messages served by the tier")
+				.register(registry);
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.actuate.metrics;
+
+import io.allune.quickfixj.spring.boot.starter.connection.CountingRejectedExecutionHandler;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class ExecutorFactoryMetricsTest {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private ThreadPoolTaskExecutor shortLivedExecutor;
+
+	@BeforeEach
+	public void setUp() {
+		shortLivedExecutor = new ThreadPoolTaskExecutor();
+		shortLivedExecutor.setCorePoolSize(1);
+		shortLivedExecutor.setMaxPoolSize(1);
+		shortLivedExecutor.setQueueCapacity(1);
+		shortLivedExecutor.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy()));
+		shortLivedExecutor.initialize();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		release.countDown();
+		shortLivedExecutor.shutdown();
+	}
+
+	@Test
+	public void shouldExposeSaturationOfThreadPoolExecutors() {
+		// Given
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		Map<String, Executor> executors = new LinkedHashMap<>();
+		executors.put("long-lived", Runnable::run);
+		executors.put("short-lived", shortLivedExecutor);
+		new ExecutorFactoryMetrics(executors, Tags.of("connector", "client")).bindTo(registry);
+
+		// When
+		shortLivedExecutor.execute(this::awaitRelease);
+		shortLivedExecutor.execute(this::awaitRelease);
+		assertThatExceptionOfType(RejectedExecutionException.class)
+				.isThrownBy(() -> shortLivedExecutor.execute(this::awaitRelease));
+
+		// Then
+		assertThat(registry.get("quickfixj.executor.pool.size")
+				.tags("connector", "client", "executor", "short-lived").gauge().value()).isEqualTo(1);
+		assertThat(registry.get("quickfixj.executor.queued")
+				.tags("executor", "short-lived").gauge().value()).isEqualTo(1);
+		assertThat(registry.get("quickfixj.executor.queue.remaining")
+				.tags("executor", "short-lived").gauge().value()).isZero();
+		assertThat(registry.get("quickfixj.executor.rejected")
+				.tags("executor", "short-lived").functionCounter().count()).isEqualTo(1);
+		assertThat(registry.find("quickfixj.executor.active").tags("executor", "long-lived").gauge()).isNull();
+	}
+
+	private void awaitRelease() {
+		try {
+			release.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.actuate.metrics;
+
+import io.allune.quickfixj.spring.boot.starter.store.GroupCommitFileStoreFactory;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+@ExtendWith(MockitoExtension.class)
+public class GroupCommitFileStoreMetricsTest {
+
+	@Mock
+	private GroupCommitFileStoreFactory messageStoreFactory;
+
+	@Test
+	public void shouldExposeCommitsBatchSizeAndFsyncLatency() {
+		// Given
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		given(messageStoreFactory.getCommitCount()).willReturn(12L);
+		given(messageStoreFactory.getPendingCount()).willReturn(3);
+		GroupCommitFileStoreMetrics metrics = new GroupCommitFileStoreMetrics(messageStoreFactory, Tags.of("connector", "client"));
+		ArgumentCaptor<IntConsumer> batchSizeRecorder = ArgumentCaptor.forClass(IntConsumer.class);
+		ArgumentCaptor<LongConsumer> fsyncLatencyRecorder = ArgumentCaptor.forClass(LongConsumer.class);
+
+		// When
+		metrics.bindTo(registry);
+		verify(messageStoreFactory).setCommitBatchSizeRecorder(batchSizeRecorder.capture());
+		verify(messageStoreFactory).setFsyncLatencyRecorder(fsyncLatencyRecorder.capture());
+		batchSizeRecorder.getValue().accept(40);
+		batchSizeRecorder.getValue().accept(60);
+		fsyncLatencyRecorder.getValue().accept(TimeUnit.MILLISECONDS.toNanos(2));
+
+		// Then
+		assertThat(registry.get("quickfixj.store.commits")
+				.tags("connector", "client").functionCounter().count()).isEqualTo(12);
+		assertThat(registry.get("quickfixj.store.commit.pending")
+				.tags("connector", "client").gauge().value()).isEqualTo(3);
+		assertThat(registry.get("quickfixj.store.commit.batch.size")
+				.tags("connector", "client").summary().count()).isEqualTo(2);
+		assertThat(registry.get("quickfixj.store.commit.batch.size")
+				.tags("connector", "client").summary().totalAmount()).isEqualTo(100);
+		assertThat(registry.get("quickfixj.store.fsync.latency")
+				.tags("connector", "client").timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(2);
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.actuate.metrics;
+
+import io.allune.quickfixj.spring.boot.starter.store.OffHeapMemoryStoreFactory;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import quickfix.MessageStore;
+import quickfix.SessionID;
+import quickfix.SessionSettings;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class OffHeapMemoryStoreMetricsTest {
+
+	private final SessionID sessionID = new SessionID("FIX.4.4", "Sender", "Target");
+
+	@Test
+	public void shouldExposeMemoryUsagePerSession() throws IOException {
+		// Given
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		SessionSettings settings = new SessionSettings();
+		settings.setLong(sessionID, OffHeapMemoryStoreFactory.SETTING_OFF_HEAP_STORE_SLAB_SIZE, 4096);
+		settings.setLong(sessionID, OffHeapMemoryStoreFactory.SETTING_OFF_HEAP_STORE_MAX_MESSAGES, 2);
+		OffHeapMemoryStoreFactory messageStoreFactory = new OffHeapMemoryStoreFactory(settings);
+		OffHeapMemoryStoreMetrics metrics = new OffHeapMemoryStoreMetrics(messageStoreFactory, Tags.of("connector", "server"));
+
+		// When
+		metrics.bindTo(registry);
+		MessageStore store = messageStoreFactory.create(sessionID);
+		store.set(1, "12345");
+		store.set(2, "12345");
+		store.set(3, "12345");
+
+		// Then
+		String sessionId = sessionID.toString();
+		assertThat(registry.get("quickfixj.store.offheap.reserved")
+				.tags("connector", "server", "sessionId", sessionId).gauge().value()).isEqualTo(4096);
+		assertThat(registry.get("quickfixj.store.offheap.retained")
+				.tags("connector", "server", "sessionId", sessionId).gauge().value()).isEqualTo(18);
+		assertThat(registry.get("quickfixj.store.offheap.messages")
+				.tags("connector", "server", "sessionId", sessionId).gauge().value()).isEqualTo(2);
+		assertThat(registry.get("quickfixj.store.offheap.evicted")
+				.tags("connector", "server", "sessionId", sessionId).functionCounter().count()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.actuate.metrics;
+
+import io.allune.quickfixj.spring.boot.starter.application.RingBufferEventDispatcher;
+import io.allune.quickfixj.spring.boot.starter.model.Create;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import quickfix.SessionID;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+@ExtendWith(MockitoExtension.class)
+public class RingBufferEventDispatcherMetricsTest {
+
+	private final SessionID firstSessionID = new SessionID("FIX.4.4", "Sender", "Target1");
+
+	private final SessionID secondSessionID = new SessionID("FIX.4.4", "Sender", "Target2");
+
+	@Mock
+	private RingBufferEventDispatcher eventDispatcher;
+
+	@Test
+	public void shouldExposeQueueDepthAndLagPerSession() {
+		// Given
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		given(eventDispatcher.getSessionIDs()).willReturn(Set.of(firstSessionID));
+		given(eventDispatcher.getQueueDepth(firstSessionID)).willReturn(3);
+		given(eventDispatcher.getLag(firstSessionID)).willReturn(Duration.ofMillis(2));
+		given(eventDispatcher.getHighWaterMark(firstSessionID)).willReturn(5);
+		RingBufferEventDispatcherMetrics metrics = new RingBufferEventDispatcherMetrics(eventDispatcher, Tags.of("connector", "client"));
+
+		// When
+		metrics.bindTo(registry);
+
+		// Then
+		assertThat(registry.get("quickfixj.events.queue.depth")
+				.tags("connector", "client", "sessionId", firstSessionID.toString()).gauge().value()).isEqualTo(3);
+		assertThat(registry.get("quickfixj.events.lag")
+				.tags("sessionId", firstSessionID.toString()).timeGauge().value()).isEqualTo(0.002);
+		assertThat(registry.get("quickfixj.events.queue.high.water.mark")
+				.tags("sessionId", firstSessionID.toString()).gauge().value()).isEqualTo(5);
+		assertThat(registry.get("quickfixj.events.dispatch.latency").tags("connector", "client").timer()).isNotNull();
+	}
+
+	@Test
+	public void shouldRegisterMetersGivenSessionCreatedAfterBinding() {
+		// Given
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		given(eventDispatcher.getSessionIDs()).willReturn(Set.of());
+		given(eventDispatcher.getQueueDepth(secondSessionID)).willReturn(1);
+		RingBufferEventDispatcherMetrics metrics = new RingBufferEventDispatcherMetrics(eventDispatcher, Tags.empty());
+		metrics.bindTo(registry);
+
+		// When
+		metrics.onCreate(Create.of(secondSessionID));
+		metrics.onCreate(Create.of(secondSessionID));
+
+		// Then
+		assertThat(registry.get("quickfixj.events.queue.depth")
+				.tags("sessionId", secondSessionID.toString()).gauges()).hasSize(1);
+		assertThat(registry.get("quickfixj.events.queue.depth")
+				.tags("sessionId", secondSessionID.toString()).gauge().value()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.actuate.metrics;
+
+import io.allune.quickfixj.spring.boot.starter.application.StripedEventDispatcher;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+@ExtendWith(MockitoExtension.class)
+public class StripedEventDispatcherMetricsTest {
+
+	@Mock
+	private StripedEventDispatcher eventDispatcher;
+
+	@Test
+	public void shouldExposeQueueDepthPerLane() {
+		// Given
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		given(eventDispatcher.getLaneCount()).willReturn(2);
+		given(eventDispatcher.getQueueDepth(0)).willReturn(3);
+		given(eventDispatcher.getQueueDepth(1)).willReturn(0);
+		StripedEventDispatcherMetrics metrics = new StripedEventDispatcherMetrics(eventDispatcher, Tags.of("connector", "server"));
+
+		// When
+		metrics.bindTo(registry);
+
+		// Then
+		assertThat(registry.get("quickfixj.events.lane.queue.depth")
+				.tags("connector", "server", "lane", "0").gauge().value()).isEqualTo(3);
+		assertThat(registry.get("quickfixj.events.lane.queue.depth")
+				.tags("connector", "server", "lane", "1").gauge().value()).isZero();
+	}
+
+	@Test
+	public void shouldExposeOccupancyDroppedEventsAndDispatchLatency() {
+		// Given
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		given(eventDispatcher.getLaneCount()).willReturn(1);
+		given(eventDispatcher.getQueueCapacity()).willReturn(1024);
+		given(eventDispatcher.getHighWaterMark(0)).willReturn(512);
+		given(eventDispatcher.getDroppedCount()).willReturn(7L);
+		StripedEventDispatcherMetrics metrics = new StripedEventDispatcherMetrics(eventDispatcher, Tags.of("connector", "server"));
+		ArgumentCaptor<LongConsumer> recorder = ArgumentCaptor.forClass(LongConsumer.class);
+
+		// When
+		metrics.bindTo(registry);
+		verify(eventDispatcher).setDispatchLatencyRecorder(recorder.capture());
+		recorder.getValue().accept(TimeUnit.MILLISECONDS.toNanos(3));
+
+		// Then
+		assertThat(registry.get("quickfixj.events.lane.queue.capacity")
+				.tags("connector", "server", "lane", "0").gauge().value()).isEqualTo(1024);
+		assertThat(registry.get("quickfixj.events.lane.queue.high.water.mark")
+				.tags("connector", "server", "lane", "0").gauge().value()).isEqualTo(512);
+		assertThat(registry.get("quickfixj.events.dropped")
+				.tags("connector", "server").functionCounter().count()).isEqualTo(7);
+		assertThat(registry.get("quickfixj.events.dispatch.latency")
+				.tags("connector", "server").timer().count()).isEqualTo(1);
+		assertThat(registry.get("quickfixj.events.dispatch.latency")
+				.tags("connector", "server").timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(3);
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.actuate.metrics;
+
+import io.allune.quickfixj.spring.boot.starter.store.TieredMessageStoreFactory;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+@ExtendWith(MockitoExtension.class)
+public class TieredMessageStoreMetricsTest {
+
+	@Mock
+	private TieredMessageStoreFactory messageStoreFactory;
+
+	@Test
+	public void shouldExposeHitRatioPerTier() {
+		// Given
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		given(messageStoreFactory.getRequestedCount()).willReturn(200L);
+		given(messageStoreFactory.getHotHitCount()).willReturn(150L);
+		given(messageStoreFactory.getColdHitCount()).willReturn(40L);
+		TieredMessageStoreMetrics metrics = new TieredMessageStoreMetrics(messageStoreFactory, Tags.of("connector", "server"));
+
+		// When
+		metrics.bindTo(registry);
+
+		// Then
+		assertThat(registry.get("quickfixj.store.tier.requests")
+				.tags("connector", "server").functionCounter().count()).isEqualTo(200);
+		assertThat(registry.get("quickfixj.store.tier.hits")
+				.tags("connector", "server", "tier", "hot").functionCounter().count()).isEqualTo(150);
+		assertThat(registry.get("quickfixj.store.tier.hits")
+				.tags("connector", "server", "tier", "cold").functionCounter().count()).isEqualTo(40);
+		assertThat(registry.get("quickfixj.store.tier.hit.ratio")
+				.tags("connector", "server", "tier", "hot").gauge().value()).isEqualTo(0.75);
+		assertThat(registry.get("quickfixj.store.tier.hit.ratio")
+				.tags("connector", "server", "tier", "cold").gauge().value()).isEqualTo(0.2);
+	}
+}
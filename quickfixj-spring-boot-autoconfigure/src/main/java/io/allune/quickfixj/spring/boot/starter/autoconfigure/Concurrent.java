@@ -16,6 +16,7 @@
 package io.allune.quickfixj.spring.boot.starter.autoconfigure;
 
 import lombok.Data;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
 /**
  * Defines the threading model that the {@link quickfix.Connector} should use.
@@ -38,18 +39,19 @@ public class Concurrent {
 	private boolean useDefaultExecutorFactory = false;
 
 	/**
-	 * Queue capacity. An unbounded capacity does not increase the pool and therefore
-	 * ignores the "max-size" property.
+	 * Queue capacity of the long-lived executor. The long-lived tasks (e.g. the session threads) never complete,
+	 * so the default capacity of 0 hands each of them off to a new thread, up to "max-pool-size". A larger capacity
+	 * does not increase the pool until the queue is full, leaving the queued sessions without a thread.
 	 */
-	private int queueCapacity = Integer.MAX_VALUE;
+	private int queueCapacity = 0;
 
 	/**
-	 * Core number of threads.
+	 * Core number of threads of the long-lived executor.
 	 */
 	private int corePoolSize = 8;
 
 	/**
-	 * Maximum allowed number of threads. If tasks are filling up the queue, the pool
+	 * Maximum allowed number of threads of the long-lived executor. If tasks are filling up the queue, the pool
 	 * can expand up to that size to accommodate the load. Ignored if the queue is
 	 * unbounded.
 	 */
@@ -77,7 +79,32 @@ public class Concurrent {
 	private int awaitTerminationSeconds = 0;
 
 	/**
-	 * Prefix to use for the names of newly created threads.
+	 * Prefix to use for the names of newly created threads of the long-lived executor.
 	 */
 	private String threadNamePrefix = "QuickFixJ Spring Boot Starter thread-";
+
+	/**
+	 * How the long-lived executor handles the tasks when both its pool and its queue are full.
+	 */
+	private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+
+	/**
+	 * The short-lived executor of the default {@link quickfix.ExecutorFactory}, sized independently of the
+	 * long-lived one.
+	 */
+	@NestedConfigurationProperty
+	private ShortLivedExecutor shortLived = new ShortLivedExecutor();
+
+	/**
+	 * Whether the default {@link quickfix.ExecutorFactory} and the {@code striped} event lanes should run on virtual
+	 * threads instead of platform threads. Ignored, falling back to platform threads, if the JVM does not support
+	 * virtual threads (Java 21 or later).
+	 */
+	private boolean virtualThreads = false;
+
+	/**
+	 * Number of single-threaded lanes delivering the events to the listeners when the events are dispatched with
+	 * the {@code striped} dispatcher. Defaults to the number of available processors.
+	 */
+	private int eventLanes = Runtime.getRuntime().availableProcessors();
 }
@@ -63,6 +63,12 @@ public class ConnectorConfig {
 	@NestedConfigurationProperty
 	private Concurrent concurrent = new Concurrent();
 
+	/**
+	 * Configures the dispatch of the events to the listeners.
+	 */
+	@NestedConfigurationProperty
+	private Events events = new Events();
+
 	/**
 	 * Configures the message store factory to use.
 	 */
@@ -78,6 +84,34 @@ public class ConnectorConfig {
 	 */
 	private boolean forceDisconnect = false;
 
+	/**
+	 * Configures the session lookup handler used by the QuickFixJTemplate.
+	 */
+	private SessionLookupMethod sessionLookup = SessionLookupMethod.CACHING;
+
+	/**
+	 * Whether to measure the heartbeat round-trip time of the sessions, used by the LowestHeartbeatRttRoutingStrategy.
+	 */
+	private boolean heartbeatRttTracking = false;
+
+	/**
+	 * Configures the validation of the messages sent through the QuickFixJTemplate.
+	 */
+	@NestedConfigurationProperty
+	private Validation validation = new Validation();
+
+	/**
+	 * Configures the ReactiveQuickFixJTemplate.
+	 */
+	@NestedConfigurationProperty
+	private Reactive reactive = new Reactive();
+
+	/**
+	 * Configures the streaming of the resend ranges.
+	 */
+	@NestedConfigurationProperty
+	private Resend resend = new Resend();
+
 	/**
 	 * Configures the actuator health options.
 	 */
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.autoconfigure;
+
+import io.allune.quickfixj.spring.boot.starter.application.OverflowPolicy;
+import io.allune.quickfixj.spring.boot.starter.application.QuickFixJReactiveEvents.BackpressureStrategy;
+import io.allune.quickfixj.spring.boot.starter.application.RingBufferEventDispatcher.WaitStrategy;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Defines how the events published from the QuickFIX/J {@link quickfix.Application} callbacks are dispatched to the
+ * listeners.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+@Data
+public class Events {
+
+	/**
+	 * How the events are dispatched to the listeners.
+	 */
+	private EventDispatchMethod dispatch = EventDispatchMethod.SYNC;
+
+	/**
+	 * Whether to skip the creation and publication of the events of the callback types without listeners.
+	 */
+	private boolean skipWithoutListeners = true;
+
+	/**
+	 * Number of slots of the ring buffer of each session, rounded up to a power of two.
+	 */
+	private int ringBufferSize = 1024;
+
+	/**
+	 * Number of threads delivering the events from the ring buffers to the listeners.
+	 */
+	private int consumerThreads = 1;
+
+	/**
+	 * How the consumer threads wait for events.
+	 */
+	private WaitStrategy waitStrategy = WaitStrategy.BLOCKING;
+
+	/**
+	 * Maximum number of events waiting in the queue of each lane of the striped dispatcher.
+	 */
+	private int queueCapacity = 65536;
+
+	/**
+	 * What to do with the events dispatched while the ring buffer or the lane queue is full.
+	 */
+	private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+	/**
+	 * Whether to deliver the FromApp events of each session in batches, as FromAppBatch events.
+	 */
+	private boolean batchEnabled = false;
+
+	/**
+	 * Number of FromApp events delivering a batch.
+	 */
+	private int batchSize = 100;
+
+	/**
+	 * Maximum time the first FromApp event of a batch waits before the batch is delivered.
+	 */
+	private Duration batchWindow = Duration.ofMillis(1);
+
+	/**
+	 * Maximum number of completed batches waiting to be delivered, beyond which the thread completing a batch waits.
+	 */
+	private int batchQueueCapacity = 1024;
+
+	/**
+	 * What the subscribers of the QuickFixJReactiveEvents streams do with the events emitted faster than they request
+	 * them.
+	 */
+	private BackpressureStrategy reactiveBackpressure = BackpressureStrategy.BUFFER;
+
+	/**
+	 * Maximum number of events buffered per subscriber of the QuickFixJReactiveEvents streams when using the buffer
+	 * backpressure strategy.
+	 */
+	private int reactiveBufferSize = 256;
+
+	/**
+	 * Whether to also publish the ReusableFromApp, ReusableToApp, ReusableFromAdmin and ReusableToAdmin events, reused
+	 * for the callbacks of each session and only valid while their listeners are invoked.
+	 */
+	private boolean reusableEvents = false;
+
+	/**
+	 * Whether to create a new reusable event for every callback, so that the events accessed after their callback has
+	 * returned are reliably detected.
+	 */
+	private boolean reusableEventsDebug = false;
+}
@@ -26,11 +26,19 @@ public enum MessageStoreMethod {
 
 	FILE,
 
+	GROUPCOMMIT,
+
 	JDBC,
 
 	MEMORY,
 
+	MMAP,
+
 	NOOP,
 
-	SLEEPYCAT
+	OFFHEAP,
+
+	SLEEPYCAT,
+
+	TIERED
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.autoconfigure;
+
+import io.allune.quickfixj.spring.boot.starter.template.ReactiveQuickFixJTemplate.OverflowStrategy;
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+public class Reactive {
+
+	/**
+	 * What to do with the messages emitted faster than they can be sent by ReactiveQuickFixJTemplate.sendHot.
+	 */
+	private OverflowStrategy overflowStrategy = OverflowStrategy.BUFFER;
+
+	/**
+	 * Maximum number of messages buffered per stream when using the buffer overflow strategy.
+	 */
+	private int bufferSize = 256;
+
+	/**
+	 * Interval at which the state of a logged out session is checked before resuming a stream.
+	 */
+	private Duration logonCheckInterval = Duration.ofMillis(100);
+
+	/**
+	 * Maximum time to wait for a session to be logged on before failing a stream. Waits indefinitely if not set.
+	 */
+	private Duration logonTimeout;
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.autoconfigure;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Defines how the executors of the default {@link quickfix.ExecutorFactory} handle the tasks submitted when both
+ * their pool and their queue are full.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public enum RejectionPolicy {
+
+	/**
+	 * Throws a {@link java.util.concurrent.RejectedExecutionException}.
+	 */
+	ABORT,
+
+	/**
+	 * Runs the task on the submitting thread.
+	 */
+	CALLER_RUNS,
+
+	/**
+	 * Silently discards the task.
+	 */
+	DISCARD,
+
+	/**
+	 * Discards the oldest queued task and submits the task again.
+	 */
+	DISCARD_OLDEST;
+
+	/**
+	 * Creates the {@link RejectedExecutionHandler} implementing this policy.
+	 *
+	 * @return a new {@link RejectedExecutionHandler}
+	 */
+	public RejectedExecutionHandler createHandler() {
+		return switch (this) {
+			case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+			case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+			case DISCARD -> new ThreadPoolExecutor.DiscardPolicy();
+			case DISCARD_OLDEST -> new ThreadPoolExecutor.DiscardOldestPolicy();
+		};
+	}
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.autoconfigure;
+
+import lombok.Data;
+
+@Data
+public class Resend {
+
+	/**
+	 * Whether to create the ResendStream bean streaming the stored messages of a resend range in chunks.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Maximum number of stored messages held in memory at a time when streaming a resend range.
+	 */
+	private int chunkSize = 1000;
+
+	/**
+	 * Maximum number of messages per second streamed when serving a resend range. Unpaced if set to 0.
+	 */
+	private double rate = 0;
+}
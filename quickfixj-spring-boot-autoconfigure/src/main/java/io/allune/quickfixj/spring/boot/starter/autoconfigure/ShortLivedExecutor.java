@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.autoconfigure;
+
+import lombok.Data;
+
+/**
+ * Defines the pool of the short-lived executor of the default {@link quickfix.ExecutorFactory}, which runs the
+ * short tasks of the connector, e.g. the timer tasks, separately from the long-lived session threads.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+@Data
+public class ShortLivedExecutor {
+
+	/**
+	 * Queue capacity.
+	 */
+	private int queueCapacity = 1000;
+
+	/**
+	 * Core number of threads.
+	 */
+	private int corePoolSize = 2;
+
+	/**
+	 * Maximum allowed number of threads. If tasks are filling up the queue, the pool
+	 * can expand up to that size to accommodate the load.
+	 */
+	private int maxPoolSize = 8;
+
+	/**
+	 * Whether core threads are allowed to time out.
+	 */
+	private boolean allowCoreThreadTimeOut = true;
+
+	/**
+	 * Time limit for which threads may remain idle before being terminated.
+	 */
+	private int keepAliveSeconds = 60;
+
+	/**
+	 * Prefix to use for the names of newly created threads.
+	 */
+	private String threadNamePrefix = "QuickFixJ Spring Boot Starter short-lived thread-";
+
+	/**
+	 * How the tasks are handled when both the pool and the queue are full.
+	 */
+	private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+}
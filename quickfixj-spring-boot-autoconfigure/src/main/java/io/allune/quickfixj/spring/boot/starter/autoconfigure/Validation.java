@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.autoconfigure;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class Validation {
+
+	/**
+	 * The validation policy applied to the messages sent through the QuickFixJTemplate.
+	 */
+	private ValidationMethod policy = ValidationMethod.ALWAYS;
+
+	/**
+	 * Number of messages of each MsgType validated before sampling starts. Only used by the sampling policy.
+	 */
+	private long initialCount = 10;
+
+	/**
+	 * Validate one in every {@code sampleRate} messages of each MsgType once the initial count is reached, or none
+	 * if set to 0. Only used by the sampling policy.
+	 */
+	private long sampleRate = 100;
+
+	/**
+	 * The MsgTypes the validation policy applies to. Messages of other MsgTypes are not validated. The policy
+	 * applies to all MsgTypes if empty.
+	 */
+	private List<String> msgTypes = new ArrayList<>();
+
+	/**
+	 * Whether to validate the messages with validators precompiled per MsgType from the data dictionary. They
+	 * do not check the data format of the values nor the order of the fields.
+	 */
+	private boolean precompiled = false;
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.autoconfigure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.system.JavaVersion;
+
+/**
+ * Detects whether the virtual threads requested by the {@link Concurrent} properties can be used by the running JVM.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+@Slf4j
+public final class VirtualThreads {
+
+	private VirtualThreads() {
+	}
+
+	/**
+	 * Returns whether the running JVM supports virtual threads, i.e. it is Java 21 or later.
+	 *
+	 * @return true if virtual threads are available, false otherwise
+	 */
+	public static boolean isAvailable() {
+		return JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE);
+	}
+
+	/**
+	 * Returns whether virtual threads should be used, i.e. they are enabled in the provided properties and available.
+	 * Logs a warning if they are enabled but not available.
+	 *
+	 * @param concurrent the {@link Concurrent} properties
+	 * @return true if virtual threads should be used, false otherwise
+	 */
+	public static boolean isEnabled(Concurrent concurrent) {
+		if (!concurrent.isVirtualThreads()) {
+			return false;
+		}
+		if (!isAvailable()) {
+			log.warn("Virtual threads are not available on Java {}, falling back to platform threads", JavaVersion.getJavaVersion());
+			return false;
+		}
+		return true;
+	}
+}
@@ -17,6 +17,20 @@ package io.allune.quickfixj.spring.boot.starter.autoconfigure.client;
 
 import io.allune.quickfixj.spring.boot.actuate.endpoint.QuickFixJClientEndpoint;
 import io.allune.quickfixj.spring.boot.actuate.health.QuickFixJSessionHealthIndicator;
+import io.allune.quickfixj.spring.boot.actuate.metrics.ExecutorFactoryMetrics;
+import io.allune.quickfixj.spring.boot.actuate.metrics.GroupCommitFileStoreMetrics;
+import io.allune.quickfixj.spring.boot.actuate.metrics.OffHeapMemoryStoreMetrics;
+import io.allune.quickfixj.spring.boot.actuate.metrics.RingBufferEventDispatcherMetrics;
+import io.allune.quickfixj.spring.boot.actuate.metrics.StripedEventDispatcherMetrics;
+import io.allune.quickfixj.spring.boot.actuate.metrics.TieredMessageStoreMetrics;
+import io.allune.quickfixj.spring.boot.starter.application.RingBufferEventDispatcher;
+import io.allune.quickfixj.spring.boot.starter.application.StripedEventDispatcher;
+import io.allune.quickfixj.spring.boot.starter.store.GroupCommitFileStoreFactory;
+import io.allune.quickfixj.spring.boot.starter.store.OffHeapMemoryStoreFactory;
+import io.allune.quickfixj.spring.boot.starter.store.TieredMessageStoreFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
 import org.springframework.boot.actuate.autoconfigure.health.ConditionalOnEnabledHealthIndicator;
 import org.springframework.boot.actuate.endpoint.Sanitizer;
@@ -33,6 +47,10 @@ import quickfix.Initiator;
 import quickfix.SessionScheduleFactory;
 import quickfix.SessionSettings;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
 /**
  * {@link EnableAutoConfiguration Auto-configuration} for {@link QuickFixJClientEndpoint}.
  *
@@ -67,6 +85,60 @@ public class QuickFixJClientActuatorAutoConfiguration {
 		return new QuickFixJSessionHealthIndicator(clientInitiator, sessionSchedule, clientSessionSettings);
 	}
 
+	@Bean
+	@ConditionalOnBean(RingBufferEventDispatcher.class)
+	@ConditionalOnClass(MeterRegistry.class)
+	@ConditionalOnMissingBean
+	public RingBufferEventDispatcherMetrics clientEventDispatcherMetrics(RingBufferEventDispatcher clientEventDispatcher) {
+		return new RingBufferEventDispatcherMetrics(clientEventDispatcher, Tags.of("connector", "client"));
+	}
+
+	@Bean
+	@ConditionalOnBean(StripedEventDispatcher.class)
+	@ConditionalOnClass(MeterRegistry.class)
+	@ConditionalOnMissingBean
+	public StripedEventDispatcherMetrics clientStripedEventDispatcherMetrics(StripedEventDispatcher clientStripedEventDispatcher) {
+		return new StripedEventDispatcherMetrics(clientStripedEventDispatcher, Tags.of("connector", "client"));
+	}
+
+	@Bean
+	@ConditionalOnBean(GroupCommitFileStoreFactory.class)
+	@ConditionalOnClass(MeterRegistry.class)
+	@ConditionalOnMissingBean
+	public GroupCommitFileStoreMetrics clientGroupCommitFileStoreMetrics(GroupCommitFileStoreFactory clientMessageStoreFactory) {
+		return new GroupCommitFileStoreMetrics(clientMessageStoreFactory, Tags.of("connector", "client"));
+	}
+
+	@Bean
+	@ConditionalOnBean(OffHeapMemoryStoreFactory.class)
+	@ConditionalOnClass(MeterRegistry.class)
+	@ConditionalOnMissingBean
+	public OffHeapMemoryStoreMetrics clientOffHeapMemoryStoreMetrics(OffHeapMemoryStoreFactory clientMessageStoreFactory) {
+		return new OffHeapMemoryStoreMetrics(clientMessageStoreFactory, Tags.of("connector", "client"));
+	}
+
+	@Bean
+	@ConditionalOnBean(TieredMessageStoreFactory.class)
+	@ConditionalOnClass(MeterRegistry.class)
+	@ConditionalOnMissingBean
+	public TieredMessageStoreMetrics clientTieredMessageStoreMetrics(TieredMessageStoreFactory clientMessageStoreFactory) {
+		return new TieredMessageStoreMetrics(clientMessageStoreFactory, Tags.of("connector", "client"));
+	}
+
+	@Bean
+	@ConditionalOnBean(name = {"clientTaskExecutor", "clientShortLivedTaskExecutor"})
+	@ConditionalOnClass(MeterRegistry.class)
+	@ConditionalOnMissingBean(name = "clientExecutorFactoryMetrics")
+	public ExecutorFactoryMetrics clientExecutorFactoryMetrics(
+			@Qualifier("clientTaskExecutor") Executor clientTaskExecutor,
+			@Qualifier("clientShortLivedTaskExecutor") Executor clientShortLivedTaskExecutor
+	) {
+		Map<String, Executor> executors = new LinkedHashMap<>();
+		executors.put("long-lived", clientTaskExecutor);
+		executors.put("short-lived", clientShortLivedTaskExecutor);
+		return new ExecutorFactoryMetrics(executors, Tags.of("connector", "client"));
+	}
+
 	@Bean
 	@ConditionalOnMissingBean
 	public SessionScheduleFactory sessionSchedule() {
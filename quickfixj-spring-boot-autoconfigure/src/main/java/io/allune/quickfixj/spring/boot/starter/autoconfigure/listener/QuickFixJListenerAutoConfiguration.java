@@ -0,0 +1,60 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.autoconfigure.listener;
+
+import io.allune.quickfixj.spring.boot.starter.listener.QuickFixJListener;
+import io.allune.quickfixj.spring.boot.starter.listener.QuickFixJListenerMethodProcessor;
+import io.allune.quickfixj.spring.boot.starter.listener.QuickFixJListenerRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import quickfix.Session;
+
+/**
+ * {@link EnableAutoConfiguration Auto-configuration} for the {@link QuickFixJListener} methods.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+@AutoConfiguration
+@ConditionalOnClass(Session.class)
+public class QuickFixJListenerAutoConfiguration {
+
+	/**
+	 * Creates a {@link QuickFixJListenerRegistry}
+	 *
+	 * @return A {@link QuickFixJListenerRegistry}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public QuickFixJListenerRegistry quickFixJListenerRegistry() {
+		return new QuickFixJListenerRegistry();
+	}
+
+	/**
+	 * Creates a {@link QuickFixJListenerMethodProcessor} registering the {@link QuickFixJListener} methods in the
+	 * {@link QuickFixJListenerRegistry}
+	 *
+	 * @param quickFixJListenerRegistry The {@link QuickFixJListenerRegistry}
+	 * @return A {@link QuickFixJListenerMethodProcessor}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public QuickFixJListenerMethodProcessor quickFixJListenerMethodProcessor(QuickFixJListenerRegistry quickFixJListenerRegistry) {
+		return new QuickFixJListenerMethodProcessor(quickFixJListenerRegistry);
+	}
+}
@@ -17,6 +17,20 @@ package io.allune.quickfixj.spring.boot.starter.autoconfigure.server;
 
 import io.allune.quickfixj.spring.boot.actuate.endpoint.QuickFixJServerEndpoint;
 import io.allune.quickfixj.spring.boot.actuate.health.QuickFixJSessionHealthIndicator;
+import io.allune.quickfixj.spring.boot.actuate.metrics.ExecutorFactoryMetrics;
+import io.allune.quickfixj.spring.boot.actuate.metrics.GroupCommitFileStoreMetrics;
+import io.allune.quickfixj.spring.boot.actuate.metrics.OffHeapMemoryStoreMetrics;
+import io.allune.quickfixj.spring.boot.actuate.metrics.RingBufferEventDispatcherMetrics;
+import io.allune.quickfixj.spring.boot.actuate.metrics.StripedEventDispatcherMetrics;
+import io.allune.quickfixj.spring.boot.actuate.metrics.TieredMessageStoreMetrics;
+import io.allune.quickfixj.spring.boot.starter.application.RingBufferEventDispatcher;
+import io.allune.quickfixj.spring.boot.starter.application.StripedEventDispatcher;
+import io.allune.quickfixj.spring.boot.starter.store.GroupCommitFileStoreFactory;
+import io.allune.quickfixj.spring.boot.starter.store.OffHeapMemoryStoreFactory;
+import io.allune.quickfixj.spring.boot.starter.store.TieredMessageStoreFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
 import org.springframework.boot.actuate.autoconfigure.health.ConditionalOnEnabledHealthIndicator;
 import org.springframework.boot.actuate.endpoint.Sanitizer;
@@ -33,6 +47,10 @@ import quickfix.DefaultSessionScheduleFactory;
 import quickfix.SessionScheduleFactory;
 import quickfix.SessionSettings;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
 /**
  * {@link EnableAutoConfiguration Auto-configuration} for {@link QuickFixJServerEndpoint}.
  *
@@ -67,6 +85,60 @@ public class QuickFixJServerActuatorAutoConfiguration {
 		return new QuickFixJSessionHealthIndicator(serverAcceptor, sessionSchedule, clientSessionSettings);
 	}
 
+	@Bean
+	@ConditionalOnBean(RingBufferEventDispatcher.class)
+	@ConditionalOnClass(MeterRegistry.class)
+	@ConditionalOnMissingBean
+	public RingBufferEventDispatcherMetrics serverEventDispatcherMetrics(RingBufferEventDispatcher serverEventDispatcher) {
+		return new RingBufferEventDispatcherMetrics(serverEventDispatcher, Tags.of("connector", "server"));
+	}
+
+	@Bean
+	@ConditionalOnBean(StripedEventDispatcher.class)
+	@ConditionalOnClass(MeterRegistry.class)
+	@ConditionalOnMissingBean
+	public StripedEventDispatcherMetrics serverStripedEventDispatcherMetrics(StripedEventDispatcher serverStripedEventDispatcher) {
+		return new StripedEventDispatcherMetrics(serverStripedEventDispatcher, Tags.of("connector", "server"));
+	}
+
+	@Bean
+	@ConditionalOnBean(GroupCommitFileStoreFactory.class)
+	@ConditionalOnClass(MeterRegistry.class)
+	@ConditionalOnMissingBean
+	public GroupCommitFileStoreMetrics serverGroupCommitFileStoreMetrics(GroupCommitFileStoreFactory serverMessageStoreFactory) {
+		return new GroupCommitFileStoreMetrics(serverMessageStoreFactory, Tags.of("connector", "server"));
+	}
+
+	@Bean
+	@ConditionalOnBean(OffHeapMemoryStoreFactory.class)
+	@ConditionalOnClass(MeterRegistry.class)
+	@ConditionalOnMissingBean
+	public OffHeapMemoryStoreMetrics serverOffHeapMemoryStoreMetrics(OffHeapMemoryStoreFactory serverMessageStoreFactory) {
+		return new OffHeapMemoryStoreMetrics(serverMessageStoreFactory, Tags.of("connector", "server"));
+	}
+
+	@Bean
+	@ConditionalOnBean(TieredMessageStoreFactory.class)
+	@ConditionalOnClass(MeterRegistry.class)
+	@ConditionalOnMissingBean
+	public TieredMessageStoreMetrics serverTieredMessageStoreMetrics(TieredMessageStoreFactory serverMessageStoreFactory) {
+		return new TieredMessageStoreMetrics(serverMessageStoreFactory, Tags.of("connector", "server"));
+	}
+
+	@Bean
+	@ConditionalOnBean(name = {"serverTaskExecutor", "serverShortLivedTaskExecutor"})
+	@ConditionalOnClass(MeterRegistry.class)
+	@ConditionalOnMissingBean(name = "serverExecutorFactoryMetrics")
+	public ExecutorFactoryMetrics serverExecutorFactoryMetrics(
+			@Qualifier("serverTaskExecutor") Executor serverTaskExecutor,
+			@Qualifier("serverShortLivedTaskExecutor") Executor serverShortLivedTaskExecutor
+	) {
+		Map<String, Executor> executors = new LinkedHashMap<>();
+		executors.put("long-lived", serverTaskExecutor);
+		executors.put("short-lived", serverShortLivedTaskExecutor);
+		return new ExecutorFactoryMetrics(executors, Tags.of("connector", "server"));
+	}
+
 	@Bean
 	@ConditionalOnMissingBean
 	public SessionScheduleFactory sessionSchedule() {
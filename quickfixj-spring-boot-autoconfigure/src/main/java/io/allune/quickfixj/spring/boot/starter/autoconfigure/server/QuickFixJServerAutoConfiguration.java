@@ -15,15 +15,36 @@
  */
 package io.allune.quickfixj.spring.boot.starter.autoconfigure.server;
 
+import io.allune.quickfixj.spring.boot.starter.application.EventDispatcher;
 import io.allune.quickfixj.spring.boot.starter.application.EventPublisherApplicationAdapter;
+import io.allune.quickfixj.spring.boot.starter.application.FromAppBatcher;
+import io.allune.quickfixj.spring.boot.starter.application.ListenerTrackingApplicationEventMulticaster;
+import io.allune.quickfixj.spring.boot.starter.application.QuickFixJReactiveEvents;
+import io.allune.quickfixj.spring.boot.starter.application.RingBufferEventDispatcher;
+import io.allune.quickfixj.spring.boot.starter.application.StripedEventDispatcher;
+import io.allune.quickfixj.spring.boot.starter.autoconfigure.Concurrent;
+import io.allune.quickfixj.spring.boot.starter.autoconfigure.Events;
 import io.allune.quickfixj.spring.boot.starter.autoconfigure.QuickFixJBootProperties;
+import io.allune.quickfixj.spring.boot.starter.autoconfigure.Resend;
+import io.allune.quickfixj.spring.boot.starter.autoconfigure.ShortLivedExecutor;
+import io.allune.quickfixj.spring.boot.starter.autoconfigure.VirtualThreads;
 import io.allune.quickfixj.spring.boot.starter.connection.ConnectorManager;
+import io.allune.quickfixj.spring.boot.starter.connection.CountingRejectedExecutionHandler;
 import io.allune.quickfixj.spring.boot.starter.connection.SessionSettingsLocator;
 import io.allune.quickfixj.spring.boot.starter.exception.ConfigurationException;
+import io.allune.quickfixj.spring.boot.starter.model.ReusableEventPool;
+import io.allune.quickfixj.spring.boot.starter.store.GroupCommitFileStoreFactory;
+import io.allune.quickfixj.spring.boot.starter.store.MappedFileStoreFactory;
+import io.allune.quickfixj.spring.boot.starter.store.OffHeapMemoryStoreFactory;
+import io.allune.quickfixj.spring.boot.starter.store.ResendStream;
+import io.allune.quickfixj.spring.boot.starter.store.TieredMessageStoreFactory;
+import io.allune.quickfixj.spring.boot.starter.template.HeartbeatRttTracker;
 import org.quickfixj.jmx.JmxExporter;
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -33,7 +54,10 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.support.AbstractApplicationContext;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import quickfix.Acceptor;
 import quickfix.Application;
@@ -57,6 +81,7 @@ import quickfix.SessionSettings;
 import quickfix.SleepycatStoreFactory;
 import quickfix.SocketAcceptor;
 import quickfix.ThreadedSocketAcceptor;
+import reactor.core.publisher.Flux;
 
 import javax.management.ObjectName;
 import java.util.List;
@@ -112,12 +137,178 @@ public class QuickFixJServerAutoConfiguration {
 	 * {@link Acceptor acceptor} connector
 	 *
 	 * @param applicationEventPublisher Spring's default {@link ApplicationEventPublisher}
+	 * @param serverEventDispatcher     Optional server's {@link EventDispatcher}
+	 * @param serverReactiveEvents      Optional server's {@link QuickFixJReactiveEvents} fed directly from the callbacks
+	 * @param serverReusableEventPool   Optional server's {@link ReusableEventPool} of the reusable message events
+	 * @param heartbeatRttTracker       Optional {@link HeartbeatRttTracker} fed directly from the administrative callbacks
+	 * @param applicationEventMulticaster Optional {@link ListenerTrackingApplicationEventMulticaster} used to skip
+	 *                                    the events without listeners
 	 * @return The default server's {@link Application application} bean
 	 */
 	@Bean
 	@ConditionalOnMissingBean
-	public Application serverApplication(ApplicationEventPublisher applicationEventPublisher) {
-		return new EventPublisherApplicationAdapter(applicationEventPublisher);
+	public Application serverApplication(
+			ApplicationEventPublisher applicationEventPublisher,
+			Optional<EventDispatcher> serverEventDispatcher,
+			Optional<QuickFixJReactiveEvents> serverReactiveEvents,
+			Optional<ReusableEventPool> serverReusableEventPool,
+			Optional<HeartbeatRttTracker> heartbeatRttTracker,
+			Optional<ListenerTrackingApplicationEventMulticaster> applicationEventMulticaster
+	) {
+		EventPublisherApplicationAdapter serverApplication = serverEventDispatcher
+				.map(EventPublisherApplicationAdapter::new)
+				.orElseGet(() -> new EventPublisherApplicationAdapter(applicationEventPublisher));
+		applicationEventMulticaster.ifPresent(serverApplication::setEventMulticaster);
+		serverReactiveEvents.ifPresent(serverApplication::setReactiveEvents);
+		serverReusableEventPool.ifPresent(pool -> serverApplication.setReusableEventPool(pool, applicationEventPublisher));
+		heartbeatRttTracker.ifPresent(serverApplication::setHeartbeatRttTracker);
+		return serverApplication;
+	}
+
+	/**
+	 * Creates the application context's {@link ListenerTrackingApplicationEventMulticaster} unless
+	 * {@code quickfixj.server.events.skip-without-listeners} is set to {@code false}, used by the server's
+	 * {@link Application application} to skip the events without listeners
+	 *
+	 * @param beanFactory The {@link BeanFactory} used to resolve the listener beans
+	 * @return The application context's {@link ListenerTrackingApplicationEventMulticaster}
+	 */
+	@Bean(name = AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME)
+	@ConditionalOnMissingBean(name = AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME)
+	@ConditionalOnProperty(prefix = "quickfixj.server.events", name = "skip-without-listeners", havingValue = "true", matchIfMissing = true)
+	public static ListenerTrackingApplicationEventMulticaster applicationEventMulticaster(BeanFactory beanFactory) {
+		return new ListenerTrackingApplicationEventMulticaster(beanFactory);
+	}
+
+	/**
+	 * Creates the server's {@link RingBufferEventDispatcher} if {@code quickfixj.server.events.dispatch} is set to
+	 * {@code ring-buffer}, used by the server's {@link Application application} to deliver the events to the listeners
+	 * off the QuickFIX/J session threads
+	 *
+	 * @param applicationEventPublisher Spring's default {@link ApplicationEventPublisher}
+	 * @param properties                The {@link QuickFixJBootProperties QuickFix/J Spring Boot properties}
+	 * @return The server's {@link RingBufferEventDispatcher}
+	 */
+	@Bean
+	@ConditionalOnMissingBean(EventDispatcher.class)
+	@ConditionalOnProperty(prefix = "quickfixj.server.events", name = "dispatch", havingValue = "ring-buffer")
+	public RingBufferEventDispatcher serverEventDispatcher(
+			ApplicationEventPublisher applicationEventPublisher,
+			QuickFixJBootProperties properties
+	) {
+		Events events = properties.getServer().getEvents();
+		return new RingBufferEventDispatcher(
+				applicationEventPublisher::publishEvent,
+				events.getRingBufferSize(),
+				events.getConsumerThreads(),
+				events.getWaitStrategy(),
+				events.getOverflowPolicy());
+	}
+
+	/**
+	 * Creates the server's {@link StripedEventDispatcher} if {@code quickfixj.server.events.dispatch} is set to
+	 * {@code striped}, used by the server's {@link Application application} to deliver the events to the listeners
+	 * off the QuickFIX/J session threads while keeping the ordering per session
+	 *
+	 * @param applicationEventPublisher Spring's default {@link ApplicationEventPublisher}
+	 * @param properties                The {@link QuickFixJBootProperties QuickFix/J Spring Boot properties}
+	 * @return The server's {@link StripedEventDispatcher}
+	 */
+	@Bean
+	@ConditionalOnMissingBean(EventDispatcher.class)
+	@ConditionalOnProperty(prefix = "quickfixj.server.events", name = "dispatch", havingValue = "striped")
+	public StripedEventDispatcher serverStripedEventDispatcher(
+			ApplicationEventPublisher applicationEventPublisher,
+			QuickFixJBootProperties properties
+	) {
+		Concurrent concurrent = properties.getServer().getConcurrent();
+		Events events = properties.getServer().getEvents();
+		if (VirtualThreads.isEnabled(concurrent)) {
+			return new StripedEventDispatcher(
+					applicationEventPublisher::publishEvent,
+					concurrent.getEventLanes(),
+					events.getQueueCapacity(),
+					events.getOverflowPolicy(),
+					new VirtualThreadTaskExecutor(StripedEventDispatcher.DEFAULT_THREAD_NAME_PREFIX).getVirtualThreadFactory());
+		}
+		return new StripedEventDispatcher(
+				applicationEventPublisher::publishEvent,
+				concurrent.getEventLanes(),
+				events.getQueueCapacity(),
+				events.getOverflowPolicy());
+	}
+
+	/**
+	 * Creates the server's {@link FromAppBatcher} if {@code quickfixj.server.events.batch-enabled} is set to
+	 * {@code true}, used to deliver the FromApp events of each session in batches
+	 *
+	 * @param applicationEventPublisher Spring's default {@link ApplicationEventPublisher}
+	 * @param properties                The {@link QuickFixJBootProperties QuickFix/J Spring Boot properties}
+	 * @return The server's {@link FromAppBatcher}
+	 */
+	@Bean
+	@ConditionalOnMissingBean(FromAppBatcher.class)
+	@ConditionalOnProperty(prefix = "quickfixj.server.events", name = "batch-enabled", havingValue = "true")
+	public FromAppBatcher serverFromAppBatcher(
+			ApplicationEventPublisher applicationEventPublisher,
+			QuickFixJBootProperties properties
+	) {
+		Events events = properties.getServer().getEvents();
+		return new FromAppBatcher(applicationEventPublisher::publishEvent, events.getBatchSize(), events.getBatchWindow(),
+				events.getBatchQueueCapacity());
+	}
+
+	/**
+	 * Creates the server's {@link ReusableEventPool} if {@code quickfixj.server.events.reusable-events} is set to
+	 * {@code true}, used by the server's {@link Application application} to publish the reusable message events
+	 *
+	 * @param properties The {@link QuickFixJBootProperties QuickFix/J Spring Boot properties}
+	 * @return The server's {@link ReusableEventPool}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "quickfixj.server.events", name = "reusable-events", havingValue = "true")
+	public ReusableEventPool serverReusableEventPool(QuickFixJBootProperties properties) {
+		return new ReusableEventPool(properties.getServer().getEvents().isReusableEventsDebug());
+	}
+
+	/**
+	 * Creates the server's {@link ResendStream} if {@code quickfixj.server.resend.enabled} is set to {@code true},
+	 * streaming the stored messages of a resend range in chunks
+	 *
+	 * @param properties The {@link QuickFixJBootProperties QuickFix/J Spring Boot properties}
+	 * @return The server's {@link ResendStream}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "quickfixj.server.resend", name = "enabled", havingValue = "true")
+	public ResendStream serverResendStream(QuickFixJBootProperties properties) {
+		Resend resend = properties.getServer().getResend();
+		return new ResendStream(resend.getChunkSize(), resend.getRate());
+	}
+
+	/**
+	 * Grouping the creation of the server's {@link QuickFixJReactiveEvents}
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(Flux.class)
+	static class ReactiveEventsConfiguration {
+
+		/**
+		 * Creates the server's {@link QuickFixJReactiveEvents}, fed directly from the callbacks of the server's
+		 * {@link Application application}
+		 *
+		 * @param properties The {@link QuickFixJBootProperties QuickFix/J Spring Boot properties}
+		 * @return The server's {@link QuickFixJReactiveEvents}
+		 */
+		@Bean
+		@ConditionalOnMissingBean
+		public QuickFixJReactiveEvents serverReactiveEvents(QuickFixJBootProperties properties) {
+			Events events = properties.getServer().getEvents();
+			return new QuickFixJReactiveEvents(
+					events.getReactiveBackpressure(),
+					events.getReactiveBufferSize());
+		}
 	}
 
 	/**
@@ -161,6 +352,25 @@ public class QuickFixJServerAutoConfiguration {
 		}
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	static class GroupCommitMessageStoreFactoryConfiguration {
+
+		/**
+		 * Creates the server's {@link MessageStoreFactory} of type {@link GroupCommitFileStoreFactory} if
+		 * {@code quickfixj.server.message-store-factory} is set to {@code groupcommit}, used in the creation of the
+		 * {@link Acceptor acceptor} connector
+		 *
+		 * @param serverSessionSettings The server's {@link SessionSettings session settings} bean
+		 * @return The server's {@link MessageStoreFactory}
+		 */
+		@Bean
+		@ConditionalOnMissingBean(MessageStoreFactory.class)
+		@ConditionalOnProperty(prefix = "quickfixj.server", name = "message-store-factory", havingValue = "groupcommit")
+		public GroupCommitFileStoreFactory serverMessageStoreFactory(SessionSettings serverSessionSettings) {
+			return new GroupCommitFileStoreFactory(serverSessionSettings);
+		}
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	static class JdbcMessageStoreFactoryConfiguration {
 
@@ -198,6 +408,25 @@ public class QuickFixJServerAutoConfiguration {
 		}
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	static class MappedFileMessageStoreFactoryConfiguration {
+
+		/**
+		 * Creates the server's {@link MessageStoreFactory} of type {@link MappedFileStoreFactory} if
+		 * {@code quickfixj.server.message-store-factory} is set to {@code mmap}, used in the creation of the
+		 * {@link Acceptor acceptor} connector
+		 *
+		 * @param serverSessionSettings The server's {@link SessionSettings session settings} bean
+		 * @return The server's {@link MessageStoreFactory}
+		 */
+		@Bean
+		@ConditionalOnMissingBean
+		@ConditionalOnProperty(prefix = "quickfixj.server", name = "message-store-factory", havingValue = "mmap")
+		public MessageStoreFactory serverMessageStoreFactory(SessionSettings serverSessionSettings) {
+			return new MappedFileStoreFactory(serverSessionSettings);
+		}
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	static class NoopMessageStoreFactoryConfiguration {
 
@@ -216,6 +445,25 @@ public class QuickFixJServerAutoConfiguration {
 		}
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	static class OffHeapMessageStoreFactoryConfiguration {
+
+		/**
+		 * Creates the server's {@link MessageStoreFactory} of type {@link OffHeapMemoryStoreFactory} if
+		 * {@code quickfixj.server.message-store-factory} is set to {@code offheap}, used in the creation of the
+		 * {@link Acceptor acceptor} connector
+		 *
+		 * @param serverSessionSettings The server's {@link SessionSettings session settings} bean
+		 * @return The server's {@link MessageStoreFactory}
+		 */
+		@Bean
+		@ConditionalOnMissingBean(MessageStoreFactory.class)
+		@ConditionalOnProperty(prefix = "quickfixj.server", name = "message-store-factory", havingValue = "offheap")
+		public OffHeapMemoryStoreFactory serverMessageStoreFactory(SessionSettings serverSessionSettings) {
+			return new OffHeapMemoryStoreFactory(serverSessionSettings);
+		}
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	static class SleepycatMessageStoreFactoryConfiguration {
 
@@ -235,6 +483,25 @@ public class QuickFixJServerAutoConfiguration {
 		}
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	static class TieredMessageStoreFactoryConfiguration {
+
+		/**
+		 * Creates the server's {@link MessageStoreFactory} of type {@link TieredMessageStoreFactory} if
+		 * {@code quickfixj.server.message-store-factory} is set to {@code tiered}, used in the creation of the
+		 * {@link Acceptor acceptor} connector
+		 *
+		 * @param serverSessionSettings The server's {@link SessionSettings session settings} bean
+		 * @return The server's {@link MessageStoreFactory}
+		 */
+		@Bean
+		@ConditionalOnMissingBean(MessageStoreFactory.class)
+		@ConditionalOnProperty(prefix = "quickfixj.server", name = "message-store-factory", havingValue = "tiered")
+		public TieredMessageStoreFactory serverMessageStoreFactory(SessionSettings serverSessionSettings) {
+			return new TieredMessageStoreFactory(serverSessionSettings);
+		}
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	static class FileLogFactoryConfiguration {
 
@@ -426,7 +693,10 @@ public class QuickFixJServerAutoConfiguration {
 	@Bean
 	@ConditionalOnMissingBean
 	@ConditionalOnProperty(prefix = "quickfixj.server.concurrent", name = "useDefaultExecutorFactory", havingValue = "true")
-	public ExecutorFactory serverExecutorFactory(@Qualifier("serverTaskExecutor") Executor serverTaskExecutor) {
+	public ExecutorFactory serverExecutorFactory(
+			@Qualifier("serverTaskExecutor") Executor serverTaskExecutor,
+			@Qualifier("serverShortLivedTaskExecutor") Executor serverShortLivedTaskExecutor
+	) {
 		return new ExecutorFactory() {
 			@Override
 			public Executor getLongLivedExecutor() {
@@ -435,7 +705,7 @@ public class QuickFixJServerAutoConfiguration {
 
 			@Override
 			public Executor getShortLivedExecutor() {
-				return serverTaskExecutor;
+				return serverShortLivedTaskExecutor;
 			}
 		};
 	}
@@ -443,15 +713,45 @@ public class QuickFixJServerAutoConfiguration {
 	@Bean
 	@ConditionalOnProperty(prefix = "quickfixj.server.concurrent", name = "useDefaultExecutorFactory", havingValue = "true")
 	public Executor serverTaskExecutor(QuickFixJBootProperties properties) {
+		Concurrent concurrent = properties.getServer().getConcurrent();
+		if (VirtualThreads.isEnabled(concurrent)) {
+			SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(concurrent.getThreadNamePrefix());
+			executor.setVirtualThreads(true);
+			return executor;
+		}
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setQueueCapacity(concurrent.getQueueCapacity());
+		executor.setCorePoolSize(concurrent.getCorePoolSize());
+		executor.setMaxPoolSize(concurrent.getMaxPoolSize());
+		executor.setAllowCoreThreadTimeOut(concurrent.isAllowCoreThreadTimeOut());
+		executor.setKeepAliveSeconds(concurrent.getKeepAliveSeconds());
+		executor.setWaitForTasksToCompleteOnShutdown(concurrent.isWaitForTasksToCompleteOnShutdown());
+		executor.setAwaitTerminationSeconds(concurrent.getAwaitTerminationSeconds());
+		executor.setThreadNamePrefix(concurrent.getThreadNamePrefix());
+		executor.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(concurrent.getRejectionPolicy().createHandler()));
+		return executor;
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "quickfixj.server.concurrent", name = "useDefaultExecutorFactory", havingValue = "true")
+	public Executor serverShortLivedTaskExecutor(QuickFixJBootProperties properties) {
+		Concurrent concurrent = properties.getServer().getConcurrent();
+		ShortLivedExecutor shortLived = concurrent.getShortLived();
+		if (VirtualThreads.isEnabled(concurrent)) {
+			SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(shortLived.getThreadNamePrefix());
+			executor.setVirtualThreads(true);
+			return executor;
+		}
 		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-		executor.setQueueCapacity(properties.getServer().getConcurrent().getQueueCapacity());
-		executor.setCorePoolSize(properties.getServer().getConcurrent().getCorePoolSize());
-		executor.setMaxPoolSize(properties.getServer().getConcurrent().getMaxPoolSize());
-		executor.setAllowCoreThreadTimeOut(properties.getServer().getConcurrent().isAllowCoreThreadTimeOut());
-		executor.setKeepAliveSeconds(properties.getServer().getConcurrent().getKeepAliveSeconds());
-		executor.setWaitForTasksToCompleteOnShutdown(properties.getServer().getConcurrent().isWaitForTasksToCompleteOnShutdown());
-		executor.setAwaitTerminationSeconds(properties.getServer().getConcurrent().getAwaitTerminationSeconds());
-		executor.setThreadNamePrefix(properties.getServer().getConcurrent().getThreadNamePrefix());
+		executor.setQueueCapacity(shortLived.getQueueCapacity());
+		executor.setCorePoolSize(shortLived.getCorePoolSize());
+		executor.setMaxPoolSize(shortLived.getMaxPoolSize());
+		executor.setAllowCoreThreadTimeOut(shortLived.isAllowCoreThreadTimeOut());
+		executor.setKeepAliveSeconds(shortLived.getKeepAliveSeconds());
+		executor.setWaitForTasksToCompleteOnShutdown(concurrent.isWaitForTasksToCompleteOnShutdown());
+		executor.setAwaitTerminationSeconds(concurrent.getAwaitTerminationSeconds());
+		executor.setThreadNamePrefix(shortLived.getThreadNamePrefix());
+		executor.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(shortLived.getRejectionPolicy().createHandler()));
 		return executor;
 	}
 
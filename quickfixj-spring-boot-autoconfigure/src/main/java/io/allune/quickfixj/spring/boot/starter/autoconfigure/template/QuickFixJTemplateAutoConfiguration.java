@@ -15,13 +15,45 @@
  */
 package io.allune.quickfixj.spring.boot.starter.autoconfigure.template;
 
+import io.allune.quickfixj.spring.boot.starter.autoconfigure.ConnectorConfig;
+import io.allune.quickfixj.spring.boot.starter.autoconfigure.QuickFixJBootProperties;
+import io.allune.quickfixj.spring.boot.starter.autoconfigure.Reactive;
+import io.allune.quickfixj.spring.boot.starter.autoconfigure.SessionLookupMethod;
+import io.allune.quickfixj.spring.boot.starter.autoconfigure.Validation;
+import io.allune.quickfixj.spring.boot.starter.template.CachingSessionLookupHandler;
+import io.allune.quickfixj.spring.boot.starter.template.DefaultSessionLookupHandler;
+import io.allune.quickfixj.spring.boot.starter.template.HeartbeatRttTracker;
+import io.allune.quickfixj.spring.boot.starter.template.IndexedSessionLookupHandler;
+import io.allune.quickfixj.spring.boot.starter.template.MsgTypeValidationPolicy;
+import io.allune.quickfixj.spring.boot.starter.template.QuickFixJAsyncTemplate;
 import io.allune.quickfixj.spring.boot.starter.template.QuickFixJTemplate;
+import io.allune.quickfixj.spring.boot.starter.template.ReactiveQuickFixJTemplate;
+import io.allune.quickfixj.spring.boot.starter.template.SamplingValidationPolicy;
+import io.allune.quickfixj.spring.boot.starter.template.SessionLookupHandler;
+import io.allune.quickfixj.spring.boot.starter.template.SessionValidationPolicy;
+import io.allune.quickfixj.spring.boot.starter.template.ValidationPolicy;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import quickfix.ConfigError;
+import quickfix.FieldConvertError;
 import quickfix.Session;
+import quickfix.SessionFactory;
+import quickfix.SessionID;
+import quickfix.SessionSettings;
+import reactor.core.publisher.Flux;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * {@link EnableAutoConfiguration Auto-configuration} for {@link QuickFixJTemplate}.
@@ -30,16 +62,171 @@ import quickfix.Session;
  */
 @AutoConfiguration
 @ConditionalOnClass(Session.class)
+@EnableConfigurationProperties(QuickFixJBootProperties.class)
 public class QuickFixJTemplateAutoConfiguration {
 
+	/**
+	 * Creates a {@link CachingSessionLookupHandler}, or an {@link IndexedSessionLookupHandler} if the indexed session
+	 * lookup is configured, resolving the sessions through a {@link DefaultSessionLookupHandler}
+	 *
+	 * @param properties The {@link QuickFixJBootProperties}
+	 * @return A {@link SessionLookupHandler}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public SessionLookupHandler sessionLookupHandler(QuickFixJBootProperties properties) {
+		if (getConnectorConfig(properties).getSessionLookup() == SessionLookupMethod.INDEXED) {
+			return new IndexedSessionLookupHandler(new DefaultSessionLookupHandler());
+		}
+		return new CachingSessionLookupHandler(new DefaultSessionLookupHandler());
+	}
+
+	/**
+	 * Creates a {@link HeartbeatRttTracker} measuring the heartbeat round-trip time of the sessions if
+	 * {@code quickfixj.client.heartbeat-rtt-tracking} or {@code quickfixj.server.heartbeat-rtt-tracking} is set to
+	 * {@code true}, used for routing by a
+	 * {@link io.allune.quickfixj.spring.boot.starter.template.LowestHeartbeatRttRoutingStrategy}
+	 *
+	 * @return A {@link HeartbeatRttTracker}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnExpression("${quickfixj.client.heartbeat-rtt-tracking:false} or ${quickfixj.server.heartbeat-rtt-tracking:false}")
+	public HeartbeatRttTracker heartbeatRttTracker() {
+		return new HeartbeatRttTracker();
+	}
+
+	/**
+	 * Creates the {@link ValidationPolicy} applied to the messages sent through the {@link QuickFixJTemplate},
+	 * as configured in the validation properties of the enabled client or server. When both are enabled, the
+	 * client's properties apply to the initiator sessions and the server's properties to all the other sessions
+	 *
+	 * @param properties      The {@link QuickFixJBootProperties}
+	 * @param sessionSettings The {@link SessionSettings} of the connectors
+	 * @return A {@link ValidationPolicy}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public ValidationPolicy validationPolicy(QuickFixJBootProperties properties, ObjectProvider<SessionSettings> sessionSettings) {
+		if (!isClientAndServer(properties)) {
+			return createValidationPolicy(getConnectorConfig(properties).getValidation());
+		}
+
+		ValidationPolicy clientValidationPolicy = createValidationPolicy(properties.getClient().getValidation());
+		Map<SessionID, ValidationPolicy> policiesBySessionID = new HashMap<>();
+		getInitiatorSessionIDs(sessionSettings).forEach(sessionID -> policiesBySessionID.put(sessionID, clientValidationPolicy));
+		return new SessionValidationPolicy(policiesBySessionID, createValidationPolicy(properties.getServer().getValidation()));
+	}
+
 	/**
 	 * Creates a {@link QuickFixJTemplate}
 	 *
+	 * @param sessionLookupHandler The {@link SessionLookupHandler} used to resolve the sessions
+	 * @param validationPolicy     The {@link ValidationPolicy} applied to the messages sent
+	 * @param properties           The {@link QuickFixJBootProperties}
+	 * @param sessionSettings      The {@link SessionSettings} of the connectors
 	 * @return A {@link QuickFixJTemplate}
 	 */
 	@Bean
 	@ConditionalOnMissingBean
-	public QuickFixJTemplate quickFixJTemplate() {
-		return new QuickFixJTemplate();
+	public QuickFixJTemplate quickFixJTemplate(SessionLookupHandler sessionLookupHandler, ValidationPolicy validationPolicy,
+	                                           QuickFixJBootProperties properties, ObjectProvider<SessionSettings> sessionSettings) {
+		QuickFixJTemplate quickFixJTemplate = new QuickFixJTemplate(sessionLookupHandler);
+		quickFixJTemplate.setValidationPolicy(validationPolicy);
+		if (isClientAndServer(properties)) {
+			Set<SessionID> initiatorSessionIDs = getInitiatorSessionIDs(sessionSettings);
+			boolean clientPrecompiled = properties.getClient().getValidation().isPrecompiled();
+			boolean serverPrecompiled = properties.getServer().getValidation().isPrecompiled();
+			quickFixJTemplate.setUsePrecompiledValidators(
+					sessionID -> initiatorSessionIDs.contains(sessionID) ? clientPrecompiled : serverPrecompiled);
+		} else {
+			quickFixJTemplate.setUsePrecompiledValidators(getConnectorConfig(properties).getValidation().isPrecompiled());
+		}
+		return quickFixJTemplate;
+	}
+
+	/**
+	 * Creates a {@link QuickFixJAsyncTemplate}
+	 *
+	 * @param quickFixJTemplate The {@link QuickFixJTemplate} used to send the messages
+	 * @return A {@link QuickFixJAsyncTemplate}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public QuickFixJAsyncTemplate quickFixJAsyncTemplate(QuickFixJTemplate quickFixJTemplate) {
+		return new QuickFixJAsyncTemplate(quickFixJTemplate);
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(Flux.class)
+	static class ReactiveQuickFixJTemplateConfiguration {
+
+		/**
+		 * Creates a {@link ReactiveQuickFixJTemplate}
+		 *
+		 * @param quickFixJTemplate    The {@link QuickFixJTemplate} used to send the messages
+		 * @param sessionLookupHandler The {@link SessionLookupHandler} used to check the state of the sessions
+		 * @param properties           The {@link QuickFixJBootProperties}
+		 * @return A {@link ReactiveQuickFixJTemplate}
+		 */
+		@Bean
+		@ConditionalOnMissingBean
+		public ReactiveQuickFixJTemplate reactiveQuickFixJTemplate(QuickFixJTemplate quickFixJTemplate,
+		                                                           SessionLookupHandler sessionLookupHandler,
+		                                                           QuickFixJBootProperties properties) {
+			Reactive reactive = getConnectorConfig(properties).getReactive();
+
+			ReactiveQuickFixJTemplate reactiveQuickFixJTemplate = new ReactiveQuickFixJTemplate(quickFixJTemplate, sessionLookupHandler);
+			reactiveQuickFixJTemplate.setOverflowStrategy(reactive.getOverflowStrategy());
+			reactiveQuickFixJTemplate.setBufferSize(reactive.getBufferSize());
+			reactiveQuickFixJTemplate.setLogonCheckInterval(reactive.getLogonCheckInterval());
+			reactiveQuickFixJTemplate.setLogonTimeout(reactive.getLogonTimeout());
+			return reactiveQuickFixJTemplate;
+		}
+	}
+
+	private static ValidationPolicy createValidationPolicy(Validation validation) {
+		ValidationPolicy validationPolicy = switch (validation.getPolicy()) {
+			case NEVER -> ValidationPolicy.never();
+			case SAMPLING -> new SamplingValidationPolicy(validation.getInitialCount(), validation.getSampleRate());
+			default -> ValidationPolicy.always();
+		};
+
+		if (validation.getMsgTypes().isEmpty()) {
+			return validationPolicy;
+		}
+		Map<String, ValidationPolicy> policiesByMsgType = new LinkedHashMap<>();
+		validation.getMsgTypes().forEach(msgType -> policiesByMsgType.put(msgType, validationPolicy));
+		return new MsgTypeValidationPolicy(policiesByMsgType, ValidationPolicy.never());
+	}
+
+	private static boolean isClientAndServer(QuickFixJBootProperties properties) {
+		return properties.getClient().isEnabled() && properties.getServer().isEnabled();
+	}
+
+	/**
+	 * Returns the IDs of the sessions configured with the initiator connection type, which belong to the client.
+	 */
+	private static Set<SessionID> getInitiatorSessionIDs(ObjectProvider<SessionSettings> sessionSettings) {
+		Set<SessionID> sessionIDs = new HashSet<>();
+		sessionSettings.orderedStream().forEach(settings -> settings.sectionIterator().forEachRemaining(sessionID -> {
+			if (isInitiator(settings, sessionID)) {
+				sessionIDs.add(sessionID);
+			}
+		}));
+		return sessionIDs;
+	}
+
+	private static boolean isInitiator(SessionSettings settings, SessionID sessionID) {
+		try {
+			return settings.isSetting(sessionID, SessionFactory.SETTING_CONNECTION_TYPE)
+					&& SessionFactory.INITIATOR_CONNECTION_TYPE.equals(settings.getString(sessionID, SessionFactory.SETTING_CONNECTION_TYPE));
+		} catch (ConfigError | FieldConvertError e) {
+			return false;
+		}
+	}
+
+	private static ConnectorConfig getConnectorConfig(QuickFixJBootProperties properties) {
+		return properties.getClient().isEnabled() ? properties.getClient() : properties.getServer();
 	}
 }
@@ -16,10 +16,21 @@
 package io.allune.quickfixj.spring.boot.starter.autoconfigure.client;
 
 import io.allune.quickfixj.spring.boot.starter.application.EventPublisherApplicationAdapter;
+import io.allune.quickfixj.spring.boot.starter.application.FromAppBatcher;
+import io.allune.quickfixj.spring.boot.starter.application.QuickFixJReactiveEvents;
+import io.allune.quickfixj.spring.boot.starter.application.RingBufferEventDispatcher;
+import io.allune.quickfixj.spring.boot.starter.application.StripedEventDispatcher;
+import io.allune.quickfixj.spring.boot.starter.autoconfigure.VirtualThreads;
 import io.allune.quickfixj.spring.boot.starter.autoconfigure.YamlPropertySourceFactory;
 import io.allune.quickfixj.spring.boot.starter.connection.ConnectorManager;
 import io.allune.quickfixj.spring.boot.starter.connection.SessionSettingsLocator;
 import io.allune.quickfixj.spring.boot.starter.exception.ConfigurationException;
+import io.allune.quickfixj.spring.boot.starter.model.FromApp;
+import io.allune.quickfixj.spring.boot.starter.store.GroupCommitFileStoreFactory;
+import io.allune.quickfixj.spring.boot.starter.store.MappedFileStoreFactory;
+import io.allune.quickfixj.spring.boot.starter.store.OffHeapMemoryStoreFactory;
+import io.allune.quickfixj.spring.boot.starter.store.ResendStream;
+import io.allune.quickfixj.spring.boot.starter.store.TieredMessageStoreFactory;
 import io.allune.quickfixj.spring.boot.starter.template.QuickFixJTemplate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
@@ -28,6 +39,8 @@ import org.springframework.context.annotation.AnnotationConfigApplicationContext
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import quickfix.Acceptor;
 import quickfix.Application;
 import quickfix.CachedFileStoreFactory;
@@ -43,6 +56,7 @@ import quickfix.JdbcLogFactory;
 import quickfix.JdbcStoreFactory;
 import quickfix.LogFactory;
 import quickfix.MemoryStoreFactory;
+import quickfix.Message;
 import quickfix.MessageFactory;
 import quickfix.MessageStoreFactory;
 import quickfix.NoopStoreFactory;
@@ -57,6 +71,7 @@ import quickfix.mina.SessionConnector;
 
 import javax.management.ObjectName;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
@@ -124,9 +139,10 @@ public class QuickFixJClientAutoConfigurationTest {
 		assertThat(clientExecutorFactory).isNotNull();
 
 		Executor clientTaskExecutor = ctx.getBean("clientTaskExecutor", Executor.class);
+		Executor clientShortLivedTaskExecutor = ctx.getBean("clientShortLivedTaskExecutor", Executor.class);
 		assertThat(clientTaskExecutor).isNotNull();
 
-		assertHasExecutors(clientInitiator, clientTaskExecutor);
+		assertHasExecutors(clientInitiator, clientTaskExecutor, clientShortLivedTaskExecutor);
 		ctx.stop();
 	}
 
@@ -218,9 +234,27 @@ public class QuickFixJClientAutoConfigurationTest {
 		assertThat(clientExecutorFactory).isNotNull();
 
 		Executor clientTaskExecutor = ctx.getBean("clientTaskExecutor", Executor.class);
+		Executor clientShortLivedTaskExecutor = ctx.getBean("clientShortLivedTaskExecutor", Executor.class);
 		assertThat(clientTaskExecutor).isNotNull();
 
-		assertHasExecutors(clientInitiator, clientTaskExecutor);
+		assertHasExecutors(clientInitiator, clientTaskExecutor, clientShortLivedTaskExecutor);
+		ctx.stop();
+	}
+
+	@Test
+	public void testAutoConfiguredBeansMultiThreadedVirtualThreadsInitiator() throws NoSuchFieldException, IllegalAccessException {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(MultiThreadedVirtualThreadsClientInitiatorConfiguration.class);
+		Initiator clientInitiator = ctx.getBean(Initiator.class);
+
+		Executor clientTaskExecutor = ctx.getBean("clientTaskExecutor", Executor.class);
+		Executor clientShortLivedTaskExecutor = ctx.getBean("clientShortLivedTaskExecutor", Executor.class);
+		if (VirtualThreads.isAvailable()) {
+			assertThat(clientTaskExecutor).isInstanceOf(SimpleAsyncTaskExecutor.class);
+		} else {
+			assertThat(clientTaskExecutor).isInstanceOf(ThreadPoolTaskExecutor.class);
+		}
+
+		assertHasExecutors(clientInitiator, clientTaskExecutor, clientShortLivedTaskExecutor);
 		ctx.stop();
 	}
 
@@ -278,6 +312,14 @@ public class QuickFixJClientAutoConfigurationTest {
 		ctx.stop();
 	}
 
+	@Test
+	public void testAutoConfiguredBeansClientGroupCommitFileStoreFactoryConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ClientGroupCommitFileStoreFactoryConfiguration.class);
+		MessageStoreFactory clientMessageStoreFactory = ctx.getBean("clientMessageStoreFactory", MessageStoreFactory.class);
+		assertThat(clientMessageStoreFactory).isInstanceOf(GroupCommitFileStoreFactory.class);
+		ctx.close();
+	}
+
 	@Test
 	public void testAutoConfiguredBeansClientJdbcStoreFactoryConfiguration() {
 		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ClientJdbcStoreFactoryConfiguration.class);
@@ -286,6 +328,87 @@ public class QuickFixJClientAutoConfigurationTest {
 		ctx.stop();
 	}
 
+	@Test
+	public void testAutoConfiguredBeansClientMappedFileStoreFactoryConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ClientMappedFileStoreFactoryConfiguration.class);
+		MessageStoreFactory clientMessageStoreFactory = ctx.getBean("clientMessageStoreFactory", MessageStoreFactory.class);
+		assertThat(clientMessageStoreFactory).isInstanceOf(MappedFileStoreFactory.class);
+		ctx.stop();
+	}
+
+	@Test
+	public void testAutoConfiguredBeansClientOffHeapMemoryStoreFactoryConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ClientOffHeapMemoryStoreFactoryConfiguration.class);
+		MessageStoreFactory clientMessageStoreFactory = ctx.getBean("clientMessageStoreFactory", MessageStoreFactory.class);
+		assertThat(clientMessageStoreFactory).isInstanceOf(OffHeapMemoryStoreFactory.class);
+		ctx.stop();
+	}
+
+	@Test
+	public void testAutoConfiguredBeansClientTieredMessageStoreFactoryConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ClientTieredMessageStoreFactoryConfiguration.class);
+		MessageStoreFactory clientMessageStoreFactory = ctx.getBean("clientMessageStoreFactory", MessageStoreFactory.class);
+		assertThat(clientMessageStoreFactory).isInstanceOf(TieredMessageStoreFactory.class);
+		assertThat(ctx.getBeansOfType(ResendStream.class)).isEmpty();
+		ctx.stop();
+	}
+
+	@Test
+	public void testAutoConfiguredBeansClientResendStreamConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ClientResendStreamConfiguration.class);
+		ResendStream clientResendStream = ctx.getBean("clientResendStream", ResendStream.class);
+		assertThat(clientResendStream.getChunkSize()).isEqualTo(500);
+		assertThat(clientResendStream.getMessagesPerSecond()).isEqualTo(2000);
+		ctx.stop();
+	}
+
+	@Test
+	public void testAutoConfiguredBeansClientRingBufferEventDispatcherConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ClientRingBufferEventDispatcherConfiguration.class);
+		RingBufferEventDispatcher clientEventDispatcher = ctx.getBean("clientEventDispatcher", RingBufferEventDispatcher.class);
+		assertThat(clientEventDispatcher.getBufferSize()).isEqualTo(512);
+
+		Application clientApplication = ctx.getBean("clientApplication", Application.class);
+		assertThat(clientApplication).isInstanceOf(EventPublisherApplicationAdapter.class);
+		ctx.close();
+	}
+
+	@Test
+	public void testAutoConfiguredBeansClientStripedEventDispatcherConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ClientStripedEventDispatcherConfiguration.class);
+		StripedEventDispatcher clientEventDispatcher = ctx.getBean("clientStripedEventDispatcher", StripedEventDispatcher.class);
+		assertThat(clientEventDispatcher.getLaneCount()).isEqualTo(3);
+		assertThat(clientEventDispatcher.getQueueCapacity()).isEqualTo(128);
+
+		Application clientApplication = ctx.getBean("clientApplication", Application.class);
+		assertThat(clientApplication).isInstanceOf(EventPublisherApplicationAdapter.class);
+		ctx.close();
+	}
+
+	@Test
+	public void testAutoConfiguredBeansClientFromAppBatcherConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ClientFromAppBatcherConfiguration.class);
+		FromAppBatcher clientFromAppBatcher = ctx.getBean("clientFromAppBatcher", FromAppBatcher.class);
+		assertThat(clientFromAppBatcher.getMaxBatchSize()).isEqualTo(50);
+		ctx.close();
+	}
+
+	@Test
+	public void testAutoConfiguredBeansClientReactiveEventsConfiguration() throws Exception {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ClientReactiveEventsConfiguration.class);
+		QuickFixJReactiveEvents clientReactiveEvents = ctx.getBean("clientReactiveEvents", QuickFixJReactiveEvents.class);
+		Application clientApplication = ctx.getBean("clientApplication", Application.class);
+		SessionID sessionID = new SessionID("FIX.4.4", "Sender", "Target");
+		Message message = new Message();
+		List<FromApp> received = new ArrayList<>();
+		clientReactiveEvents.fromApp(sessionID).subscribe(received::add);
+
+		clientApplication.fromApp(message, sessionID);
+
+		assertThat(received).containsExactly(FromApp.of(message, sessionID));
+		ctx.close();
+	}
+
 	@Test
 	public void testAutoConfiguredBeansClientMemoryStoreFactoryConfiguration() {
 		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ClientMemoryStoreFactoryConfiguration.class);
@@ -424,17 +547,19 @@ public class QuickFixJClientAutoConfigurationTest {
 
 	private void assertHasExecutors(
 			Initiator clientInitiator,
-			Executor taskExecutor
+			Executor longLivedTaskExecutor,
+			Executor shortLivedTaskExecutor
 	) throws NoSuchFieldException, IllegalAccessException {
 		Field longLivedExecutor = getField(SessionConnector.class, "longLivedExecutor");
 		longLivedExecutor.setAccessible(true);
 		Executor actualLongLivedExecutor = (Executor) longLivedExecutor.get(clientInitiator);
-		assertThat(taskExecutor).isEqualTo(actualLongLivedExecutor);
+		assertThat(longLivedTaskExecutor).isEqualTo(actualLongLivedExecutor);
 
 		Field shortLivedExecutor = getField(SessionConnector.class, "shortLivedExecutor");
 		shortLivedExecutor.setAccessible(true);
 		Executor actualShortLivedExecutor = (Executor) shortLivedExecutor.get(clientInitiator);
-		assertThat(taskExecutor).isEqualTo(actualShortLivedExecutor);
+		assertThat(shortLivedTaskExecutor).isEqualTo(actualShortLivedExecutor);
+		assertThat(shortLivedTaskExecutor).isNotSameAs(longLivedTaskExecutor);
 	}
 
 	@Configuration
@@ -474,6 +599,12 @@ public class QuickFixJClientAutoConfigurationTest {
 	static class MultiThreadedExecutorFactoryClientInitiatorConfiguration {
 	}
 
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:client-multi-threaded/multi-threaded-application-virtual-threads.properties")
+	static class MultiThreadedVirtualThreadsClientInitiatorConfiguration {
+	}
+
 	@Configuration
 	@EnableAutoConfiguration
 	@PropertySource("classpath:client-single-threaded/single-threaded-application-no-config-defined.properties")
@@ -497,6 +628,12 @@ public class QuickFixJClientAutoConfigurationTest {
 	static class ClientFileStoreFactoryConfiguration {
 	}
 
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:client-message-store/client-groupcommit-store-factory.properties")
+	static class ClientGroupCommitFileStoreFactoryConfiguration {
+	}
+
 	@Configuration
 	@EnableAutoConfiguration
 	@PropertySource("classpath:client-message-store/client-jdbc-store-factory.properties")
@@ -509,6 +646,54 @@ public class QuickFixJClientAutoConfigurationTest {
 	static class ClientMemoryStoreFactoryConfiguration {
 	}
 
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:client-message-store/client-mmap-store-factory.properties")
+	static class ClientMappedFileStoreFactoryConfiguration {
+	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:client-message-store/client-offheap-store-factory.properties")
+	static class ClientOffHeapMemoryStoreFactoryConfiguration {
+	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:client-message-store/client-tiered-store-factory.properties")
+	static class ClientTieredMessageStoreFactoryConfiguration {
+	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:client-message-store/client-resend-stream.properties")
+	static class ClientResendStreamConfiguration {
+	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:client-events/client-ring-buffer-events.properties")
+	static class ClientRingBufferEventDispatcherConfiguration {
+	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:client-events/client-striped-events.properties")
+	static class ClientStripedEventDispatcherConfiguration {
+	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:client-events/client-batch-events.properties")
+	static class ClientFromAppBatcherConfiguration {
+	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:client-events/client-reactive-events.properties")
+	static class ClientReactiveEventsConfiguration {
+	}
+
 	@Configuration
 	@EnableAutoConfiguration
 	@PropertySource("classpath:client-message-store/client-noop-store-factory.properties")
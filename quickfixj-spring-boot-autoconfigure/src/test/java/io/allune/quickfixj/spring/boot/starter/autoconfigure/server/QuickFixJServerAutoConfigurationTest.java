@@ -16,11 +16,23 @@
 package io.allune.quickfixj.spring.boot.starter.autoconfigure.server;
 
 import io.allune.quickfixj.spring.boot.starter.application.EventPublisherApplicationAdapter;
+import io.allune.quickfixj.spring.boot.starter.application.FromAppBatcher;
+import io.allune.quickfixj.spring.boot.starter.application.QuickFixJReactiveEvents;
+import io.allune.quickfixj.spring.boot.starter.application.RingBufferEventDispatcher;
+import io.allune.quickfixj.spring.boot.starter.application.StripedEventDispatcher;
+import io.allune.quickfixj.spring.boot.starter.autoconfigure.VirtualThreads;
 import io.allune.quickfixj.spring.boot.starter.autoconfigure.YamlPropertySourceFactory;
 import io.allune.quickfixj.spring.boot.starter.connection.ConnectorManager;
 import io.allune.quickfixj.spring.boot.starter.connection.SessionSettingsLocator;
 import io.allune.quickfixj.spring.boot.starter.exception.ConfigurationException;
+import io.allune.quickfixj.spring.boot.starter.model.FromApp;
+import io.allune.quickfixj.spring.boot.starter.store.GroupCommitFileStoreFactory;
+import io.allune.quickfixj.spring.boot.starter.store.MappedFileStoreFactory;
+import io.allune.quickfixj.spring.boot.starter.store.OffHeapMemoryStoreFactory;
+import io.allune.quickfixj.spring.boot.starter.store.ResendStream;
+import io.allune.quickfixj.spring.boot.starter.store.TieredMessageStoreFactory;
 import io.allune.quickfixj.spring.boot.starter.template.QuickFixJTemplate;
+import io.allune.quickfixj.spring.boot.starter.template.ValidationPolicy;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
@@ -28,6 +40,8 @@ import org.springframework.context.annotation.AnnotationConfigApplicationContext
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import quickfix.Acceptor;
 import quickfix.Application;
 import quickfix.CachedFileStoreFactory;
@@ -43,6 +57,7 @@ import quickfix.JdbcLogFactory;
 import quickfix.JdbcStoreFactory;
 import quickfix.LogFactory;
 import quickfix.MemoryStoreFactory;
+import quickfix.Message;
 import quickfix.MessageFactory;
 import quickfix.MessageStoreFactory;
 import quickfix.NoopStoreFactory;
@@ -57,6 +72,7 @@ import quickfix.mina.SessionConnector;
 
 import javax.management.ObjectName;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
@@ -125,9 +141,10 @@ public class QuickFixJServerAutoConfigurationTest {
 		assertThat(serverExecutorFactory).isNotNull();
 
 		Executor serverTaskExecutor = ctx.getBean("serverTaskExecutor", Executor.class);
+		Executor serverShortLivedTaskExecutor = ctx.getBean("serverShortLivedTaskExecutor", Executor.class);
 		assertThat(serverTaskExecutor).isNotNull();
 
-		assertHasExecutors(serverAcceptor, serverTaskExecutor);
+		assertHasExecutors(serverAcceptor, serverTaskExecutor, serverShortLivedTaskExecutor);
 		ctx.stop();
 	}
 
@@ -219,9 +236,27 @@ public class QuickFixJServerAutoConfigurationTest {
 		assertThat(serverExecutorFactory).isNotNull();
 
 		Executor serverTaskExecutor = ctx.getBean("serverTaskExecutor", Executor.class);
+		Executor serverShortLivedTaskExecutor = ctx.getBean("serverShortLivedTaskExecutor", Executor.class);
 		assertThat(serverTaskExecutor).isNotNull();
 
-		assertHasExecutors(serverAcceptor, serverTaskExecutor);
+		assertHasExecutors(serverAcceptor, serverTaskExecutor, serverShortLivedTaskExecutor);
+		ctx.stop();
+	}
+
+	@Test
+	public void testAutoConfiguredBeansMultiThreadedVirtualThreadsAcceptor() throws NoSuchFieldException, IllegalAccessException {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(MultiThreadedVirtualThreadsServerAcceptorConfiguration.class);
+		Acceptor serverAcceptor = ctx.getBean(Acceptor.class);
+
+		Executor serverTaskExecutor = ctx.getBean("serverTaskExecutor", Executor.class);
+		Executor serverShortLivedTaskExecutor = ctx.getBean("serverShortLivedTaskExecutor", Executor.class);
+		if (VirtualThreads.isAvailable()) {
+			assertThat(serverTaskExecutor).isInstanceOf(SimpleAsyncTaskExecutor.class);
+		} else {
+			assertThat(serverTaskExecutor).isInstanceOf(ThreadPoolTaskExecutor.class);
+		}
+
+		assertHasExecutors(serverAcceptor, serverTaskExecutor, serverShortLivedTaskExecutor);
 		ctx.stop();
 	}
 
@@ -279,6 +314,14 @@ public class QuickFixJServerAutoConfigurationTest {
 		ctx.stop();
 	}
 
+	@Test
+	public void testAutoConfiguredBeansServerGroupCommitFileStoreFactoryConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ServerGroupCommitFileStoreFactoryConfiguration.class);
+		MessageStoreFactory serverMessageStoreFactory = ctx.getBean("serverMessageStoreFactory", MessageStoreFactory.class);
+		assertThat(serverMessageStoreFactory).isInstanceOf(GroupCommitFileStoreFactory.class);
+		ctx.close();
+	}
+
 	@Test
 	public void testAutoConfiguredBeansServerJdbcStoreFactoryConfiguration() {
 		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ServerJdbcStoreFactoryConfiguration.class);
@@ -287,6 +330,87 @@ public class QuickFixJServerAutoConfigurationTest {
 		ctx.stop();
 	}
 
+	@Test
+	public void testAutoConfiguredBeansServerMappedFileStoreFactoryConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ServerMappedFileStoreFactoryConfiguration.class);
+		MessageStoreFactory serverMessageStoreFactory = ctx.getBean("serverMessageStoreFactory", MessageStoreFactory.class);
+		assertThat(serverMessageStoreFactory).isInstanceOf(MappedFileStoreFactory.class);
+		ctx.stop();
+	}
+
+	@Test
+	public void testAutoConfiguredBeansServerOffHeapMemoryStoreFactoryConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ServerOffHeapMemoryStoreFactoryConfiguration.class);
+		MessageStoreFactory serverMessageStoreFactory = ctx.getBean("serverMessageStoreFactory", MessageStoreFactory.class);
+		assertThat(serverMessageStoreFactory).isInstanceOf(OffHeapMemoryStoreFactory.class);
+		ctx.stop();
+	}
+
+	@Test
+	public void testAutoConfiguredBeansServerTieredMessageStoreFactoryConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ServerTieredMessageStoreFactoryConfiguration.class);
+		MessageStoreFactory serverMessageStoreFactory = ctx.getBean("serverMessageStoreFactory", MessageStoreFactory.class);
+		assertThat(serverMessageStoreFactory).isInstanceOf(TieredMessageStoreFactory.class);
+		assertThat(ctx.getBeansOfType(ResendStream.class)).isEmpty();
+		ctx.stop();
+	}
+
+	@Test
+	public void testAutoConfiguredBeansServerResendStreamConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ServerResendStreamConfiguration.class);
+		ResendStream serverResendStream = ctx.getBean("serverResendStream", ResendStream.class);
+		assertThat(serverResendStream.getChunkSize()).isEqualTo(500);
+		assertThat(serverResendStream.getMessagesPerSecond()).isEqualTo(2000);
+		ctx.stop();
+	}
+
+	@Test
+	public void testAutoConfiguredBeansServerRingBufferEventDispatcherConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ServerRingBufferEventDispatcherConfiguration.class);
+		RingBufferEventDispatcher serverEventDispatcher = ctx.getBean("serverEventDispatcher", RingBufferEventDispatcher.class);
+		assertThat(serverEventDispatcher.getBufferSize()).isEqualTo(512);
+
+		Application serverApplication = ctx.getBean("serverApplication", Application.class);
+		assertThat(serverApplication).isInstanceOf(EventPublisherApplicationAdapter.class);
+		ctx.close();
+	}
+
+	@Test
+	public void testAutoConfiguredBeansServerStripedEventDispatcherConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ServerStripedEventDispatcherConfiguration.class);
+		StripedEventDispatcher serverEventDispatcher = ctx.getBean("serverStripedEventDispatcher", StripedEventDispatcher.class);
+		assertThat(serverEventDispatcher.getLaneCount()).isEqualTo(3);
+		assertThat(serverEventDispatcher.getQueueCapacity()).isEqualTo(128);
+
+		Application serverApplication = ctx.getBean("serverApplication", Application.class);
+		assertThat(serverApplication).isInstanceOf(EventPublisherApplicationAdapter.class);
+		ctx.close();
+	}
+
+	@Test
+	public void testAutoConfiguredBeansServerFromAppBatcherConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ServerFromAppBatcherConfiguration.class);
+		FromAppBatcher serverFromAppBatcher = ctx.getBean("serverFromAppBatcher", FromAppBatcher.class);
+		assertThat(serverFromAppBatcher.getMaxBatchSize()).isEqualTo(50);
+		ctx.close();
+	}
+
+	@Test
+	public void testAutoConfiguredBeansServerReactiveEventsConfiguration() throws Exception {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ServerReactiveEventsConfiguration.class);
+		QuickFixJReactiveEvents serverReactiveEvents = ctx.getBean("serverReactiveEvents", QuickFixJReactiveEvents.class);
+		Application serverApplication = ctx.getBean("serverApplication", Application.class);
+		SessionID sessionID = new SessionID("FIX.4.4", "Sender", "Target");
+		Message message = new Message();
+		List<FromApp> received = new ArrayList<>();
+		serverReactiveEvents.fromApp(sessionID).subscribe(received::add);
+
+		serverApplication.fromApp(message, sessionID);
+
+		assertThat(received).containsExactly(FromApp.of(message, sessionID));
+		ctx.close();
+	}
+
 	@Test
 	public void testAutoConfiguredBeansServerMemoryStoreFactoryConfiguration() {
 		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ServerMemoryStoreFactoryConfiguration.class);
@@ -400,6 +524,16 @@ public class QuickFixJServerAutoConfigurationTest {
 		ctx.stop();
 	}
 
+	@Test
+	public void testClientAndServerSameContextValidationConfiguration() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ClientAndServerSameContextValidationConfiguration.class);
+		ValidationPolicy validationPolicy = ctx.getBean(ValidationPolicy.class);
+		Message message = new Message();
+		assertThat(validationPolicy.shouldValidate(message, new SessionID("FIX.4.4", "BANZAI", "EXEC"))).isFalse();
+		assertThat(validationPolicy.shouldValidate(message, new SessionID("FIX.4.4", "EXEC", "BANZAI"))).isTrue();
+		ctx.stop();
+	}
+
 	private void hasAutoConfiguredBeans(AnnotationConfigApplicationContext ctx) {
 		Application serverApplication = ctx.getBean("serverApplication", Application.class);
 		assertThat(serverApplication).isInstanceOf(EventPublisherApplicationAdapter.class);
@@ -427,18 +561,20 @@ public class QuickFixJServerAutoConfigurationTest {
 
 	private void assertHasExecutors(
 			Acceptor serverAcceptor,
-			Executor taskExecutor
+			Executor longLivedTaskExecutor,
+			Executor shortLivedTaskExecutor
 	)
 			throws NoSuchFieldException, IllegalAccessException {
 		Field longLivedExecutor = getField(SessionConnector.class, "longLivedExecutor");
 		longLivedExecutor.setAccessible(true);
 		Executor actualLongLivedExecutor = (Executor) longLivedExecutor.get(serverAcceptor);
-		assertThat(taskExecutor).isEqualTo(actualLongLivedExecutor);
+		assertThat(longLivedTaskExecutor).isEqualTo(actualLongLivedExecutor);
 
 		Field shortLivedExecutor = getField(SessionConnector.class, "shortLivedExecutor");
 		shortLivedExecutor.setAccessible(true);
 		Executor actualShortLivedExecutor = (Executor) shortLivedExecutor.get(serverAcceptor);
-		assertThat(taskExecutor).isEqualTo(actualShortLivedExecutor);
+		assertThat(shortLivedTaskExecutor).isEqualTo(actualShortLivedExecutor);
+		assertThat(shortLivedTaskExecutor).isNotSameAs(longLivedTaskExecutor);
 	}
 
 	@Configuration
@@ -478,6 +614,12 @@ public class QuickFixJServerAutoConfigurationTest {
 	static class MultiThreadedExecutorFactoryServerAcceptorConfiguration {
 	}
 
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:server-multi-threaded/multi-threaded-application-virtual-threads.properties")
+	static class MultiThreadedVirtualThreadsServerAcceptorConfiguration {
+	}
+
 	@Configuration
 	@EnableAutoConfiguration
 	@PropertySource("classpath:server-single-threaded/single-threaded-application-no-config-defined.properties")
@@ -501,6 +643,12 @@ public class QuickFixJServerAutoConfigurationTest {
 	static class ServerFileStoreFactoryConfiguration {
 	}
 
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:server-message-store/server-groupcommit-store-factory.properties")
+	static class ServerGroupCommitFileStoreFactoryConfiguration {
+	}
+
 	@Configuration
 	@EnableAutoConfiguration
 	@PropertySource("classpath:server-message-store/server-jdbc-store-factory.properties")
@@ -513,6 +661,54 @@ public class QuickFixJServerAutoConfigurationTest {
 	static class ServerMemoryStoreFactoryConfiguration {
 	}
 
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:server-message-store/server-mmap-store-factory.properties")
+	static class ServerMappedFileStoreFactoryConfiguration {
+	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:server-message-store/server-offheap-store-factory.properties")
+	static class ServerOffHeapMemoryStoreFactoryConfiguration {
+	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:server-message-store/server-tiered-store-factory.properties")
+	static class ServerTieredMessageStoreFactoryConfiguration {
+	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:server-message-store/server-resend-stream.properties")
+	static class ServerResendStreamConfiguration {
+	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:server-events/server-ring-buffer-events.properties")
+	static class ServerRingBufferEventDispatcherConfiguration {
+	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:server-events/server-striped-events.properties")
+	static class ServerStripedEventDispatcherConfiguration {
+	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:server-events/server-batch-events.properties")
+	static class ServerFromAppBatcherConfiguration {
+	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:server-events/server-reactive-events.properties")
+	static class ServerReactiveEventsConfiguration {
+	}
+
 	@Configuration
 	@EnableAutoConfiguration
 	@PropertySource("classpath:server-message-store/server-noop-store-factory.properties")
@@ -606,4 +802,10 @@ public class QuickFixJServerAutoConfigurationTest {
 	@PropertySource("classpath:client-and-server-same-context/application.properties")
 	static class ClientAndServerSameContextConfiguration {
 	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	@PropertySource("classpath:client-and-server-same-context/validation.properties")
+	static class ClientAndServerSameContextValidationConfiguration {
+	}
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.application;
+
+import quickfix.SessionID;
+
+/**
+ * Strategy used by the {@link EventPublisherApplicationAdapter} to deliver the events created from the QuickFIX/J
+ * {@link quickfix.Application} callbacks to the listeners.
+ *
+ * @author Eduardo Sanchez-Ros
+ * @see RingBufferEventDispatcher
+ */
+@FunctionalInterface
+public interface EventDispatcher {
+
+	/**
+	 * Dispatches an event of the provided session. Invoked on the QuickFIX/J thread running the callback.
+	 *
+	 * @param sessionId the session the event belongs to
+	 * @param event     the event
+	 */
+	void dispatch(SessionID sessionId, Object event);
+
+	/**
+	 * Dispatches an event of the provided session and delivers it to the listeners before returning, on the QuickFIX/J
+	 * thread running the callback. Used for the {@link io.allune.quickfixj.spring.boot.starter.model.ToAdmin} and
+	 * {@link io.allune.quickfixj.spring.boot.starter.model.ToApp} events, as their listeners may modify the message
+	 * or prevent it from being sent, and QuickFIX/J modifies and sends it once the callback returns. Dispatchers
+	 * delivering the events on other threads must override this method.
+	 *
+	 * @param sessionId the session the event belongs to
+	 * @param event     the event
+	 */
+	default void dispatchSynchronously(SessionID sessionId, Object event) {
+		dispatch(sessionId, event);
+	}
+}
@@ -20,17 +20,25 @@ import io.allune.quickfixj.spring.boot.starter.model.FromAdmin;
 import io.allune.quickfixj.spring.boot.starter.model.FromApp;
 import io.allune.quickfixj.spring.boot.starter.model.Logon;
 import io.allune.quickfixj.spring.boot.starter.model.Logout;
+import io.allune.quickfixj.spring.boot.starter.model.ReusableEventPool;
+import io.allune.quickfixj.spring.boot.starter.model.ReusableFromAdmin;
+import io.allune.quickfixj.spring.boot.starter.model.ReusableFromApp;
+import io.allune.quickfixj.spring.boot.starter.model.ReusableMessageEvent;
+import io.allune.quickfixj.spring.boot.starter.model.ReusableToAdmin;
+import io.allune.quickfixj.spring.boot.starter.model.ReusableToApp;
 import io.allune.quickfixj.spring.boot.starter.model.ToAdmin;
 import io.allune.quickfixj.spring.boot.starter.model.ToApp;
+import io.allune.quickfixj.spring.boot.starter.template.HeartbeatRttTracker;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.util.Assert;
 import quickfix.Application;
 import quickfix.Message;
 import quickfix.SessionID;
 
-import java.util.function.Consumer;
-
 /**
  * Implements the {@link Application} interface publishing the received payload as a Spring {@link ApplicationEvent} to all
  * matching listeners registered.
@@ -46,15 +54,130 @@ import java.util.function.Consumer;
  * <p>If disabled (default), the problematic incoming message is discarded and the message sequence number is not incremented. Processing of the next valid message
  * will cause detection of a sequence gap and a ResendRequest will be generated.
  *
+ * <p>The events can be handed off to another {@link EventDispatcher}, such as a {@link RingBufferEventDispatcher} delivering them
+ * on its own threads, in which case the exceptions thrown by the listeners are not propagated to the session. The {@link ToAdmin}
+ * and {@link ToApp} events are always delivered synchronously on the QuickFIX/J thread, as QuickFIX/J modifies and sends their
+ * message once the callback returns.
+ *
+ * <p>When a {@link QuickFixJReactiveEvents} is set, the callbacks are also passed to it directly, without going through the
+ * {@link ApplicationEventPublisher}. The same goes for a {@link HeartbeatRttTracker}, so that the heartbeat round-trip time
+ * is measured on the QuickFIX/J thread rather than when an asynchronous {@link EventDispatcher} delivers the events.
+ *
+ * <p>When a {@link ReusableEventPool} is set, the {@link ReusableMessageEvent reusable message events} are also published,
+ * always on the QuickFIX/J thread running the callback, and released once the callback returns.
+ *
+ * <p>When a {@link ListenerTrackingApplicationEventMulticaster} is set, the events of the callback types without listeners are neither
+ * created nor published once the application context is refreshed.
+ *
  * @author Eduardo Sanchez-Ros
  */
 @Slf4j
-public class EventPublisherApplicationAdapter implements Application {
+public class EventPublisherApplicationAdapter implements Application, ApplicationListener<ContextRefreshedEvent> {
+
+	private static final int CREATE = 1;
+
+	private static final int LOGON = 1 << 1;
+
+	private static final int LOGOUT = 1 << 2;
+
+	private static final int TO_ADMIN = 1 << 3;
+
+	private static final int FROM_ADMIN = 1 << 4;
+
+	private static final int TO_APP = 1 << 5;
+
+	private static final int FROM_APP = 1 << 6;
+
+	private static final int REUSABLE_TO_ADMIN = 1 << 7;
+
+	private static final int REUSABLE_FROM_ADMIN = 1 << 8;
+
+	private static final int REUSABLE_TO_APP = 1 << 9;
+
+	private static final int REUSABLE_FROM_APP = 1 << 10;
+
+	private static final int ALL_EVENT_TYPES = (1 << 11) - 1;
+
+	private final EventDispatcher eventDispatcher;
+
+	private volatile ListenerTrackingApplicationEventMulticaster eventMulticaster;
+
+	private volatile QuickFixJReactiveEvents reactiveEvents;
+
+	private volatile HeartbeatRttTracker heartbeatRttTracker;
 
-	private Consumer<Object> publishEventConsumer;
+	private volatile ReusableEventPool reusableEventPool;
+
+	private volatile ApplicationEventPublisher reusableEventPublisher;
+
+	private volatile boolean contextRefreshed;
+
+	private volatile int publishedEventTypes = ALL_EVENT_TYPES;
+
+	private volatile long publishedEventTypesVersion = -1;
 
 	public EventPublisherApplicationAdapter(ApplicationEventPublisher applicationEventPublisher) {
-		this.publishEventConsumer = applicationEventPublisher::publishEvent;
+		this.eventDispatcher = (sessionId, event) -> applicationEventPublisher.publishEvent(event);
+	}
+
+	/**
+	 * Creates an adapter handing the events off to the provided {@link EventDispatcher}, e.g. a
+	 * {@link RingBufferEventDispatcher} publishing them on its own threads.
+	 *
+	 * @param eventDispatcher the dispatcher delivering the events to the listeners
+	 */
+	public EventPublisherApplicationAdapter(EventDispatcher eventDispatcher) {
+		Assert.notNull(eventDispatcher, "'eventDispatcher' must not be null");
+		this.eventDispatcher = eventDispatcher;
+	}
+
+	/**
+	 * Sets the multicaster used to find out which events have listeners. Once the application context is refreshed,
+	 * the events without listeners are neither created nor published, and the events with listeners are recomputed
+	 * whenever listeners are added or removed.
+	 *
+	 * @param eventMulticaster the application context's event multicaster
+	 */
+	public void setEventMulticaster(ListenerTrackingApplicationEventMulticaster eventMulticaster) {
+		this.eventMulticaster = eventMulticaster;
+	}
+
+	/**
+	 * Sets the {@link QuickFixJReactiveEvents} fed directly from the callbacks.
+	 *
+	 * @param reactiveEvents the reactive events
+	 */
+	public void setReactiveEvents(QuickFixJReactiveEvents reactiveEvents) {
+		this.reactiveEvents = reactiveEvents;
+	}
+
+	/**
+	 * Sets the {@link HeartbeatRttTracker} fed directly from the administrative callbacks.
+	 *
+	 * @param heartbeatRttTracker the heartbeat round-trip time tracker
+	 */
+	public void setHeartbeatRttTracker(HeartbeatRttTracker heartbeatRttTracker) {
+		this.heartbeatRttTracker = heartbeatRttTracker;
+	}
+
+	/**
+	 * Sets the pool of the {@link ReusableMessageEvent reusable message events}, which are published synchronously
+	 * through the provided publisher regardless of the {@link EventDispatcher}, as they are only valid until the
+	 * callback returns.
+	 *
+	 * @param reusableEventPool      the pool of the reusable events
+	 * @param reusableEventPublisher the publisher delivering the reusable events to the listeners
+	 */
+	public void setReusableEventPool(ReusableEventPool reusableEventPool, ApplicationEventPublisher reusableEventPublisher) {
+		Assert.isTrue(reusableEventPool == null || reusableEventPublisher != null, "'reusableEventPublisher' must not be null");
+		this.reusableEventPublisher = reusableEventPublisher;
+		this.reusableEventPool = reusableEventPool;
+	}
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		contextRefreshed = true;
+		isPublished(ALL_EVENT_TYPES);
 	}
 
 	/**
@@ -62,7 +185,21 @@ public class EventPublisherApplicationAdapter implements Application {
 	 */
 	@Override
 	public void fromAdmin(Message message, SessionID sessionId) {
-		publishEvent(FromAdmin.of(message, sessionId));
+		HeartbeatRttTracker heartbeatRttTracker = this.heartbeatRttTracker;
+		if (heartbeatRttTracker != null) {
+			heartbeatRttTracker.fromAdmin(message, sessionId);
+		}
+		QuickFixJReactiveEvents reactiveEvents = this.reactiveEvents;
+		if (reactiveEvents != null) {
+			reactiveEvents.fromAdmin(message, sessionId);
+		}
+		if (isPublished(FROM_ADMIN)) {
+			publishEvent(sessionId, FromAdmin.of(message, sessionId));
+		}
+		ReusableEventPool reusableEventPool = this.reusableEventPool;
+		if (reusableEventPool != null && isPublished(REUSABLE_FROM_ADMIN)) {
+			publishReusableEvent(reusableEventPool, reusableEventPool.acquireFromAdmin(message, sessionId));
+		}
 	}
 
 	/**
@@ -70,7 +207,17 @@ public class EventPublisherApplicationAdapter implements Application {
 	 */
 	@Override
 	public void fromApp(Message message, SessionID sessionId) {
-		publishEvent(FromApp.of(message, sessionId));
+		QuickFixJReactiveEvents reactiveEvents = this.reactiveEvents;
+		if (reactiveEvents != null) {
+			reactiveEvents.fromApp(message, sessionId);
+		}
+		if (isPublished(FROM_APP)) {
+			publishEvent(sessionId, FromApp.of(message, sessionId));
+		}
+		ReusableEventPool reusableEventPool = this.reusableEventPool;
+		if (reusableEventPool != null && isPublished(REUSABLE_FROM_APP)) {
+			publishReusableEvent(reusableEventPool, reusableEventPool.acquireFromApp(message, sessionId));
+		}
 	}
 
 	/**
@@ -78,7 +225,9 @@ public class EventPublisherApplicationAdapter implements Application {
 	 */
 	@Override
 	public void onCreate(SessionID sessionId) {
-		publishEvent(Create.of(sessionId));
+		if (isPublished(CREATE)) {
+			publishEvent(sessionId, Create.of(sessionId));
+		}
 	}
 
 	/**
@@ -86,7 +235,13 @@ public class EventPublisherApplicationAdapter implements Application {
 	 */
 	@Override
 	public void onLogon(SessionID sessionId) {
-		publishEvent(Logon.of(sessionId));
+		QuickFixJReactiveEvents reactiveEvents = this.reactiveEvents;
+		if (reactiveEvents != null) {
+			reactiveEvents.onLogon(sessionId);
+		}
+		if (isPublished(LOGON)) {
+			publishEvent(sessionId, Logon.of(sessionId));
+		}
 	}
 
 	/**
@@ -94,7 +249,13 @@ public class EventPublisherApplicationAdapter implements Application {
 	 */
 	@Override
 	public void onLogout(SessionID sessionId) {
-		publishEvent(Logout.of(sessionId));
+		QuickFixJReactiveEvents reactiveEvents = this.reactiveEvents;
+		if (reactiveEvents != null) {
+			reactiveEvents.onLogout(sessionId);
+		}
+		if (isPublished(LOGOUT)) {
+			publishEvent(sessionId, Logout.of(sessionId));
+		}
 	}
 
 	/**
@@ -102,7 +263,21 @@ public class EventPublisherApplicationAdapter implements Application {
 	 */
 	@Override
 	public void toAdmin(Message message, SessionID sessionId) {
-		publishEvent(ToAdmin.of(message, sessionId));
+		HeartbeatRttTracker heartbeatRttTracker = this.heartbeatRttTracker;
+		if (heartbeatRttTracker != null) {
+			heartbeatRttTracker.toAdmin(message, sessionId);
+		}
+		QuickFixJReactiveEvents reactiveEvents = this.reactiveEvents;
+		if (reactiveEvents != null) {
+			reactiveEvents.toAdmin(message, sessionId);
+		}
+		if (isPublished(TO_ADMIN)) {
+			publishEventSynchronously(sessionId, ToAdmin.of(message, sessionId));
+		}
+		ReusableEventPool reusableEventPool = this.reusableEventPool;
+		if (reusableEventPool != null && isPublished(REUSABLE_TO_ADMIN)) {
+			publishReusableEvent(reusableEventPool, reusableEventPool.acquireToAdmin(message, sessionId));
+		}
 	}
 
 	/**
@@ -110,12 +285,67 @@ public class EventPublisherApplicationAdapter implements Application {
 	 */
 	@Override
 	public void toApp(Message message, SessionID sessionId) {
-		publishEvent(ToApp.of(message, sessionId));
+		QuickFixJReactiveEvents reactiveEvents = this.reactiveEvents;
+		if (reactiveEvents != null) {
+			reactiveEvents.toApp(message, sessionId);
+		}
+		if (isPublished(TO_APP)) {
+			publishEventSynchronously(sessionId, ToApp.of(message, sessionId));
+		}
+		ReusableEventPool reusableEventPool = this.reusableEventPool;
+		if (reusableEventPool != null && isPublished(REUSABLE_TO_APP)) {
+			publishReusableEvent(reusableEventPool, reusableEventPool.acquireToApp(message, sessionId));
+		}
+	}
+
+	private boolean isPublished(int eventType) {
+		ListenerTrackingApplicationEventMulticaster multicaster = eventMulticaster;
+		if (multicaster != null && contextRefreshed && multicaster.getListenersVersion() != publishedEventTypesVersion) {
+			updatePublishedEventTypes(multicaster);
+		}
+		return (publishedEventTypes & eventType) != 0;
+	}
+
+	private synchronized void updatePublishedEventTypes(ListenerTrackingApplicationEventMulticaster multicaster) {
+		long version = multicaster.getListenersVersion();
+		if (version == publishedEventTypesVersion) {
+			return;
+		}
+		int eventTypes = 0;
+		eventTypes |= multicaster.hasListeners(Create.class) ? CREATE : 0;
+		eventTypes |= multicaster.hasListeners(Logon.class) ? LOGON : 0;
+		eventTypes |= multicaster.hasListeners(Logout.class) ? LOGOUT : 0;
+		eventTypes |= multicaster.hasListeners(ToAdmin.class) ? TO_ADMIN : 0;
+		eventTypes |= multicaster.hasListeners(FromAdmin.class) ? FROM_ADMIN : 0;
+		eventTypes |= multicaster.hasListeners(ToApp.class) ? TO_APP : 0;
+		eventTypes |= multicaster.hasListeners(FromApp.class) ? FROM_APP : 0;
+		eventTypes |= multicaster.hasListeners(ReusableToAdmin.class) ? REUSABLE_TO_ADMIN : 0;
+		eventTypes |= multicaster.hasListeners(ReusableFromAdmin.class) ? REUSABLE_FROM_ADMIN : 0;
+		eventTypes |= multicaster.hasListeners(ReusableToApp.class) ? REUSABLE_TO_APP : 0;
+		eventTypes |= multicaster.hasListeners(ReusableFromApp.class) ? REUSABLE_FROM_APP : 0;
+		publishedEventTypes = eventTypes;
+		publishedEventTypesVersion = version;
+	}
+
+	private void publishReusableEvent(ReusableEventPool reusableEventPool, ReusableMessageEvent event) {
+		try {
+			reusableEventPublisher.publishEvent(event);
+		} finally {
+			reusableEventPool.release(event);
+		}
+	}
+
+	private <T> void publishEvent(SessionID sessionId, T event) {
+		try {
+			eventDispatcher.dispatch(sessionId, event);
+		} catch (Exception ex) {
+			throw new RuntimeException(ex);
+		}
 	}
 
-	private <T> void publishEvent(T event) {
+	private <T> void publishEventSynchronously(SessionID sessionId, T event) {
 		try {
-			publishEventConsumer.accept(event);
+			eventDispatcher.dispatchSynchronously(sessionId, event);
 		} catch (Exception ex) {
 			throw new RuntimeException(ex);
 		}
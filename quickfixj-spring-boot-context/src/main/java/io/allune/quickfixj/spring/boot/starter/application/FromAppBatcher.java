@@ -0,0 +1,264 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.application;
+
+import io.allune.quickfixj.spring.boot.starter.model.FromApp;
+import io.allune.quickfixj.spring.boot.starter.model.FromAppBatch;
+import io.allune.quickfixj.spring.boot.starter.model.Logout;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import quickfix.SessionID;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Accumulates the {@link FromApp} events of each session and delivers them as a {@link FromAppBatch} when the batch
+ * reaches its maximum size or its window elapses, whichever comes first, so that the listeners can process them in
+ * bulk, e.g. writing them to a database in a single transaction.
+ * <p>
+ * Adding an event to a batch is the only work done on the thread publishing the {@link FromApp} event. The batches
+ * are delivered on a dedicated thread, in the order they were completed, so the batches of a session are delivered
+ * in order, while the windows are timed on another thread, so that slow listeners do not delay them. Up to a given
+ * number of completed batches wait to be delivered; once reached, the thread completing a batch waits until the
+ * oldest one is taken, applying backpressure to the sessions. The pending batch of a session is delivered when its
+ * {@link Logout} event is received, and all the pending batches are delivered when the batcher is destroyed.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+@Slf4j
+public class FromAppBatcher implements DisposableBean {
+
+	private static final String DEFAULT_THREAD_NAME_PREFIX = "QuickFixJ event batcher-";
+
+	private static final String TIMER_THREAD_NAME_PREFIX = "QuickFixJ event batcher timer-";
+
+	private static final int DEFAULT_MAX_PENDING_BATCHES = 1024;
+
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+	private final Consumer<Object> batchConsumer;
+
+	private final int maxBatchSize;
+
+	private final long windowNanos;
+
+	private final ScheduledThreadPoolExecutor scheduler;
+
+	private final ThreadPoolExecutor deliveryExecutor;
+
+	private final ConcurrentMap<SessionID, SessionBatch> batches = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a batcher.
+	 *
+	 * @param batchConsumer the consumer delivering the batches to the listeners, e.g.
+	 *                      {@code applicationEventPublisher::publishEvent}
+	 * @param maxBatchSize  the number of events delivering a batch
+	 * @param window        the maximum time the first event of a batch waits before the batch is delivered
+	 */
+	public FromAppBatcher(Consumer<Object> batchConsumer, int maxBatchSize, Duration window) {
+		this(batchConsumer, maxBatchSize, window, DEFAULT_MAX_PENDING_BATCHES);
+	}
+
+	/**
+	 * Creates a batcher.
+	 *
+	 * @param batchConsumer     the consumer delivering the batches to the listeners, e.g.
+	 *                          {@code applicationEventPublisher::publishEvent}
+	 * @param maxBatchSize      the number of events delivering a batch
+	 * @param window            the maximum time the first event of a batch waits before the batch is delivered
+	 * @param maxPendingBatches the maximum number of completed batches waiting to be delivered
+	 */
+	public FromAppBatcher(Consumer<Object> batchConsumer, int maxBatchSize, Duration window, int maxPendingBatches) {
+		Assert.notNull(batchConsumer, "'batchConsumer' must not be null");
+		Assert.isTrue(maxBatchSize > 0, "'maxBatchSize' must be greater than 0");
+		Assert.isTrue(window != null && !window.isNegative() && !window.isZero(), "'window' must be positive");
+		Assert.isTrue(maxPendingBatches > 0, "'maxPendingBatches' must be greater than 0");
+		this.batchConsumer = batchConsumer;
+		this.maxBatchSize = maxBatchSize;
+		this.windowNanos = window.toNanos();
+
+		CustomizableThreadFactory timerThreadFactory = new CustomizableThreadFactory(TIMER_THREAD_NAME_PREFIX);
+		timerThreadFactory.setDaemon(true);
+		this.scheduler = new ScheduledThreadPoolExecutor(1, timerThreadFactory);
+		this.scheduler.setRemoveOnCancelPolicy(true);
+		this.scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(DEFAULT_THREAD_NAME_PREFIX);
+		threadFactory.setDaemon(true);
+		this.deliveryExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(maxPendingBatches), threadFactory);
+		// The batches are put straight into the queue, so the delivery thread must be running to take them
+		this.deliveryExecutor.prestartAllCoreThreads();
+	}
+
+	@EventListener
+	public void onFromApp(FromApp fromApp) {
+		SessionBatch batch = batches.get(fromApp.getSessionId());
+		if (batch == null) {
+			batch = batches.computeIfAbsent(fromApp.getSessionId(), SessionBatch::new);
+		}
+		batch.add(fromApp);
+	}
+
+	@EventListener
+	public void onLogout(Logout logout) {
+		SessionBatch batch = batches.get(logout.getSessionId());
+		if (batch != null) {
+			batch.flush();
+		}
+	}
+
+	/**
+	 * Returns the number of events delivering a batch.
+	 *
+	 * @return the maximum batch size
+	 */
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/**
+	 * Returns the number of events of the provided session waiting for their batch to be completed.
+	 *
+	 * @param sessionID the session ID
+	 * @return the number of pending events
+	 */
+	public int getPendingCount(SessionID sessionID) {
+		SessionBatch batch = batches.get(sessionID);
+		return batch != null ? batch.size() : 0;
+	}
+
+	/**
+	 * Returns the number of completed batches waiting to be delivered.
+	 *
+	 * @return the number of pending batches
+	 */
+	public int getPendingBatchCount() {
+		return deliveryExecutor.getQueue().size();
+	}
+
+	/**
+	 * Delivers the pending batches of all the sessions and stops the delivery thread once they have been delivered.
+	 * Batches completed afterwards are delivered on the thread completing them.
+	 */
+	@Override
+	public void destroy() {
+		scheduler.shutdown();
+		batches.values().forEach(SessionBatch::flush);
+		deliveryExecutor.shutdown();
+		try {
+			if (!deliveryExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+				log.warn("Timed out waiting for the pending batches to be delivered");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void deliverAsync(SessionID sessionID, List<FromApp> events) {
+		FromAppBatch batch = FromAppBatch.of(sessionID, events);
+		if (deliveryExecutor.isShutdown()) {
+			deliver(batch);
+			return;
+		}
+
+		Runnable delivery = () -> deliver(batch);
+		try {
+			deliveryExecutor.getQueue().put(delivery);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			deliver(batch);
+			return;
+		}
+
+		// The delivery thread may have terminated before taking the batch
+		if (deliveryExecutor.isShutdown() && deliveryExecutor.getQueue().remove(delivery)) {
+			deliver(batch);
+		}
+	}
+
+	private void deliver(FromAppBatch batch) {
+		try {
+			batchConsumer.accept(batch);
+		} catch (Exception e) {
+			log.error("Error delivering batch of {} events of session {}", batch.getEvents().size(), batch.getSessionId(), e);
+		}
+	}
+
+	private final class SessionBatch {
+
+		private final SessionID sessionID;
+
+		private List<FromApp> events;
+
+		private ScheduledFuture<?> windowTimeout;
+
+		SessionBatch(SessionID sessionID) {
+			this.sessionID = sessionID;
+			this.events = new ArrayList<>(maxBatchSize);
+		}
+
+		synchronized void add(FromApp fromApp) {
+			events.add(fromApp);
+			if (events.size() >= maxBatchSize) {
+				flush();
+			} else if (events.size() == 1) {
+				scheduleWindowTimeout();
+			}
+		}
+
+		synchronized void flush() {
+			if (windowTimeout != null) {
+				windowTimeout.cancel(false);
+				windowTimeout = null;
+			}
+			if (events.isEmpty()) {
+				return;
+			}
+			List<FromApp> completed = events;
+			events = new ArrayList<>(maxBatchSize);
+			deliverAsync(sessionID, completed);
+		}
+
+		synchronized int size() {
+			return events.size();
+		}
+
+		private void scheduleWindowTimeout() {
+			try {
+				windowTimeout = scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+			} catch (RejectedExecutionException e) {
+				// The batcher has been destroyed, deliver the event right away
+				flush();
+			}
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.application;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.core.ResolvableType;
+
+import java.util.function.Predicate;
+
+/**
+ * {@link SimpleApplicationEventMulticaster} keeping track of the changes to its listeners, so that the
+ * {@link EventPublisherApplicationAdapter} can skip the creation of the events nobody listens to and recompute them
+ * when listeners are added or removed at runtime.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class ListenerTrackingApplicationEventMulticaster extends SimpleApplicationEventMulticaster {
+
+	private volatile long listenersVersion;
+
+	public ListenerTrackingApplicationEventMulticaster() {
+	}
+
+	public ListenerTrackingApplicationEventMulticaster(BeanFactory beanFactory) {
+		super(beanFactory);
+	}
+
+	/**
+	 * Returns a number changing every time a listener is added or removed.
+	 *
+	 * @return the version of the registered listeners
+	 */
+	public long getListenersVersion() {
+		return listenersVersion;
+	}
+
+	/**
+	 * Returns whether any listener supports the events published with a payload of the provided type, i.e. with
+	 * {@link org.springframework.context.ApplicationEventPublisher#publishEvent(Object)}, or the events of the provided
+	 * type if it is an {@link ApplicationEvent}.
+	 *
+	 * @param payloadType the type of the payload
+	 * @return true if at least one listener would receive the event, false otherwise
+	 */
+	public boolean hasListeners(Class<?> payloadType) {
+		ResolvableType eventType = ApplicationEvent.class.isAssignableFrom(payloadType)
+				? ResolvableType.forClass(payloadType)
+				: ResolvableType.forClassWithGenerics(PayloadApplicationEvent.class, payloadType);
+		ApplicationEvent event = new PayloadApplicationEvent<Object>(this, payloadType, ResolvableType.forClass(payloadType));
+		return !getApplicationListeners(event, eventType).isEmpty();
+	}
+
+	@Override
+	public void addApplicationListener(ApplicationListener<?> listener) {
+		super.addApplicationListener(listener);
+		listenersChanged();
+	}
+
+	@Override
+	public void addApplicationListenerBean(String listenerBeanName) {
+		super.addApplicationListenerBean(listenerBeanName);
+		listenersChanged();
+	}
+
+	@Override
+	public void removeApplicationListener(ApplicationListener<?> listener) {
+		super.removeApplicationListener(listener);
+		listenersChanged();
+	}
+
+	@Override
+	public void removeApplicationListenerBean(String listenerBeanName) {
+		super.removeApplicationListenerBean(listenerBeanName);
+		listenersChanged();
+	}
+
+	@Override
+	public void removeApplicationListeners(Predicate<ApplicationListener<?>> predicate) {
+		super.removeApplicationListeners(predicate);
+		listenersChanged();
+	}
+
+	@Override
+	public void removeApplicationListenerBeans(Predicate<String> predicate) {
+		super.removeApplicationListenerBeans(predicate);
+		listenersChanged();
+	}
+
+	@Override
+	public void removeAllListeners() {
+		super.removeAllListeners();
+		listenersChanged();
+	}
+
+	private synchronized void listenersChanged() {
+		listenersVersion++;
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.application;
+
+import io.allune.quickfixj.spring.boot.starter.exception.EventQueueFullException;
+import io.allune.quickfixj.spring.boot.starter.model.FromAdmin;
+import io.allune.quickfixj.spring.boot.starter.model.ToAdmin;
+
+/**
+ * What an {@link EventDispatcher} does with an event dispatched while the queue of its session is full.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public enum OverflowPolicy {
+
+	/**
+	 * The QuickFIX/J thread waits until a slot is freed, applying backpressure to the session.
+	 */
+	BLOCK,
+
+	/**
+	 * The {@link FromAdmin} and {@link ToAdmin} events are dropped, while the other events wait until a slot is
+	 * freed, so that heartbeats and other administrative messages do not hold up the session when the listeners
+	 * fall behind.
+	 */
+	DROP_ADMIN_FIRST,
+
+	/**
+	 * The event is dropped and an {@link EventQueueFullException} is thrown to the QuickFIX/J thread.
+	 */
+	FAIL;
+
+	/**
+	 * Returns whether the provided event is dropped rather than waiting for a free slot.
+	 *
+	 * @param event the event
+	 * @return true if the event is dropped
+	 */
+	boolean isDropped(Object event) {
+		return this == DROP_ADMIN_FIRST && (event instanceof FromAdmin || event instanceof ToAdmin);
+	}
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.application;
+
+import io.allune.quickfixj.spring.boot.starter.model.FromAdmin;
+import io.allune.quickfixj.spring.boot.starter.model.FromApp;
+import io.allune.quickfixj.spring.boot.starter.model.Logon;
+import io.allune.quickfixj.spring.boot.starter.model.Logout;
+import io.allune.quickfixj.spring.boot.starter.model.ToAdmin;
+import io.allune.quickfixj.spring.boot.starter.model.ToApp;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+import quickfix.Application;
+import quickfix.Message;
+import quickfix.SessionID;
+import quickfix.field.MsgType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exposes the QuickFIX/J {@link Application} callbacks as hot {@link Flux} streams, globally and per session.
+ * <p>
+ * The streams are fed directly from the callbacks by the {@link EventPublisherApplicationAdapter}, without going
+ * through the {@link org.springframework.context.ApplicationEventPublisher}, and only carry the events received
+ * while subscribed. No event is created while a stream has no subscribers.
+ * <p>
+ * The events are delivered on the QuickFIX/J thread running the callback, in order for each session. Each subscriber
+ * applies the {@link BackpressureStrategy} to the events it has not requested yet, so a slow subscriber never holds up
+ * the session nor the other subscribers. Operators such as {@code publishOn} move the processing off the QuickFIX/J
+ * threads, and operators such as {@code window} or {@code sample} window and conflate the events.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+@Slf4j
+public class QuickFixJReactiveEvents implements Application, DisposableBean {
+
+	/**
+	 * Defines what a subscriber does with the events emitted faster than it requests them.
+	 */
+	public enum BackpressureStrategy {
+
+		/**
+		 * Buffer the events, failing the subscriber if the buffer size is exceeded.
+		 */
+		BUFFER,
+
+		/**
+		 * Drop the events that have not been requested.
+		 */
+		DROP,
+
+		/**
+		 * Keep only the latest event that has not been requested, conflating the others.
+		 */
+		LATEST,
+
+		/**
+		 * Fail the subscriber as soon as an event has not been requested.
+		 */
+		ERROR
+	}
+
+	private final BackpressureStrategy backpressureStrategy;
+
+	private final int bufferSize;
+
+	private final EventStream<FromApp> fromAppStream = new EventStream<>();
+
+	private final EventStream<ToApp> toAppStream = new EventStream<>();
+
+	private final EventStream<FromAdmin> fromAdminStream = new EventStream<>();
+
+	private final EventStream<ToAdmin> toAdminStream = new EventStream<>();
+
+	private final EventStream<Logon> logonStream = new EventStream<>();
+
+	private final EventStream<Logout> logoutStream = new EventStream<>();
+
+	/**
+	 * Creates the reactive events buffering up to {@link Queues#SMALL_BUFFER_SIZE} events per subscriber.
+	 */
+	public QuickFixJReactiveEvents() {
+		this(BackpressureStrategy.BUFFER, Queues.SMALL_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates the reactive events.
+	 *
+	 * @param backpressureStrategy what the subscribers do with the events emitted faster than they request them
+	 * @param bufferSize           the maximum number of events buffered per subscriber with the
+	 *                             {@link BackpressureStrategy#BUFFER buffer} strategy
+	 */
+	public QuickFixJReactiveEvents(BackpressureStrategy backpressureStrategy, int bufferSize) {
+		Assert.notNull(backpressureStrategy, "'backpressureStrategy' must not be null");
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be greater than 0");
+		this.backpressureStrategy = backpressureStrategy;
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Returns the application messages received by all the sessions.
+	 *
+	 * @return a hot stream of {@link FromApp} events
+	 */
+	public Flux<FromApp> fromApp() {
+		return fromAppStream.flux(null);
+	}
+
+	/**
+	 * Returns the application messages received by the provided session.
+	 *
+	 * @param sessionID the session ID
+	 * @return a hot stream of {@link FromApp} events
+	 */
+	public Flux<FromApp> fromApp(SessionID sessionID) {
+		Assert.notNull(sessionID, "'sessionID' must not be null");
+		return fromAppStream.flux(sessionID);
+	}
+
+	/**
+	 * Returns the application messages of the provided types received by the provided session, or by all the
+	 * sessions.
+	 *
+	 * @param sessionID the session ID, or null for all the sessions
+	 * @param msgTypes  the MsgType (35) values of the messages
+	 * @return a hot stream of {@link FromApp} events
+	 */
+	public Flux<FromApp> fromApp(SessionID sessionID, String... msgTypes) {
+		Assert.notEmpty(msgTypes, "'msgTypes' must not be empty");
+		Set<String> msgTypeSet = Set.copyOf(Arrays.asList(msgTypes));
+		return fromAppStream.flux(sessionID)
+				.filter(fromApp -> msgTypeSet.contains(fromApp.getMessage().getHeader().getOptionalString(MsgType.FIELD).orElse(null)));
+	}
+
+	/**
+	 * Returns the application messages sent by all the sessions.
+	 *
+	 * @return a hot stream of {@link ToApp} events
+	 */
+	public Flux<ToApp> toApp() {
+		return toAppStream.flux(null);
+	}
+
+	/**
+	 * Returns the application messages sent by the provided session.
+	 *
+	 * @param sessionID the session ID
+	 * @return a hot stream of {@link ToApp} events
+	 */
+	public Flux<ToApp> toApp(SessionID sessionID) {
+		Assert.notNull(sessionID, "'sessionID' must not be null");
+		return toAppStream.flux(sessionID);
+	}
+
+	/**
+	 * Returns the administrative messages received by all the sessions.
+	 *
+	 * @return a hot stream of {@link FromAdmin} events
+	 */
+	public Flux<FromAdmin> fromAdmin() {
+		return fromAdminStream.flux(null);
+	}
+
+	/**
+	 * Returns the administrative messages received by the provided session.
+	 *
+	 * @param sessionID the session ID
+	 * @return a hot stream of {@link FromAdmin} events
+	 */
+	public Flux<FromAdmin> fromAdmin(SessionID sessionID) {
+		Assert.notNull(sessionID, "'sessionID' must not be null");
+		return fromAdminStream.flux(sessionID);
+	}
+
+	/**
+	 * Returns the administrative messages sent by all the sessions.
+	 *
+	 * @return a hot stream of {@link ToAdmin} events
+	 */
+	public Flux<ToAdmin> toAdmin() {
+		return toAdminStream.flux(null);
+	}
+
+	/**
+	 * Returns the administrative messages sent by the provided session.
+	 *
+	 * @param sessionID the session ID
+	 * @return a hot stream of {@link ToAdmin} events
+	 */
+	public Flux<ToAdmin> toAdmin(SessionID sessionID) {
+		Assert.notNull(sessionID, "'sessionID' must not be null");
+		return toAdminStream.flux(sessionID);
+	}
+
+	/**
+	 * Returns the logons of all the sessions.
+	 *
+	 * @return a hot stream of {@link Logon} events
+	 */
+	public Flux<Logon> logon() {
+		return logonStream.flux(null);
+	}
+
+	/**
+	 * Returns the logouts of all the sessions.
+	 *
+	 * @return a hot stream of {@link Logout} events
+	 */
+	public Flux<Logout> logout() {
+		return logoutStream.flux(null);
+	}
+
+	@Override
+	public void onCreate(SessionID sessionId) {
+		// Sessions are created before any subscriber can know their ID
+	}
+
+	@Override
+	public void onLogon(SessionID sessionId) {
+		if (logonStream.hasSubscribers()) {
+			logonStream.emit(sessionId, Logon.of(sessionId));
+		}
+	}
+
+	@Override
+	public void onLogout(SessionID sessionId) {
+		if (logoutStream.hasSubscribers()) {
+			logoutStream.emit(sessionId, Logout.of(sessionId));
+		}
+	}
+
+	@Override
+	public void toAdmin(Message message, SessionID sessionId) {
+		if (toAdminStream.hasSubscribers()) {
+			toAdminStream.emit(sessionId, ToAdmin.of(message, sessionId));
+		}
+	}
+
+	@Override
+	public void fromAdmin(Message message, SessionID sessionId) {
+		if (fromAdminStream.hasSubscribers()) {
+			fromAdminStream.emit(sessionId, FromAdmin.of(message, sessionId));
+		}
+	}
+
+	@Override
+	public void toApp(Message message, SessionID sessionId) {
+		if (toAppStream.hasSubscribers()) {
+			toAppStream.emit(sessionId, ToApp.of(message, sessionId));
+		}
+	}
+
+	@Override
+	public void fromApp(Message message, SessionID sessionId) {
+		if (fromAppStream.hasSubscribers()) {
+			fromAppStream.emit(sessionId, FromApp.of(message, sessionId));
+		}
+	}
+
+	/**
+	 * Returns whether any stream has subscribers.
+	 *
+	 * @return true if at least one stream has subscribers
+	 */
+	public boolean hasSubscribers() {
+		return fromAppStream.hasSubscribers() || toAppStream.hasSubscribers()
+				|| fromAdminStream.hasSubscribers() || toAdminStream.hasSubscribers()
+				|| logonStream.hasSubscribers() || logoutStream.hasSubscribers();
+	}
+
+	/**
+	 * Completes all the streams.
+	 */
+	@Override
+	public void destroy() {
+		fromAppStream.complete();
+		toAppStream.complete();
+		fromAdminStream.complete();
+		toAdminStream.complete();
+		logonStream.complete();
+		logoutStream.complete();
+	}
+
+	private <T> Flux<T> applyBackpressureStrategy(Flux<T> events) {
+		return switch (backpressureStrategy) {
+			case DROP -> events.onBackpressureDrop();
+			case LATEST -> events.onBackpressureLatest();
+			case ERROR -> events.onBackpressureError();
+			default -> events.onBackpressureBuffer(bufferSize);
+		};
+	}
+
+	/**
+	 * The global and per-session sinks of an event type. The sinks are not serialized, as the callbacks of different
+	 * sessions run concurrently, so each emission holds the lock of its sink.
+	 */
+	private final class EventStream<T> {
+
+		private final Sinks.Many<T> globalSink = newSink();
+
+		private final ConcurrentMap<SessionID, Sinks.Many<T>> sessionSinks = new ConcurrentHashMap<>();
+
+		private final AtomicInteger subscriberCount = new AtomicInteger();
+
+		boolean hasSubscribers() {
+			return subscriberCount.get() > 0;
+		}
+
+		Flux<T> flux(SessionID sessionID) {
+			Sinks.Many<T> sink = sessionID != null ? sessionSinks.computeIfAbsent(sessionID, id -> newSink()) : globalSink;
+			return applyBackpressureStrategy(sink.asFlux()
+					.doOnSubscribe(subscription -> subscriberCount.incrementAndGet())
+					.doFinally(signal -> subscriberCount.decrementAndGet()));
+		}
+
+		void emit(SessionID sessionID, T event) {
+			Sinks.Many<T> sessionSink = sessionSinks.get(sessionID);
+			if (sessionSink != null) {
+				emit(sessionSink, event);
+			}
+			emit(globalSink, event);
+		}
+
+		void complete() {
+			synchronized (globalSink) {
+				globalSink.tryEmitComplete();
+			}
+			sessionSinks.values().forEach(sink -> {
+				synchronized (sink) {
+					sink.tryEmitComplete();
+				}
+			});
+		}
+
+		private void emit(Sinks.Many<T> sink, T event) {
+			if (sink.currentSubscriberCount() == 0) {
+				return;
+			}
+			try {
+				synchronized (sink) {
+					sink.tryEmitNext(event);
+				}
+			} catch (RuntimeException e) {
+				log.error("Error emitting event {}", event, e);
+			}
+		}
+
+		private Sinks.Many<T> newSink() {
+			return Sinks.unsafe().many().multicast().directBestEffort();
+		}
+	}
+}
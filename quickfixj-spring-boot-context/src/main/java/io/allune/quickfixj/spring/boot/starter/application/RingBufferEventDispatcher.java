@@ -0,0 +1,522 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.application;
+
+import io.allune.quickfixj.spring.boot.starter.exception.EventQueueFullException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import quickfix.SessionID;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * {@link EventDispatcher} handing the events off to a preallocated ring buffer per session, from which they are
+ * delivered to the listeners on a fixed set of consumer threads, so that slow listeners do not stall the QuickFIX/J
+ * session threads nor delay their heartbeats.
+ * <p>
+ * Each session is served by a single consumer thread, which preserves the ordering of the events of a session,
+ * while the sessions are spread across the consumer threads. The callbacks of a session can be invoked from more than
+ * one thread (e.g. {@code toApp} from the threads sending messages and {@code fromApp} from the session's reader
+ * thread), so the slots are claimed atomically rather than assuming a single producer. What happens to the events
+ * dispatched while the ring buffer of their session is full is defined by the {@link OverflowPolicy}; by default the
+ * QuickFIX/J thread waits until the consumer frees a slot. The events dispatched by the listeners themselves, e.g.
+ * when they send a message, are delivered on the consumer thread instead of waiting, as they would wait for
+ * themselves.
+ * <p>
+ * The {@link io.allune.quickfixj.spring.boot.starter.model.ToAdmin} and
+ * {@link io.allune.quickfixj.spring.boot.starter.model.ToApp} events are delivered synchronously on the QuickFIX/J
+ * thread, so that their listeners can still modify the message before it is sent, therefore they may be delivered
+ * before earlier events of the same session.
+ * <p>
+ * Exceptions thrown by the listeners of the other events are logged and not propagated to the session, therefore the
+ * {@code RejectMessageOnUnhandledException} setting has no effect on them.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+@Slf4j
+public class RingBufferEventDispatcher implements EventDispatcher, DisposableBean {
+
+	/**
+	 * How the consumer threads wait for events when the ring buffers are empty.
+	 */
+	public enum WaitStrategy {
+
+		/**
+		 * Parks the consumer thread until an event is published. Lowest CPU usage, highest wake-up latency.
+		 */
+		BLOCKING,
+
+		/**
+		 * Spins, then yields, then sleeps for short periods.
+		 */
+		SLEEPING,
+
+		/**
+		 * Spins, then yields the processor.
+		 */
+		YIELDING,
+
+		/**
+		 * Spins continuously, dedicating a core to each consumer thread. Lowest latency.
+		 */
+		BUSY_SPIN
+	}
+
+	private static final String DEFAULT_THREAD_NAME_PREFIX = "QuickFixJ event dispatcher-";
+
+	private static final int SPIN_TRIES = 100;
+
+	private static final int YIELD_TRIES = 100;
+
+	private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+	private static final long PRODUCER_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+
+	private static final long SHUTDOWN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+	private final Consumer<Object> eventConsumer;
+
+	private final int bufferSize;
+
+	private final WaitStrategy waitStrategy;
+
+	private final OverflowPolicy overflowPolicy;
+
+	private final LongAdder droppedCount = new LongAdder();
+
+	private volatile LongConsumer dispatchLatencyRecorder;
+
+	private final EventConsumer[] consumers;
+
+	private final ConcurrentMap<SessionID, EventRingBuffer> ringBuffers = new ConcurrentHashMap<>();
+
+	private volatile boolean running = true;
+
+	/**
+	 * Creates a ring buffer event dispatcher and starts its consumer threads.
+	 *
+	 * @param eventConsumer   the consumer delivering the events to the listeners, e.g.
+	 *                        {@code applicationEventPublisher::publishEvent}
+	 * @param bufferSize      the number of slots of the ring buffer of each session, rounded up to a power of two
+	 * @param consumerThreads the number of consumer threads
+	 * @param waitStrategy    how the consumer threads wait for events
+	 */
+	public RingBufferEventDispatcher(Consumer<Object> eventConsumer, int bufferSize, int consumerThreads,
+	                                 WaitStrategy waitStrategy) {
+		this(eventConsumer, bufferSize, consumerThreads, waitStrategy, OverflowPolicy.BLOCK);
+	}
+
+	/**
+	 * Creates a ring buffer event dispatcher and starts its consumer threads.
+	 *
+	 * @param eventConsumer   the consumer delivering the events to the listeners, e.g.
+	 *                        {@code applicationEventPublisher::publishEvent}
+	 * @param bufferSize      the number of slots of the ring buffer of each session, rounded up to a power of two
+	 * @param consumerThreads the number of consumer threads
+	 * @param waitStrategy    how the consumer threads wait for events
+	 * @param overflowPolicy  what to do with the events dispatched while the ring buffer of their session is full
+	 */
+	public RingBufferEventDispatcher(Consumer<Object> eventConsumer, int bufferSize, int consumerThreads,
+	                                 WaitStrategy waitStrategy, OverflowPolicy overflowPolicy) {
+		Assert.notNull(eventConsumer, "'eventConsumer' must not be null");
+		Assert.isTrue(bufferSize > 0 && bufferSize <= 1 << 30, "'bufferSize' must be between 1 and 2^30");
+		Assert.isTrue(consumerThreads > 0, "'consumerThreads' must be greater than 0");
+		Assert.notNull(waitStrategy, "'waitStrategy' must not be null");
+		Assert.notNull(overflowPolicy, "'overflowPolicy' must not be null");
+		this.eventConsumer = eventConsumer;
+		this.bufferSize = 1 << (32 - Integer.numberOfLeadingZeros(bufferSize - 1));
+		this.waitStrategy = waitStrategy;
+		this.overflowPolicy = overflowPolicy;
+
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(DEFAULT_THREAD_NAME_PREFIX);
+		threadFactory.setDaemon(true);
+		this.consumers = new EventConsumer[consumerThreads];
+		for (int i = 0; i < consumerThreads; i++) {
+			consumers[i] = new EventConsumer();
+			consumers[i].thread = threadFactory.newThread(consumers[i]);
+		}
+		for (EventConsumer consumer : consumers) {
+			consumer.thread.start();
+		}
+	}
+
+	@Override
+	public void dispatch(SessionID sessionId, Object event) {
+		if (!running) {
+			deliver(event);
+			return;
+		}
+		EventRingBuffer ringBuffer = ringBuffers.get(sessionId);
+		if (ringBuffer == null) {
+			ringBuffer = ringBuffers.computeIfAbsent(sessionId, this::newRingBuffer);
+		}
+		ringBuffer.publish(event);
+	}
+
+	/**
+	 * Delivers the event on the calling thread, propagating the exceptions thrown by the listeners.
+	 */
+	@Override
+	public void dispatchSynchronously(SessionID sessionId, Object event) {
+		eventConsumer.accept(event);
+	}
+
+	/**
+	 * Returns the number of slots of the ring buffer of each session.
+	 *
+	 * @return the ring buffer size
+	 */
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * Returns the sessions that have dispatched at least one event.
+	 *
+	 * @return the session IDs
+	 */
+	public Set<SessionID> getSessionIDs() {
+		return Collections.unmodifiableSet(ringBuffers.keySet());
+	}
+
+	/**
+	 * Returns the number of events of the provided session waiting to be delivered to the listeners.
+	 *
+	 * @param sessionID the session ID
+	 * @return the queue depth
+	 */
+	public int getQueueDepth(SessionID sessionID) {
+		EventRingBuffer ringBuffer = ringBuffers.get(sessionID);
+		return ringBuffer != null ? ringBuffer.depth() : 0;
+	}
+
+	/**
+	 * Returns the time the last delivered event of the provided session waited in the ring buffer.
+	 *
+	 * @param sessionID the session ID
+	 * @return the lag between the publication and the delivery of the last event
+	 */
+	public Duration getLag(SessionID sessionID) {
+		EventRingBuffer ringBuffer = ringBuffers.get(sessionID);
+		return Duration.ofNanos(ringBuffer != null ? ringBuffer.lagNanos : 0);
+	}
+
+	/**
+	 * Returns the highest number of events of the provided session that have been waiting in its ring buffer.
+	 *
+	 * @param sessionID the session ID
+	 * @return the high-water mark of the ring buffer
+	 */
+	public int getHighWaterMark(SessionID sessionID) {
+		EventRingBuffer ringBuffer = ringBuffers.get(sessionID);
+		return ringBuffer != null ? ringBuffer.highWaterMark.get() : 0;
+	}
+
+	/**
+	 * Returns the number of events dropped because the ring buffer of their session was full.
+	 *
+	 * @return the dropped event count
+	 */
+	public long getDroppedCount() {
+		return droppedCount.sum();
+	}
+
+	/**
+	 * Sets the recorder of the time, in nanoseconds, each event waits in the ring buffer between being dispatched and
+	 * being delivered to the listeners.
+	 *
+	 * @param dispatchLatencyRecorder the recorder, or null to stop recording
+	 */
+	public void setDispatchLatencyRecorder(LongConsumer dispatchLatencyRecorder) {
+		this.dispatchLatencyRecorder = dispatchLatencyRecorder;
+	}
+
+	/**
+	 * Stops the consumer threads once they have delivered the events already published. Events dispatched
+	 * afterwards are delivered on the calling thread.
+	 */
+	@Override
+	public void destroy() {
+		running = false;
+		for (EventConsumer consumer : consumers) {
+			LockSupport.unpark(consumer.thread);
+		}
+		for (EventConsumer consumer : consumers) {
+			try {
+				consumer.thread.join(SHUTDOWN_TIMEOUT_MILLIS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private EventRingBuffer newRingBuffer(SessionID sessionID) {
+		EventConsumer consumer = consumers[Math.floorMod(sessionID.hashCode(), consumers.length)];
+		EventRingBuffer ringBuffer = new EventRingBuffer(bufferSize, consumer);
+		consumer.add(ringBuffer);
+		return ringBuffer;
+	}
+
+	private boolean isConsumerThread() {
+		Thread currentThread = Thread.currentThread();
+		for (EventConsumer consumer : consumers) {
+			if (consumer.thread == currentThread) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void deliver(Object event) {
+		try {
+			eventConsumer.accept(event);
+		} catch (Exception e) {
+			log.error("Error delivering event {}", event, e);
+		}
+	}
+
+	private static final class Slot {
+
+		private Object event;
+
+		private long publishNanos;
+
+		private volatile long sequence = -1;
+	}
+
+	private final class EventRingBuffer {
+
+		private final Slot[] slots;
+
+		private final int mask;
+
+		private final EventConsumer consumer;
+
+		private final AtomicLong claimed = new AtomicLong(-1);
+
+		private final AtomicLong consumed = new AtomicLong(-1);
+
+		private final AtomicInteger highWaterMark = new AtomicInteger();
+
+		private volatile long lagNanos;
+
+		EventRingBuffer(int size, EventConsumer consumer) {
+			this.slots = new Slot[size];
+			for (int i = 0; i < size; i++) {
+				slots[i] = new Slot();
+			}
+			this.mask = size - 1;
+			this.consumer = consumer;
+		}
+
+		void publish(Object event) {
+			boolean consumerThread = isConsumerThread();
+			long sequence = overflowPolicy == OverflowPolicy.BLOCK && !consumerThread ? -1 : tryClaim();
+			if (sequence < 0) {
+				if (overflowPolicy == OverflowPolicy.FAIL || overflowPolicy.isDropped(event)) {
+					droppedCount.increment();
+					if (overflowPolicy == OverflowPolicy.FAIL) {
+						throw new EventQueueFullException("Ring buffer is full, dropped event " + event);
+					}
+					return;
+				}
+				if (consumerThread) {
+					// A listener dispatching from a consumer thread, e.g. by sending a message, would wait for a slot
+					// that only a consumer thread can free, possibly itself
+					deliver(event);
+					return;
+				}
+				sequence = claimed.incrementAndGet();
+				long wrapPoint = sequence - slots.length;
+				int tries = 0;
+				while (wrapPoint > consumed.get()) {
+					if (!consumer.thread.isAlive()) {
+						deliver(event);
+						return;
+					}
+					if (tries++ < SPIN_TRIES) {
+						Thread.onSpinWait();
+					} else {
+						LockSupport.parkNanos(PRODUCER_WAIT_NANOS);
+					}
+				}
+			}
+
+			Slot slot = slots[(int) sequence & mask];
+			slot.event = event;
+			slot.publishNanos = System.nanoTime();
+			slot.sequence = sequence;
+			consumer.signal();
+			updateHighWaterMark();
+		}
+
+		/**
+		 * Claims the next slot if it is free, without waiting.
+		 *
+		 * @return the sequence of the claimed slot, or -1 if the ring buffer is full
+		 */
+		private long tryClaim() {
+			long current;
+			do {
+				current = claimed.get();
+				if (current + 1 - slots.length > consumed.get()) {
+					return -1;
+				}
+			} while (!claimed.compareAndSet(current, current + 1));
+			return current + 1;
+		}
+
+		private void updateHighWaterMark() {
+			int depth = depth();
+			int current;
+			while (depth > (current = highWaterMark.get())) {
+				if (highWaterMark.compareAndSet(current, depth)) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Delivers the available events, at most a ring buffer's worth so that the other sessions of the consumer
+		 * are not starved. Only invoked by the consumer thread.
+		 */
+		int drain() {
+			long next = consumed.get() + 1;
+			int count = 0;
+			Slot slot;
+			while (count < slots.length && (slot = slots[(int) next & mask]).sequence == next) {
+				Object event = slot.event;
+				long lag = System.nanoTime() - slot.publishNanos;
+				lagNanos = lag;
+				LongConsumer recorder = dispatchLatencyRecorder;
+				if (recorder != null) {
+					recorder.accept(lag);
+				}
+				slot.event = null;
+				consumed.lazySet(next);
+				deliver(event);
+				next++;
+				count++;
+			}
+			return count;
+		}
+
+		boolean hasAvailable() {
+			long next = consumed.get() + 1;
+			return slots[(int) next & mask].sequence == next;
+		}
+
+		int depth() {
+			return (int) Math.max(0, claimed.get() - consumed.get());
+		}
+	}
+
+	private final class EventConsumer implements Runnable {
+
+		private volatile EventRingBuffer[] ringBuffers = new EventRingBuffer[0];
+
+		private volatile boolean sleeping;
+
+		private Thread thread;
+
+		synchronized void add(EventRingBuffer ringBuffer) {
+			EventRingBuffer[] current = ringBuffers;
+			EventRingBuffer[] updated = Arrays.copyOf(current, current.length + 1);
+			updated[current.length] = ringBuffer;
+			ringBuffers = updated;
+		}
+
+		void signal() {
+			if (sleeping) {
+				LockSupport.unpark(thread);
+			}
+		}
+
+		@Override
+		public void run() {
+			int idleCount = 0;
+			while (true) {
+				int delivered = 0;
+				for (EventRingBuffer ringBuffer : ringBuffers) {
+					delivered += ringBuffer.drain();
+				}
+				if (delivered > 0) {
+					idleCount = 0;
+				} else if (!running) {
+					return;
+				} else {
+					idleCount = idle(idleCount);
+				}
+			}
+		}
+
+		private int idle(int idleCount) {
+			switch (waitStrategy) {
+				case BUSY_SPIN -> Thread.onSpinWait();
+				case YIELDING -> {
+					if (idleCount < SPIN_TRIES) {
+						Thread.onSpinWait();
+					} else {
+						Thread.yield();
+					}
+				}
+				case SLEEPING -> {
+					if (idleCount < SPIN_TRIES) {
+						Thread.onSpinWait();
+					} else if (idleCount < SPIN_TRIES + YIELD_TRIES) {
+						Thread.yield();
+					} else {
+						LockSupport.parkNanos(this, SLEEP_NANOS);
+					}
+				}
+				default -> {
+					// The flag is set before checking for events, so that a producer publishing concurrently either
+					// sees it and unparks this thread, or its event is seen here
+					sleeping = true;
+					if (running && !hasAvailable()) {
+						LockSupport.park(this);
+					}
+					sleeping = false;
+				}
+			}
+			return idleCount < Integer.MAX_VALUE ? idleCount + 1 : idleCount;
+		}
+
+		private boolean hasAvailable() {
+			for (EventRingBuffer ringBuffer : ringBuffers) {
+				if (ringBuffer.hasAvailable()) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.application;
+
+import io.allune.quickfixj.spring.boot.starter.exception.EventQueueFullException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import quickfix.SessionID;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * {@link EventDispatcher} striping the events by {@link SessionID} hash onto a fixed number of single-threaded lanes,
+ * which deliver them to the listeners off the QuickFIX/J session threads.
+ * <p>
+ * All the events of a session are delivered by the same lane, one at a time and in dispatch order, while the
+ * sessions are spread across the lanes. The queue of each lane holds up to a given number of events; what happens to
+ * the events dispatched while it is full is defined by the {@link OverflowPolicy}. The events dispatched by the
+ * listeners themselves while the queue is full, e.g. when they send a message, are delivered on the lane thread
+ * instead of waiting, as they could wait for themselves.
+ * <p>
+ * The {@link io.allune.quickfixj.spring.boot.starter.model.ToAdmin} and
+ * {@link io.allune.quickfixj.spring.boot.starter.model.ToApp} events are delivered synchronously on the QuickFIX/J
+ * thread, so that their listeners can still modify the message before it is sent, therefore they may be delivered
+ * before earlier events of the same session.
+ * <p>
+ * Exceptions thrown by the listeners of the other events are logged and not propagated to the session, therefore the
+ * {@code RejectMessageOnUnhandledException} setting has no effect on them.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+@Slf4j
+public class StripedEventDispatcher implements EventDispatcher, DisposableBean {
+
+	/**
+	 * The name prefix of the lane threads.
+	 */
+	public static final String DEFAULT_THREAD_NAME_PREFIX = "QuickFixJ event lane-";
+
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+	private final Consumer<Object> eventConsumer;
+
+	private final int queueCapacity;
+
+	private final OverflowPolicy overflowPolicy;
+
+	private final ThreadPoolExecutor[] lanes;
+
+	private final AtomicIntegerArray highWaterMarks;
+
+	private final LongAdder droppedCount = new LongAdder();
+
+	private volatile LongConsumer dispatchLatencyRecorder;
+
+	private final ThreadLocal<Boolean> laneThread = new ThreadLocal<>();
+
+	/**
+	 * Creates a striped event dispatcher running its lanes on daemon platform threads, whose queues hold the events
+	 * without bound.
+	 *
+	 * @param eventConsumer the consumer delivering the events to the listeners, e.g.
+	 *                      {@code applicationEventPublisher::publishEvent}
+	 * @param laneCount     the number of lanes
+	 */
+	public StripedEventDispatcher(Consumer<Object> eventConsumer, int laneCount) {
+		this(eventConsumer, laneCount, defaultThreadFactory());
+	}
+
+	/**
+	 * Creates a striped event dispatcher running its lanes on the threads created by the provided factory, e.g.
+	 * virtual threads, whose queues hold the events without bound.
+	 *
+	 * @param eventConsumer the consumer delivering the events to the listeners, e.g.
+	 *                      {@code applicationEventPublisher::publishEvent}
+	 * @param laneCount     the number of lanes
+	 * @param threadFactory the factory creating the lane threads
+	 */
+	public StripedEventDispatcher(Consumer<Object> eventConsumer, int laneCount, ThreadFactory threadFactory) {
+		this(eventConsumer, laneCount, Integer.MAX_VALUE, OverflowPolicy.BLOCK, threadFactory);
+	}
+
+	/**
+	 * Creates a striped event dispatcher with bounded lane queues, running its lanes on daemon platform threads.
+	 *
+	 * @param eventConsumer  the consumer delivering the events to the listeners, e.g.
+	 *                       {@code applicationEventPublisher::publishEvent}
+	 * @param laneCount      the number of lanes
+	 * @param queueCapacity  the maximum number of events waiting in the queue of each lane
+	 * @param overflowPolicy what to do with the events dispatched while the queue of their lane is full
+	 */
+	public StripedEventDispatcher(Consumer<Object> eventConsumer, int laneCount, int queueCapacity,
+	                              OverflowPolicy overflowPolicy) {
+		this(eventConsumer, laneCount, queueCapacity, overflowPolicy, defaultThreadFactory());
+	}
+
+	/**
+	 * Creates a striped event dispatcher with bounded lane queues, running its lanes on the threads created by the
+	 * provided factory.
+	 *
+	 * @param eventConsumer  the consumer delivering the events to the listeners, e.g.
+	 *                       {@code applicationEventPublisher::publishEvent}
+	 * @param laneCount      the number of lanes
+	 * @param queueCapacity  the maximum number of events waiting in the queue of each lane
+	 * @param overflowPolicy what to do with the events dispatched while the queue of their lane is full
+	 * @param threadFactory  the factory creating the lane threads
+	 */
+	public StripedEventDispatcher(Consumer<Object> eventConsumer, int laneCount, int queueCapacity,
+	                              OverflowPolicy overflowPolicy, ThreadFactory threadFactory) {
+		Assert.notNull(eventConsumer, "'eventConsumer' must not be null");
+		Assert.isTrue(laneCount > 0, "'laneCount' must be greater than 0");
+		Assert.isTrue(queueCapacity > 0, "'queueCapacity' must be greater than 0");
+		Assert.notNull(overflowPolicy, "'overflowPolicy' must not be null");
+		Assert.notNull(threadFactory, "'threadFactory' must not be null");
+		this.eventConsumer = eventConsumer;
+		this.queueCapacity = queueCapacity;
+		this.overflowPolicy = overflowPolicy;
+		this.lanes = new ThreadPoolExecutor[laneCount];
+		this.highWaterMarks = new AtomicIntegerArray(laneCount);
+		for (int i = 0; i < laneCount; i++) {
+			lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueCapacity),
+					runnable -> threadFactory.newThread(() -> {
+						laneThread.set(Boolean.TRUE);
+						runnable.run();
+					}));
+			// The events are put straight into the queues, so the lane threads must be running to take them
+			lanes[i].prestartAllCoreThreads();
+		}
+	}
+
+	@Override
+	public void dispatch(SessionID sessionId, Object event) {
+		int laneIndex = getLane(sessionId);
+		ThreadPoolExecutor lane = lanes[laneIndex];
+		if (lane.isShutdown()) {
+			deliver(event);
+			return;
+		}
+
+		Delivery delivery = new Delivery(event);
+		BlockingQueue<Runnable> queue = lane.getQueue();
+		if (!queue.offer(delivery)) {
+			if (overflowPolicy == OverflowPolicy.FAIL || overflowPolicy.isDropped(event)) {
+				droppedCount.increment();
+				if (overflowPolicy == OverflowPolicy.FAIL) {
+					throw new EventQueueFullException("Event queue of lane " + laneIndex + " is full, dropped event " + event);
+				}
+				return;
+			}
+			if (laneThread.get() != null) {
+				// A listener dispatching from a lane thread, e.g. by sending a message, would wait for a lane to take
+				// the event, possibly its own
+				deliver(event);
+				return;
+			}
+			try {
+				queue.put(delivery);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				droppedCount.increment();
+				throw new EventQueueFullException("Interrupted waiting for the event queue of lane " + laneIndex, e);
+			}
+		}
+		updateHighWaterMark(laneIndex, queue.size());
+
+		// The lane may have terminated before taking the event
+		if (lane.isShutdown() && queue.remove(delivery)) {
+			deliver(event);
+		}
+	}
+
+	/**
+	 * Delivers the event on the calling thread, propagating the exceptions thrown by the listeners.
+	 */
+	@Override
+	public void dispatchSynchronously(SessionID sessionId, Object event) {
+		eventConsumer.accept(event);
+	}
+
+	/**
+	 * Returns the number of lanes.
+	 *
+	 * @return the lane count
+	 */
+	public int getLaneCount() {
+		return lanes.length;
+	}
+
+	/**
+	 * Returns the lane delivering the events of the provided session.
+	 *
+	 * @param sessionID the session ID
+	 * @return the index of the lane, between 0 and the lane count
+	 */
+	public int getLane(SessionID sessionID) {
+		return Math.floorMod(sessionID.hashCode(), lanes.length);
+	}
+
+	/**
+	 * Returns the number of events of the provided lane waiting to be delivered to the listeners.
+	 *
+	 * @param lane the index of the lane
+	 * @return the queue depth
+	 */
+	public int getQueueDepth(int lane) {
+		return lanes[lane].getQueue().size();
+	}
+
+	/**
+	 * Returns the maximum number of events waiting in the queue of each lane.
+	 *
+	 * @return the queue capacity
+	 */
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * Returns the highest number of events that have been waiting in the queue of the provided lane.
+	 *
+	 * @param lane the index of the lane
+	 * @return the high-water mark of the queue
+	 */
+	public int getHighWaterMark(int lane) {
+		return highWaterMarks.get(lane);
+	}
+
+	/**
+	 * Returns the number of events dropped because the queue of their lane was full.
+	 *
+	 * @return the dropped event count
+	 */
+	public long getDroppedCount() {
+		return droppedCount.sum();
+	}
+
+	/**
+	 * Sets the recorder of the time, in nanoseconds, each event waits between being dispatched and being delivered
+	 * to the listeners.
+	 *
+	 * @param dispatchLatencyRecorder the recorder, or null to stop recording
+	 */
+	public void setDispatchLatencyRecorder(LongConsumer dispatchLatencyRecorder) {
+		this.dispatchLatencyRecorder = dispatchLatencyRecorder;
+	}
+
+	/**
+	 * Stops the lanes once they have delivered the events already dispatched. Events dispatched afterwards are
+	 * delivered on the calling thread.
+	 */
+	@Override
+	public void destroy() {
+		for (ThreadPoolExecutor lane : lanes) {
+			lane.shutdown();
+		}
+		for (ThreadPoolExecutor lane : lanes) {
+			try {
+				if (!lane.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+					log.warn("Timed out waiting for the event lanes to deliver the pending events");
+					return;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private static CustomizableThreadFactory defaultThreadFactory() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(DEFAULT_THREAD_NAME_PREFIX);
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+	private void updateHighWaterMark(int lane, int depth) {
+		int highWaterMark;
+		while (depth > (highWaterMark = highWaterMarks.get(lane))) {
+			if (highWaterMarks.compareAndSet(lane, highWaterMark, depth)) {
+				return;
+			}
+		}
+	}
+
+	private void deliver(Object event) {
+		try {
+			eventConsumer.accept(event);
+		} catch (Exception e) {
+			log.error("Error delivering event {}", event, e);
+		}
+	}
+
+	private final class Delivery implements Runnable {
+
+		private final Object event;
+
+		private final long dispatchNanos = System.nanoTime();
+
+		Delivery(Object event) {
+			this.event = event;
+		}
+
+		@Override
+		public void run() {
+			LongConsumer recorder = dispatchLatencyRecorder;
+			if (recorder != null) {
+				recorder.accept(System.nanoTime() - dispatchNanos);
+			}
+			deliver(event);
+		}
+	}
+}
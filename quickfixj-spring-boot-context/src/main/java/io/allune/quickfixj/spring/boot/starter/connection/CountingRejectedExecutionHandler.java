@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.connection;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link RejectedExecutionHandler} counting the tasks rejected by an executor before delegating their handling,
+ * so that the saturation of the executors of the {@link quickfix.ExecutorFactory} can be monitored.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class CountingRejectedExecutionHandler implements RejectedExecutionHandler {
+
+	private final RejectedExecutionHandler delegate;
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+	public CountingRejectedExecutionHandler(RejectedExecutionHandler delegate) {
+		Assert.notNull(delegate, "'delegate' must not be null");
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+		rejectedCount.increment();
+		delegate.rejectedExecution(task, executor);
+	}
+
+	/**
+	 * Returns the number of tasks rejected so far.
+	 *
+	 * @return the rejected task count
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.sum();
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.listener;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method of a bean as a listener of the application messages received by QuickFIX/J ({@code fromApp}),
+ * filtered by MsgType and session.
+ * <p>
+ * The method parameters can be a {@link quickfix.Message}, or a subclass of it such as
+ * {@code quickfix.fix44.ExecutionReport}, and a {@link quickfix.SessionID}, in any order. When the message parameter
+ * is a generated message class and no {@link #msgType()} is specified, the MsgType is taken from the class. Messages
+ * that are not instances of the message parameter type are not delivered to the method.
+ * <pre>
+ * &#064;QuickFixJListener(sessionQualifier = "primary")
+ * public void onExecutionReport(ExecutionReport executionReport, SessionID sessionID) {
+ *     ...
+ * }
+ * </pre>
+ * The listeners are discovered at startup and bound into dispatch tables keyed by SessionID and MsgType, so routing
+ * an inbound message does not involve reflection nor expression evaluation.
+ *
+ * @author Eduardo Sanchez-Ros
+ * @see QuickFixJListenerRegistry
+ */
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QuickFixJListener {
+
+	/**
+	 * The MsgType(35) values of the messages delivered to the method. All the application messages if empty and the
+	 * message parameter type does not define a MsgType.
+	 *
+	 * @return the MsgTypes
+	 */
+	String[] msgType() default {};
+
+	/**
+	 * The BeginString of the sessions whose messages are delivered to the method, or any if empty.
+	 *
+	 * @return the BeginString
+	 */
+	String beginString() default "";
+
+	/**
+	 * The SenderCompID of the sessions whose messages are delivered to the method, or any if empty.
+	 *
+	 * @return the SenderCompID
+	 */
+	String senderCompID() default "";
+
+	/**
+	 * The TargetCompID of the sessions whose messages are delivered to the method, or any if empty.
+	 *
+	 * @return the TargetCompID
+	 */
+	String targetCompID() default "";
+
+	/**
+	 * The qualifier of the sessions whose messages are delivered to the method, or any if empty.
+	 *
+	 * @return the session qualifier
+	 */
+	String sessionQualifier() default "";
+}
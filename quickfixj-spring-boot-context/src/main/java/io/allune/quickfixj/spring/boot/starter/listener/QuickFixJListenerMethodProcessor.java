@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.listener;
+
+import org.springframework.aop.framework.autoproxy.AutoProxyUtils;
+import org.springframework.aop.scope.ScopedProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Discovers the methods annotated with {@link QuickFixJListener} on the singleton beans once they have all been
+ * instantiated, and registers them in the {@link QuickFixJListenerRegistry}.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class QuickFixJListenerMethodProcessor implements SmartInitializingSingleton, BeanFactoryAware {
+
+	private final QuickFixJListenerRegistry listenerRegistry;
+
+	private ConfigurableListableBeanFactory beanFactory;
+
+	public QuickFixJListenerMethodProcessor(QuickFixJListenerRegistry listenerRegistry) {
+		Assert.notNull(listenerRegistry, "'listenerRegistry' must not be null");
+		this.listenerRegistry = listenerRegistry;
+	}
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+		Assert.isInstanceOf(ConfigurableListableBeanFactory.class, beanFactory,
+				"QuickFixJListenerMethodProcessor requires a ConfigurableListableBeanFactory");
+		this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		for (String beanName : beanFactory.getBeanNamesForType(Object.class, false, false)) {
+			if (ScopedProxyUtils.isScopedTarget(beanName)) {
+				continue;
+			}
+			Class<?> targetType = AutoProxyUtils.determineTargetClass(beanFactory, beanName);
+			if (targetType != null) {
+				processBean(beanName, targetType);
+			}
+		}
+	}
+
+	private void processBean(String beanName, Class<?> targetType) {
+		Map<Method, QuickFixJListener> annotatedMethods = MethodIntrospector.selectMethods(targetType,
+				(MethodIntrospector.MetadataLookup<QuickFixJListener>) method ->
+						AnnotatedElementUtils.findMergedAnnotation(method, QuickFixJListener.class));
+		if (annotatedMethods.isEmpty()) {
+			return;
+		}
+
+		Object bean = beanFactory.getBean(beanName);
+		annotatedMethods.forEach((method, annotation) -> listenerRegistry.registerListenerMethod(bean,
+				AopUtils.selectInvocableMethod(method, bean.getClass()), annotation));
+	}
+}
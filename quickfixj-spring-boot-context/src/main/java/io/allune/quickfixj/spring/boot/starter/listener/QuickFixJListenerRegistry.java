@@ -0,0 +1,312 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.listener;
+
+import io.allune.quickfixj.spring.boot.starter.model.FromApp;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+import quickfix.FieldNotFound;
+import quickfix.Message;
+import quickfix.SessionID;
+import quickfix.field.MsgType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of the {@link QuickFixJListener} methods, dispatching the {@link FromApp} events to them.
+ * <p>
+ * Each listener method is bound once into a {@link MethodHandle} of type {@code (Message, SessionID)void}, casting
+ * the message to the declared parameter type. The first message received from a session builds the dispatch table
+ * of that session, mapping each MsgType to the listener methods matching both the session and the MsgType, so
+ * that dispatching a message is a lookup by {@link SessionID} followed by a lookup by MsgType.
+ * <p>
+ * The registry only listens to the {@link FromApp} events once a listener method has been registered, so that the
+ * events are not created when there are no listeners.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class QuickFixJListenerRegistry implements GenericApplicationListener {
+
+	private static final ListenerMethod[] NO_LISTENER_METHODS = new ListenerMethod[0];
+
+	private final List<ListenerMethod> listenerMethods = new CopyOnWriteArrayList<>();
+
+	private final ConcurrentMap<SessionID, DispatchTable> dispatchTables = new ConcurrentHashMap<>();
+
+	private volatile boolean hasListenerMethods;
+
+	/**
+	 * Registers a method annotated with {@link QuickFixJListener}.
+	 *
+	 * @param bean   the bean on which the method is invoked, or null if the method is static
+	 * @param method the listener method
+	 * @throws IllegalStateException if the method is not annotated or its parameters are not supported
+	 */
+	public void registerListenerMethod(Object bean, Method method) {
+		Assert.notNull(method, "'method' must not be null");
+		QuickFixJListener annotation = AnnotatedElementUtils.findMergedAnnotation(method, QuickFixJListener.class);
+		if (annotation == null) {
+			throw new IllegalStateException("Method " + method + " is not annotated with @QuickFixJListener");
+		}
+		registerListenerMethod(bean, method, annotation);
+	}
+
+	/**
+	 * Registers a listener method with the provided {@link QuickFixJListener} attributes.
+	 *
+	 * @param bean       the bean on which the method is invoked, or null if the method is static
+	 * @param method     the listener method
+	 * @param annotation the listener attributes
+	 * @throws IllegalStateException if the parameters of the method are not supported
+	 */
+	public void registerListenerMethod(Object bean, Method method, QuickFixJListener annotation) {
+		Assert.notNull(method, "'method' must not be null");
+		Assert.notNull(annotation, "'annotation' must not be null");
+		register(new ListenerMethod(bean, method, annotation));
+	}
+
+	/**
+	 * Dispatches an application message to the listener methods matching its session and MsgType.
+	 *
+	 * @param message   the message
+	 * @param sessionID the ID of the session the message was received from
+	 */
+	public void dispatch(Message message, SessionID sessionID) {
+		DispatchTable dispatchTable = dispatchTables.get(sessionID);
+		if (dispatchTable == null) {
+			dispatchTable = dispatchTables.computeIfAbsent(sessionID, this::createDispatchTable);
+		}
+		for (ListenerMethod listenerMethod : dispatchTable.get(getMsgType(message))) {
+			listenerMethod.invoke(message, sessionID);
+		}
+	}
+
+	/**
+	 * Returns whether any listener method has been registered.
+	 *
+	 * @return true if at least one listener method has been registered, false otherwise
+	 */
+	public boolean hasListenerMethods() {
+		return hasListenerMethods;
+	}
+
+	@Override
+	public boolean supportsEventType(ResolvableType eventType) {
+		return hasListenerMethods
+				&& PayloadApplicationEvent.class.isAssignableFrom(eventType.toClass())
+				&& FromApp.class.isAssignableFrom(eventType.getGeneric().toClass());
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationEvent event) {
+		if (event instanceof PayloadApplicationEvent<?> payloadEvent && payloadEvent.getPayload() instanceof FromApp fromApp) {
+			dispatch(fromApp.getMessage(), fromApp.getSessionId());
+		}
+	}
+
+	private void register(ListenerMethod listenerMethod) {
+		listenerMethods.add(listenerMethod);
+		dispatchTables.clear();
+		hasListenerMethods = true;
+	}
+
+	private DispatchTable createDispatchTable(SessionID sessionID) {
+		List<ListenerMethod> sessionListenerMethods = new ArrayList<>();
+		Set<String> msgTypes = new LinkedHashSet<>();
+		for (ListenerMethod listenerMethod : listenerMethods) {
+			if (listenerMethod.matches(sessionID)) {
+				sessionListenerMethods.add(listenerMethod);
+				msgTypes.addAll(listenerMethod.msgTypes);
+			}
+		}
+
+		Map<String, ListenerMethod[]> listenerMethodsByMsgType = new HashMap<>();
+		for (String msgType : msgTypes) {
+			listenerMethodsByMsgType.put(msgType, sessionListenerMethods.stream()
+					.filter(listenerMethod -> listenerMethod.matches(msgType))
+					.toArray(ListenerMethod[]::new));
+		}
+		ListenerMethod[] anyMsgTypeListenerMethods = sessionListenerMethods.stream()
+				.filter(listenerMethod -> listenerMethod.msgTypes.isEmpty())
+				.toArray(ListenerMethod[]::new);
+		return new DispatchTable(listenerMethodsByMsgType, anyMsgTypeListenerMethods);
+	}
+
+	private static String getMsgType(Message message) {
+		Message.Header header = message.getHeader();
+		if (!header.isSetField(MsgType.FIELD)) {
+			return null;
+		}
+		try {
+			return header.getString(MsgType.FIELD);
+		} catch (FieldNotFound fieldNotFound) {
+			return null;
+		}
+	}
+
+	private static final class DispatchTable {
+
+		private final Map<String, ListenerMethod[]> listenerMethodsByMsgType;
+
+		private final ListenerMethod[] anyMsgTypeListenerMethods;
+
+		DispatchTable(Map<String, ListenerMethod[]> listenerMethodsByMsgType, ListenerMethod[] anyMsgTypeListenerMethods) {
+			this.listenerMethodsByMsgType = listenerMethodsByMsgType;
+			this.anyMsgTypeListenerMethods = anyMsgTypeListenerMethods;
+		}
+
+		ListenerMethod[] get(String msgType) {
+			if (msgType == null) {
+				return anyMsgTypeListenerMethods.length > 0 ? anyMsgTypeListenerMethods : NO_LISTENER_METHODS;
+			}
+			return listenerMethodsByMsgType.getOrDefault(msgType, anyMsgTypeListenerMethods);
+		}
+	}
+
+	private static final class ListenerMethod {
+
+		private static final MethodType DISPATCH_TYPE = MethodType.methodType(void.class, Message.class, SessionID.class);
+
+		private final Method method;
+
+		private final Class<?> messageType;
+
+		private final MethodHandle methodHandle;
+
+		private final Set<String> msgTypes;
+
+		private final String beginString;
+
+		private final String senderCompID;
+
+		private final String targetCompID;
+
+		private final String sessionQualifier;
+
+		ListenerMethod(Object bean, Method method, QuickFixJListener annotation) {
+			this.method = method;
+			this.messageType = resolveMessageType(method);
+			this.methodHandle = bind(bean, method);
+			this.msgTypes = resolveMsgTypes(annotation, messageType);
+			this.beginString = annotation.beginString();
+			this.senderCompID = annotation.senderCompID();
+			this.targetCompID = annotation.targetCompID();
+			this.sessionQualifier = annotation.sessionQualifier();
+		}
+
+		boolean matches(SessionID sessionID) {
+			return matches(beginString, sessionID.getBeginString())
+					&& matches(senderCompID, sessionID.getSenderCompID())
+					&& matches(targetCompID, sessionID.getTargetCompID())
+					&& matches(sessionQualifier, sessionID.getSessionQualifier());
+		}
+
+		boolean matches(String msgType) {
+			return msgTypes.isEmpty() || msgTypes.contains(msgType);
+		}
+
+		void invoke(Message message, SessionID sessionID) {
+			if (!messageType.isInstance(message)) {
+				return;
+			}
+			try {
+				methodHandle.invokeExact(message, sessionID);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new UndeclaredThrowableException(e, "Listener method " + method + " threw an exception");
+			}
+		}
+
+		private static boolean matches(String expected, String actual) {
+			return expected.isEmpty() || expected.equals(actual);
+		}
+
+		private static Class<?> resolveMessageType(Method method) {
+			return Arrays.stream(method.getParameterTypes())
+					.filter(Message.class::isAssignableFrom)
+					.findFirst()
+					.orElse(Message.class);
+		}
+
+		private static MethodHandle bind(Object bean, Method method) {
+			Class<?>[] parameterTypes = method.getParameterTypes();
+			Class<?>[] dispatchParameterTypes = new Class<?>[parameterTypes.length];
+			int[] reorder = new int[parameterTypes.length];
+			boolean hasMessage = false;
+			boolean hasSessionID = false;
+			for (int i = 0; i < parameterTypes.length; i++) {
+				if (Message.class.isAssignableFrom(parameterTypes[i]) && !hasMessage) {
+					dispatchParameterTypes[i] = Message.class;
+					reorder[i] = 0;
+					hasMessage = true;
+				} else if (parameterTypes[i] == SessionID.class && !hasSessionID) {
+					dispatchParameterTypes[i] = SessionID.class;
+					reorder[i] = 1;
+					hasSessionID = true;
+				} else {
+					throw new IllegalStateException("Listener method " + method + " must only declare a "
+							+ "quickfix.Message and a quickfix.SessionID parameter");
+				}
+			}
+
+			try {
+				ReflectionUtils.makeAccessible(method);
+				MethodHandle methodHandle = MethodHandles.lookup().unreflect(method);
+				if (!Modifier.isStatic(method.getModifiers())) {
+					Assert.notNull(bean, "'bean' must not be null for instance method " + method);
+					methodHandle = methodHandle.bindTo(bean);
+				}
+				methodHandle = methodHandle.asType(MethodType.methodType(void.class, dispatchParameterTypes));
+				return MethodHandles.permuteArguments(methodHandle, DISPATCH_TYPE, reorder);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("Listener method " + method + " is not accessible", e);
+			}
+		}
+
+		private static Set<String> resolveMsgTypes(QuickFixJListener annotation, Class<?> messageType) {
+			if (annotation.msgType().length > 0) {
+				return Set.copyOf(Arrays.asList(annotation.msgType()));
+			}
+			Field msgTypeField = ReflectionUtils.findField(messageType, "MSGTYPE", String.class);
+			if (msgTypeField != null && Modifier.isStatic(msgTypeField.getModifiers())) {
+				return Set.of((String) ReflectionUtils.getField(msgTypeField, null));
+			}
+			return Set.of();
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.model;
+
+import quickfix.Message;
+import quickfix.SessionID;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Holds one instance of each {@link ReusableMessageEvent} type per session.
+ * <p>
+ * An event is acquired for the duration of a callback and released once its listeners have been invoked. When the
+ * instance of the session is already in use, e.g. when {@code toApp} is invoked concurrently from several threads
+ * sending messages, or when a listener sends a message from within a callback, a new instance is created instead.
+ * <p>
+ * In debug mode a new instance is created for every callback, so that any access to an event after its callback has
+ * returned reliably throws an {@link IllegalStateException} rather than reading the message of a later callback.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public final class ReusableEventPool {
+
+	private final boolean debug;
+
+	private final ConcurrentMap<SessionID, SessionEvents> sessionEvents = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a pool reusing the events.
+	 */
+	public ReusableEventPool() {
+		this(false);
+	}
+
+	/**
+	 * Creates a pool.
+	 *
+	 * @param debug whether to create a new instance for every callback, detecting the events accessed after their
+	 *              callback has returned
+	 */
+	public ReusableEventPool(boolean debug) {
+		this.debug = debug;
+	}
+
+	/**
+	 * Returns whether a new instance is created for every callback.
+	 *
+	 * @return true if the pool is in debug mode
+	 */
+	public boolean isDebug() {
+		return debug;
+	}
+
+	/**
+	 * Acquires the {@link ReusableFromApp} event of the session for an application message received.
+	 *
+	 * @param message   the message
+	 * @param sessionId the session ID
+	 * @return the event, to be released once its listeners have been invoked
+	 */
+	public ReusableFromApp acquireFromApp(Message message, SessionID sessionId) {
+		return acquire(sessionEvents(sessionId).fromApp, ReusableFromApp::new, message, sessionId);
+	}
+
+	/**
+	 * Acquires the {@link ReusableToApp} event of the session for an application message sent.
+	 *
+	 * @param message   the message
+	 * @param sessionId the session ID
+	 * @return the event, to be released once its listeners have been invoked
+	 */
+	public ReusableToApp acquireToApp(Message message, SessionID sessionId) {
+		return acquire(sessionEvents(sessionId).toApp, ReusableToApp::new, message, sessionId);
+	}
+
+	/**
+	 * Acquires the {@link ReusableFromAdmin} event of the session for an administrative message received.
+	 *
+	 * @param message   the message
+	 * @param sessionId the session ID
+	 * @return the event, to be released once its listeners have been invoked
+	 */
+	public ReusableFromAdmin acquireFromAdmin(Message message, SessionID sessionId) {
+		return acquire(sessionEvents(sessionId).fromAdmin, ReusableFromAdmin::new, message, sessionId);
+	}
+
+	/**
+	 * Acquires the {@link ReusableToAdmin} event of the session for an administrative message sent.
+	 *
+	 * @param message   the message
+	 * @param sessionId the session ID
+	 * @return the event, to be released once its listeners have been invoked
+	 */
+	public ReusableToAdmin acquireToAdmin(Message message, SessionID sessionId) {
+		return acquire(sessionEvents(sessionId).toAdmin, ReusableToAdmin::new, message, sessionId);
+	}
+
+	/**
+	 * Releases an event once its listeners have been invoked, making it available for a later callback.
+	 *
+	 * @param event the event
+	 */
+	public void release(ReusableMessageEvent event) {
+		event.release();
+	}
+
+	private <T extends ReusableMessageEvent> T acquire(T pooled, Function<SessionID, T> factory, Message message,
+	                                                   SessionID sessionId) {
+		T event = !debug && pooled.tryAcquire() ? pooled : factory.apply(sessionId);
+		event.bind(message);
+		return event;
+	}
+
+	private SessionEvents sessionEvents(SessionID sessionId) {
+		SessionEvents events = sessionEvents.get(sessionId);
+		return events != null ? events : sessionEvents.computeIfAbsent(sessionId, SessionEvents::new);
+	}
+
+	private static final class SessionEvents {
+
+		private final ReusableFromApp fromApp;
+
+		private final ReusableToApp toApp;
+
+		private final ReusableFromAdmin fromAdmin;
+
+		private final ReusableToAdmin toAdmin;
+
+		SessionEvents(SessionID sessionId) {
+			this.fromApp = new ReusableFromApp(sessionId);
+			this.toApp = new ReusableToApp(sessionId);
+			this.fromAdmin = new ReusableFromAdmin(sessionId);
+			this.toAdmin = new ReusableToAdmin(sessionId);
+		}
+	}
+}
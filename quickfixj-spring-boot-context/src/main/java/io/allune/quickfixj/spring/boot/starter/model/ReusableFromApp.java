@@ -0,0 +1,33 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.model;
+
+import quickfix.SessionID;
+
+/**
+ * Reusable counterpart of {@link FromApp}, published for each application message received by a session when the reusable events are
+ * enabled. Only valid while its listeners are invoked, see {@link ReusableMessageEvent}.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public final class ReusableFromApp extends ReusableMessageEvent {
+
+	private static final long serialVersionUID = 1L;
+
+	ReusableFromApp(SessionID sessionId) {
+		super(sessionId);
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.model;
+
+import org.springframework.context.ApplicationEvent;
+import quickfix.Message;
+import quickfix.SessionID;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Base class of the mutable message events reused for the callbacks of a session, avoiding the allocation of a new
+ * event per message.
+ * <p>
+ * A reusable event is only valid while its listeners are invoked: once the callback it was published from returns,
+ * the event is released and reused for a later callback of the same session. Listeners must therefore neither keep a
+ * reference to the event nor hand it to another thread; the message can be kept instead. Accessing the message of a
+ * released event throws an {@link IllegalStateException}. Reusable events are always delivered on the QuickFIX/J thread
+ * running the callback.
+ * <p>
+ * The events are {@link ApplicationEvent ApplicationEvents} whose source is the {@link SessionID}, so that they are
+ * published without being wrapped. Their {@link #getTimestamp() timestamp} is the time the instance was created.
+ *
+ * @author Eduardo Sanchez-Ros
+ * @see ReusableEventPool
+ */
+public abstract class ReusableMessageEvent extends ApplicationEvent {
+
+	private static final long serialVersionUID = 2794133624325637148L;
+
+	private final transient AtomicBoolean inUse = new AtomicBoolean();
+
+	private transient Message message;
+
+	private transient volatile boolean released = true;
+
+	ReusableMessageEvent(SessionID sessionId) {
+		super(sessionId);
+	}
+
+	/**
+	 * Returns the message of the callback.
+	 *
+	 * @return the message
+	 * @throws IllegalStateException if the event has been released
+	 */
+	public Message getMessage() {
+		if (released) {
+			throw new IllegalStateException(getClass().getSimpleName() + " of session " + getSessionId()
+					+ " accessed after its callback returned, keep the message instead of the event");
+		}
+		return message;
+	}
+
+	/**
+	 * Returns the session of the callback.
+	 *
+	 * @return the session ID
+	 */
+	public SessionID getSessionId() {
+		return (SessionID) getSource();
+	}
+
+	/**
+	 * Returns whether the event has been released, i.e. whether the callback it was published from has returned.
+	 *
+	 * @return true if the event has been released
+	 */
+	public boolean isReleased() {
+		return released;
+	}
+
+	boolean tryAcquire() {
+		return inUse.compareAndSet(false, true);
+	}
+
+	void bind(Message message) {
+		this.message = message;
+		this.released = false;
+	}
+
+	void release() {
+		this.message = null;
+		this.released = true;
+		inUse.set(false);
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "(sessionId=" + getSessionId() + ", released=" + released + ")";
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import quickfix.MessageStore;
+
+import java.io.IOException;
+
+/**
+ * {@link MessageStore} able to stream the messages of a range in fixed-size chunks, instead of adding them all to a
+ * collection as {@link MessageStore#get(int, int, java.util.Collection)} does. At most one chunk of messages is held
+ * in memory at a time, and the store is not locked while a chunk is being consumed.
+ *
+ * @author Eduardo Sanchez-Ros
+ * @see ResendStream
+ */
+public interface ChunkedMessageStore extends MessageStore {
+
+	/**
+	 * Streams the stored messages with a sequence number between the provided ones, both included, in chunks of at
+	 * most {@code chunkSize} messages.
+	 *
+	 * @param startSequence the first sequence number of the range
+	 * @param endSequence   the last sequence number of the range
+	 * @param chunkSize     the maximum number of messages of each chunk
+	 * @param consumer      the consumer of the chunks
+	 * @throws IOException if the messages could not be read or consumed
+	 */
+	void get(int startSequence, int endSequence, int chunkSize, MessageChunkConsumer consumer) throws IOException;
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import quickfix.CharsetSupport;
+import quickfix.MessageStore;
+import quickfix.SessionID;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.zip.CRC32;
+
+/**
+ * {@link MessageStore} writing the messages and sequence numbers to files without forcing them to the storage device,
+ * leaving it to the shared {@link GroupCommitWriter} to force the writes of all the sessions in batches.
+ * <p>
+ * Each message is appended to the body file as a record of {@code [length][crc][seqnum][payload]}, and its offset is
+ * kept in an in-memory index used to serve the resend requests. On start-up the body file is scanned to rebuild the
+ * index, and a trailing record which is incomplete or fails its checksum is truncated.
+ *
+ * @author Eduardo Sanchez-Ros
+ * @see GroupCommitFileStoreFactory
+ */
+public class GroupCommitFileStore implements ChunkedMessageStore, Closeable {
+
+	private static final int SEQNUMS_MAGIC = 0x51464a47;
+
+	private static final int SEQNUMS_SIZE = 20;
+
+	private static final int CREATION_TIME_OFFSET = 4;
+
+	private static final int SENDER_SEQNUM_OFFSET = 12;
+
+	private static final int TARGET_SEQNUM_OFFSET = 16;
+
+	private static final int RECORD_HEADER_SIZE = 12;
+
+	private final SessionID sessionID;
+
+	private final GroupCommitWriter writer;
+
+	private final FileChannel bodyChannel;
+
+	private final FileChannel seqNumsChannel;
+
+	private final SequenceIndex index = new SequenceIndex();
+
+	private final CRC32 crc = new CRC32();
+
+	private final ByteBuffer seqNum = ByteBuffer.allocate(4);
+
+	private long position;
+
+	private long creationTime;
+
+	private int nextSenderMsgSeqNum;
+
+	private int nextTargetMsgSeqNum;
+
+	/**
+	 * The maximum time a write of the store can wait before being forced, guarded by the writer's lock.
+	 */
+	final long stalenessNanos;
+
+	/**
+	 * The time of the oldest write not yet taken by a commit, or {@code 0}, guarded by the writer's lock.
+	 */
+	long unsyncedSince;
+
+	/**
+	 * The time of the oldest write of the commit in progress, or {@code 0}, guarded by the writer's lock.
+	 */
+	long syncingSince;
+
+	GroupCommitFileStore(SessionID sessionID, File directory, long stalenessNanos, GroupCommitWriter writer) throws IOException {
+		this.sessionID = sessionID;
+		this.stalenessNanos = stalenessNanos;
+		this.writer = writer;
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create the message store directory " + directory);
+		}
+		String prefix = StoreFileNames.prefix(sessionID);
+		File bodyFile = new File(directory, prefix + ".body");
+		bodyChannel = openChannel(bodyFile);
+		seqNumsChannel = openChannel(new File(directory, prefix + ".seqnums"));
+		recoverBody(bodyFile);
+		recoverSeqNums();
+	}
+
+	@Override
+	public boolean set(int sequence, String message) throws IOException {
+		byte[] payload = message.getBytes(CharsetSupport.getCharset());
+		synchronized (this) {
+			ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+			record.putInt(payload.length).putInt(checksum(sequence, payload)).putInt(sequence).put(payload).flip();
+			long offset = position;
+			while (record.hasRemaining()) {
+				bodyChannel.write(record, offset + record.position());
+			}
+			position += record.limit();
+			index.put(sequence, offset);
+		}
+		writer.written(this, true);
+		return true;
+	}
+
+	@Override
+	public void get(int startSequence, int endSequence, Collection<String> messages) throws IOException {
+		collect(startSequence, endSequence, Integer.MAX_VALUE, messages);
+	}
+
+	@Override
+	public void get(int startSequence, int endSequence, int chunkSize, MessageChunkConsumer consumer) throws IOException {
+		MessageChunks.stream(this::collect, startSequence, endSequence, chunkSize, consumer);
+	}
+
+	@Override
+	public synchronized int getNextSenderMsgSeqNum() {
+		return nextSenderMsgSeqNum;
+	}
+
+	@Override
+	public synchronized int getNextTargetMsgSeqNum() {
+		return nextTargetMsgSeqNum;
+	}
+
+	@Override
+	public void setNextSenderMsgSeqNum(int next) throws IOException {
+		synchronized (this) {
+			nextSenderMsgSeqNum = next;
+			writeSeqNum(SENDER_SEQNUM_OFFSET, next);
+		}
+		writer.written(this, false);
+	}
+
+	@Override
+	public void setNextTargetMsgSeqNum(int next) throws IOException {
+		synchronized (this) {
+			nextTargetMsgSeqNum = next;
+			writeSeqNum(TARGET_SEQNUM_OFFSET, next);
+		}
+		writer.written(this, false);
+	}
+
+	@Override
+	public void incrNextSenderMsgSeqNum() throws IOException {
+		synchronized (this) {
+			writeSeqNum(SENDER_SEQNUM_OFFSET, ++nextSenderMsgSeqNum);
+		}
+		writer.written(this, false);
+	}
+
+	@Override
+	public void incrNextTargetMsgSeqNum() throws IOException {
+		synchronized (this) {
+			writeSeqNum(TARGET_SEQNUM_OFFSET, ++nextTargetMsgSeqNum);
+		}
+		writer.written(this, false);
+	}
+
+	@Override
+	public synchronized Date getCreationTime() {
+		return new Date(creationTime);
+	}
+
+	@Override
+	public synchronized Calendar getCreationTimeCalendar() {
+		Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+		calendar.setTimeInMillis(creationTime);
+		return calendar;
+	}
+
+	@Override
+	public void reset() throws IOException {
+		synchronized (this) {
+			bodyChannel.truncate(0);
+			position = 0;
+			index.clear();
+			initSeqNums();
+		}
+		writer.written(this, false);
+	}
+
+	/**
+	 * The store is the only writer of its files, so there is nothing to reload.
+	 */
+	@Override
+	public void refresh() {
+	}
+
+	/**
+	 * Returns the session ID of the store.
+	 *
+	 * @return the session ID
+	 */
+	public SessionID getSessionID() {
+		return sessionID;
+	}
+
+	/**
+	 * Forces the pending writes of the store and closes its files.
+	 *
+	 * @throws IOException if the writes could not be forced
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			force();
+			writer.remove(this);
+		} finally {
+			bodyChannel.close();
+			seqNumsChannel.close();
+		}
+	}
+
+	void force() throws IOException {
+		bodyChannel.force(false);
+		seqNumsChannel.force(false);
+	}
+
+	private void writeSeqNum(int offset, int value) throws IOException {
+		seqNum.clear();
+		seqNum.putInt(value).flip();
+		seqNumsChannel.write(seqNum, offset);
+	}
+
+	private void initSeqNums() throws IOException {
+		creationTime = System.currentTimeMillis();
+		nextSenderMsgSeqNum = 1;
+		nextTargetMsgSeqNum = 1;
+		ByteBuffer seqNums = ByteBuffer.allocate(SEQNUMS_SIZE)
+				.putInt(SEQNUMS_MAGIC)
+				.putLong(creationTime)
+				.putInt(nextSenderMsgSeqNum)
+				.putInt(nextTargetMsgSeqNum)
+				.flip();
+		while (seqNums.hasRemaining()) {
+			seqNumsChannel.write(seqNums, seqNums.position());
+		}
+	}
+
+	private void recoverSeqNums() throws IOException {
+		ByteBuffer seqNums = ByteBuffer.allocate(SEQNUMS_SIZE);
+		while (seqNums.hasRemaining() && seqNumsChannel.read(seqNums, seqNums.position()) > 0) {
+			// Read until the end of the header or of the file
+		}
+		if (seqNums.hasRemaining() || seqNums.getInt(0) != SEQNUMS_MAGIC) {
+			initSeqNums();
+		} else {
+			creationTime = seqNums.getLong(CREATION_TIME_OFFSET);
+			nextSenderMsgSeqNum = seqNums.getInt(SENDER_SEQNUM_OFFSET);
+			nextTargetMsgSeqNum = seqNums.getInt(TARGET_SEQNUM_OFFSET);
+		}
+	}
+
+	private void recoverBody(File bodyFile) throws IOException {
+		long size = bodyChannel.size();
+		try (InputStream stream = new BufferedInputStream(new FileInputStream(bodyFile))) {
+			DataInputStream input = new DataInputStream(stream);
+			while (size - position >= RECORD_HEADER_SIZE) {
+				int length = input.readInt();
+				int expectedChecksum = input.readInt();
+				int sequence = input.readInt();
+				if (length <= 0 || length > size - position - RECORD_HEADER_SIZE) {
+					break;
+				}
+				byte[] payload = new byte[length];
+				input.readFully(payload);
+				if (checksum(sequence, payload) != expectedChecksum) {
+					break;
+				}
+				index.put(sequence, position);
+				position += RECORD_HEADER_SIZE + length;
+			}
+		} catch (EOFException e) {
+			// The file ends with an incomplete record
+		}
+		if (position < size) {
+			bodyChannel.truncate(position);
+		}
+	}
+
+	private synchronized int collect(int from, int end, int max, Collection<String> messages) throws IOException {
+		int last = from;
+		int limit = Math.min(end, index.getMaxSequence());
+		ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+		for (int sequence = Math.max(from, 1); sequence <= limit && messages.size() < max; sequence++) {
+			long offset = index.get(sequence);
+			if (offset != SequenceIndex.ABSENT) {
+				header.clear();
+				readFully(header, offset);
+				ByteBuffer payload = ByteBuffer.allocate(header.getInt(0));
+				readFully(payload, offset + RECORD_HEADER_SIZE);
+				messages.add(new String(payload.array(), CharsetSupport.getCharset()));
+				last = sequence;
+			}
+		}
+		return last;
+	}
+
+	private int checksum(int sequence, byte[] payload) {
+		crc.reset();
+		crc.update(sequence >>> 24);
+		crc.update(sequence >>> 16);
+		crc.update(sequence >>> 8);
+		crc.update(sequence);
+		crc.update(payload);
+		return (int) crc.getValue();
+	}
+
+	private void readFully(ByteBuffer buffer, long offset) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (bodyChannel.read(buffer, offset + buffer.position()) < 0) {
+				throw new EOFException("Unexpected end of the message store body file of session " + sessionID);
+			}
+		}
+	}
+
+	@SuppressWarnings("resource")
+	private static FileChannel openChannel(File file) throws IOException {
+		return new RandomAccessFile(file, "rw").getChannel();
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import org.springframework.beans.factory.DisposableBean;
+import quickfix.ConfigError;
+import quickfix.FieldConvertError;
+import quickfix.FileStoreFactory;
+import quickfix.MessageStore;
+import quickfix.MessageStoreFactory;
+import quickfix.RuntimeError;
+import quickfix.SessionID;
+import quickfix.SessionSettings;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Creates a {@link GroupCommitFileStore} for each session, all of them sharing a single background writer which
+ * forces their writes to the storage device in batches (group commit), instead of once per message.
+ * <p>
+ * The store files are created in the directory given by the {@code FileStorePath} session setting. The writer
+ * commits at the latest every {@code GroupCommitInterval} microseconds (default: 1000) or {@code GroupCommitMaxMessages}
+ * messages (default: 1000), both read from the default section of the settings. The {@code GroupCommitMaxStaleness}
+ * session setting bounds the time in microseconds a write of the session can wait before being forced (default: the
+ * commit interval); a value of {@code 0} makes every write of the session wait for its commit.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class GroupCommitFileStoreFactory implements MessageStoreFactory, DisposableBean {
+
+	/**
+	 * Maximum time in microseconds between a write and its commit, read from the default section.
+	 */
+	public static final String SETTING_GROUP_COMMIT_INTERVAL = "GroupCommitInterval";
+
+	/**
+	 * Number of pending messages triggering a commit, read from the default section.
+	 */
+	public static final String SETTING_GROUP_COMMIT_MAX_MESSAGES = "GroupCommitMaxMessages";
+
+	/**
+	 * Maximum time in microseconds a write of the session can wait before being forced.
+	 */
+	public static final String SETTING_GROUP_COMMIT_MAX_STALENESS = "GroupCommitMaxStaleness";
+
+	private static final long DEFAULT_INTERVAL_MICROS = 1000;
+
+	private static final int DEFAULT_MAX_MESSAGES = 1000;
+
+	private final SessionSettings settings;
+
+	private final GroupCommitWriter writer;
+
+	public GroupCommitFileStoreFactory(SessionSettings settings) {
+		this.settings = settings;
+		try {
+			long intervalMicros = settings.isSetting(SETTING_GROUP_COMMIT_INTERVAL)
+					? settings.getLong(SETTING_GROUP_COMMIT_INTERVAL)
+					: DEFAULT_INTERVAL_MICROS;
+			int maxMessages = settings.isSetting(SETTING_GROUP_COMMIT_MAX_MESSAGES)
+					? Math.toIntExact(settings.getLong(SETTING_GROUP_COMMIT_MAX_MESSAGES))
+					: DEFAULT_MAX_MESSAGES;
+			this.writer = new GroupCommitWriter(TimeUnit.MICROSECONDS.toNanos(intervalMicros), maxMessages);
+		} catch (ConfigError | FieldConvertError e) {
+			throw new RuntimeError(e);
+		}
+	}
+
+	@Override
+	public MessageStore create(SessionID sessionID) {
+		try {
+			File directory = new File(settings.getString(sessionID, FileStoreFactory.SETTING_FILE_STORE_PATH));
+			long stalenessNanos = settings.isSetting(sessionID, SETTING_GROUP_COMMIT_MAX_STALENESS)
+					? TimeUnit.MICROSECONDS.toNanos(settings.getLong(sessionID, SETTING_GROUP_COMMIT_MAX_STALENESS))
+					: writer.getIntervalNanos();
+			return new GroupCommitFileStore(sessionID, directory, stalenessNanos, writer);
+		} catch (ConfigError | FieldConvertError | IOException e) {
+			throw new RuntimeError(e);
+		}
+	}
+
+	/**
+	 * Returns the number of messages written and not committed yet.
+	 *
+	 * @return the number of pending messages
+	 */
+	public int getPendingCount() {
+		return writer.getPendingCount();
+	}
+
+	/**
+	 * Returns the number of commits made by the writer.
+	 *
+	 * @return the number of commits
+	 */
+	public long getCommitCount() {
+		return writer.getCommitCount();
+	}
+
+	/**
+	 * Sets the callback receiving the number of messages made durable by each commit.
+	 *
+	 * @param commitBatchSizeRecorder the callback receiving the batch sizes
+	 */
+	public void setCommitBatchSizeRecorder(IntConsumer commitBatchSizeRecorder) {
+		writer.setCommitBatchSizeRecorder(commitBatchSizeRecorder);
+	}
+
+	/**
+	 * Sets the callback receiving the time in nanoseconds taken to force the writes of a store.
+	 *
+	 * @param fsyncLatencyRecorder the callback receiving the fsync latencies
+	 */
+	public void setFsyncLatencyRecorder(LongConsumer fsyncLatencyRecorder) {
+		writer.setFsyncLatencyRecorder(fsyncLatencyRecorder);
+	}
+
+	/**
+	 * Commits the pending writes and stops the writer.
+	 */
+	@Override
+	public void destroy() {
+		writer.shutdown(5, TimeUnit.SECONDS);
+	}
+}
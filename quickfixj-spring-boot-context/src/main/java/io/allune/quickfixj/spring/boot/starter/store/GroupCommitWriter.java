@@ -0,0 +1,286 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Background writer forcing the writes of the {@link GroupCommitFileStore group commit stores} of all the sessions
+ * to the storage device in batches.
+ * <p>
+ * A commit is made as soon as {@code maxMessages} messages are pending, or when the oldest pending write of a store
+ * reaches the commit delay of that store, which is the smaller of the commit interval and the maximum staleness of
+ * its session. A store writing while its oldest pending write is older than its maximum staleness waits for the
+ * writer to catch up, so the staleness bound holds even when the storage device is slower than the sessions.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+@Slf4j
+final class GroupCommitWriter {
+
+	private static final String THREAD_NAME = "QuickFixJ group commit writer";
+
+	private final long intervalNanos;
+
+	private final int maxMessages;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition work = lock.newCondition();
+
+	private final Condition committed = lock.newCondition();
+
+	private final Set<GroupCommitFileStore> dirty = new LinkedHashSet<>();
+
+	private int pendingMessages;
+
+	private long commitCount;
+
+	private boolean running = true;
+
+	private Thread thread;
+
+	private volatile IntConsumer commitBatchSizeRecorder = size -> {
+	};
+
+	private volatile LongConsumer fsyncLatencyRecorder = nanos -> {
+	};
+
+	GroupCommitWriter(long intervalNanos, int maxMessages) {
+		this.intervalNanos = intervalNanos;
+		this.maxMessages = maxMessages;
+	}
+
+	long getIntervalNanos() {
+		return intervalNanos;
+	}
+
+	int getMaxMessages() {
+		return maxMessages;
+	}
+
+	void setCommitBatchSizeRecorder(IntConsumer commitBatchSizeRecorder) {
+		this.commitBatchSizeRecorder = commitBatchSizeRecorder;
+	}
+
+	void setFsyncLatencyRecorder(LongConsumer fsyncLatencyRecorder) {
+		this.fsyncLatencyRecorder = fsyncLatencyRecorder;
+	}
+
+	int getPendingCount() {
+		lock.lock();
+		try {
+			return pendingMessages;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	long getCommitCount() {
+		lock.lock();
+		try {
+			return commitCount;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Records a write of the store which has not been forced yet, and waits for the writer if the oldest pending
+	 * write of the store is older than its maximum staleness, or until the write is forced if the maximum staleness
+	 * is zero.
+	 *
+	 * @param store   the store that was written
+	 * @param message whether the write was a message, counted towards the commit batch size
+	 * @throws IOException if the writer has been stopped and the write could not be forced, or if the thread was
+	 *                     interrupted while waiting for the writer
+	 */
+	void written(GroupCommitFileStore store, boolean message) throws IOException {
+		lock.lock();
+		try {
+			if (!running) {
+				store.force();
+				return;
+			}
+			startIfNecessary();
+			long now = System.nanoTime();
+			if (store.unsyncedSince == 0) {
+				store.unsyncedSince = now;
+			}
+			boolean added = dirty.add(store);
+			if (message) {
+				pendingMessages++;
+			}
+			if (added || pendingMessages == maxMessages) {
+				work.signal();
+			}
+			while (running && isStale(store, now)) {
+				committed.await();
+				now = System.nanoTime();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the group commit");
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes the store from the next commit, once it has forced its own writes before being closed.
+	 *
+	 * @param store the store being closed
+	 */
+	void remove(GroupCommitFileStore store) {
+		lock.lock();
+		try {
+			dirty.remove(store);
+			store.unsyncedSince = 0;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Commits the pending writes and stops the writer, waiting for at most the provided timeout.
+	 *
+	 * @param timeout the maximum time to wait
+	 * @param unit    the time unit of the timeout
+	 */
+	void shutdown(long timeout, TimeUnit unit) {
+		Thread writerThread;
+		lock.lock();
+		try {
+			running = false;
+			work.signal();
+			writerThread = thread;
+		} finally {
+			lock.unlock();
+		}
+		if (writerThread != null) {
+			try {
+				writerThread.join(unit.toMillis(timeout));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (writerThread.isAlive()) {
+				log.warn("Timed out waiting for the group commit writer to commit the pending writes");
+			}
+		}
+	}
+
+	private boolean isStale(GroupCommitFileStore store, long now) {
+		if (store.stalenessNanos == 0) {
+			// The write is only committed once neither a commit in progress nor the next one holds writes of the store
+			return store.unsyncedSince != 0 || store.syncingSince != 0;
+		}
+		long oldest = store.syncingSince != 0 ? store.syncingSince : store.unsyncedSince;
+		return oldest != 0 && now - oldest > store.stalenessNanos;
+	}
+
+	private void startIfNecessary() {
+		if (thread == null) {
+			thread = new Thread(this::run, THREAD_NAME);
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	private void run() {
+		lock.lock();
+		try {
+			while (true) {
+				if (dirty.isEmpty()) {
+					if (!running) {
+						return;
+					}
+					work.await();
+					continue;
+				}
+
+				long waitNanos = nextCommitDeadline() - System.nanoTime();
+				if (running && pendingMessages < maxMessages && waitNanos > 0) {
+					work.awaitNanos(waitNanos);
+					continue;
+				}
+
+				List<GroupCommitFileStore> batch = new ArrayList<>(dirty);
+				int batchSize = pendingMessages;
+				dirty.clear();
+				pendingMessages = 0;
+				for (GroupCommitFileStore store : batch) {
+					store.syncingSince = store.unsyncedSince;
+					store.unsyncedSince = 0;
+				}
+
+				lock.unlock();
+				try {
+					commit(batch, batchSize);
+				} finally {
+					lock.lock();
+				}
+
+				for (GroupCommitFileStore store : batch) {
+					store.syncingSince = 0;
+				}
+				commitCount++;
+				committed.signalAll();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			running = false;
+			committed.signalAll();
+			lock.unlock();
+		}
+	}
+
+	private long nextCommitDeadline() {
+		long deadline = Long.MAX_VALUE;
+		for (GroupCommitFileStore store : dirty) {
+			deadline = Math.min(deadline, store.unsyncedSince + Math.min(intervalNanos, store.stalenessNanos));
+		}
+		return deadline;
+	}
+
+	private void commit(List<GroupCommitFileStore> batch, int batchSize) {
+		for (GroupCommitFileStore store : batch) {
+			long start = System.nanoTime();
+			try {
+				store.force();
+				fsyncLatencyRecorder.accept(System.nanoTime() - start);
+			} catch (ClosedChannelException e) {
+				// The store was closed after forcing its own writes
+			} catch (IOException e) {
+				log.error("Error forcing the writes of the message store of session {}", store.getSessionID(), e);
+			}
+		}
+		commitBatchSizeRecorder.accept(batchSize);
+	}
+}
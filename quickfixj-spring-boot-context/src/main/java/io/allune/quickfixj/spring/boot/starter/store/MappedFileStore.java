@@ -0,0 +1,403 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import quickfix.CharsetSupport;
+import quickfix.MessageStore;
+import quickfix.SessionID;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.zip.CRC32;
+
+/**
+ * {@link MessageStore} appending the messages into preallocated memory-mapped segment files.
+ * <p>
+ * Each message is written as a record of {@code [length][crc][seqnum][payload]} into the current segment, and its
+ * location is kept in an in-memory seqnum-to-offset index used to serve the resend requests. The sequence numbers
+ * and the creation time are kept in a small memory-mapped file. None of the writes issue a system call; the pages are
+ * written back by the operating system, which survives a crash of the process. Setting {@code sync} forces the
+ * mapped pages to the storage device on every write, which also survives a crash of the host at the cost of latency.
+ * <p>
+ * On start-up the segments are scanned to rebuild the index. The scan stops at the first record which is incomplete
+ * or fails its checksum, which is the trace left by a process that died while writing it, and discards the rest.
+ *
+ * @author Eduardo Sanchez-Ros
+ * @see MappedFileStoreFactory
+ */
+public class MappedFileStore implements ChunkedMessageStore, Closeable {
+
+	private static final int SEQNUMS_FILE_SIZE = 64;
+
+	private static final int SEQNUMS_MAGIC = 0x51464a4d;
+
+	private static final int MAGIC_OFFSET = 0;
+
+	private static final int CREATION_TIME_OFFSET = 4;
+
+	private static final int SENDER_SEQNUM_OFFSET = 12;
+
+	private static final int TARGET_SEQNUM_OFFSET = 16;
+
+	private static final int RECORD_HEADER_SIZE = 12;
+
+	private static final byte[] ZEROES = new byte[4096];
+
+	private final File directory;
+
+	private final String prefix;
+
+	private final int segmentSize;
+
+	private final boolean sync;
+
+	private final SequenceIndex index = new SequenceIndex();
+
+	private final List<Segment> segments = new ArrayList<>();
+
+	private final CRC32 crc = new CRC32();
+
+	private FileChannel seqNumsChannel;
+
+	private MappedByteBuffer seqNums;
+
+	private Segment current;
+
+	/**
+	 * Creates the store of the provided session, recovering the messages and sequence numbers left in the directory.
+	 *
+	 * @param sessionID   the session ID
+	 * @param directory   the directory of the store files
+	 * @param segmentSize the size in bytes of each preallocated segment
+	 * @param sync        whether to force the mapped pages to the storage device on every write
+	 * @throws IOException if the store files could not be opened
+	 */
+	public MappedFileStore(SessionID sessionID, File directory, int segmentSize, boolean sync) throws IOException {
+		if (segmentSize <= RECORD_HEADER_SIZE) {
+			throw new IllegalArgumentException("The segment size must be greater than " + RECORD_HEADER_SIZE + " bytes");
+		}
+		this.directory = directory;
+		this.prefix = StoreFileNames.prefix(sessionID);
+		this.segmentSize = segmentSize;
+		this.sync = sync;
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create the message store directory " + directory);
+		}
+		openSeqNums();
+		recoverSegments();
+	}
+
+	@Override
+	public synchronized boolean set(int sequence, String message) throws IOException {
+		byte[] payload = message.getBytes(CharsetSupport.getCharset());
+		int recordSize = RECORD_HEADER_SIZE + payload.length;
+		if (current.buffer.capacity() - current.limit < recordSize) {
+			current = segment(current.number + 1, recordSize);
+		}
+
+		MappedByteBuffer buffer = current.buffer;
+		int offset = current.limit;
+		buffer.putInt(offset + 8, sequence);
+		buffer.put(offset + RECORD_HEADER_SIZE, payload);
+		buffer.putInt(offset + 4, checksum(buffer, offset + 8, payload.length + 4));
+		// The length is written last, so a record is only visible to the recovery once it is complete
+		buffer.putInt(offset, payload.length);
+		current.limit += recordSize;
+		if (sync) {
+			buffer.force(offset, recordSize);
+		}
+
+		index.put(sequence, location(current.number, offset));
+		return true;
+	}
+
+	@Override
+	public void get(int startSequence, int endSequence, Collection<String> messages) throws IOException {
+		collect(startSequence, endSequence, Integer.MAX_VALUE, messages);
+	}
+
+	@Override
+	public void get(int startSequence, int endSequence, int chunkSize, MessageChunkConsumer consumer) throws IOException {
+		MessageChunks.stream(this::collect, startSequence, endSequence, chunkSize, consumer);
+	}
+
+	@Override
+	public synchronized int getNextSenderMsgSeqNum() {
+		return seqNums.getInt(SENDER_SEQNUM_OFFSET);
+	}
+
+	@Override
+	public synchronized int getNextTargetMsgSeqNum() {
+		return seqNums.getInt(TARGET_SEQNUM_OFFSET);
+	}
+
+	@Override
+	public synchronized void setNextSenderMsgSeqNum(int next) {
+		putSeqNum(SENDER_SEQNUM_OFFSET, next);
+	}
+
+	@Override
+	public synchronized void setNextTargetMsgSeqNum(int next) {
+		putSeqNum(TARGET_SEQNUM_OFFSET, next);
+	}
+
+	@Override
+	public synchronized void incrNextSenderMsgSeqNum() {
+		putSeqNum(SENDER_SEQNUM_OFFSET, seqNums.getInt(SENDER_SEQNUM_OFFSET) + 1);
+	}
+
+	@Override
+	public synchronized void incrNextTargetMsgSeqNum() {
+		putSeqNum(TARGET_SEQNUM_OFFSET, seqNums.getInt(TARGET_SEQNUM_OFFSET) + 1);
+	}
+
+	@Override
+	public synchronized Date getCreationTime() {
+		return new Date(seqNums.getLong(CREATION_TIME_OFFSET));
+	}
+
+	@Override
+	public synchronized Calendar getCreationTimeCalendar() {
+		Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+		calendar.setTimeInMillis(seqNums.getLong(CREATION_TIME_OFFSET));
+		return calendar;
+	}
+
+	/**
+	 * Discards the stored messages and resets the sequence numbers. The segment files are zeroed and reused rather
+	 * than deleted, so that no mapping is left pointing at a deleted file.
+	 */
+	@Override
+	public synchronized void reset() throws IOException {
+		for (Segment segment : segments) {
+			zero(segment.buffer, 0, segment.limit);
+			segment.limit = 0;
+			if (sync) {
+				segment.buffer.force();
+			}
+		}
+		index.clear();
+		current = segments.get(0);
+		initSeqNums();
+	}
+
+	/**
+	 * The store is the only writer of its files, so there is nothing to reload.
+	 */
+	@Override
+	public void refresh() {
+	}
+
+	/**
+	 * Returns the number of bytes written to the segments, including the record headers.
+	 *
+	 * @return the number of bytes written
+	 */
+	public synchronized long getWrittenBytes() {
+		long written = 0;
+		for (Segment segment : segments) {
+			written += segment.limit;
+		}
+		return written;
+	}
+
+	/**
+	 * Returns the number of segment files of the store.
+	 *
+	 * @return the number of segments
+	 */
+	public synchronized int getSegmentCount() {
+		return segments.size();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		for (Segment segment : segments) {
+			segment.channel.close();
+		}
+		segments.clear();
+		seqNumsChannel.close();
+	}
+
+	private void openSeqNums() throws IOException {
+		File file = new File(directory, prefix + ".seqnums");
+		boolean exists = file.length() >= SEQNUMS_FILE_SIZE;
+		seqNumsChannel = openChannel(file);
+		seqNums = seqNumsChannel.map(FileChannel.MapMode.READ_WRITE, 0, SEQNUMS_FILE_SIZE);
+		if (!exists || seqNums.getInt(MAGIC_OFFSET) != SEQNUMS_MAGIC) {
+			initSeqNums();
+		}
+	}
+
+	private void initSeqNums() {
+		seqNums.putLong(CREATION_TIME_OFFSET, System.currentTimeMillis());
+		seqNums.putInt(SENDER_SEQNUM_OFFSET, 1);
+		seqNums.putInt(TARGET_SEQNUM_OFFSET, 1);
+		seqNums.putInt(MAGIC_OFFSET, SEQNUMS_MAGIC);
+		if (sync) {
+			seqNums.force();
+		}
+	}
+
+	private void putSeqNum(int offset, int value) {
+		seqNums.putInt(offset, value);
+		if (sync) {
+			seqNums.force();
+		}
+	}
+
+	private void recoverSegments() throws IOException {
+		current = segment(0, 0);
+		boolean corrupted = false;
+		for (int number = 0; segmentFile(number).exists(); number++) {
+			Segment segment = number == 0 ? current : segment(number, 0);
+			if (corrupted) {
+				// Anything after a torn record was written before the last reset and is stale
+				zero(segment.buffer, 0, segment.buffer.capacity());
+				continue;
+			}
+			corrupted = !scan(segment);
+			if (segment.limit > 0) {
+				current = segment;
+			}
+		}
+	}
+
+	/**
+	 * Scans the records of the segment into the index.
+	 *
+	 * @return true if the segment ends cleanly, false if a torn record was found and discarded
+	 */
+	private boolean scan(Segment segment) {
+		MappedByteBuffer buffer = segment.buffer;
+		int offset = 0;
+		while (buffer.capacity() - offset >= RECORD_HEADER_SIZE) {
+			int length = buffer.getInt(offset);
+			if (length == 0) {
+				break;
+			}
+			if (length < 0 || length > buffer.capacity() - offset - RECORD_HEADER_SIZE
+					|| buffer.getInt(offset + 4) != checksum(buffer, offset + 8, length + 4)) {
+				zero(buffer, offset, buffer.capacity());
+				segment.limit = offset;
+				return false;
+			}
+			int sequence = buffer.getInt(offset + 8);
+			index.put(sequence, location(segment.number, offset));
+			offset += RECORD_HEADER_SIZE + length;
+		}
+		segment.limit = offset;
+		return true;
+	}
+
+	private synchronized int collect(int from, int end, int max, Collection<String> messages) throws IOException {
+		int last = from;
+		int limit = Math.min(end, index.getMaxSequence());
+		for (int sequence = Math.max(from, 1); sequence <= limit && messages.size() < max; sequence++) {
+			long location = index.get(sequence);
+			if (location != SequenceIndex.ABSENT) {
+				messages.add(read(location));
+				last = sequence;
+			}
+		}
+		return last;
+	}
+
+	private String read(long location) throws IOException {
+		Segment segment = segments.get((int) (location >>> 32));
+		int offset = (int) location;
+		int length = segment.buffer.getInt(offset);
+		byte[] payload = new byte[length];
+		segment.buffer.get(offset + RECORD_HEADER_SIZE, payload);
+		return new String(payload, CharsetSupport.getCharset());
+	}
+
+	private Segment segment(int number, int minimumSize) throws IOException {
+		if (number < segments.size()) {
+			Segment segment = segments.get(number);
+			if (segment.buffer.capacity() >= minimumSize) {
+				return segment;
+			}
+			// The reused segment is too small for the record, so it is grown
+			segment.channel.close();
+		}
+		File file = segmentFile(number);
+		FileChannel channel = openChannel(file);
+		long size = Math.max(Math.max(segmentSize, minimumSize), channel.size());
+		Segment segment = new Segment(number, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+		if (number < segments.size()) {
+			segments.set(number, segment);
+		} else {
+			segments.add(segment);
+		}
+		return segment;
+	}
+
+	private File segmentFile(int number) {
+		return new File(directory, prefix + ".body." + number);
+	}
+
+	private int checksum(ByteBuffer buffer, int offset, int length) {
+		ByteBuffer view = buffer.duplicate();
+		view.limit(offset + length).position(offset);
+		crc.reset();
+		crc.update(view);
+		return (int) crc.getValue();
+	}
+
+	private static void zero(ByteBuffer buffer, int from, int to) {
+		for (int i = from; i < to; i += ZEROES.length) {
+			buffer.put(i, ZEROES, 0, Math.min(ZEROES.length, to - i));
+		}
+	}
+
+	private static long location(int segment, int offset) {
+		return ((long) segment << 32) | (offset & 0xffffffffL);
+	}
+
+	@SuppressWarnings("resource")
+	private static FileChannel openChannel(File file) throws IOException {
+		return new RandomAccessFile(file, "rw").getChannel();
+	}
+
+	private static final class Segment {
+
+		private final int number;
+
+		private final FileChannel channel;
+
+		private final MappedByteBuffer buffer;
+
+		private int limit;
+
+		Segment(int number, FileChannel channel, MappedByteBuffer buffer) {
+			this.number = number;
+			this.channel = channel;
+			this.buffer = buffer;
+		}
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import quickfix.ConfigError;
+import quickfix.FieldConvertError;
+import quickfix.FileStoreFactory;
+import quickfix.MessageStore;
+import quickfix.MessageStoreFactory;
+import quickfix.RuntimeError;
+import quickfix.SessionID;
+import quickfix.SessionSettings;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Creates a {@link MappedFileStore} for each session.
+ * <p>
+ * The store files are created in the directory given by the {@code FileStorePath} session setting, the same one used
+ * by the {@link FileStoreFactory}. The size of the preallocated segments is given by {@code MmapStoreSegmentSize}
+ * (default: 16 MiB) and {@code MmapStoreSync} (default: {@code N}) forces the mapped pages to the storage device on
+ * every write.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class MappedFileStoreFactory implements MessageStoreFactory {
+
+	/**
+	 * Size in bytes of each preallocated segment file.
+	 */
+	public static final String SETTING_MMAP_STORE_SEGMENT_SIZE = "MmapStoreSegmentSize";
+
+	/**
+	 * Whether to force the mapped pages to the storage device on every write.
+	 */
+	public static final String SETTING_MMAP_STORE_SYNC = "MmapStoreSync";
+
+	/**
+	 * The default size of the segment files.
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+	private final SessionSettings settings;
+
+	public MappedFileStoreFactory(SessionSettings settings) {
+		this.settings = settings;
+	}
+
+	@Override
+	public MessageStore create(SessionID sessionID) {
+		try {
+			File directory = new File(settings.getString(sessionID, FileStoreFactory.SETTING_FILE_STORE_PATH));
+			int segmentSize = settings.isSetting(sessionID, SETTING_MMAP_STORE_SEGMENT_SIZE)
+					? Math.toIntExact(settings.getLong(sessionID, SETTING_MMAP_STORE_SEGMENT_SIZE))
+					: DEFAULT_SEGMENT_SIZE;
+			boolean sync = settings.isSetting(sessionID, SETTING_MMAP_STORE_SYNC)
+					&& settings.getBool(sessionID, SETTING_MMAP_STORE_SYNC);
+			return new MappedFileStore(sessionID, directory, segmentSize, sync);
+		} catch (ConfigError | FieldConvertError | IOException e) {
+			throw new RuntimeError(e);
+		}
+	}
+}
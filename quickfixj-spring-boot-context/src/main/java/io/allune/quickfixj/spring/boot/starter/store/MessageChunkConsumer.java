@@ -0,0 +1,39 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Receives the stored messages of a range one chunk at a time.
+ *
+ * @author Eduardo Sanchez-Ros
+ * @see ChunkedMessageStore
+ * @see ResendStream
+ */
+@FunctionalInterface
+public interface MessageChunkConsumer {
+
+	/**
+	 * Receives the next chunk of messages, in sequence number order. The list is reused for the next chunk, so it
+	 * must not be kept after the method returns.
+	 *
+	 * @param chunk the messages of the chunk
+	 * @throws IOException if the messages could not be processed, which stops the streaming
+	 */
+	void accept(List<String> chunk) throws IOException;
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drives the streaming of a range of messages in chunks for the {@link ChunkedMessageStore} implementations.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+final class MessageChunks {
+
+	private MessageChunks() {
+	}
+
+	/**
+	 * Collects the next chunk of messages of a store, holding its lock only while the chunk is collected.
+	 */
+	@FunctionalInterface
+	interface Collector {
+
+		/**
+		 * Adds to the chunk at most {@code max} messages with a sequence number between {@code from} and {@code end},
+		 * in sequence number order.
+		 *
+		 * @return the sequence number of the last message added to the chunk
+		 */
+		int collect(int from, int end, int max, List<String> chunk) throws IOException;
+	}
+
+	static void stream(Collector collector, int startSequence, int endSequence, int chunkSize,
+			MessageChunkConsumer consumer) throws IOException {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("The chunk size must be greater than 0");
+		}
+		List<String> chunk = new ArrayList<>(Math.min(chunkSize, 1024));
+		int next = Math.max(startSequence, 1);
+		while (next <= endSequence) {
+			chunk.clear();
+			int last = collector.collect(next, endSequence, chunkSize, chunk);
+			int size = chunk.size();
+			if (size == 0) {
+				return;
+			}
+			consumer.accept(chunk);
+			if (size < chunkSize || last >= endSequence) {
+				return;
+			}
+			next = last + 1;
+		}
+	}
+}
@@ -0,0 +1,394 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import quickfix.CharsetSupport;
+import quickfix.MessageStore;
+import quickfix.SessionID;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * In-memory {@link MessageStore} keeping the messages in direct {@link ByteBuffer} slabs outside the heap, and only
+ * retaining the most recent ones.
+ * <p>
+ * The messages are appended to the current slab as records of {@code [length][payload]} and indexed by sequence
+ * number in primitive arrays, so a stored message does not create any long-lived object on the heap. Once more than
+ * {@code maxMessages} messages or {@code maxBytes} bytes are retained, the oldest messages are evicted and the slabs
+ * left empty are released. A resend request for an evicted message is answered with a gap fill by the session.
+ *
+ * @author Eduardo Sanchez-Ros
+ * @see OffHeapMemoryStoreFactory
+ */
+public class OffHeapMemoryStore implements ChunkedMessageStore {
+
+	private static final int RECORD_HEADER_SIZE = 4;
+
+	private static final int INITIAL_INDEX_CAPACITY = 1024;
+
+	private final SessionID sessionID;
+
+	private final int slabSize;
+
+	private final int maxMessages;
+
+	private final long maxBytes;
+
+	private final List<Slab> slabs = new ArrayList<>();
+
+	private Slab spare;
+
+	private int firstSlabId;
+
+	private int[] sequences = new int[INITIAL_INDEX_CAPACITY];
+
+	private long[] locations = new long[INITIAL_INDEX_CAPACITY];
+
+	private int head;
+
+	private int count;
+
+	private boolean ordered = true;
+
+	private long retainedBytes;
+
+	private long evictedCount;
+
+	private int nextSenderMsgSeqNum;
+
+	private int nextTargetMsgSeqNum;
+
+	private Calendar creationTime;
+
+	/**
+	 * Creates an empty store.
+	 *
+	 * @param sessionID   the session ID
+	 * @param slabSize    the size in bytes of each slab
+	 * @param maxMessages the maximum number of retained messages, or {@code 0} for no limit
+	 * @param maxBytes    the maximum number of bytes of the retained messages, or {@code 0} for no limit
+	 */
+	public OffHeapMemoryStore(SessionID sessionID, int slabSize, int maxMessages, long maxBytes) {
+		if (slabSize <= RECORD_HEADER_SIZE) {
+			throw new IllegalArgumentException("The slab size must be greater than " + RECORD_HEADER_SIZE + " bytes");
+		}
+		this.sessionID = sessionID;
+		this.slabSize = slabSize;
+		this.maxMessages = maxMessages;
+		this.maxBytes = maxBytes;
+		resetSequenceNumbers();
+	}
+
+	@Override
+	public synchronized boolean set(int sequence, String message) throws IOException {
+		byte[] payload = message.getBytes(CharsetSupport.getCharset());
+		int recordSize = RECORD_HEADER_SIZE + payload.length;
+		Slab slab = slabs.isEmpty() ? null : slabs.get(slabs.size() - 1);
+		if (slab == null || slab.buffer.capacity() - slab.limit < recordSize) {
+			slab = allocateSlab(recordSize);
+		}
+
+		int offset = slab.limit;
+		slab.buffer.putInt(offset, payload.length);
+		slab.buffer.put(offset + RECORD_HEADER_SIZE, payload);
+		slab.limit += recordSize;
+		slab.records++;
+		retainedBytes += recordSize;
+
+		if (count > 0 && sequence <= sequences[indexOf(count - 1)]) {
+			ordered = false;
+		}
+		append(sequence, location(slab.id, offset));
+		evict();
+		return true;
+	}
+
+	@Override
+	public void get(int startSequence, int endSequence, Collection<String> messages) throws IOException {
+		collect(startSequence, endSequence, Integer.MAX_VALUE, messages);
+	}
+
+	@Override
+	public void get(int startSequence, int endSequence, int chunkSize, MessageChunkConsumer consumer) throws IOException {
+		MessageChunks.stream(this::collect, startSequence, endSequence, chunkSize, consumer);
+	}
+
+	@Override
+	public synchronized int getNextSenderMsgSeqNum() {
+		return nextSenderMsgSeqNum;
+	}
+
+	@Override
+	public synchronized int getNextTargetMsgSeqNum() {
+		return nextTargetMsgSeqNum;
+	}
+
+	@Override
+	public synchronized void setNextSenderMsgSeqNum(int next) {
+		nextSenderMsgSeqNum = next;
+	}
+
+	@Override
+	public synchronized void setNextTargetMsgSeqNum(int next) {
+		nextTargetMsgSeqNum = next;
+	}
+
+	@Override
+	public synchronized void incrNextSenderMsgSeqNum() {
+		nextSenderMsgSeqNum++;
+	}
+
+	@Override
+	public synchronized void incrNextTargetMsgSeqNum() {
+		nextTargetMsgSeqNum++;
+	}
+
+	@Override
+	public synchronized Date getCreationTime() {
+		return creationTime.getTime();
+	}
+
+	@Override
+	public synchronized Calendar getCreationTimeCalendar() {
+		return (Calendar) creationTime.clone();
+	}
+
+	@Override
+	public synchronized void reset() {
+		while (!slabs.isEmpty()) {
+			releaseSlab();
+		}
+		head = 0;
+		count = 0;
+		ordered = true;
+		retainedBytes = 0;
+		resetSequenceNumbers();
+	}
+
+	/**
+	 * Nothing to reload, as the store is not persistent.
+	 */
+	@Override
+	public void refresh() {
+	}
+
+	/**
+	 * Returns the session ID of the store.
+	 *
+	 * @return the session ID
+	 */
+	public SessionID getSessionID() {
+		return sessionID;
+	}
+
+	/**
+	 * Returns the number of retained messages.
+	 *
+	 * @return the number of retained messages
+	 */
+	public synchronized int getRetainedCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the number of bytes of the retained messages, including the record headers.
+	 *
+	 * @return the number of retained bytes
+	 */
+	public synchronized long getRetainedBytes() {
+		return retainedBytes;
+	}
+
+	/**
+	 * Returns the number of bytes of direct memory held by the slabs of the store, including the spare slab.
+	 *
+	 * @return the number of reserved bytes
+	 */
+	public synchronized long getReservedBytes() {
+		long reserved = spare != null ? spare.buffer.capacity() : 0;
+		for (Slab slab : slabs) {
+			reserved += slab.buffer.capacity();
+		}
+		return reserved;
+	}
+
+	/**
+	 * Returns the number of messages evicted to honour the retention limits.
+	 *
+	 * @return the number of evicted messages
+	 */
+	public synchronized long getEvictedCount() {
+		return evictedCount;
+	}
+
+	private synchronized int collect(int from, int end, int max, Collection<String> messages) throws IOException {
+		int last = from;
+		if (count == 0) {
+			return last;
+		}
+		if (ordered) {
+			for (int i = firstIndexFrom(from); i < count && sequences[indexOf(i)] <= end && messages.size() < max; i++) {
+				messages.add(read(locations[indexOf(i)]));
+				last = sequences[indexOf(i)];
+			}
+		} else {
+			int first = Integer.MAX_VALUE;
+			int highest = Integer.MIN_VALUE;
+			for (int i = 0; i < count; i++) {
+				first = Math.min(first, sequences[indexOf(i)]);
+				highest = Math.max(highest, sequences[indexOf(i)]);
+			}
+			int limit = Math.min(end, highest);
+			for (int sequence = Math.max(from, first); sequence <= limit && messages.size() < max; sequence++) {
+				int i = lastIndexOf(sequence);
+				if (i >= 0) {
+					messages.add(read(locations[indexOf(i)]));
+					last = sequence;
+				}
+			}
+		}
+		return last;
+	}
+
+	private void resetSequenceNumbers() {
+		nextSenderMsgSeqNum = 1;
+		nextTargetMsgSeqNum = 1;
+		creationTime = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+	}
+
+	private Slab allocateSlab(int minimumSize) {
+		int id = firstSlabId + slabs.size();
+		Slab slab;
+		if (spare != null && spare.buffer.capacity() >= minimumSize) {
+			slab = new Slab(id, spare.buffer);
+			spare = null;
+		} else {
+			slab = new Slab(id, ByteBuffer.allocateDirect(Math.max(slabSize, minimumSize)));
+		}
+		slabs.add(slab);
+		return slab;
+	}
+
+	/**
+	 * Releases the oldest slab, keeping one slab of the default size to be reused by the next allocation.
+	 */
+	private void releaseSlab() {
+		Slab slab = slabs.remove(0);
+		firstSlabId++;
+		if (spare == null && slab.buffer.capacity() == slabSize) {
+			spare = slab;
+		}
+	}
+
+	private void evict() {
+		while (count > 1 && ((maxMessages > 0 && count > maxMessages) || (maxBytes > 0 && retainedBytes > maxBytes))) {
+			long location = locations[head];
+			Slab slab = slabs.get((int) (location >>> 32) - firstSlabId);
+			retainedBytes -= RECORD_HEADER_SIZE + slab.buffer.getInt((int) location);
+			head = (head + 1) % sequences.length;
+			count--;
+			evictedCount++;
+			if (++slab.evicted == slab.records && slab != slabs.get(slabs.size() - 1)) {
+				releaseSlab();
+			}
+		}
+		if (count <= 1) {
+			ordered = true;
+		}
+	}
+
+	private void append(int sequence, long location) {
+		if (count == sequences.length) {
+			int[] grownSequences = new int[sequences.length * 2];
+			long[] grownLocations = new long[locations.length * 2];
+			for (int i = 0; i < count; i++) {
+				grownSequences[i] = sequences[indexOf(i)];
+				grownLocations[i] = locations[indexOf(i)];
+			}
+			sequences = grownSequences;
+			locations = grownLocations;
+			head = 0;
+		}
+		int index = indexOf(count);
+		sequences[index] = sequence;
+		locations[index] = location;
+		count++;
+	}
+
+	private int indexOf(int position) {
+		return (head + position) % sequences.length;
+	}
+
+	private int firstIndexFrom(int sequence) {
+		int low = 0;
+		int high = count;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (sequences[indexOf(middle)] < sequence) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private int lastIndexOf(int sequence) {
+		for (int i = count - 1; i >= 0; i--) {
+			if (sequences[indexOf(i)] == sequence) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private String read(long location) throws IOException {
+		ByteBuffer buffer = slabs.get((int) (location >>> 32) - firstSlabId).buffer;
+		int offset = (int) location;
+		byte[] payload = new byte[buffer.getInt(offset)];
+		buffer.get(offset + RECORD_HEADER_SIZE, payload);
+		return new String(payload, CharsetSupport.getCharset());
+	}
+
+	private static long location(int slabId, int offset) {
+		return ((long) slabId << 32) | (offset & 0xffffffffL);
+	}
+
+	private static final class Slab {
+
+		private final int id;
+
+		private final ByteBuffer buffer;
+
+		private int limit;
+
+		private int records;
+
+		private int evicted;
+
+		Slab(int id, ByteBuffer buffer) {
+			this.id = id;
+			this.buffer = buffer;
+		}
+	}
+}
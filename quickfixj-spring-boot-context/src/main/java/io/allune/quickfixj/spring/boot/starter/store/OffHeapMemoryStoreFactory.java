@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import quickfix.ConfigError;
+import quickfix.FieldConvertError;
+import quickfix.MessageStore;
+import quickfix.MessageStoreFactory;
+import quickfix.RuntimeError;
+import quickfix.SessionID;
+import quickfix.SessionSettings;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Creates an {@link OffHeapMemoryStore} for each session.
+ * <p>
+ * The retention window of each session is given by the {@code OffHeapStoreMaxMessages} (default: {@code 0}, no limit)
+ * and {@code OffHeapStoreMaxBytes} (default: 64 MiB) session settings, and the size of the slabs by
+ * {@code OffHeapStoreSlabSize} (default: 1 MiB). The factory keeps track of the stores it creates, so that their
+ * memory usage can be reported per session.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class OffHeapMemoryStoreFactory implements MessageStoreFactory {
+
+	/**
+	 * Maximum number of messages retained by the store of the session.
+	 */
+	public static final String SETTING_OFF_HEAP_STORE_MAX_MESSAGES = "OffHeapStoreMaxMessages";
+
+	/**
+	 * Maximum number of bytes of the messages retained by the store of the session.
+	 */
+	public static final String SETTING_OFF_HEAP_STORE_MAX_BYTES = "OffHeapStoreMaxBytes";
+
+	/**
+	 * Size in bytes of each slab of direct memory.
+	 */
+	public static final String SETTING_OFF_HEAP_STORE_SLAB_SIZE = "OffHeapStoreSlabSize";
+
+	private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+	private static final int DEFAULT_SLAB_SIZE = 1024 * 1024;
+
+	private final SessionSettings settings;
+
+	private final Map<SessionID, OffHeapMemoryStore> stores = new ConcurrentHashMap<>();
+
+	private volatile Consumer<OffHeapMemoryStore> storeCreatedListener = store -> {
+	};
+
+	public OffHeapMemoryStoreFactory(SessionSettings settings) {
+		this.settings = settings;
+	}
+
+	@Override
+	public MessageStore create(SessionID sessionID) {
+		try {
+			int slabSize = settings.isSetting(sessionID, SETTING_OFF_HEAP_STORE_SLAB_SIZE)
+					? Math.toIntExact(settings.getLong(sessionID, SETTING_OFF_HEAP_STORE_SLAB_SIZE))
+					: DEFAULT_SLAB_SIZE;
+			int maxMessages = settings.isSetting(sessionID, SETTING_OFF_HEAP_STORE_MAX_MESSAGES)
+					? Math.toIntExact(settings.getLong(sessionID, SETTING_OFF_HEAP_STORE_MAX_MESSAGES))
+					: 0;
+			long maxBytes = settings.isSetting(sessionID, SETTING_OFF_HEAP_STORE_MAX_BYTES)
+					? settings.getLong(sessionID, SETTING_OFF_HEAP_STORE_MAX_BYTES)
+					: DEFAULT_MAX_BYTES;
+			OffHeapMemoryStore store = new OffHeapMemoryStore(sessionID, slabSize, maxMessages, maxBytes);
+			stores.put(sessionID, store);
+			storeCreatedListener.accept(store);
+			return store;
+		} catch (ConfigError | FieldConvertError e) {
+			throw new RuntimeError(e);
+		}
+	}
+
+	/**
+	 * Returns the store of the provided session, if it has been created.
+	 *
+	 * @param sessionID the session ID
+	 * @return the store of the session, or null if it has not been created
+	 */
+	public OffHeapMemoryStore getStore(SessionID sessionID) {
+		return stores.get(sessionID);
+	}
+
+	/**
+	 * Returns the stores created by the factory.
+	 *
+	 * @return the stores
+	 */
+	public Collection<OffHeapMemoryStore> getStores() {
+		return Collections.unmodifiableCollection(stores.values());
+	}
+
+	/**
+	 * Sets the callback invoked with each store created by the factory, used to report its memory usage.
+	 *
+	 * @param storeCreatedListener the callback receiving the created stores
+	 */
+	public void setStoreCreatedListener(Consumer<OffHeapMemoryStore> storeCreatedListener) {
+		this.storeCreatedListener = storeCreatedListener;
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import io.allune.quickfixj.spring.boot.starter.exception.SessionNotFoundException;
+import quickfix.MessageStore;
+import quickfix.Session;
+import quickfix.SessionID;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Streams a range of stored messages, such as the range of a ResendRequest, in fixed-size chunks and at a bounded
+ * rate, so that serving a large range holds at most one chunk of messages in memory.
+ * <p>
+ * The messages are read with {@link ChunkedMessageStore#get(int, int, int, MessageChunkConsumer)} when the store
+ * supports it. Any other {@link MessageStore} is read with one {@link MessageStore#get(int, int, java.util.Collection)}
+ * call per chunk of sequence numbers.
+ * <p>
+ * This is a utility for the application code reading stored messages: QuickFIX/J answers the ResendRequest messages
+ * received by a session with its own resend logic, which still loads the whole range at once.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class ResendStream {
+
+	private final int chunkSize;
+
+	private final double messagesPerSecond;
+
+	/**
+	 * @param chunkSize         the maximum number of messages of each chunk
+	 * @param messagesPerSecond the maximum number of messages streamed per second, or 0 to stream them unpaced
+	 */
+	public ResendStream(int chunkSize, double messagesPerSecond) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("The chunk size must be greater than 0");
+		}
+		if (messagesPerSecond < 0) {
+			throw new IllegalArgumentException("The rate must not be negative");
+		}
+		this.chunkSize = chunkSize;
+		this.messagesPerSecond = messagesPerSecond;
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	public double getMessagesPerSecond() {
+		return messagesPerSecond;
+	}
+
+	/**
+	 * Streams the messages of the store of the provided session.
+	 *
+	 * @param sessionID     the session ID
+	 * @param startSequence the first sequence number of the range
+	 * @param endSequence   the last sequence number of the range
+	 * @param consumer      the consumer of the chunks
+	 * @throws SessionNotFoundException if the session could not be found
+	 * @throws IOException              if the messages could not be read or consumed
+	 */
+	public void stream(SessionID sessionID, int startSequence, int endSequence, MessageChunkConsumer consumer) throws IOException {
+		Session session = Session.lookupSession(sessionID);
+		if (session == null) {
+			throw new SessionNotFoundException("Session not found: " + sessionID);
+		}
+		stream(session.getStore(), startSequence, endSequence, consumer);
+	}
+
+	/**
+	 * Streams the messages of the provided store with a sequence number between the provided ones, both included.
+	 *
+	 * @param store         the message store
+	 * @param startSequence the first sequence number of the range
+	 * @param endSequence   the last sequence number of the range, which is bounded by the last sent sequence number
+	 * @param consumer      the consumer of the chunks
+	 * @throws IOException if the messages could not be read or consumed
+	 */
+	public void stream(MessageStore store, int startSequence, int endSequence, MessageChunkConsumer consumer) throws IOException {
+		MessageChunkConsumer paced = messagesPerSecond > 0 ? new PacedConsumer(consumer) : consumer;
+		int lastSequence = Math.min(endSequence, store.getNextSenderMsgSeqNum() - 1);
+		if (store instanceof ChunkedMessageStore chunkedStore) {
+			chunkedStore.get(startSequence, lastSequence, chunkSize, paced);
+			return;
+		}
+
+		List<String> chunk = new ArrayList<>(Math.min(chunkSize, 1024));
+		for (long from = Math.max(startSequence, 1); from <= lastSequence; from += chunkSize) {
+			chunk.clear();
+			store.get((int) from, (int) Math.min(from + chunkSize - 1, lastSequence), chunk);
+			if (!chunk.isEmpty()) {
+				paced.accept(chunk);
+			}
+		}
+	}
+
+	/**
+	 * Delays each chunk until the messages streamed so far are within the rate.
+	 */
+	private final class PacedConsumer implements MessageChunkConsumer {
+
+		private final MessageChunkConsumer delegate;
+
+		private final long startNanos = System.nanoTime();
+
+		private long streamed;
+
+		PacedConsumer(MessageChunkConsumer delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void accept(List<String> chunk) throws IOException {
+			long dueNanos = startNanos + (long) (streamed * TimeUnit.SECONDS.toNanos(1) / messagesPerSecond);
+			long delayNanos;
+			while ((delayNanos = dueNanos - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(delayNanos);
+				if (Thread.interrupted()) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while pacing the resend stream");
+				}
+			}
+			streamed += chunk.size();
+			delegate.accept(chunk);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import java.util.Arrays;
+
+/**
+ * Index of the stored message locations by sequence number.
+ * <p>
+ * The locations are kept in a growable {@code long[]} indexed by {@code sequence - baseSequence}, where the base
+ * sequence is the lowest sequence number indexed, so that indexing a message boxes neither its sequence number nor
+ * its location. The sequence numbers of a session are contiguous, which keeps the array dense. The index is not
+ * thread-safe and is guarded by its store.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+final class SequenceIndex {
+
+	/**
+	 * Location returned for the sequence numbers which are not indexed. Stored locations must not be negative.
+	 */
+	static final long ABSENT = -1L;
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private long[] locations = absentLocations(INITIAL_CAPACITY);
+
+	private int baseSequence;
+
+	private int size;
+
+	/**
+	 * Indexes the location of a message, replacing the location previously indexed for its sequence number.
+	 *
+	 * @param sequence the sequence number of the message
+	 * @param location the location of the message
+	 */
+	void put(int sequence, long location) {
+		if (size == 0) {
+			baseSequence = sequence;
+		} else if (sequence < baseSequence) {
+			rebase(sequence);
+		}
+		int slot = sequence - baseSequence;
+		if (slot >= locations.length) {
+			locations = copyOf(locations, 0, size, capacityFor(slot + 1));
+		}
+		locations[slot] = location;
+		size = Math.max(size, slot + 1);
+	}
+
+	/**
+	 * Returns the location of the message with the provided sequence number.
+	 *
+	 * @param sequence the sequence number
+	 * @return the location, or {@link #ABSENT} if the sequence number is not indexed
+	 */
+	long get(int sequence) {
+		int slot = sequence - baseSequence;
+		return slot >= 0 && slot < size ? locations[slot] : ABSENT;
+	}
+
+	/**
+	 * Returns the highest sequence number indexed.
+	 *
+	 * @return the highest sequence number, or 0 if the index is empty
+	 */
+	int getMaxSequence() {
+		return size > 0 ? baseSequence + size - 1 : 0;
+	}
+
+	/**
+	 * Removes all the locations, keeping the allocated array for reuse.
+	 */
+	void clear() {
+		Arrays.fill(locations, 0, size, ABSENT);
+		size = 0;
+	}
+
+	private void rebase(int sequence) {
+		int shift = baseSequence - sequence;
+		locations = copyOf(locations, shift, size, capacityFor(size + shift));
+		baseSequence = sequence;
+		size += shift;
+	}
+
+	private static long[] copyOf(long[] locations, int shift, int size, int capacity) {
+		long[] copy = absentLocations(capacity);
+		System.arraycopy(locations, 0, copy, shift, size);
+		return copy;
+	}
+
+	private int capacityFor(int size) {
+		int capacity = locations.length;
+		while (capacity < size) {
+			capacity = capacity <= Integer.MAX_VALUE / 2 ? capacity * 2 : Integer.MAX_VALUE;
+		}
+		return capacity;
+	}
+
+	private static long[] absentLocations(int capacity) {
+		long[] locations = new long[capacity];
+		Arrays.fill(locations, ABSENT);
+		return locations;
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import quickfix.SessionID;
+
+/**
+ * Builds the names of the files of the file based message stores of a session.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+final class StoreFileNames {
+
+	private StoreFileNames() {
+	}
+
+	/**
+	 * Returns the prefix of the file names of the session, made of its identifiers with the characters which are
+	 * not safe in a file name replaced.
+	 *
+	 * @param sessionID the session ID
+	 * @return the prefix of the file names
+	 */
+	static String prefix(SessionID sessionID) {
+		StringBuilder prefix = new StringBuilder()
+				.append(sessionID.getBeginString())
+				.append('-').append(sessionID.getSenderCompID());
+		appendIfSet(prefix, sessionID.getSenderSubID());
+		appendIfSet(prefix, sessionID.getSenderLocationID());
+		prefix.append('-').append(sessionID.getTargetCompID());
+		appendIfSet(prefix, sessionID.getTargetSubID());
+		appendIfSet(prefix, sessionID.getTargetLocationID());
+		appendIfSet(prefix, sessionID.getSessionQualifier());
+		return prefix.toString().replaceAll("[^A-Za-z0-9._-]", "_");
+	}
+
+	private static void appendIfSet(StringBuilder prefix, String value) {
+		if (value != null && !value.isEmpty()) {
+			prefix.append('_').append(value);
+		}
+	}
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import quickfix.CharsetSupport;
+import quickfix.MessageStore;
+import quickfix.SessionID;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * {@link MessageStore} keeping the most recent messages in a bounded in-memory tier (hot) and spilling the older ones
+ * to an append-only file of compressed blocks (cold).
+ * <p>
+ * When the hot tier is full, its oldest {@code spillBlockSize} messages are compressed together into a block which is
+ * appended to the cold file, and the range of sequence numbers of each block is kept in memory. A resend request is
+ * served transparently from both tiers, decompressing only the blocks overlapping the requested range.
+ * <p>
+ * Like the {@link quickfix.MemoryStore}, the store is not persistent: the sequence numbers are kept in memory and the
+ * cold file is discarded when the store is created or reset.
+ *
+ * @author Eduardo Sanchez-Ros
+ * @see TieredMessageStoreFactory
+ */
+public class TieredMessageStore implements ChunkedMessageStore, Closeable {
+
+	private static final int BLOCK_HEADER_SIZE = 16;
+
+	private final SessionID sessionID;
+
+	private final int spillBlockSize;
+
+	private final FileChannel coldChannel;
+
+	private final LongAdder requestedCount;
+
+	private final LongAdder hotHitCount;
+
+	private final LongAdder coldHitCount;
+
+	private final int[] hotSequences;
+
+	private final String[] hotMessages;
+
+	private int hotHead;
+
+	private int hotCount;
+
+	private int[] blockFirstSequences = new int[64];
+
+	private int[] blockLastSequences = new int[64];
+
+	private long[] blockOffsets = new long[64];
+
+	private int blockCount;
+
+	private long coldPosition;
+
+	private int highestSequence;
+
+	private int nextSenderMsgSeqNum;
+
+	private int nextTargetMsgSeqNum;
+
+	private Calendar creationTime;
+
+	TieredMessageStore(SessionID sessionID, File directory, int hotCapacity, int spillBlockSize,
+			LongAdder requestedCount, LongAdder hotHitCount, LongAdder coldHitCount) throws IOException {
+		if (spillBlockSize < 1 || spillBlockSize > hotCapacity) {
+			throw new IllegalArgumentException("The spill block size must be between 1 and the hot tier capacity");
+		}
+		this.sessionID = sessionID;
+		this.spillBlockSize = spillBlockSize;
+		this.requestedCount = requestedCount;
+		this.hotHitCount = hotHitCount;
+		this.coldHitCount = coldHitCount;
+		this.hotSequences = new int[hotCapacity];
+		this.hotMessages = new String[hotCapacity];
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create the message store directory " + directory);
+		}
+		coldChannel = openChannel(new File(directory, StoreFileNames.prefix(sessionID) + ".cold"));
+		coldChannel.truncate(0);
+		resetSequenceNumbers();
+	}
+
+	@Override
+	public synchronized boolean set(int sequence, String message) throws IOException {
+		if (hotCount == hotMessages.length) {
+			spill();
+		}
+		int index = hotIndex(hotCount++);
+		hotSequences[index] = sequence;
+		hotMessages[index] = message;
+		highestSequence = Math.max(highestSequence, sequence);
+		return true;
+	}
+
+	@Override
+	public synchronized void get(int startSequence, int endSequence, Collection<String> messages) throws IOException {
+		requestedCount.add(requested(startSequence, endSequence));
+		collect(startSequence, endSequence, Integer.MAX_VALUE, messages);
+	}
+
+	@Override
+	public void get(int startSequence, int endSequence, int chunkSize, MessageChunkConsumer consumer) throws IOException {
+		synchronized (this) {
+			requestedCount.add(requested(startSequence, endSequence));
+		}
+		MessageChunks.stream(this::collect, startSequence, endSequence, chunkSize, consumer);
+	}
+
+	@Override
+	public synchronized int getNextSenderMsgSeqNum() {
+		return nextSenderMsgSeqNum;
+	}
+
+	@Override
+	public synchronized int getNextTargetMsgSeqNum() {
+		return nextTargetMsgSeqNum;
+	}
+
+	@Override
+	public synchronized void setNextSenderMsgSeqNum(int next) {
+		nextSenderMsgSeqNum = next;
+	}
+
+	@Override
+	public synchronized void setNextTargetMsgSeqNum(int next) {
+		nextTargetMsgSeqNum = next;
+	}
+
+	@Override
+	public synchronized void incrNextSenderMsgSeqNum() {
+		nextSenderMsgSeqNum++;
+	}
+
+	@Override
+	public synchronized void incrNextTargetMsgSeqNum() {
+		nextTargetMsgSeqNum++;
+	}
+
+	@Override
+	public synchronized Date getCreationTime() {
+		return creationTime.getTime();
+	}
+
+	@Override
+	public synchronized Calendar getCreationTimeCalendar() {
+		return (Calendar) creationTime.clone();
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		Arrays.fill(hotMessages, null);
+		hotHead = 0;
+		hotCount = 0;
+		highestSequence = 0;
+		blockCount = 0;
+		coldPosition = 0;
+		coldChannel.truncate(0);
+		resetSequenceNumbers();
+	}
+
+	/**
+	 * Nothing to reload, as the store is not persistent.
+	 */
+	@Override
+	public void refresh() {
+	}
+
+	/**
+	 * Returns the number of messages in the hot tier.
+	 *
+	 * @return the number of hot messages
+	 */
+	public synchronized int getHotCount() {
+		return hotCount;
+	}
+
+	/**
+	 * Returns the number of compressed blocks in the cold tier.
+	 *
+	 * @return the number of cold blocks
+	 */
+	public synchronized int getColdBlockCount() {
+		return blockCount;
+	}
+
+	/**
+	 * Returns the size in bytes of the cold tier file.
+	 *
+	 * @return the size of the cold tier
+	 */
+	public synchronized long getColdBytes() {
+		return coldPosition;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		coldChannel.close();
+	}
+
+	/**
+	 * Compresses the oldest messages of the hot tier into a block appended to the cold file.
+	 */
+	private void spill() throws IOException {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		int firstSequence = Integer.MAX_VALUE;
+		int lastSequence = Integer.MIN_VALUE;
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try (DataOutputStream output = new DataOutputStream(new DeflaterOutputStream(compressed, deflater))) {
+			for (int i = 0; i < spillBlockSize; i++) {
+				int index = hotIndex(i);
+				byte[] payload = hotMessages[index].getBytes(CharsetSupport.getCharset());
+				firstSequence = Math.min(firstSequence, hotSequences[index]);
+				lastSequence = Math.max(lastSequence, hotSequences[index]);
+				output.writeInt(hotSequences[index]);
+				output.writeInt(payload.length);
+				output.write(payload);
+			}
+		} finally {
+			deflater.end();
+		}
+
+		ByteBuffer block = ByteBuffer.allocate(BLOCK_HEADER_SIZE + compressed.size())
+				.putInt(compressed.size())
+				.putInt(spillBlockSize)
+				.putInt(firstSequence)
+				.putInt(lastSequence)
+				.put(compressed.toByteArray())
+				.flip();
+		long offset = coldPosition;
+		while (block.hasRemaining()) {
+			coldChannel.write(block, offset + block.position());
+		}
+		coldPosition += block.limit();
+		addBlock(firstSequence, lastSequence, offset);
+
+		for (int i = 0; i < spillBlockSize; i++) {
+			hotMessages[hotIndex(i)] = null;
+		}
+		hotHead = hotIndex(spillBlockSize);
+		hotCount -= spillBlockSize;
+	}
+
+	private void addBlock(int firstSequence, int lastSequence, long offset) {
+		if (blockCount == blockOffsets.length) {
+			blockFirstSequences = Arrays.copyOf(blockFirstSequences, blockCount * 2);
+			blockLastSequences = Arrays.copyOf(blockLastSequences, blockCount * 2);
+			blockOffsets = Arrays.copyOf(blockOffsets, blockCount * 2);
+		}
+		blockFirstSequences[blockCount] = firstSequence;
+		blockLastSequences[blockCount] = lastSequence;
+		blockOffsets[blockCount] = offset;
+		blockCount++;
+	}
+
+	private synchronized int collect(int from, int end, int max, Collection<String> messages) throws IOException {
+		int last = from;
+		for (int block = 0; block < blockCount && messages.size() < max; block++) {
+			if (blockFirstSequences[block] <= end && blockLastSequences[block] >= from) {
+				int before = messages.size();
+				last = readBlock(block, from, end, max, messages, last);
+				coldHitCount.add(messages.size() - before);
+			}
+		}
+		int before = messages.size();
+		for (int i = 0; i < hotCount && messages.size() < max; i++) {
+			int index = hotIndex(i);
+			if (hotSequences[index] >= from && hotSequences[index] <= end) {
+				messages.add(hotMessages[index]);
+				last = hotSequences[index];
+			}
+		}
+		hotHitCount.add(messages.size() - before);
+		return last;
+	}
+
+	private int requested(int startSequence, int endSequence) {
+		return Math.max(0, Math.min(endSequence, highestSequence) - Math.max(startSequence, 1) + 1);
+	}
+
+	/**
+	 * Decompresses the block, adding its messages within the range until the collection holds {@code max} messages.
+	 *
+	 * @return the sequence number of the last message added, or {@code last} if none was added
+	 */
+	private int readBlock(int block, int from, int end, int max, Collection<String> messages, int last) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+		readFully(header, blockOffsets[block]);
+		ByteBuffer compressed = ByteBuffer.allocate(header.getInt(0));
+		int count = header.getInt(4);
+		readFully(compressed, blockOffsets[block] + BLOCK_HEADER_SIZE);
+
+		try (DataInputStream input = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(compressed.array())))) {
+			for (int i = 0; i < count && messages.size() < max; i++) {
+				int sequence = input.readInt();
+				byte[] payload = new byte[input.readInt()];
+				input.readFully(payload);
+				if (sequence >= from && sequence <= end) {
+					messages.add(new String(payload, CharsetSupport.getCharset()));
+					last = sequence;
+				}
+			}
+		}
+		return last;
+	}
+
+	private void readFully(ByteBuffer buffer, long offset) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (coldChannel.read(buffer, offset + buffer.position()) < 0) {
+				throw new EOFException("Unexpected end of the cold tier file of session " + sessionID);
+			}
+		}
+	}
+
+	private int hotIndex(int position) {
+		return (hotHead + position) % hotMessages.length;
+	}
+
+	private void resetSequenceNumbers() {
+		nextSenderMsgSeqNum = 1;
+		nextTargetMsgSeqNum = 1;
+		creationTime = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+	}
+
+	@SuppressWarnings("resource")
+	private static FileChannel openChannel(File file) throws IOException {
+		return new RandomAccessFile(file, "rw").getChannel();
+	}
+}
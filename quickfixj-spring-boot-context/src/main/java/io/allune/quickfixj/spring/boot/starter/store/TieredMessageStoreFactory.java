@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import quickfix.ConfigError;
+import quickfix.FieldConvertError;
+import quickfix.FileStoreFactory;
+import quickfix.MessageStore;
+import quickfix.MessageStoreFactory;
+import quickfix.RuntimeError;
+import quickfix.SessionID;
+import quickfix.SessionSettings;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Creates a {@link TieredMessageStore} for each session.
+ * <p>
+ * The cold tier files are created in the directory given by the {@code FileStorePath} session setting. The capacity of
+ * the hot tier is given by {@code TieredStoreHotMessages} (default: 10000) and the number of messages compressed
+ * together when spilling to the cold tier by {@code TieredStoreSpillBlockSize} (default: 256, or the hot tier capacity
+ * if lower). The factory counts the messages requested from its stores and the ones served by each tier.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class TieredMessageStoreFactory implements MessageStoreFactory {
+
+	/**
+	 * Maximum number of messages kept in the hot tier of the store of the session.
+	 */
+	public static final String SETTING_TIERED_STORE_HOT_MESSAGES = "TieredStoreHotMessages";
+
+	/**
+	 * Number of messages compressed together into a block of the cold tier.
+	 */
+	public static final String SETTING_TIERED_STORE_SPILL_BLOCK_SIZE = "TieredStoreSpillBlockSize";
+
+	private static final int DEFAULT_HOT_MESSAGES = 10000;
+
+	private static final int DEFAULT_SPILL_BLOCK_SIZE = 256;
+
+	private final SessionSettings settings;
+
+	private final LongAdder requestedCount = new LongAdder();
+
+	private final LongAdder hotHitCount = new LongAdder();
+
+	private final LongAdder coldHitCount = new LongAdder();
+
+	public TieredMessageStoreFactory(SessionSettings settings) {
+		this.settings = settings;
+	}
+
+	@Override
+	public MessageStore create(SessionID sessionID) {
+		try {
+			File directory = new File(settings.getString(sessionID, FileStoreFactory.SETTING_FILE_STORE_PATH));
+			int hotMessages = settings.isSetting(sessionID, SETTING_TIERED_STORE_HOT_MESSAGES)
+					? Math.toIntExact(settings.getLong(sessionID, SETTING_TIERED_STORE_HOT_MESSAGES))
+					: DEFAULT_HOT_MESSAGES;
+			int spillBlockSize = settings.isSetting(sessionID, SETTING_TIERED_STORE_SPILL_BLOCK_SIZE)
+					? Math.toIntExact(settings.getLong(sessionID, SETTING_TIERED_STORE_SPILL_BLOCK_SIZE))
+					: Math.min(DEFAULT_SPILL_BLOCK_SIZE, hotMessages);
+			return new TieredMessageStore(sessionID, directory, hotMessages, spillBlockSize,
+					requestedCount, hotHitCount, coldHitCount);
+		} catch (ConfigError | FieldConvertError | IOException e) {
+			throw new RuntimeError(e);
+		}
+	}
+
+	/**
+	 * Returns the number of stored messages requested from the stores, for instance to be resent.
+	 *
+	 * @return the number of requested messages
+	 */
+	public long getRequestedCount() {
+		return requestedCount.sum();
+	}
+
+	/**
+	 * Returns the number of requested messages served by the hot tier.
+	 *
+	 * @return the number of hot tier hits
+	 */
+	public long getHotHitCount() {
+		return hotHitCount.sum();
+	}
+
+	/**
+	 * Returns the number of requested messages served by the cold tier.
+	 *
+	 * @return the number of cold tier hits
+	 */
+	public long getColdHitCount() {
+		return coldHitCount.sum();
+	}
+}
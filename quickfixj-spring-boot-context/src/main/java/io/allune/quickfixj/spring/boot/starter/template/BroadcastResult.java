@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import quickfix.SessionID;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Outcome of broadcasting a message to a set of sessions.
+ *
+ * @author Eduardo Sanchez-Ros
+ * @see QuickFixJAsyncOperations#broadcast(quickfix.Message, java.util.Collection)
+ */
+public final class BroadcastResult {
+
+	private final Map<SessionID, Boolean> results;
+
+	private final Map<SessionID, Throwable> failures;
+
+	private final Duration latency;
+
+	private BroadcastResult(Map<SessionID, Boolean> results, Map<SessionID, Throwable> failures, Duration latency) {
+		this.results = Collections.unmodifiableMap(results);
+		this.failures = Collections.unmodifiableMap(failures);
+		this.latency = latency;
+	}
+
+	static BroadcastResult of(Map<SessionID, CompletableFuture<Boolean>> futures, long latencyNanos) {
+		Map<SessionID, Boolean> results = new LinkedHashMap<>();
+		Map<SessionID, Throwable> failures = new LinkedHashMap<>();
+		futures.forEach((sessionID, future) -> {
+			try {
+				results.put(sessionID, future.join());
+			} catch (CompletionException e) {
+				failures.put(sessionID, e.getCause());
+			} catch (CancellationException e) {
+				failures.put(sessionID, e);
+			}
+		});
+		return new BroadcastResult(results, failures, Duration.ofNanos(latencyNanos));
+	}
+
+	/**
+	 * Returns, for each session the message could be handed to, true if the send was successful, false otherwise.
+	 *
+	 * @return the send results by session ID
+	 */
+	public Map<SessionID, Boolean> getResults() {
+		return results;
+	}
+
+	/**
+	 * Returns the exception raised for each session the message could not be sent to, such as a
+	 * {@link io.allune.quickfixj.spring.boot.starter.exception.SessionNotFoundException}.
+	 *
+	 * @return the failures by session ID
+	 */
+	public Map<SessionID, Throwable> getFailures() {
+		return failures;
+	}
+
+	/**
+	 * Returns whether the message was successfully sent to the provided session.
+	 *
+	 * @param sessionID the session ID
+	 * @return true if the send was successful, false otherwise
+	 */
+	public boolean isSent(SessionID sessionID) {
+		return Boolean.TRUE.equals(results.get(sessionID));
+	}
+
+	/**
+	 * Returns the number of sessions the message was successfully sent to.
+	 *
+	 * @return the number of successful sends
+	 */
+	public int getSentCount() {
+		int sentCount = 0;
+		for (Boolean sent : results.values()) {
+			if (sent) {
+				sentCount++;
+			}
+		}
+		return sentCount;
+	}
+
+	/**
+	 * Returns the time elapsed between the broadcast and the completion of its last send.
+	 *
+	 * @return the total latency of the broadcast
+	 */
+	public Duration getLatency() {
+		return latency;
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import io.allune.quickfixj.spring.boot.starter.model.Create;
+import io.allune.quickfixj.spring.boot.starter.model.Logout;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextStoppedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.util.Assert;
+import quickfix.Session;
+import quickfix.SessionID;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link SessionLookupHandler} that caches the {@link Session sessions} resolved from the message header fields.
+ * <p>
+ * Sessions looked up by {@link SessionID} are always resolved by the delegate handler. Sessions looked up by the
+ * BeginString, SenderCompID, TargetCompID and session qualifier tuple are cached, which allows the
+ * {@link QuickFixJTemplate} to resolve a session from the message header without allocating a {@link SessionID}
+ * and without looking it up in the global QuickFIX/J session registry once it has been resolved.
+ * <p>
+ * Cached sessions are not checked against the QuickFIX/J registry on every lookup. They are evicted when
+ * QuickFIX/J (re)creates or logs out a session, and when the application context is stopped or closed, so a
+ * session unregistered without being logged out, e.g. by stopping its connector before it logged on, is returned
+ * until one of those events is published.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class CachingSessionLookupHandler implements SessionLookupHandler {
+
+	private static final CachedSession[] NO_SESSIONS = new CachedSession[0];
+
+	private final SessionLookupHandler delegate;
+
+	private final ConcurrentMap<String, CachedSession[]> sessionsByTargetCompID = new ConcurrentHashMap<>();
+
+	public CachingSessionLookupHandler() {
+		this(new DefaultSessionLookupHandler());
+	}
+
+	public CachingSessionLookupHandler(SessionLookupHandler delegate) {
+		Assert.notNull(delegate, "'delegate' must not be null");
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Session lookupBySessionID(SessionID sessionID) {
+		return delegate.lookupBySessionID(sessionID);
+	}
+
+	/**
+	 * Locates a session specified by the provided session identifiers, without creating a {@link SessionID}
+	 * when the session has already been resolved.
+	 *
+	 * @param beginString  the BeginString of the session
+	 * @param senderCompID the SenderCompID of the session
+	 * @param targetCompID the TargetCompID of the session
+	 * @param qualifier    the session qualifier
+	 * @return the session, if found, or null otherwise
+	 */
+	public Session lookupSession(String beginString, String senderCompID, String targetCompID, String qualifier) {
+		if (targetCompID != null) {
+			CachedSession[] candidates = sessionsByTargetCompID.getOrDefault(targetCompID, NO_SESSIONS);
+			for (CachedSession candidate : candidates) {
+				if (candidate.matches(beginString, senderCompID, qualifier)) {
+					return candidate.session;
+				}
+			}
+		}
+
+		SessionID sessionID = new SessionID(beginString, senderCompID, targetCompID, qualifier);
+		Session session = delegate.lookupBySessionID(sessionID);
+		if (session != null && targetCompID != null) {
+			CachedSession cachedSession = new CachedSession(beginString, senderCompID, qualifier, sessionID, session);
+			sessionsByTargetCompID.compute(targetCompID, (key, cachedSessions) -> add(cachedSessions, cachedSession));
+		}
+		return session;
+	}
+
+	/**
+	 * Evicts the cached session for the provided session ID.
+	 *
+	 * @param sessionID the session ID
+	 */
+	public void invalidate(SessionID sessionID) {
+		if (sessionID == null) {
+			return;
+		}
+		sessionsByTargetCompID.computeIfPresent(sessionID.getTargetCompID(),
+				(key, cachedSessions) -> remove(cachedSessions, sessionID));
+	}
+
+	/**
+	 * Evicts all the cached sessions.
+	 */
+	public void invalidateAll() {
+		sessionsByTargetCompID.clear();
+	}
+
+	@EventListener
+	public void onCreate(Create create) {
+		invalidate(create.getSessionId());
+	}
+
+	@EventListener
+	public void onLogout(Logout logout) {
+		invalidate(logout.getSessionId());
+	}
+
+	@EventListener({ContextStoppedEvent.class, ContextClosedEvent.class})
+	public void onContextStopped() {
+		invalidateAll();
+	}
+
+	private static CachedSession[] add(CachedSession[] cachedSessions, CachedSession cachedSession) {
+		CachedSession[] updated = remove(cachedSessions, cachedSession.sessionID);
+		if (updated == null) {
+			return new CachedSession[]{cachedSession};
+		}
+		updated = Arrays.copyOf(updated, updated.length + 1);
+		updated[updated.length - 1] = cachedSession;
+		return updated;
+	}
+
+	/**
+	 * Copy-on-write removal, so that the lookups can scan the cached sessions of a TargetCompID without locking.
+	 */
+	private static CachedSession[] remove(CachedSession[] cachedSessions, SessionID sessionID) {
+		if (cachedSessions == null) {
+			return null;
+		}
+		CachedSession[] remaining = Arrays.stream(cachedSessions)
+				.filter(cachedSession -> !cachedSession.sessionID.equals(sessionID))
+				.toArray(CachedSession[]::new);
+		return remaining.length > 0 ? remaining : null;
+	}
+
+	/**
+	 * Session cached by its TargetCompID, with the identifiers it was looked up with.
+	 */
+	private static final class CachedSession {
+
+		private final String beginString;
+
+		private final String senderCompID;
+
+		private final String qualifier;
+
+		private final SessionID sessionID;
+
+		private final Session session;
+
+		CachedSession(String beginString, String senderCompID, String qualifier, SessionID sessionID, Session session) {
+			this.beginString = beginString;
+			this.senderCompID = senderCompID;
+			this.qualifier = qualifier;
+			this.sessionID = sessionID;
+			this.session = session;
+		}
+
+		boolean matches(String beginString, String senderCompID, String qualifier) {
+			return Objects.equals(this.senderCompID, senderCompID)
+					&& Objects.equals(this.beginString, beginString)
+					&& Objects.equals(this.qualifier, qualifier);
+		}
+	}
+}
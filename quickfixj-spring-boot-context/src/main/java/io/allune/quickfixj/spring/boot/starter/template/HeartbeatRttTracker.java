@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import quickfix.Message;
+import quickfix.SessionID;
+import quickfix.field.MsgType;
+import quickfix.field.TestReqID;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Measures the round-trip time of each session from the TestRequest messages sent by QuickFIX/J and the Heartbeat
+ * messages answering them, correlated by their TestReqID.
+ * <p>
+ * The round-trip time is smoothed with an exponentially weighted moving average. The messages are timestamped in the
+ * {@link quickfix.Application} callbacks, which an
+ * {@link io.allune.quickfixj.spring.boot.starter.application.EventPublisherApplicationAdapter} passes to the tracker
+ * directly, so that the measure does not include the delivery of the events by an asynchronous
+ * {@link io.allune.quickfixj.spring.boot.starter.application.EventDispatcher}.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class HeartbeatRttTracker {
+
+	private static final double SMOOTHING_FACTOR = 0.2;
+
+	private final ConcurrentMap<SessionID, TestRequest> pendingTestRequests = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<SessionID, Long> roundTripTimes = new ConcurrentHashMap<>();
+
+	/**
+	 * Records the time a TestRequest is sent, called from {@link quickfix.Application#toAdmin(Message, SessionID)}.
+	 *
+	 * @param message   the administrative message being sent
+	 * @param sessionId the session ID
+	 */
+	public void toAdmin(Message message, SessionID sessionId) {
+		if (MsgType.TEST_REQUEST.equals(MessageHeaderUtils.getMsgType(message))) {
+			String testReqID = MessageHeaderUtils.getString(message, TestReqID.FIELD);
+			if (testReqID != null) {
+				testRequestSent(sessionId, testReqID, System.nanoTime());
+			}
+		}
+	}
+
+	/**
+	 * Measures the round-trip time when the Heartbeat answering the pending TestRequest is received, called from
+	 * {@link quickfix.Application#fromAdmin(Message, SessionID)}.
+	 *
+	 * @param message   the administrative message received
+	 * @param sessionId the session ID
+	 */
+	public void fromAdmin(Message message, SessionID sessionId) {
+		if (MsgType.HEARTBEAT.equals(MessageHeaderUtils.getMsgType(message))) {
+			String testReqID = MessageHeaderUtils.getString(message, TestReqID.FIELD);
+			if (testReqID != null) {
+				heartbeatReceived(sessionId, testReqID, System.nanoTime());
+			}
+		}
+	}
+
+	/**
+	 * Returns the smoothed round-trip time of the provided session.
+	 *
+	 * @param sessionID the session ID
+	 * @return the round-trip time, or null if not measured yet
+	 */
+	public Duration getRoundTripTime(SessionID sessionID) {
+		Long roundTripTime = roundTripTimes.get(sessionID);
+		return roundTripTime != null ? Duration.ofNanos(roundTripTime) : null;
+	}
+
+	long getRoundTripTimeNanos(SessionID sessionID) {
+		Long roundTripTime = roundTripTimes.get(sessionID);
+		return roundTripTime != null ? roundTripTime : Long.MAX_VALUE;
+	}
+
+	void testRequestSent(SessionID sessionID, String testReqID, long sentNanos) {
+		pendingTestRequests.put(sessionID, new TestRequest(testReqID, sentNanos));
+	}
+
+	void heartbeatReceived(SessionID sessionID, String testReqID, long receivedNanos) {
+		TestRequest testRequest = pendingTestRequests.get(sessionID);
+		if (testRequest != null && testRequest.testReqID.equals(testReqID)
+				&& pendingTestRequests.remove(sessionID, testRequest)) {
+			long sample = receivedNanos - testRequest.sentNanos;
+			roundTripTimes.merge(sessionID, sample,
+					(previous, current) -> Math.round(previous + SMOOTHING_FACTOR * (current - previous)));
+		}
+	}
+
+	private static final class TestRequest {
+
+		private final String testReqID;
+
+		private final long sentNanos;
+
+		TestRequest(String testReqID, long sentNanos) {
+			this.testReqID = testReqID;
+			this.sentNanos = sentNanos;
+		}
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import io.allune.quickfixj.spring.boot.starter.exception.AmbiguousSessionException;
+import io.allune.quickfixj.spring.boot.starter.model.Create;
+import io.allune.quickfixj.spring.boot.starter.model.Logout;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextStoppedEvent;
+import org.springframework.context.event.EventListener;
+import quickfix.Session;
+import quickfix.SessionID;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static quickfix.SessionID.NOT_SET;
+
+/**
+ * {@link CachingSessionLookupHandler} that also indexes the sessions by TargetCompID, by SenderCompID and
+ * TargetCompID, and by session qualifier, so that a session can be resolved from a partial set of identifiers
+ * without scanning all the sessions.
+ * <p>
+ * The indexes are maintained from the {@link Create} events published when QuickFIX/J creates a session, and the
+ * sessions no longer registered are removed from them on {@link Logout}. The indexes are cleared when the
+ * application context is stopped or closed.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class IndexedSessionLookupHandler extends CachingSessionLookupHandler {
+
+	private final ConcurrentMap<String, Set<SessionID>> sessionIDsByTarget = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<CompIDKey, Set<SessionID>> sessionIDsBySenderAndTarget = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, Set<SessionID>> sessionIDsByQualifier = new ConcurrentHashMap<>();
+
+	public IndexedSessionLookupHandler() {
+		super();
+	}
+
+	public IndexedSessionLookupHandler(SessionLookupHandler delegate) {
+		super(delegate);
+	}
+
+	/**
+	 * Returns the IDs of the sessions with the provided TargetCompID.
+	 *
+	 * @param targetCompID the TargetCompID
+	 * @return the session IDs, empty if none
+	 */
+	public Set<SessionID> findByTargetCompID(String targetCompID) {
+		return unmodifiable(sessionIDsByTarget.get(targetCompID));
+	}
+
+	/**
+	 * Returns the IDs of the sessions with the provided SenderCompID and TargetCompID, which can differ by their
+	 * BeginString or session qualifier.
+	 *
+	 * @param senderCompID the SenderCompID
+	 * @param targetCompID the TargetCompID
+	 * @return the session IDs, empty if none
+	 */
+	public Set<SessionID> findBySenderAndTargetCompID(String senderCompID, String targetCompID) {
+		return unmodifiable(sessionIDsBySenderAndTarget.get(new CompIDKey(senderCompID, targetCompID)));
+	}
+
+	/**
+	 * Returns the IDs of the sessions with the provided session qualifier.
+	 *
+	 * @param qualifier the session qualifier
+	 * @return the session IDs, empty if none
+	 */
+	public Set<SessionID> findByQualifier(String qualifier) {
+		return unmodifiable(sessionIDsByQualifier.get(qualifier));
+	}
+
+	/**
+	 * Locates the session with the provided TargetCompID.
+	 *
+	 * @param targetCompID the TargetCompID
+	 * @return the session, if found, or null otherwise
+	 * @throws AmbiguousSessionException if more than one session has the provided TargetCompID
+	 */
+	public Session lookupByTargetCompID(String targetCompID) {
+		return lookupUnique(sessionIDsByTarget.get(targetCompID), "TargetCompID " + targetCompID);
+	}
+
+	/**
+	 * Locates the session with the provided SenderCompID and TargetCompID.
+	 *
+	 * @param senderCompID the SenderCompID
+	 * @param targetCompID the TargetCompID
+	 * @return the session, if found, or null otherwise
+	 * @throws AmbiguousSessionException if more than one session has the provided SenderCompID and TargetCompID
+	 */
+	public Session lookupBySenderAndTargetCompID(String senderCompID, String targetCompID) {
+		return lookupUnique(sessionIDsBySenderAndTarget.get(new CompIDKey(senderCompID, targetCompID)),
+				"SenderCompID " + senderCompID + " and TargetCompID " + targetCompID);
+	}
+
+	@Override
+	@EventListener
+	public void onCreate(Create create) {
+		super.onCreate(create);
+		index(create.getSessionId());
+	}
+
+	@EventListener
+	public void onLogout(Logout logout) {
+		SessionID sessionID = logout.getSessionId();
+		invalidate(sessionID);
+		if (lookupBySessionID(sessionID) == null) {
+			unindex(sessionID);
+		}
+	}
+
+	@Override
+	@EventListener({ContextStoppedEvent.class, ContextClosedEvent.class})
+	public void onContextStopped() {
+		super.onContextStopped();
+		sessionIDsByTarget.clear();
+		sessionIDsBySenderAndTarget.clear();
+		sessionIDsByQualifier.clear();
+	}
+
+	private void index(SessionID sessionID) {
+		if (sessionID == null) {
+			return;
+		}
+		sessionIDsByTarget.computeIfAbsent(sessionID.getTargetCompID(), key -> ConcurrentHashMap.newKeySet()).add(sessionID);
+		sessionIDsBySenderAndTarget.computeIfAbsent(new CompIDKey(sessionID.getSenderCompID(), sessionID.getTargetCompID()),
+				key -> ConcurrentHashMap.newKeySet()).add(sessionID);
+		if (hasQualifier(sessionID)) {
+			sessionIDsByQualifier.computeIfAbsent(sessionID.getSessionQualifier(), key -> ConcurrentHashMap.newKeySet()).add(sessionID);
+		}
+	}
+
+	private void unindex(SessionID sessionID) {
+		remove(sessionIDsByTarget, sessionID.getTargetCompID(), sessionID);
+		remove(sessionIDsBySenderAndTarget, new CompIDKey(sessionID.getSenderCompID(), sessionID.getTargetCompID()), sessionID);
+		if (hasQualifier(sessionID)) {
+			remove(sessionIDsByQualifier, sessionID.getSessionQualifier(), sessionID);
+		}
+	}
+
+	private Session lookupUnique(Set<SessionID> sessionIDs, String description) {
+		if (sessionIDs == null) {
+			return null;
+		}
+
+		Iterator<SessionID> iterator = sessionIDs.iterator();
+		if (!iterator.hasNext()) {
+			return null;
+		}
+		SessionID sessionID = iterator.next();
+		if (iterator.hasNext()) {
+			throw new AmbiguousSessionException("More than one session found with " + description + ": " + sessionIDs);
+		}
+		return lookupBySessionID(sessionID);
+	}
+
+	private static <K> void remove(ConcurrentMap<K, Set<SessionID>> index, K key, SessionID sessionID) {
+		index.computeIfPresent(key, (k, sessionIDs) -> {
+			sessionIDs.remove(sessionID);
+			return sessionIDs.isEmpty() ? null : sessionIDs;
+		});
+	}
+
+	private static boolean hasQualifier(SessionID sessionID) {
+		String qualifier = sessionID.getSessionQualifier();
+		return qualifier != null && !NOT_SET.equals(qualifier);
+	}
+
+	private static Set<SessionID> unmodifiable(Set<SessionID> sessionIDs) {
+		return sessionIDs != null ? Collections.unmodifiableSet(sessionIDs) : Collections.emptySet();
+	}
+
+	private static final class CompIDKey {
+
+		private final String senderCompID;
+
+		private final String targetCompID;
+
+		private final int hash;
+
+		CompIDKey(String senderCompID, String targetCompID) {
+			this.senderCompID = senderCompID;
+			this.targetCompID = targetCompID;
+			this.hash = 31 * Objects.hashCode(senderCompID) + Objects.hashCode(targetCompID);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof CompIDKey)) {
+				return false;
+			}
+			CompIDKey that = (CompIDKey) o;
+			return hash == that.hash
+					&& Objects.equals(targetCompID, that.targetCompID)
+					&& Objects.equals(senderCompID, that.senderCompID);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import org.springframework.util.Assert;
+import quickfix.Message;
+import quickfix.SessionID;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * {@link SessionRoutingStrategy} selecting the candidate session with the fewest outstanding messages, such as
+ * the messages still pending in a {@link QuickFixJAsyncTemplate}:
+ * <pre>
+ * new LeastOutstandingRoutingStrategy(quickFixJAsyncTemplate::getPendingCount)
+ * </pre>
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class LeastOutstandingRoutingStrategy implements SessionRoutingStrategy {
+
+	private final ToIntFunction<SessionID> outstandingMessages;
+
+	public LeastOutstandingRoutingStrategy(ToIntFunction<SessionID> outstandingMessages) {
+		Assert.notNull(outstandingMessages, "'outstandingMessages' must not be null");
+		this.outstandingMessages = outstandingMessages;
+	}
+
+	@Override
+	public SessionID select(Message message, List<SessionID> candidates) {
+		SessionID selected = candidates.get(0);
+		int fewest = outstandingMessages.applyAsInt(selected);
+		for (int i = 1; i < candidates.size() && fewest > 0; i++) {
+			SessionID candidate = candidates.get(i);
+			int outstanding = outstandingMessages.applyAsInt(candidate);
+			if (outstanding < fewest) {
+				selected = candidate;
+				fewest = outstanding;
+			}
+		}
+		return selected;
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import org.springframework.util.Assert;
+import quickfix.Message;
+import quickfix.SessionID;
+
+import java.util.List;
+
+/**
+ * {@link SessionRoutingStrategy} selecting the candidate session with the lowest heartbeat round-trip time, as
+ * measured by a {@link HeartbeatRttTracker}. Sessions without a measurement are only selected if no candidate has
+ * one, in which case the candidates are selected in turn.
+ * <p>
+ * QuickFIX/J only sends TestRequest messages on sessions that have not received any message within the heartbeat
+ * interval, so busy sessions may never be measured. Falling back to round-robin spreads the messages across them
+ * instead of always selecting the first candidate.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class LowestHeartbeatRttRoutingStrategy implements SessionRoutingStrategy {
+
+	private final HeartbeatRttTracker heartbeatRttTracker;
+
+	private final RoundRobinRoutingStrategy fallbackRoutingStrategy = new RoundRobinRoutingStrategy();
+
+	public LowestHeartbeatRttRoutingStrategy(HeartbeatRttTracker heartbeatRttTracker) {
+		Assert.notNull(heartbeatRttTracker, "'heartbeatRttTracker' must not be null");
+		this.heartbeatRttTracker = heartbeatRttTracker;
+	}
+
+	@Override
+	public SessionID select(Message message, List<SessionID> candidates) {
+		SessionID selected = null;
+		long lowest = Long.MAX_VALUE;
+		for (int i = 0; i < candidates.size(); i++) {
+			SessionID candidate = candidates.get(i);
+			long roundTripTime = heartbeatRttTracker.getRoundTripTimeNanos(candidate);
+			if (roundTripTime < lowest) {
+				selected = candidate;
+				lowest = roundTripTime;
+			}
+		}
+		return selected != null ? selected : fallbackRoutingStrategy.select(message, candidates);
+	}
+}
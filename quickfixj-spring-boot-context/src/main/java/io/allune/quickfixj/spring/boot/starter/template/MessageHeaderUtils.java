@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import quickfix.FieldMap;
+import quickfix.FieldNotFound;
+import quickfix.Message;
+import quickfix.field.MsgType;
+
+/**
+ * Helpers reading message fields without using a thrown {@link FieldNotFound} as control flow.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+final class MessageHeaderUtils {
+
+	private MessageHeaderUtils() {
+	}
+
+	/**
+	 * Returns the value of a header field, or null if the field is not set.
+	 *
+	 * @param message  the FIX message
+	 * @param fieldTag the tag of the header field
+	 * @return the value of the field, or null if not set
+	 */
+	static String getHeaderString(Message message, int fieldTag) {
+		return getString(message.getHeader(), fieldTag);
+	}
+
+	/**
+	 * Returns the value of a field of a field map, such as a message body, or null if the field is not set.
+	 *
+	 * @param fieldMap the field map
+	 * @param fieldTag the tag of the field
+	 * @return the value of the field, or null if not set
+	 */
+	static String getString(FieldMap fieldMap, int fieldTag) {
+		if (fieldMap == null || !fieldMap.isSetField(fieldTag)) {
+			return null;
+		}
+
+		try {
+			return fieldMap.getString(fieldTag);
+		} catch (FieldNotFound fieldNotFound) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the MsgType of the message, or null if not set.
+	 *
+	 * @param message the FIX message
+	 * @return the MsgType, or null if not set
+	 */
+	static String getMsgType(Message message) {
+		return getHeaderString(message, MsgType.FIELD);
+	}
+}
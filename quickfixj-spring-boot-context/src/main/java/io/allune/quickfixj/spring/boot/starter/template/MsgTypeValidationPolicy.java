@@ -0,0 +1,50 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import org.springframework.util.Assert;
+import quickfix.Message;
+import quickfix.SessionID;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link ValidationPolicy} delegating to a policy per MsgType, falling back to a default policy for the
+ * MsgTypes not explicitly configured.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class MsgTypeValidationPolicy implements ValidationPolicy {
+
+	private final Map<String, ValidationPolicy> policiesByMsgType;
+
+	private final ValidationPolicy defaultPolicy;
+
+	public MsgTypeValidationPolicy(Map<String, ValidationPolicy> policiesByMsgType, ValidationPolicy defaultPolicy) {
+		Assert.notNull(policiesByMsgType, "'policiesByMsgType' must not be null");
+		Assert.notNull(defaultPolicy, "'defaultPolicy' must not be null");
+		this.policiesByMsgType = new HashMap<>(policiesByMsgType);
+		this.defaultPolicy = defaultPolicy;
+	}
+
+	@Override
+	public boolean shouldValidate(Message message, SessionID sessionID) {
+		String msgType = MessageHeaderUtils.getMsgType(message);
+		ValidationPolicy policy = msgType != null ? policiesByMsgType.getOrDefault(msgType, defaultPolicy) : defaultPolicy;
+		return policy.shouldValidate(message, sessionID);
+	}
+}
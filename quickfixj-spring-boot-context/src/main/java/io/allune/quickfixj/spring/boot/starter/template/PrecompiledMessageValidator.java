@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import org.springframework.util.Assert;
+import quickfix.DataDictionary;
+import quickfix.Field;
+import quickfix.FieldException;
+import quickfix.FieldMap;
+import quickfix.Group;
+import quickfix.IncorrectTagValue;
+import quickfix.Message;
+import quickfix.SessionRejectReason;
+import quickfix.field.MsgType;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Validates the body of outbound messages against a {@link DataDictionary} using a layout compiled once per
+ * MsgType, rather than walking the dictionary structure for every message.
+ * <p>
+ * The layout of a MsgType is compiled from the dictionary the first time a message of that type is validated
+ * (or eagerly through {@link #precompile(String...)}) and holds the fields allowed for the message as a
+ * {@link BitSet}, the required fields, the fields restricted to enumerated values and the layouts of its
+ * repeating groups. Validating a message then costs a lookup per field present plus a check per required field.
+ * <p>
+ * The checks performed are: known MsgType, fields defined for the MsgType, fields with a value, enumerated
+ * values and required fields, recursively for the repeating groups. Unlike
+ * {@link DataDictionary#validate(Message, boolean)}, the data format of the values and the order of the fields
+ * are not checked.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class PrecompiledMessageValidator {
+
+	private final DataDictionary dataDictionary;
+
+	private final int[] dictionaryFields;
+
+	private final ConcurrentMap<String, FieldMapLayout> layoutsByMsgType = new ConcurrentHashMap<>();
+
+	public PrecompiledMessageValidator(DataDictionary dataDictionary) {
+		Assert.notNull(dataDictionary, "'dataDictionary' must not be null");
+		this.dataDictionary = dataDictionary;
+		this.dictionaryFields = dataDictionary.getOrderedFields();
+	}
+
+	/**
+	 * Compiles the layouts of the provided MsgTypes ahead of the first validation of their messages.
+	 *
+	 * @param msgTypes the MsgTypes to compile
+	 */
+	public void precompile(String... msgTypes) {
+		for (String msgType : msgTypes) {
+			if (dataDictionary.isMsgType(msgType)) {
+				layoutsByMsgType.computeIfAbsent(msgType, type -> compile(type, dataDictionary));
+			}
+		}
+	}
+
+	/**
+	 * Validates the body of the provided message.
+	 *
+	 * @param message the FIX message
+	 * @throws FieldException    if a field is missing, not defined for the MsgType or without a value
+	 * @throws IncorrectTagValue if a field has a value not allowed by the dictionary
+	 */
+	public void validate(Message message) throws FieldException, IncorrectTagValue {
+		String msgType = MessageHeaderUtils.getMsgType(message);
+		if (msgType == null) {
+			throw new FieldException(SessionRejectReason.REQUIRED_TAG_MISSING, MsgType.FIELD);
+		}
+
+		FieldMapLayout layout = layoutsByMsgType.get(msgType);
+		if (layout == null) {
+			if (!dataDictionary.isMsgType(msgType)) {
+				throw new FieldException(SessionRejectReason.INVALID_MSGTYPE, MsgType.FIELD);
+			}
+			layout = layoutsByMsgType.computeIfAbsent(msgType, type -> compile(type, dataDictionary));
+		}
+		layout.validate(message);
+	}
+
+	private FieldMapLayout compile(String msgType, DataDictionary fieldMapDictionary) {
+		BitSet allowedFields = new BitSet();
+		BitSet enumeratedFields = new BitSet();
+		List<Integer> requiredFields = new ArrayList<>();
+		Map<Integer, FieldMapLayout> groupLayouts = new HashMap<>();
+
+		for (int field : dictionaryFields) {
+			if (!fieldMapDictionary.isMsgField(msgType, field)) {
+				continue;
+			}
+			allowedFields.set(field);
+			if (dataDictionary.hasFieldValue(field)) {
+				enumeratedFields.set(field);
+			}
+			if (fieldMapDictionary.isRequiredField(msgType, field)) {
+				requiredFields.add(field);
+			}
+			if (fieldMapDictionary.isGroup(msgType, field)) {
+				DataDictionary.GroupInfo groupInfo = fieldMapDictionary.getGroup(msgType, field);
+				groupLayouts.put(field, compile(msgType, groupInfo.getDataDictionary()));
+			}
+		}
+
+		return new FieldMapLayout(allowedFields, enumeratedFields,
+				requiredFields.stream().mapToInt(Integer::intValue).toArray(), groupLayouts);
+	}
+
+	private final class FieldMapLayout {
+
+		private final BitSet allowedFields;
+
+		private final BitSet enumeratedFields;
+
+		private final int[] requiredFields;
+
+		private final Map<Integer, FieldMapLayout> groupLayouts;
+
+		FieldMapLayout(BitSet allowedFields, BitSet enumeratedFields, int[] requiredFields,
+		               Map<Integer, FieldMapLayout> groupLayouts) {
+			this.allowedFields = allowedFields;
+			this.enumeratedFields = enumeratedFields;
+			this.requiredFields = requiredFields;
+			this.groupLayouts = groupLayouts;
+		}
+
+		void validate(FieldMap fieldMap) throws FieldException, IncorrectTagValue {
+			for (Field<?> field : fieldMap) {
+				int tag = field.getTag();
+				if (!allowedFields.get(tag)) {
+					throw new FieldException(SessionRejectReason.TAG_NOT_DEFINED_FOR_THIS_MESSAGE_TYPE, tag);
+				}
+				String value = field.getObject().toString();
+				if (value.isEmpty()) {
+					throw new FieldException(SessionRejectReason.TAG_SPECIFIED_WITHOUT_A_VALUE, tag);
+				}
+				if (enumeratedFields.get(tag) && !dataDictionary.isFieldValue(tag, value)) {
+					throw new IncorrectTagValue(tag);
+				}
+			}
+
+			for (int requiredField : requiredFields) {
+				if (!fieldMap.isSetField(requiredField)) {
+					throw new FieldException(SessionRejectReason.REQUIRED_TAG_MISSING, requiredField);
+				}
+			}
+
+			Iterator<Integer> groupKeys = fieldMap.groupKeyIterator();
+			while (groupKeys.hasNext()) {
+				int groupTag = groupKeys.next();
+				FieldMapLayout groupLayout = groupLayouts.get(groupTag);
+				if (groupLayout == null) {
+					throw new FieldException(SessionRejectReason.TAG_NOT_DEFINED_FOR_THIS_MESSAGE_TYPE, groupTag);
+				}
+				for (Group group : fieldMap.getGroups(groupTag)) {
+					groupLayout.validate(group);
+				}
+			}
+		}
+	}
+}
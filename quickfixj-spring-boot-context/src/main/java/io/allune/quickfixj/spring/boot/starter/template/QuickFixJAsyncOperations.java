@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import io.allune.quickfixj.spring.boot.starter.exception.SessionNotFoundException;
+import quickfix.Message;
+import quickfix.SessionID;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface specifying a basic set of asynchronous QuickFIX/J operations.
+ * Implemented by {@link QuickFixJAsyncTemplate}.
+ * <p>
+ * Messages sent to the same session are sent in the order they were submitted, while messages sent to
+ * different sessions can be sent in parallel.
+ *
+ * @author Eduardo Sanchez-Ros
+ * @see QuickFixJAsyncTemplate
+ * @see QuickFixJOperations
+ */
+public interface QuickFixJAsyncOperations {
+
+	/**
+	 * Sends a message to the session specified in the message's target
+	 * identifiers.
+	 *
+	 * @param message a FIX message
+	 * @return a future completed with true if the send was successful, false otherwise, or completed
+	 * exceptionally with a {@link SessionNotFoundException} if the session could not be found
+	 */
+	CompletableFuture<Boolean> sendAsync(Message message);
+
+	/**
+	 * Sends a message to the session specified in the message's target
+	 * identifiers. The session qualifier is used to distinguish sessions with
+	 * the same target identifiers.
+	 *
+	 * @param message   a FIX message
+	 * @param qualifier a session qualifier
+	 * @return a future completed with true if the send was successful, false otherwise, or completed
+	 * exceptionally with a {@link SessionNotFoundException} if the session could not be found
+	 */
+	CompletableFuture<Boolean> sendAsync(Message message, String qualifier);
+
+	/**
+	 * Sends a message to the session specified by the provided target company
+	 * ID. The sender company ID is provided as an argument rather than from the
+	 * message.
+	 *
+	 * @param message      a FIX message
+	 * @param senderCompID the sender's company ID
+	 * @param targetCompID the target's company ID
+	 * @return a future completed with true if the send was successful, false otherwise, or completed
+	 * exceptionally with a {@link SessionNotFoundException} if the session could not be found
+	 */
+	CompletableFuture<Boolean> sendAsync(Message message, String senderCompID, String targetCompID);
+
+	/**
+	 * Sends a message to the session specified by the provided target company
+	 * ID. The sender company ID is provided as an argument rather than from the
+	 * message. The session qualifier is used to distinguish sessions with the
+	 * same target identifiers.
+	 *
+	 * @param message      a FIX message
+	 * @param senderCompID the sender's company ID
+	 * @param targetCompID the target's company ID
+	 * @param qualifier    a session qualifier
+	 * @return a future completed with true if the send was successful, false otherwise, or completed
+	 * exceptionally with a {@link SessionNotFoundException} if the session could not be found
+	 */
+	CompletableFuture<Boolean> sendAsync(Message message, String senderCompID, String targetCompID, String qualifier);
+
+	/**
+	 * Sends a message to the session specified by the provided session ID.
+	 *
+	 * @param message   a FIX message
+	 * @param sessionID the target SessionID
+	 * @return a future completed with true if the send was successful, false otherwise, or completed
+	 * exceptionally with a {@link SessionNotFoundException} if the session could not be found
+	 */
+	CompletableFuture<Boolean> sendAsync(Message message, SessionID sessionID);
+
+	/**
+	 * Sends a copy of a message to each of the provided sessions. The copies are made from the message body with
+	 * the header identifiers of each session, and are sent to the different sessions in parallel while keeping
+	 * the ordering per session. The message must not be modified until the returned future is completed.
+	 *
+	 * @param message    a FIX message
+	 * @param sessionIDs the target SessionIDs
+	 * @return a future completed with the per-session results once the message has been sent to all the sessions
+	 */
+	CompletableFuture<BroadcastResult> broadcast(Message message, Collection<SessionID> sessionIDs);
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import quickfix.Message;
+import quickfix.SessionID;
+import quickfix.field.BeginString;
+import quickfix.field.SenderCompID;
+import quickfix.field.TargetCompID;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous client to perform requests, exposing a simple, template
+ * method API over the QuickFIX/J client.
+ * <p>
+ * The messages are handed off to a per-session lane, which sends them through the {@link QuickFixJTemplate}
+ * on a thread of the provided {@link Executor}. Each lane sends its messages one at a time and in submission
+ * order, so the ordering per {@link SessionID} is preserved while different sessions are sent in parallel.
+ * The caller thread only resolves the target {@link SessionID}; validation, the message store write and the
+ * socket write happen on the executor.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class QuickFixJAsyncTemplate implements QuickFixJAsyncOperations, DisposableBean {
+
+	private static final String DEFAULT_THREAD_NAME_PREFIX = "QuickFixJ async send-";
+
+	private static final int MAX_TASKS_PER_DRAIN = 64;
+
+	private final QuickFixJTemplate quickFixJTemplate;
+
+	private final Executor executor;
+
+	private final boolean shutdownExecutorOnDestroy;
+
+	private final ConcurrentMap<SessionID, SessionLane> lanes = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates an asynchronous template sending the messages on a dedicated pool of daemon threads, which is
+	 * shut down when the template is destroyed.
+	 *
+	 * @param quickFixJTemplate the template used to send the messages
+	 */
+	public QuickFixJAsyncTemplate(QuickFixJTemplate quickFixJTemplate) {
+		this(quickFixJTemplate, Executors.newCachedThreadPool(defaultThreadFactory()), true);
+	}
+
+	/**
+	 * Creates an asynchronous template sending the messages on the provided executor. The lifecycle of the
+	 * executor is not managed by the template.
+	 *
+	 * @param quickFixJTemplate the template used to send the messages
+	 * @param executor          the executor on which the messages are sent
+	 */
+	public QuickFixJAsyncTemplate(QuickFixJTemplate quickFixJTemplate, Executor executor) {
+		this(quickFixJTemplate, executor, false);
+	}
+
+	private QuickFixJAsyncTemplate(QuickFixJTemplate quickFixJTemplate, Executor executor, boolean shutdownExecutorOnDestroy) {
+		Assert.notNull(quickFixJTemplate, "'quickFixJTemplate' must not be null");
+		Assert.notNull(executor, "'executor' must not be null");
+		this.quickFixJTemplate = quickFixJTemplate;
+		this.executor = executor;
+		this.shutdownExecutorOnDestroy = shutdownExecutorOnDestroy;
+	}
+
+	@Override
+	public CompletableFuture<Boolean> sendAsync(Message message) {
+		return resolveAndSendAsync(message, null, null, null);
+	}
+
+	@Override
+	public CompletableFuture<Boolean> sendAsync(Message message, String qualifier) {
+		return resolveAndSendAsync(message, null, null, qualifier);
+	}
+
+	@Override
+	public CompletableFuture<Boolean> sendAsync(Message message, String senderCompID, String targetCompID) {
+		return resolveAndSendAsync(message, senderCompID, targetCompID, null);
+	}
+
+	@Override
+	public CompletableFuture<Boolean> sendAsync(Message message, String senderCompID, String targetCompID, String qualifier) {
+		return resolveAndSendAsync(message, senderCompID, targetCompID, qualifier);
+	}
+
+	@Override
+	public CompletableFuture<Boolean> sendAsync(Message message, SessionID sessionID) {
+		Assert.notNull(message, "'message' must not be null");
+		Assert.notNull(sessionID, "'sessionID' must not be null");
+
+		SendTask sendTask = new SendTask(message, sessionID, false);
+		lanes.computeIfAbsent(sessionID, id -> new SessionLane()).submit(sendTask);
+		return sendTask.future;
+	}
+
+	@Override
+	public CompletableFuture<BroadcastResult> broadcast(Message message, Collection<SessionID> sessionIDs) {
+		Assert.notNull(message, "'message' must not be null");
+		Assert.notNull(sessionIDs, "'sessionIDs' must not be null");
+
+		long startNanos = System.nanoTime();
+		Map<SessionID, CompletableFuture<Boolean>> futures = new LinkedHashMap<>();
+		for (SessionID sessionID : sessionIDs) {
+			Assert.notNull(sessionID, "'sessionID' must not be null");
+			if (!futures.containsKey(sessionID)) {
+				SendTask sendTask = new SendTask(message, sessionID, true);
+				futures.put(sessionID, sendTask.future);
+				lanes.computeIfAbsent(sessionID, id -> new SessionLane()).submit(sendTask);
+			}
+		}
+
+		return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]))
+				.handle((ignored, throwable) -> BroadcastResult.of(futures, System.nanoTime() - startNanos));
+	}
+
+	/**
+	 * Returns the number of messages submitted to the provided session that have not been sent yet.
+	 *
+	 * @param sessionID the session ID
+	 * @return the number of pending messages
+	 */
+	public int getPendingCount(SessionID sessionID) {
+		SessionLane lane = lanes.get(sessionID);
+		return lane != null ? lane.pending.get() : 0;
+	}
+
+	@Override
+	public void destroy() {
+		if (shutdownExecutorOnDestroy && executor instanceof ExecutorService executorService) {
+			executorService.shutdown();
+		}
+	}
+
+	private CompletableFuture<Boolean> resolveAndSendAsync(Message message, String senderCompID, String targetCompID, String qualifier) {
+		Assert.notNull(message, "'message' must not be null");
+
+		SessionID sessionID;
+		try {
+			sessionID = quickFixJTemplate.resolveSessionID(message, senderCompID, targetCompID, qualifier);
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		return sendAsync(message, sessionID);
+	}
+
+	/**
+	 * Copies the message on the lane thread, so that broadcasts to many sessions copy the message in parallel.
+	 */
+	private static Message copyFor(Message message, SessionID sessionID) {
+		Message copy = (Message) message.clone();
+		Message.Header header = copy.getHeader();
+		header.setString(BeginString.FIELD, sessionID.getBeginString());
+		header.setString(SenderCompID.FIELD, sessionID.getSenderCompID());
+		header.setString(TargetCompID.FIELD, sessionID.getTargetCompID());
+		return copy;
+	}
+
+	private static CustomizableThreadFactory defaultThreadFactory() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(DEFAULT_THREAD_NAME_PREFIX);
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+	private final class SendTask {
+
+		private final Message message;
+
+		private final SessionID sessionID;
+
+		private final boolean copy;
+
+		private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+		SendTask(Message message, SessionID sessionID, boolean copy) {
+			this.message = message;
+			this.sessionID = sessionID;
+			this.copy = copy;
+		}
+
+		void run() {
+			try {
+				future.complete(quickFixJTemplate.send(copy ? copyFor(message, sessionID) : message, sessionID));
+			} catch (Throwable e) {
+				future.completeExceptionally(e);
+			}
+		}
+	}
+
+	/**
+	 * Serial executor running the send tasks of a single session in submission order, one at a time, on the
+	 * shared executor.
+	 */
+	private final class SessionLane {
+
+		private final Queue<SendTask> tasks = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger pending = new AtomicInteger();
+
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		void submit(SendTask sendTask) {
+			pending.incrementAndGet();
+			tasks.add(sendTask);
+			schedule();
+		}
+
+		private void schedule() {
+			if (scheduled.compareAndSet(false, true)) {
+				try {
+					executor.execute(this::drain);
+				} catch (RejectedExecutionException e) {
+					SendTask sendTask;
+					while ((sendTask = tasks.poll()) != null) {
+						pending.decrementAndGet();
+						sendTask.future.completeExceptionally(e);
+					}
+					scheduled.set(false);
+					if (!tasks.isEmpty()) {
+						schedule();
+					}
+				}
+			}
+		}
+
+		private void drain() {
+			try {
+				SendTask sendTask;
+				int drained = 0;
+				while (drained++ < MAX_TASKS_PER_DRAIN && (sendTask = tasks.poll()) != null) {
+					sendTask.run();
+					pending.decrementAndGet();
+				}
+			} finally {
+				scheduled.set(false);
+				if (!tasks.isEmpty()) {
+					schedule();
+				}
+			}
+		}
+	}
+}
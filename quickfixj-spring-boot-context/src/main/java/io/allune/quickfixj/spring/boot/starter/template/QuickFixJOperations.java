@@ -19,6 +19,8 @@ import io.allune.quickfixj.spring.boot.starter.exception.SessionNotFoundExceptio
 import quickfix.Message;
 import quickfix.SessionID;
 
+import java.util.Collection;
+
 /**
  * Interface specifying a basic set of QuickFIX/J operations.
  * Implemented by {@link QuickFixJTemplate}.
@@ -87,4 +89,28 @@ public interface QuickFixJOperations {
 	 * @throws SessionNotFoundException if session could not be found\
 	 */
 	boolean send(Message message, SessionID sessionID);
+
+	/**
+	 * Sends a batch of messages, each to the session specified in the message's
+	 * target identifiers. Messages to the same session are sent in the order of
+	 * the provided collection.
+	 * <p>
+	 * The default implementation sends the messages one at a time with
+	 * {@link #send(Message)}. {@link QuickFixJTemplate} groups them by session so
+	 * that every session is looked up once, and validates all the messages before
+	 * any of them is sent.
+	 *
+	 * @param messages the FIX messages
+	 * @return an array with, for each message in iteration order, true if the
+	 * send was successful, false otherwise
+	 * @throws SessionNotFoundException if a session could not be found
+	 */
+	default boolean[] sendAll(Collection<? extends Message> messages) {
+		boolean[] results = new boolean[messages.size()];
+		int index = 0;
+		for (Message message : messages) {
+			results[index++] = send(message);
+		}
+		return results;
+	}
 }
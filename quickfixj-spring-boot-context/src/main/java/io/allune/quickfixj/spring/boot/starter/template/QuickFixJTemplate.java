@@ -15,11 +15,10 @@
  */
 package io.allune.quickfixj.spring.boot.starter.template;
 
+import io.allune.quickfixj.spring.boot.starter.exception.AmbiguousSessionException;
 import io.allune.quickfixj.spring.boot.starter.exception.FieldNotFoundException;
 import io.allune.quickfixj.spring.boot.starter.exception.MessageValidationException;
 import io.allune.quickfixj.spring.boot.starter.exception.SessionNotFoundException;
-import lombok.Builder;
-import lombok.NonNull;
 import org.springframework.util.Assert;
 import quickfix.DataDictionary;
 import quickfix.DataDictionaryProvider;
@@ -35,6 +34,17 @@ import quickfix.field.BeginString;
 import quickfix.field.SenderCompID;
 import quickfix.field.TargetCompID;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
 import static quickfix.SessionID.NOT_SET;
 
 /**
@@ -45,18 +55,30 @@ import static quickfix.SessionID.NOT_SET;
  */
 public class QuickFixJTemplate implements QuickFixJOperations {
 
+	private static final Comparator<SessionID> SESSION_ID_ORDER = Comparator.comparing(SessionID::toString);
+
 	private SessionLookupHandler sessionLookupHandler;
 
-	private boolean doValidation;
+	private ValidationPolicy validationPolicy;
+
+	private Predicate<SessionID> usePrecompiledValidators = sessionID -> false;
+
+	private final LongAdder validatedCount = new LongAdder();
+
+	private final LongAdder skippedCount = new LongAdder();
+
+	private final ConcurrentMap<SessionID, DataDictionaryCache> dataDictionaryCaches = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<DataDictionary, PrecompiledMessageValidator> precompiledValidators = new ConcurrentHashMap<>();
 
 	public QuickFixJTemplate() {
 		this.sessionLookupHandler = new DefaultSessionLookupHandler();
-		this.doValidation = true;
+		this.validationPolicy = ValidationPolicy.always();
 	}
 
 	public QuickFixJTemplate(SessionLookupHandler sessionLookupHandler) {
 		this.sessionLookupHandler = sessionLookupHandler;
-		this.doValidation = true;
+		this.validationPolicy = ValidationPolicy.always();
 	}
 
 	public void setSessionLookupHandler(SessionLookupHandler sessionLookupHandler) {
@@ -64,53 +86,82 @@ public class QuickFixJTemplate implements QuickFixJOperations {
 	}
 
 	public void setDoValidation(boolean doValidation) {
-		this.doValidation = doValidation;
+		this.validationPolicy = doValidation ? ValidationPolicy.always() : ValidationPolicy.never();
+	}
+
+	public void setValidationPolicy(ValidationPolicy validationPolicy) {
+		Assert.notNull(validationPolicy, "'validationPolicy' must not be null");
+		this.validationPolicy = validationPolicy;
+	}
+
+	/**
+	 * Sets whether the messages should be validated with a {@link PrecompiledMessageValidator} compiled per
+	 * application data dictionary, instead of {@link DataDictionary#validate(Message, boolean)}. The precompiled
+	 * validators do not check the data format of the values nor the order of the fields.
+	 *
+	 * @param usePrecompiledValidators whether to use precompiled validators
+	 */
+	public void setUsePrecompiledValidators(boolean usePrecompiledValidators) {
+		this.usePrecompiledValidators = sessionID -> usePrecompiledValidators;
+	}
+
+	/**
+	 * Sets the sessions whose messages should be validated with a {@link PrecompiledMessageValidator}, e.g. to
+	 * use them only for the sessions of one of the connectors.
+	 *
+	 * @param usePrecompiledValidators whether to use precompiled validators for the messages of a session
+	 * @see #setUsePrecompiledValidators(boolean)
+	 */
+	public void setUsePrecompiledValidators(Predicate<SessionID> usePrecompiledValidators) {
+		Assert.notNull(usePrecompiledValidators, "'usePrecompiledValidators' must not be null");
+		this.usePrecompiledValidators = usePrecompiledValidators;
+	}
+
+	/**
+	 * Returns the number of messages validated before being sent. The messages sent to sessions without a data
+	 * dictionary are not validated, and are not counted.
+	 *
+	 * @return the number of validated messages
+	 */
+	public long getValidatedCount() {
+		return validatedCount.sum();
+	}
+
+	/**
+	 * Returns the number of messages sent without being validated, as decided by the {@link ValidationPolicy}.
+	 *
+	 * @return the number of messages whose validation was skipped
+	 */
+	public long getSkippedCount() {
+		return skippedCount.sum();
 	}
 
 	@Override
 	public boolean send(Message message) {
 		Assert.notNull(message, "'message' must not be null");
 
-		SessionID sessionID = QuickFixJSessionID.quickFixJSessionIDBuilder()
-				.message(message)
-				.build().toSessionID();
-		return doSend(message, sessionID);
+		return resolveAndSend(message, null, null, null);
 	}
 
 	@Override
 	public boolean send(Message message, String qualifier) {
 		Assert.notNull(message, "'message' must not be null");
 
-		SessionID sessionID = QuickFixJSessionID.quickFixJSessionIDBuilder()
-				.message(message)
-				.qualifier(qualifier)
-				.build().toSessionID();
-		return doSend(message, sessionID);
+		return resolveAndSend(message, null, null, qualifier);
 	}
 
 	@Override
 	public boolean send(Message message, String senderCompID, String targetCompID) {
 		Assert.notNull(message, "'message' must not be null");
 
-		SessionID sessionID = QuickFixJSessionID.quickFixJSessionIDBuilder()
-				.message(message)
-				.senderCompID(senderCompID)
-				.targetCompID(targetCompID)
-				.build().toSessionID();
-		return doSend(message, sessionID);
+		return resolveAndSend(message, senderCompID, targetCompID, null);
 	}
 
 	@Override
 	public boolean send(Message message, String senderCompID, String targetCompID, String qualifier) {
 		Assert.notNull(message, "'message' must not be null");
 
-		SessionID sessionID = QuickFixJSessionID.quickFixJSessionIDBuilder()
-				.message(message)
-				.senderCompID(senderCompID)
-				.targetCompID(targetCompID)
-				.qualifier(qualifier)
-				.build().toSessionID();
-		return doSend(message, sessionID);
+		return resolveAndSend(message, senderCompID, targetCompID, qualifier);
 	}
 
 	@Override
@@ -121,51 +172,248 @@ public class QuickFixJTemplate implements QuickFixJOperations {
 		return doSend(message, sessionID);
 	}
 
+	/**
+	 * Sends a message to the session with the provided TargetCompID, resolved through the indexes of an
+	 * {@link IndexedSessionLookupHandler}.
+	 *
+	 * @param message      a FIX message
+	 * @param targetCompID the target's company ID
+	 * @return true if the send was successful, false otherwise
+	 * @throws SessionNotFoundException  if no session has the provided TargetCompID
+	 * @throws AmbiguousSessionException if more than one session has the provided TargetCompID
+	 * @throws IllegalStateException     if the session lookup handler is not an {@link IndexedSessionLookupHandler}
+	 */
+	public boolean sendToTarget(Message message, String targetCompID) {
+		Assert.notNull(message, "'message' must not be null");
+		Assert.notNull(targetCompID, "'targetCompID' must not be null");
+
+		if (!(sessionLookupHandler instanceof IndexedSessionLookupHandler indexedSessionLookupHandler)) {
+			throw new IllegalStateException("Sending by TargetCompID requires an IndexedSessionLookupHandler");
+		}
+		Session session = indexedSessionLookupHandler.lookupByTargetCompID(targetCompID);
+		if (session == null) {
+			throw new SessionNotFoundException("Session not found with TargetCompID: " + targetCompID);
+		}
+		return doSend(message, session.getSessionID(), session);
+	}
+
+	/**
+	 * Sends a message to one of the logged on sessions sharing the SenderCompID and TargetCompID of the message,
+	 * e.g. redundant sessions to the same counterparty distinguished by their qualifier. The sessions are resolved
+	 * through the indexes of an {@link IndexedSessionLookupHandler} and the session is selected by the provided
+	 * {@link SessionRoutingStrategy}. Sessions that are logged off are skipped.
+	 *
+	 * @param message         a FIX message
+	 * @param routingStrategy the strategy selecting the session
+	 * @return true if the send was successful, false otherwise
+	 * @throws SessionNotFoundException if no logged on session has the SenderCompID and TargetCompID of the message
+	 * @throws IllegalStateException    if the session lookup handler is not an {@link IndexedSessionLookupHandler}
+	 */
+	public boolean sendRouted(Message message, SessionRoutingStrategy routingStrategy) {
+		Assert.notNull(message, "'message' must not be null");
+		Assert.notNull(routingStrategy, "'routingStrategy' must not be null");
+
+		if (!(sessionLookupHandler instanceof IndexedSessionLookupHandler indexedSessionLookupHandler)) {
+			throw new IllegalStateException("Routed sends require an IndexedSessionLookupHandler");
+		}
+		String senderCompID = getFieldFromMessageHeader(message, SenderCompID.FIELD);
+		String targetCompID = getFieldFromMessageHeader(message, TargetCompID.FIELD);
+
+		List<SessionID> candidates = new ArrayList<>();
+		for (SessionID sessionID : indexedSessionLookupHandler.findBySenderAndTargetCompID(senderCompID, targetCompID)) {
+			Session session = indexedSessionLookupHandler.lookupBySessionID(sessionID);
+			if (session != null && session.isLoggedOn()) {
+				candidates.add(sessionID);
+			}
+		}
+		if (candidates.isEmpty()) {
+			throw new SessionNotFoundException("No logged on session found with SenderCompID: " + senderCompID
+					+ " and TargetCompID: " + targetCompID);
+		}
+		// Stable order, so that strategies such as round-robin can rely on the position of each candidate
+		candidates.sort(SESSION_ID_ORDER);
+
+		SessionID sessionID = routingStrategy.select(message, candidates);
+		if (!candidates.contains(sessionID)) {
+			throw new IllegalStateException("Routing strategy selected a session that is not a candidate: " + sessionID);
+		}
+		return doSend(message, sessionID);
+	}
+
+	@Override
+	public boolean[] sendAll(Collection<? extends Message> messages) {
+		Assert.notNull(messages, "'messages' must not be null");
+
+		Map<SessionID, SessionBatch> batches = new LinkedHashMap<>();
+		int index = 0;
+		for (Message message : messages) {
+			Assert.notNull(message, "'message' must not be null");
+			ResolvedSession resolved = resolveSession(message, null, null, null);
+			SessionID sessionID = resolved.sessionID;
+			SessionBatch batch = batches.get(sessionID);
+			if (batch == null) {
+				Session session = resolved.session != null ? resolved.session : sessionLookupHandler.lookupBySessionID(sessionID);
+				if (session == null) {
+					throw new SessionNotFoundException("Session not found: " + sessionID.toString());
+				}
+				batch = new SessionBatch(sessionID, session);
+				batches.put(sessionID, batch);
+			}
+			batch.add(index++, message);
+		}
+
+		batches.values().forEach(this::validateMessages);
+
+		boolean[] results = new boolean[index];
+		for (SessionBatch batch : batches.values()) {
+			for (int i = 0; i < batch.messages.size(); i++) {
+				results[batch.indexes.get(i)] = batch.session.send(batch.messages.get(i));
+			}
+		}
+		return results;
+	}
+
 	protected boolean doSend(Message message, SessionID sessionID) {
 		Session session = sessionLookupHandler.lookupBySessionID(sessionID);
 		if (session == null) {
 			throw new SessionNotFoundException("Session not found: " + sessionID.toString());
 		}
 
-		if (doValidation) {
-			validateMessage(message, sessionID, session);
+		return doSend(message, sessionID, session);
+	}
+
+	protected boolean doSend(Message message, SessionID sessionID, Session session) {
+		if (shouldValidate(message, sessionID)) {
+			validateMessage(message, sessionID, session, session.getDataDictionaryProvider());
 		}
 
 		return session.send(message);
 	}
 
-	private void validateMessage(Message message, SessionID sessionID, Session session) {
-		DataDictionaryProvider dataDictionaryProvider = session.getDataDictionaryProvider();
-		if (dataDictionaryProvider != null) {
-			try {
-				ApplVerID applVerID = getApplicationVersionID(message, session);
-				DataDictionary applicationDataDictionary = dataDictionaryProvider.getApplicationDataDictionary(applVerID);
-				applicationDataDictionary.validate(message, true);
-			} catch (Exception e) {
-				LogUtil.logThrowable(sessionID, "Message failed validation: " + e.getMessage(), e);
-				throw new MessageValidationException("Message failed validation: " + e.getMessage(), e);
+	private boolean resolveAndSend(Message message, String senderCompID, String targetCompID, String qualifier) {
+		ResolvedSession resolved = resolveSession(message, senderCompID, targetCompID, qualifier);
+		if (resolved.session != null) {
+			return doSend(message, resolved.sessionID, resolved.session);
+		}
+		return doSend(message, resolved.sessionID);
+	}
+
+	/**
+	 * Resolves the {@link SessionID} of the session a message would be sent to, using the same rules as the
+	 * {@code send} operations.
+	 *
+	 * @param message      a FIX message
+	 * @param senderCompID the sender's company ID, or null to take it from the message header
+	 * @param targetCompID the target's company ID, or null to take it from the message header
+	 * @param qualifier    a session qualifier, or null if not set
+	 * @return the session ID
+	 * @throws FieldNotFoundException   if a session identifier is missing from the message header
+	 * @throws SessionNotFoundException if the session is resolved through a {@link CachingSessionLookupHandler}
+	 *                                  and it does not exist
+	 */
+	SessionID resolveSessionID(Message message, String senderCompID, String targetCompID, String qualifier) {
+		return resolveSession(message, senderCompID, targetCompID, qualifier).sessionID;
+	}
+
+	/**
+	 * Resolves the session identifiers from the provided values, taking the missing ones from the message header.
+	 * A {@link CachingSessionLookupHandler} resolves the session straight from the header fields, avoiding the
+	 * creation of a {@link SessionID}; any other handler is left to look the session up by the returned ID.
+	 */
+	private ResolvedSession resolveSession(Message message, String senderCompID, String targetCompID, String qualifier) {
+		String beginString = getFieldFromMessageHeader(message, BeginString.FIELD);
+		if (senderCompID == null) {
+			senderCompID = getFieldFromMessageHeader(message, SenderCompID.FIELD);
+		}
+		if (targetCompID == null) {
+			targetCompID = getFieldFromMessageHeader(message, TargetCompID.FIELD);
+		}
+		if (qualifier == null) {
+			qualifier = NOT_SET;
+		}
+
+		if (sessionLookupHandler instanceof CachingSessionLookupHandler cachingSessionLookupHandler) {
+			Session session = cachingSessionLookupHandler.lookupSession(beginString, senderCompID, targetCompID, qualifier);
+			if (session == null) {
+				throw new SessionNotFoundException("Session not found: "
+						+ new SessionID(beginString, senderCompID, targetCompID, qualifier));
 			}
+			return new ResolvedSession(session.getSessionID(), session);
 		}
+		return new ResolvedSession(new SessionID(beginString, senderCompID, targetCompID, qualifier), null);
 	}
 
-	private static ApplVerID getApplicationVersionID(Message message, Session session) {
-		// If no header return default appl version id
-		if (message.getHeader() == null) {
-			return getDefaultApplVerID(session);
+	private void validateMessages(SessionBatch batch) {
+		DataDictionaryProvider dataDictionaryProvider = batch.session.getDataDictionaryProvider();
+		for (Message message : batch.messages) {
+			if (shouldValidate(message, batch.sessionID)) {
+				validateMessage(message, batch.sessionID, batch.session, dataDictionaryProvider);
+			}
 		}
+	}
 
-		String applVerId;
+	private boolean shouldValidate(Message message, SessionID sessionID) {
+		if (validationPolicy.shouldValidate(message, sessionID)) {
+			return true;
+		}
+		skippedCount.increment();
+		return false;
+	}
+
+	private void validateMessage(Message message, SessionID sessionID, Session session, DataDictionaryProvider dataDictionaryProvider) {
+		if (dataDictionaryProvider == null) {
+			return;
+		}
+
+		validatedCount.increment();
 		try {
-			applVerId = message.getHeader().getString(ApplVerID.FIELD);
-			return new ApplVerID(applVerId);
-		} catch (FieldNotFound fieldNotFound) {
-			return getDefaultApplVerID(session);
+			DataDictionary applicationDataDictionary = getApplicationDataDictionary(message, sessionID, session, dataDictionaryProvider);
+			if (usePrecompiledValidators.test(sessionID)) {
+				PrecompiledMessageValidator precompiledValidator = precompiledValidators.get(applicationDataDictionary);
+				if (precompiledValidator == null) {
+					precompiledValidator = precompiledValidators.computeIfAbsent(applicationDataDictionary, PrecompiledMessageValidator::new);
+				}
+				precompiledValidator.validate(message);
+			} else {
+				applicationDataDictionary.validate(message, true);
+			}
+		} catch (Exception e) {
+			LogUtil.logThrowable(sessionID, "Message failed validation: " + e.getMessage(), e);
+			throw new MessageValidationException("Message failed validation: " + e.getMessage(), e);
+		}
+	}
+
+	private DataDictionary getApplicationDataDictionary(Message message, SessionID sessionID, Session session,
+	                                                    DataDictionaryProvider dataDictionaryProvider) {
+		DataDictionaryCache dataDictionaryCache = dataDictionaryCaches.get(sessionID);
+		if (dataDictionaryCache == null || dataDictionaryCache.dataDictionaryProvider != dataDictionaryProvider) {
+			// The session has been (re)created with a different provider, its dictionaries can no longer be trusted
+			dataDictionaryCache = new DataDictionaryCache(dataDictionaryProvider);
+			dataDictionaryCaches.put(sessionID, dataDictionaryCache);
 		}
 
+		// Checks the presence of ApplVerID first, the common case for FIX 4.x messages being its absence
+		String applVerID = MessageHeaderUtils.getHeaderString(message, ApplVerID.FIELD);
+		if (applVerID == null) {
+			DataDictionary defaultApplicationDataDictionary = dataDictionaryCache.defaultApplicationDataDictionary;
+			if (defaultApplicationDataDictionary == null) {
+				defaultApplicationDataDictionary = dataDictionaryProvider.getApplicationDataDictionary(getDefaultApplVerID(sessionID, session));
+				dataDictionaryCache.defaultApplicationDataDictionary = defaultApplicationDataDictionary;
+			}
+			return defaultApplicationDataDictionary;
+		}
+		DataDictionary applicationDataDictionary = dataDictionaryCache.applicationDataDictionaries.get(applVerID);
+		if (applicationDataDictionary == null) {
+			applicationDataDictionary = dataDictionaryProvider.getApplicationDataDictionary(new ApplVerID(applVerID));
+			if (applicationDataDictionary != null) {
+				dataDictionaryCache.applicationDataDictionaries.put(applVerID, applicationDataDictionary);
+			}
+		}
+		return applicationDataDictionary;
 	}
 
-	private static ApplVerID getDefaultApplVerID(Session session) {
-		String beginString = session.getSessionID().getBeginString();
+	private static ApplVerID getDefaultApplVerID(SessionID sessionID, Session session) {
+		String beginString = sessionID.getBeginString();
 		if (FixVersions.BEGINSTRING_FIXT11.equals(beginString)) {
 			return session.getSenderDefaultApplicationVersionID();
 		} else {
@@ -173,43 +421,60 @@ public class QuickFixJTemplate implements QuickFixJOperations {
 		}
 	}
 
-	@Builder(builderClassName = "QuickFixJSessionIDBuilder", builderMethodName = "quickFixJSessionIDBuilder")
-	static class QuickFixJSessionID {
+	private static String getFieldFromMessageHeader(final Message message, int fieldTag) {
+		try {
+			return message.getHeader().getString(fieldTag);
+		} catch (FieldNotFound fieldNotFound) {
+			throw new FieldNotFoundException("Field with ID " + fieldTag + " not found in message", fieldNotFound);
+		}
+	}
 
-		@NonNull
-		public Message message;
+	private static final class DataDictionaryCache {
 
-		public String beginString;
+		private final DataDictionaryProvider dataDictionaryProvider;
 
-		public String senderCompID;
+		private final ConcurrentMap<String, DataDictionary> applicationDataDictionaries = new ConcurrentHashMap<>();
 
-		public String targetCompID;
+		private volatile DataDictionary defaultApplicationDataDictionary;
 
-		public String qualifier;
+		DataDictionaryCache(DataDictionaryProvider dataDictionaryProvider) {
+			this.dataDictionaryProvider = dataDictionaryProvider;
+		}
+	}
 
-		public SessionID toSessionID() {
+	/**
+	 * Session identified from a message, with the session itself when the lookup handler has already resolved it.
+	 */
+	private static final class ResolvedSession {
 
-			if (beginString == null) {
-				beginString = getFieldFromMessageHeader(message, BeginString.FIELD);
-			}
-			if (senderCompID == null) {
-				senderCompID = getFieldFromMessageHeader(message, SenderCompID.FIELD);
-			}
-			if (targetCompID == null) {
-				targetCompID = getFieldFromMessageHeader(message, TargetCompID.FIELD);
-			}
-			if (qualifier == null) {
-				qualifier = NOT_SET;
-			}
-			return new SessionID(beginString, senderCompID, targetCompID, qualifier);
+		private final SessionID sessionID;
+
+		private final Session session;
+
+		ResolvedSession(SessionID sessionID, Session session) {
+			this.sessionID = sessionID;
+			this.session = session;
 		}
+	}
 
-		private static String getFieldFromMessageHeader(final Message message, int fieldTag) {
-			try {
-				return message.getHeader().getString(fieldTag);
-			} catch (FieldNotFound fieldNotFound) {
-				throw new FieldNotFoundException("Field with ID " + fieldTag + " not found in message", fieldNotFound);
-			}
+	private static final class SessionBatch {
+
+		private final SessionID sessionID;
+
+		private final Session session;
+
+		private final List<Integer> indexes = new ArrayList<>();
+
+		private final List<Message> messages = new ArrayList<>();
+
+		SessionBatch(SessionID sessionID, Session session) {
+			this.sessionID = sessionID;
+			this.session = session;
+		}
+
+		void add(int index, Message message) {
+			indexes.add(index);
+			messages.add(message);
 		}
 	}
 }
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import io.allune.quickfixj.spring.boot.starter.exception.SessionNotFoundException;
+import org.reactivestreams.Publisher;
+import org.springframework.util.Assert;
+import quickfix.Message;
+import quickfix.Session;
+import quickfix.SessionID;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+
+/**
+ * Reactive client to send streams of messages through the {@link QuickFixJTemplate}.
+ * <p>
+ * The messages of a stream are sent one at a time and in order: the next message is only requested from the
+ * publisher once the previous one has been handed to the session, and only while the target session is logged on.
+ * While the session is logged out, the stream is paused and the session state is checked every
+ * {@link #setLogonCheckInterval(Duration) logon check interval}, optionally failing after a
+ * {@link #setLogonTimeout(Duration) logon timeout}.
+ * <p>
+ * Publishers that do not honour the backpressure, such as hot sources, must be sent with
+ * {@link #sendHot(Publisher, SessionID)}, which handles the messages emitted faster than they can be sent according to
+ * the {@link OverflowStrategy}.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class ReactiveQuickFixJTemplate {
+
+	/**
+	 * Defines what to do with the messages emitted by a publisher faster than they can be sent.
+	 */
+	public enum OverflowStrategy {
+
+		/**
+		 * Buffer the messages, failing the stream if the buffer size is exceeded.
+		 */
+		BUFFER,
+
+		/**
+		 * Drop the messages that cannot be sent yet.
+		 */
+		DROP,
+
+		/**
+		 * Fail the stream as soon as a message cannot be sent yet.
+		 */
+		ERROR
+	}
+
+	private final QuickFixJTemplate quickFixJTemplate;
+
+	private final SessionLookupHandler sessionLookupHandler;
+
+	private final Scheduler scheduler;
+
+	private OverflowStrategy overflowStrategy = OverflowStrategy.BUFFER;
+
+	private int bufferSize = Queues.SMALL_BUFFER_SIZE;
+
+	private Duration logonCheckInterval = Duration.ofMillis(100);
+
+	private Duration logonTimeout;
+
+	public ReactiveQuickFixJTemplate(QuickFixJTemplate quickFixJTemplate, SessionLookupHandler sessionLookupHandler) {
+		this(quickFixJTemplate, sessionLookupHandler, Schedulers.boundedElastic());
+	}
+
+	public ReactiveQuickFixJTemplate(QuickFixJTemplate quickFixJTemplate, SessionLookupHandler sessionLookupHandler,
+	                                 Scheduler scheduler) {
+		Assert.notNull(quickFixJTemplate, "'quickFixJTemplate' must not be null");
+		Assert.notNull(sessionLookupHandler, "'sessionLookupHandler' must not be null");
+		Assert.notNull(scheduler, "'scheduler' must not be null");
+		this.quickFixJTemplate = quickFixJTemplate;
+		this.sessionLookupHandler = sessionLookupHandler;
+		this.scheduler = scheduler;
+	}
+
+	public void setOverflowStrategy(OverflowStrategy overflowStrategy) {
+		Assert.notNull(overflowStrategy, "'overflowStrategy' must not be null");
+		this.overflowStrategy = overflowStrategy;
+	}
+
+	public void setBufferSize(int bufferSize) {
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be greater than 0");
+		this.bufferSize = bufferSize;
+	}
+
+	public void setLogonCheckInterval(Duration logonCheckInterval) {
+		Assert.notNull(logonCheckInterval, "'logonCheckInterval' must not be null");
+		this.logonCheckInterval = logonCheckInterval;
+	}
+
+	/**
+	 * Sets the maximum time to wait for the target session to be logged on before failing the stream, or null
+	 * to wait indefinitely.
+	 *
+	 * @param logonTimeout the logon timeout
+	 */
+	public void setLogonTimeout(Duration logonTimeout) {
+		this.logonTimeout = logonTimeout;
+	}
+
+	/**
+	 * Sends the messages to the session specified in each message's target identifiers.
+	 *
+	 * @param messages the FIX messages
+	 * @return a stream with, for each message, true if the send was successful, false otherwise. The stream
+	 * fails with a {@link SessionNotFoundException} if a session could not be found
+	 */
+	public Flux<Boolean> send(Publisher<? extends Message> messages) {
+		Assert.notNull(messages, "'messages' must not be null");
+
+		return sendToResolvedSessions(Flux.from(messages));
+	}
+
+	/**
+	 * Sends the messages to the session specified by the provided session ID.
+	 *
+	 * @param messages  the FIX messages
+	 * @param sessionID the target SessionID
+	 * @return a stream with, for each message, true if the send was successful, false otherwise. The stream
+	 * fails with a {@link SessionNotFoundException} if the session could not be found
+	 */
+	public Flux<Boolean> send(Publisher<? extends Message> messages, SessionID sessionID) {
+		Assert.notNull(messages, "'messages' must not be null");
+		Assert.notNull(sessionID, "'sessionID' must not be null");
+
+		return sendToSession(Flux.from(messages), sessionID);
+	}
+
+	/**
+	 * Sends the messages of a publisher that does not honour the backpressure, such as a hot source, to the session
+	 * specified in each message's target identifiers. The messages emitted faster than they can be sent are handled
+	 * according to the {@link OverflowStrategy}.
+	 *
+	 * @param messages the FIX messages
+	 * @return a stream with, for each message, true if the send was successful, false otherwise. The stream
+	 * fails with a {@link SessionNotFoundException} if a session could not be found
+	 */
+	public Flux<Boolean> sendHot(Publisher<? extends Message> messages) {
+		Assert.notNull(messages, "'messages' must not be null");
+
+		return sendToResolvedSessions(applyOverflowStrategy(Flux.from(messages)));
+	}
+
+	/**
+	 * Sends the messages of a publisher that does not honour the backpressure, such as a hot source, to the session
+	 * specified by the provided session ID. The messages emitted faster than they can be sent are handled according
+	 * to the {@link OverflowStrategy}.
+	 *
+	 * @param messages  the FIX messages
+	 * @param sessionID the target SessionID
+	 * @return a stream with, for each message, true if the send was successful, false otherwise. The stream
+	 * fails with a {@link SessionNotFoundException} if the session could not be found
+	 */
+	public Flux<Boolean> sendHot(Publisher<? extends Message> messages, SessionID sessionID) {
+		Assert.notNull(messages, "'messages' must not be null");
+		Assert.notNull(sessionID, "'sessionID' must not be null");
+
+		return sendToSession(applyOverflowStrategy(Flux.from(messages)), sessionID);
+	}
+
+	private Flux<Boolean> sendToResolvedSessions(Flux<? extends Message> messages) {
+		// A prefetch of 1 requests the next message from the publisher once the previous one has been sent
+		return messages.concatMap(message -> Mono.fromCallable(() -> quickFixJTemplate.resolveSessionID(message, null, null, null))
+				.flatMap(sessionID -> sendWhenLoggedOn(message, sessionID)), 1);
+	}
+
+	private Flux<Boolean> sendToSession(Flux<? extends Message> messages, SessionID sessionID) {
+		return messages.concatMap(message -> sendWhenLoggedOn(message, sessionID), 1);
+	}
+
+	private <T extends Message> Flux<T> applyOverflowStrategy(Flux<T> messages) {
+		return switch (overflowStrategy) {
+			case DROP -> messages.onBackpressureDrop();
+			case ERROR -> messages.onBackpressureError();
+			default -> messages.onBackpressureBuffer(bufferSize);
+		};
+	}
+
+	private Mono<Boolean> sendWhenLoggedOn(Message message, SessionID sessionID) {
+		Mono<Boolean> send = Mono.fromCallable(() -> isLoggedOn(sessionID) ? quickFixJTemplate.send(message, sessionID) : null)
+				.subscribeOn(scheduler)
+				.repeatWhenEmpty(emptyCounts -> emptyCounts.delayElements(logonCheckInterval));
+		return logonTimeout != null ? send.timeout(logonTimeout) : send;
+	}
+
+	private boolean isLoggedOn(SessionID sessionID) {
+		Session session = sessionLookupHandler.lookupBySessionID(sessionID);
+		if (session == null) {
+			throw new SessionNotFoundException("Session not found: " + sessionID.toString());
+		}
+		return session.isLoggedOn();
+	}
+}
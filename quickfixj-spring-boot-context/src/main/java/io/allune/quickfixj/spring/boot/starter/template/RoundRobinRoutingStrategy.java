@@ -0,0 +1,37 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import quickfix.Message;
+import quickfix.SessionID;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link SessionRoutingStrategy} selecting the candidate sessions in turn.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class RoundRobinRoutingStrategy implements SessionRoutingStrategy {
+
+	private final AtomicInteger counter = new AtomicInteger();
+
+	@Override
+	public SessionID select(Message message, List<SessionID> candidates) {
+		return candidates.get(Math.floorMod(counter.getAndIncrement(), candidates.size()));
+	}
+}
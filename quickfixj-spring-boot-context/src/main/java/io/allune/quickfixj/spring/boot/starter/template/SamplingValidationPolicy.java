@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import org.springframework.util.Assert;
+import quickfix.Message;
+import quickfix.SessionID;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ValidationPolicy} validating the first {@code initialCount} messages of each MsgType and then one in
+ * every {@code sampleRate} messages of that MsgType.
+ * <p>
+ * A {@code sampleRate} of 0 stops validating a MsgType once its first {@code initialCount} messages have been
+ * validated.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class SamplingValidationPolicy implements ValidationPolicy {
+
+	private final long initialCount;
+
+	private final long sampleRate;
+
+	private final ConcurrentMap<String, AtomicLong> countersByMsgType = new ConcurrentHashMap<>();
+
+	public SamplingValidationPolicy(long initialCount, long sampleRate) {
+		Assert.isTrue(initialCount >= 0, "'initialCount' must not be negative");
+		Assert.isTrue(sampleRate >= 0, "'sampleRate' must not be negative");
+		this.initialCount = initialCount;
+		this.sampleRate = sampleRate;
+	}
+
+	@Override
+	public boolean shouldValidate(Message message, SessionID sessionID) {
+		String msgType = MessageHeaderUtils.getMsgType(message);
+		if (msgType == null) {
+			msgType = "";
+		}
+		AtomicLong counter = countersByMsgType.get(msgType);
+		if (counter == null) {
+			counter = countersByMsgType.computeIfAbsent(msgType, key -> new AtomicLong());
+		}
+
+		long count = counter.incrementAndGet();
+		if (count <= initialCount) {
+			return true;
+		}
+		return sampleRate > 0 && (count - initialCount) % sampleRate == 0;
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import quickfix.Message;
+import quickfix.SessionID;
+
+import java.util.List;
+
+/**
+ * Strategy selecting, among redundant sessions to the same counterparty, the session a message is sent to.
+ *
+ * @author Eduardo Sanchez-Ros
+ * @see QuickFixJTemplate#sendRouted(Message, SessionRoutingStrategy)
+ */
+@FunctionalInterface
+public interface SessionRoutingStrategy {
+
+	/**
+	 * Selects the session to send the message to.
+	 *
+	 * @param message    the FIX message to send
+	 * @param candidates the logged on sessions sharing the SenderCompID and TargetCompID of the message, never empty
+	 *                   and in a stable order
+	 * @return one of the candidates
+	 */
+	SessionID select(Message message, List<SessionID> candidates);
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import org.springframework.util.Assert;
+import quickfix.Message;
+import quickfix.SessionID;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link SessionRoutingStrategy} routing the messages sharing the same key, read from a body field, to the same
+ * session. The first message of a key is routed by the delegate strategy, as are the messages whose session is no
+ * longer a candidate, e.g. because it is logged out.
+ * <p>
+ * An original key field can be provided so that a message follows the message it refers to, e.g. an
+ * OrderCancelReplaceRequest routed by its OrigClOrdID(41) to the session of the NewOrderSingle with that ClOrdID(11):
+ * <pre>
+ * new StickyRoutingStrategy(new RoundRobinRoutingStrategy(), ClOrdID.FIELD, OrigClOrdID.FIELD, 100_000)
+ * </pre>
+ * The most recently used keys are kept, up to a maximum number of keys.
+ *
+ * @author Eduardo Sanchez-Ros
+ */
+public class StickyRoutingStrategy implements SessionRoutingStrategy {
+
+	private static final int DEFAULT_MAX_KEYS = 10_000;
+
+	private final SessionRoutingStrategy delegate;
+
+	private final int keyTag;
+
+	private final int originalKeyTag;
+
+	private final Map<String, SessionID> sessionIDsByKey;
+
+	/**
+	 * Creates a sticky routing strategy by the value of the provided field, e.g. Symbol(55).
+	 *
+	 * @param delegate the strategy routing the first message of each key
+	 * @param keyTag   the tag of the key field
+	 */
+	public StickyRoutingStrategy(SessionRoutingStrategy delegate, int keyTag) {
+		this(delegate, keyTag, 0, DEFAULT_MAX_KEYS);
+	}
+
+	/**
+	 * Creates a sticky routing strategy by the value of the provided field, following the session of the original
+	 * key when the message has one.
+	 *
+	 * @param delegate       the strategy routing the first message of each key
+	 * @param keyTag         the tag of the key field
+	 * @param originalKeyTag the tag of the original key field, or 0 if none
+	 * @param maxKeys        the maximum number of keys kept
+	 */
+	public StickyRoutingStrategy(SessionRoutingStrategy delegate, int keyTag, int originalKeyTag, int maxKeys) {
+		Assert.notNull(delegate, "'delegate' must not be null");
+		Assert.isTrue(keyTag > 0, "'keyTag' must be greater than 0");
+		Assert.isTrue(maxKeys > 0, "'maxKeys' must be greater than 0");
+		this.delegate = delegate;
+		this.keyTag = keyTag;
+		this.originalKeyTag = originalKeyTag;
+		this.sessionIDsByKey = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, SessionID> eldest) {
+				return size() > maxKeys;
+			}
+		};
+	}
+
+	@Override
+	public SessionID select(Message message, List<SessionID> candidates) {
+		String key = MessageHeaderUtils.getString(message, keyTag);
+		if (key == null) {
+			return delegate.select(message, candidates);
+		}
+		String originalKey = originalKeyTag > 0 ? MessageHeaderUtils.getString(message, originalKeyTag) : null;
+
+		synchronized (sessionIDsByKey) {
+			SessionID sessionID = originalKey != null ? sessionIDsByKey.get(originalKey) : null;
+			if (sessionID == null) {
+				sessionID = sessionIDsByKey.get(key);
+			}
+			if (sessionID == null || !candidates.contains(sessionID)) {
+				sessionID = delegate.select(message, candidates);
+			}
+			sessionIDsByKey.put(key, sessionID);
+			return sessionID;
+		}
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import quickfix.Message;
+import quickfix.SessionID;
+
+/**
+ * Strategy deciding whether an outbound message should be validated against the application
+ * {@link quickfix.DataDictionary} of its session before being sent by the {@link QuickFixJTemplate}.
+ *
+ * @author Eduardo Sanchez-Ros
+ * @see SamplingValidationPolicy
+ * @see MsgTypeValidationPolicy
+ */
+@FunctionalInterface
+public interface ValidationPolicy {
+
+	/**
+	 * Determines whether the provided message should be validated.
+	 *
+	 * @param message   the FIX message about to be sent
+	 * @param sessionID the ID of the session the message is sent to
+	 * @return true if the message should be validated, false otherwise
+	 */
+	boolean shouldValidate(Message message, SessionID sessionID);
+
+	/**
+	 * Returns a policy validating every message.
+	 *
+	 * @return a {@link ValidationPolicy}
+	 */
+	static ValidationPolicy always() {
+		return (message, sessionID) -> true;
+	}
+
+	/**
+	 * Returns a policy never validating any message.
+	 *
+	 * @return a {@link ValidationPolicy}
+	 */
+	static ValidationPolicy never() {
+		return (message, sessionID) -> false;
+	}
+}
@@ -15,20 +15,42 @@
  */
 package io.allune.quickfixj.spring.boot.starter.application;
 
+import io.allune.quickfixj.spring.boot.starter.application.RingBufferEventDispatcher.WaitStrategy;
 import io.allune.quickfixj.spring.boot.starter.model.Create;
 import io.allune.quickfixj.spring.boot.starter.model.FromAdmin;
 import io.allune.quickfixj.spring.boot.starter.model.FromApp;
 import io.allune.quickfixj.spring.boot.starter.model.Logon;
 import io.allune.quickfixj.spring.boot.starter.model.Logout;
+import io.allune.quickfixj.spring.boot.starter.model.ReusableEventPool;
+import io.allune.quickfixj.spring.boot.starter.model.ReusableFromApp;
 import io.allune.quickfixj.spring.boot.starter.model.ToAdmin;
 import io.allune.quickfixj.spring.boot.starter.model.ToApp;
+import io.allune.quickfixj.spring.boot.starter.template.HeartbeatRttTracker;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.context.support.AbstractApplicationContext;
 import quickfix.Message;
 import quickfix.SessionID;
+import quickfix.field.MsgType;
+import quickfix.field.TestReqID;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.isA;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 public class EventPublisherApplicationAdapterTest {
@@ -141,4 +163,205 @@ public class EventPublisherApplicationAdapterTest {
 		// Mock will record the interactions. We just need to verify if the call was made
 		verify(applicationEventPublisher).publishEvent(isA(ToApp.class));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testDispatchThroughEventDispatcher() {
+		// mock dependencies
+		EventDispatcher eventDispatcher = mock(EventDispatcher.class);
+		EventPublisherApplicationAdapter adapter = new EventPublisherApplicationAdapter(eventDispatcher);
+
+		Message message = mock(Message.class);
+		SessionID sessionId = mock(SessionID.class);
+
+		// invoke the method under test.
+		adapter.fromApp(message, sessionId);
+
+		// Mock will record the interactions. We just need to verify if the call was made
+		verify(eventDispatcher).dispatch(eq(sessionId), isA(FromApp.class));
+	}
+
+	@Test
+	public void testDispatchToAdminAndToAppSynchronously() {
+		// mock dependencies
+		EventDispatcher eventDispatcher = mock(EventDispatcher.class);
+		EventPublisherApplicationAdapter adapter = new EventPublisherApplicationAdapter(eventDispatcher);
+
+		Message message = mock(Message.class);
+		SessionID sessionId = mock(SessionID.class);
+
+		// invoke the methods under test.
+		adapter.toAdmin(message, sessionId);
+		adapter.toApp(message, sessionId);
+
+		// the messages are sent once the callbacks return, so the events are not handed off
+		verify(eventDispatcher).dispatchSynchronously(eq(sessionId), isA(ToAdmin.class));
+		verify(eventDispatcher).dispatchSynchronously(eq(sessionId), isA(ToApp.class));
+		verify(eventDispatcher, never()).dispatch(eq(sessionId), isA(ToAdmin.class));
+		verify(eventDispatcher, never()).dispatch(eq(sessionId), isA(ToApp.class));
+	}
+
+	@Test
+	public void testSkipEventsWithoutListeners() {
+		// create an application context listening only to FromApp events
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.registerBean(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME,
+				ListenerTrackingApplicationEventMulticaster.class,
+				() -> new ListenerTrackingApplicationEventMulticaster(context.getBeanFactory()));
+		context.register(FromAppListener.class);
+		context.refresh();
+
+		EventDispatcher eventDispatcher = mock(EventDispatcher.class);
+		EventPublisherApplicationAdapter adapter = new EventPublisherApplicationAdapter(eventDispatcher);
+		adapter.setEventMulticaster(context.getBean(ListenerTrackingApplicationEventMulticaster.class));
+
+		Message message = mock(Message.class);
+		SessionID sessionId = mock(SessionID.class);
+
+		// events are published until the context is refreshed
+		adapter.fromAdmin(message, sessionId);
+		verify(eventDispatcher).dispatch(eq(sessionId), isA(FromAdmin.class));
+
+		// once refreshed, only the events with listeners are published
+		adapter.onApplicationEvent(new ContextRefreshedEvent(context));
+		adapter.fromAdmin(message, sessionId);
+		adapter.toApp(message, sessionId);
+		adapter.fromApp(message, sessionId);
+		verify(eventDispatcher).dispatch(eq(sessionId), isA(FromAdmin.class));
+		verify(eventDispatcher, never()).dispatchSynchronously(eq(sessionId), isA(ToApp.class));
+		verify(eventDispatcher).dispatch(eq(sessionId), isA(FromApp.class));
+
+		// listeners added at runtime are taken into account
+		context.addApplicationListener(new ApplicationListener<PayloadApplicationEvent<ToApp>>() {
+			@Override
+			public void onApplicationEvent(PayloadApplicationEvent<ToApp> event) {
+			}
+		});
+		adapter.toApp(message, sessionId);
+		verify(eventDispatcher).dispatchSynchronously(eq(sessionId), isA(ToApp.class));
+
+		context.close();
+	}
+
+	@Test
+	public void testPublishReusableEvents() {
+		// create an application context listening only to ReusableFromApp events
+		AnnotationConfigApplicationContext context = createReusableFromAppListenerContext();
+		ReusableFromAppListener listener = context.getBean(ReusableFromAppListener.class);
+
+		EventDispatcher eventDispatcher = mock(EventDispatcher.class);
+		EventPublisherApplicationAdapter adapter = new EventPublisherApplicationAdapter(eventDispatcher);
+		adapter.setEventMulticaster(context.getBean(ListenerTrackingApplicationEventMulticaster.class));
+		adapter.setReusableEventPool(new ReusableEventPool(), context);
+		adapter.onApplicationEvent(new ContextRefreshedEvent(context));
+
+		Message first = new Message();
+		Message second = new Message();
+		SessionID sessionId = new SessionID("FIX.4.4", "Sender", "Target");
+
+		// the same instance is reused for the callbacks of the session, and released once they return
+		adapter.fromApp(first, sessionId);
+		adapter.fromApp(second, sessionId);
+		assertThat(listener.messages).containsExactly(first, second);
+		assertThat(listener.events).hasSize(2);
+		assertThat(listener.events.get(0)).isSameAs(listener.events.get(1));
+		assertThat(listener.events.get(0).isReleased()).isTrue();
+		verify(eventDispatcher, never()).dispatch(eq(sessionId), isA(FromApp.class));
+
+		context.close();
+	}
+
+	@Test
+	public void testDetectEscapedReusableEventsInDebugMode() {
+		// create an application context listening only to ReusableFromApp events
+		AnnotationConfigApplicationContext context = createReusableFromAppListenerContext();
+		ReusableFromAppListener listener = context.getBean(ReusableFromAppListener.class);
+
+		EventPublisherApplicationAdapter adapter = new EventPublisherApplicationAdapter(mock(EventDispatcher.class));
+		adapter.setReusableEventPool(new ReusableEventPool(true), context);
+
+		SessionID sessionId = new SessionID("FIX.4.4", "Sender", "Target");
+
+		// a new instance is created for every callback, and accessing it afterwards fails
+		adapter.fromApp(new Message(), sessionId);
+		adapter.fromApp(new Message(), sessionId);
+		assertThat(listener.events.get(0)).isNotSameAs(listener.events.get(1));
+		assertThatIllegalStateException().isThrownBy(() -> listener.events.get(0).getMessage());
+
+		context.close();
+	}
+
+	@Test
+	public void testMeasureHeartbeatRoundTripTimeGivenAsynchronousEventDispatcher() {
+		// dispatch the events through a ring buffer whose consumer holds the FromAdmin events, as a slow listener would
+		CountDownLatch release = new CountDownLatch(1);
+		List<Object> deliveredEvents = new CopyOnWriteArrayList<>();
+		RingBufferEventDispatcher eventDispatcher = new RingBufferEventDispatcher(event -> {
+			if (event instanceof FromAdmin) {
+				awaitQuietly(release);
+			}
+			deliveredEvents.add(event);
+		}, 16, 1, WaitStrategy.BLOCKING);
+		HeartbeatRttTracker heartbeatRttTracker = new HeartbeatRttTracker();
+		EventPublisherApplicationAdapter adapter = new EventPublisherApplicationAdapter(eventDispatcher);
+		adapter.setHeartbeatRttTracker(heartbeatRttTracker);
+
+		Message testRequest = new Message();
+		testRequest.getHeader().setString(MsgType.FIELD, MsgType.TEST_REQUEST);
+		testRequest.setString(TestReqID.FIELD, "TEST");
+		Message heartbeat = new Message();
+		heartbeat.getHeader().setString(MsgType.FIELD, MsgType.HEARTBEAT);
+		heartbeat.setString(TestReqID.FIELD, "TEST");
+		SessionID sessionId = new SessionID("FIX.4.4", "Sender", "Target");
+
+		try {
+			// invoke the methods under test.
+			adapter.toAdmin(testRequest, sessionId);
+			adapter.fromAdmin(heartbeat, sessionId);
+
+			// the round-trip time is measured in the callbacks, before the FromAdmin event is delivered
+			assertThat(heartbeatRttTracker.getRoundTripTime(sessionId)).isNotNull();
+			assertThat(deliveredEvents).noneMatch(FromAdmin.class::isInstance);
+		} finally {
+			release.countDown();
+			eventDispatcher.destroy();
+		}
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static AnnotationConfigApplicationContext createReusableFromAppListenerContext() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.registerBean(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME,
+				ListenerTrackingApplicationEventMulticaster.class,
+				() -> new ListenerTrackingApplicationEventMulticaster(context.getBeanFactory()));
+		context.register(ReusableFromAppListener.class);
+		context.refresh();
+		return context;
+	}
+
+	static class ReusableFromAppListener {
+
+		private final List<ReusableFromApp> events = new ArrayList<>();
+
+		private final List<Message> messages = new ArrayList<>();
+
+		@EventListener
+		public void onReusableFromApp(ReusableFromApp reusableFromApp) {
+			events.add(reusableFromApp);
+			messages.add(reusableFromApp.getMessage());
+		}
+	}
+
+	static class FromAppListener {
+
+		@EventListener
+		public void onFromApp(FromApp fromApp) {
+		}
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.application;
+
+import io.allune.quickfixj.spring.boot.starter.model.FromApp;
+import io.allune.quickfixj.spring.boot.starter.model.FromAppBatch;
+import io.allune.quickfixj.spring.boot.starter.model.Logout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import quickfix.Message;
+import quickfix.SessionID;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class FromAppBatcherTest {
+
+	private final SessionID firstSessionID = new SessionID("FIX.4.4", "Sender", "Target1");
+
+	private final SessionID secondSessionID = new SessionID("FIX.4.4", "Sender", "Target2");
+
+	private final List<FromAppBatch> batches = Collections.synchronizedList(new ArrayList<>());
+
+	private FromAppBatcher fromAppBatcher;
+
+	@AfterEach
+	public void tearDown() {
+		if (fromAppBatcher != null) {
+			fromAppBatcher.destroy();
+		}
+	}
+
+	@Test
+	public void shouldDeliverBatchGivenMaxBatchSizeReached() {
+		// Given
+		fromAppBatcher = new FromAppBatcher(event -> batches.add((FromAppBatch) event), 3, Duration.ofHours(1));
+		List<FromApp> events = List.of(fromApp(firstSessionID), fromApp(firstSessionID), fromApp(firstSessionID));
+
+		// When
+		events.forEach(fromAppBatcher::onFromApp);
+
+		// Then
+		await().atMost(Duration.ofSeconds(10)).until(() -> batches.size() == 1);
+		assertThat(batches.get(0).getSessionId()).isEqualTo(firstSessionID);
+		assertThat(batches.get(0).getEvents()).containsExactlyElementsOf(events);
+		assertThat(fromAppBatcher.getPendingCount(firstSessionID)).isZero();
+	}
+
+	@Test
+	public void shouldDeliverBatchGivenWindowElapsed() {
+		// Given
+		fromAppBatcher = new FromAppBatcher(event -> batches.add((FromAppBatch) event), 100, Duration.ofMillis(50));
+		FromApp event = fromApp(firstSessionID);
+
+		// When
+		fromAppBatcher.onFromApp(event);
+
+		// Then
+		await().atMost(Duration.ofSeconds(10)).until(() -> batches.size() == 1);
+		assertThat(batches.get(0).getEvents()).containsExactly(event);
+	}
+
+	@Test
+	public void shouldBatchEventsPerSession() {
+		// Given
+		fromAppBatcher = new FromAppBatcher(event -> batches.add((FromAppBatch) event), 2, Duration.ofHours(1));
+		FromApp first = fromApp(firstSessionID);
+		FromApp second = fromApp(secondSessionID);
+
+		// When
+		fromAppBatcher.onFromApp(first);
+		fromAppBatcher.onFromApp(second);
+
+		// Then
+		assertThat(fromAppBatcher.getPendingCount(firstSessionID)).isEqualTo(1);
+		assertThat(fromAppBatcher.getPendingCount(secondSessionID)).isEqualTo(1);
+		assertThat(batches).isEmpty();
+	}
+
+	@Test
+	public void shouldDeliverBatchesInOrderPerSession() throws Exception {
+		// Given
+		CountDownLatch latch = new CountDownLatch(1000);
+		List<FromApp> received = Collections.synchronizedList(new ArrayList<>());
+		fromAppBatcher = new FromAppBatcher(event -> {
+			FromAppBatch batch = (FromAppBatch) event;
+			received.addAll(batch.getEvents());
+			batch.getEvents().forEach(fromApp -> latch.countDown());
+		}, 7, Duration.ofNanos(1000));
+		List<FromApp> events = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			events.add(fromApp(firstSessionID));
+		}
+
+		// When
+		events.forEach(fromAppBatcher::onFromApp);
+
+		// Then
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(received).containsExactlyElementsOf(events);
+	}
+
+	@Test
+	public void shouldCompleteBatchesGivenWindowElapsedWhileListenerSlow() throws Exception {
+		// Given
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		fromAppBatcher = new FromAppBatcher(event -> {
+			started.countDown();
+			awaitQuietly(release);
+			batches.add((FromAppBatch) event);
+		}, 100, Duration.ofMillis(50));
+		fromAppBatcher.onFromApp(fromApp(firstSessionID));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// When
+		fromAppBatcher.onFromApp(fromApp(secondSessionID));
+
+		// Then
+		await().atMost(Duration.ofSeconds(5)).until(() -> fromAppBatcher.getPendingCount(secondSessionID) == 0);
+		assertThat(fromAppBatcher.getPendingBatchCount()).isEqualTo(1);
+		release.countDown();
+		await().atMost(Duration.ofSeconds(5)).until(() -> batches.size() == 2);
+	}
+
+	@Test
+	public void shouldWaitForDeliveryGivenMaxPendingBatchesReached() throws Exception {
+		// Given
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		fromAppBatcher = new FromAppBatcher(event -> {
+			started.countDown();
+			awaitQuietly(release);
+			batches.add((FromAppBatch) event);
+		}, 1, Duration.ofHours(1), 1);
+		fromAppBatcher.onFromApp(fromApp(firstSessionID));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		fromAppBatcher.onFromApp(fromApp(firstSessionID));
+
+		// When
+		Thread publisher = new Thread(() -> fromAppBatcher.onFromApp(fromApp(firstSessionID)));
+		publisher.start();
+
+		// Then
+		await().atMost(Duration.ofSeconds(5)).until(() -> publisher.getState() == Thread.State.WAITING);
+		assertThat(fromAppBatcher.getPendingBatchCount()).isEqualTo(1);
+		release.countDown();
+		publisher.join(5000);
+		await().atMost(Duration.ofSeconds(5)).until(() -> batches.size() == 3);
+	}
+
+	@Test
+	public void shouldFlushBatchOnLogout() {
+		// Given
+		fromAppBatcher = new FromAppBatcher(event -> batches.add((FromAppBatch) event), 100, Duration.ofHours(1));
+		fromAppBatcher.onFromApp(fromApp(firstSessionID));
+		fromAppBatcher.onFromApp(fromApp(secondSessionID));
+
+		// When
+		fromAppBatcher.onLogout(Logout.of(firstSessionID));
+
+		// Then
+		await().atMost(Duration.ofSeconds(10)).until(() -> batches.size() == 1);
+		assertThat(batches.get(0).getSessionId()).isEqualTo(firstSessionID);
+		assertThat(fromAppBatcher.getPendingCount(secondSessionID)).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldFlushAllBatchesOnDestroy() {
+		// Given
+		fromAppBatcher = new FromAppBatcher(event -> batches.add((FromAppBatch) event), 100, Duration.ofHours(1));
+		fromAppBatcher.onFromApp(fromApp(firstSessionID));
+		fromAppBatcher.onFromApp(fromApp(secondSessionID));
+
+		// When
+		fromAppBatcher.destroy();
+
+		// Then
+		assertThat(batches).extracting(FromAppBatch::getSessionId).containsExactlyInAnyOrder(firstSessionID, secondSessionID);
+	}
+
+	@Test
+	public void shouldDeliverOnCallerThreadGivenDestroyed() {
+		// Given
+		fromAppBatcher = new FromAppBatcher(event -> batches.add((FromAppBatch) event), 1, Duration.ofHours(1));
+		fromAppBatcher.destroy();
+
+		// When
+		fromAppBatcher.onFromApp(fromApp(firstSessionID));
+
+		// Then
+		assertThat(batches).hasSize(1);
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static FromApp fromApp(SessionID sessionID) {
+		return FromApp.of(new Message(), sessionID);
+	}
+}
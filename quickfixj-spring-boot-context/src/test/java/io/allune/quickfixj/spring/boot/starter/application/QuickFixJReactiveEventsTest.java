@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.application;
+
+import io.allune.quickfixj.spring.boot.starter.application.QuickFixJReactiveEvents.BackpressureStrategy;
+import io.allune.quickfixj.spring.boot.starter.model.FromApp;
+import io.allune.quickfixj.spring.boot.starter.model.Logon;
+import org.junit.jupiter.api.Test;
+import quickfix.Message;
+import quickfix.SessionID;
+import quickfix.field.MsgType;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class QuickFixJReactiveEventsTest {
+
+	private final SessionID firstSessionID = new SessionID("FIX.4.4", "Sender", "Target1");
+
+	private final SessionID secondSessionID = new SessionID("FIX.4.4", "Sender", "Target2");
+
+	private final QuickFixJReactiveEvents reactiveEvents = new QuickFixJReactiveEvents();
+
+	@Test
+	public void shouldEmitEventsOfAllSessionsOnGlobalStream() {
+		// Given
+		Message first = message(MsgType.ORDER_SINGLE);
+		Message second = message(MsgType.EXECUTION_REPORT);
+
+		// When / Then
+		StepVerifier.create(reactiveEvents.fromApp().take(2))
+				.then(() -> {
+					reactiveEvents.fromApp(first, firstSessionID);
+					reactiveEvents.fromApp(second, secondSessionID);
+				})
+				.expectNext(FromApp.of(first, firstSessionID), FromApp.of(second, secondSessionID))
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void shouldEmitEventsOfSessionOnSessionStream() {
+		// Given
+		Message first = message(MsgType.ORDER_SINGLE);
+		Message second = message(MsgType.ORDER_SINGLE);
+
+		// When / Then
+		StepVerifier.create(reactiveEvents.fromApp(secondSessionID).take(1))
+				.then(() -> {
+					reactiveEvents.fromApp(first, firstSessionID);
+					reactiveEvents.fromApp(second, secondSessionID);
+				})
+				.expectNext(FromApp.of(second, secondSessionID))
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void shouldFilterEventsByMsgType() {
+		// Given
+		Message order = message(MsgType.ORDER_SINGLE);
+		Message executionReport = message(MsgType.EXECUTION_REPORT);
+
+		// When / Then
+		StepVerifier.create(reactiveEvents.fromApp(null, MsgType.EXECUTION_REPORT).take(1))
+				.then(() -> {
+					reactiveEvents.fromApp(order, firstSessionID);
+					reactiveEvents.fromApp(executionReport, firstSessionID);
+				})
+				.expectNext(FromApp.of(executionReport, firstSessionID))
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void shouldHaveNoSubscribersGivenSubscriptionDisposed() {
+		// Given
+		Disposable subscription = reactiveEvents.logon().subscribe();
+		assertThat(reactiveEvents.hasSubscribers()).isTrue();
+
+		// When
+		subscription.dispose();
+
+		// Then
+		assertThat(reactiveEvents.hasSubscribers()).isFalse();
+	}
+
+	@Test
+	public void shouldConflateEventsGivenLatestBackpressureStrategy() {
+		// Given
+		QuickFixJReactiveEvents latestReactiveEvents = new QuickFixJReactiveEvents(BackpressureStrategy.LATEST, 1);
+
+		// When / Then
+		StepVerifier.create(latestReactiveEvents.logon(), 0)
+				.then(() -> {
+					latestReactiveEvents.onLogon(firstSessionID);
+					latestReactiveEvents.onLogon(secondSessionID);
+				})
+				.thenRequest(1)
+				.expectNext(Logon.of(secondSessionID))
+				.thenCancel()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void shouldFailSlowSubscriberOnlyGivenBufferExceeded() {
+		// Given
+		QuickFixJReactiveEvents bufferReactiveEvents = new QuickFixJReactiveEvents(BackpressureStrategy.BUFFER, 1);
+		List<Logon> fastReceived = new ArrayList<>();
+		bufferReactiveEvents.logon().subscribe(fastReceived::add);
+
+		// When / Then
+		StepVerifier.create(bufferReactiveEvents.logon(), 0)
+				.then(() -> {
+					bufferReactiveEvents.onLogon(firstSessionID);
+					bufferReactiveEvents.onLogon(secondSessionID);
+				})
+				.expectError()
+				.verify(Duration.ofSeconds(5));
+		assertThat(fastReceived).containsExactly(Logon.of(firstSessionID), Logon.of(secondSessionID));
+	}
+
+	@Test
+	public void shouldCompleteStreamsOnDestroy() {
+		// When / Then
+		StepVerifier.create(reactiveEvents.fromApp(firstSessionID))
+				.then(reactiveEvents::destroy)
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	private static Message message(String msgType) {
+		Message message = new Message();
+		message.getHeader().setString(MsgType.FIELD, msgType);
+		return message;
+	}
+}
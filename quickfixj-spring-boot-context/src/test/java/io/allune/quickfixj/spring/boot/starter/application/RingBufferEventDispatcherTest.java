@@ -0,0 +1,240 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.application;
+
+import io.allune.quickfixj.spring.boot.starter.application.RingBufferEventDispatcher.WaitStrategy;
+import io.allune.quickfixj.spring.boot.starter.exception.EventQueueFullException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import quickfix.SessionID;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class RingBufferEventDispatcherTest {
+
+	private final SessionID firstSessionID = new SessionID("FIX.4.4", "Sender", "Target1");
+
+	private final SessionID secondSessionID = new SessionID("FIX.4.4", "Sender", "Target2");
+
+	private RingBufferEventDispatcher eventDispatcher;
+
+	@AfterEach
+	public void tearDown() {
+		if (eventDispatcher != null) {
+			eventDispatcher.destroy();
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(WaitStrategy.class)
+	public void shouldDeliverEventsInOrderPerSession(WaitStrategy waitStrategy) throws Exception {
+		// Given
+		Map<String, List<Integer>> receivedEvents = new ConcurrentHashMap<>();
+		CountDownLatch latch = new CountDownLatch(2000);
+		eventDispatcher = new RingBufferEventDispatcher(event -> {
+			SessionEvent sessionEvent = (SessionEvent) event;
+			receivedEvents.computeIfAbsent(sessionEvent.session, session -> Collections.synchronizedList(new ArrayList<>()))
+					.add(sessionEvent.index);
+			latch.countDown();
+		}, 16, 2, waitStrategy);
+
+		// When
+		Thread first = new Thread(() -> publish(firstSessionID, 1000));
+		Thread second = new Thread(() -> publish(secondSessionID, 1000));
+		first.start();
+		second.start();
+
+		// Then
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(receivedEvents.get("Target1")).isSorted().hasSize(1000);
+		assertThat(receivedEvents.get("Target2")).isSorted().hasSize(1000);
+	}
+
+	@Test
+	public void shouldNotBlockPublisherGivenSlowListener() throws Exception {
+		// Given
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch delivered = new CountDownLatch(3);
+		eventDispatcher = new RingBufferEventDispatcher(event -> {
+			awaitQuietly(release);
+			delivered.countDown();
+		}, 4, 1, WaitStrategy.BLOCKING);
+
+		// When
+		eventDispatcher.dispatch(firstSessionID, "first");
+		eventDispatcher.dispatch(firstSessionID, "second");
+		eventDispatcher.dispatch(firstSessionID, "third");
+
+		// Then
+		assertThat(eventDispatcher.getSessionIDs()).containsExactly(firstSessionID);
+		await().atMost(Duration.ofSeconds(5)).until(() -> eventDispatcher.getQueueDepth(firstSessionID) == 2);
+		release.countDown();
+		assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+		await().atMost(Duration.ofSeconds(5)).until(() -> eventDispatcher.getQueueDepth(firstSessionID) == 0);
+		assertThat(eventDispatcher.getLag(firstSessionID)).isPositive();
+	}
+
+	@Test
+	public void shouldKeepDeliveringGivenListenerThrowsException() throws Exception {
+		// Given
+		CountDownLatch delivered = new CountDownLatch(1);
+		eventDispatcher = new RingBufferEventDispatcher(event -> {
+			if ("failing".equals(event)) {
+				throw new IllegalStateException("Listener failed");
+			}
+			delivered.countDown();
+		}, 8, 1, WaitStrategy.SLEEPING);
+
+		// When
+		eventDispatcher.dispatch(firstSessionID, "failing");
+		eventDispatcher.dispatch(firstSessionID, "delivered");
+
+		// Then
+		assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void shouldDeliverOnCallingThreadGivenDispatcherDestroyed() {
+		// Given
+		List<Object> receivedEvents = new ArrayList<>();
+		Consumer<Object> eventConsumer = receivedEvents::add;
+		eventDispatcher = new RingBufferEventDispatcher(eventConsumer, 8, 1, WaitStrategy.BLOCKING);
+		eventDispatcher.destroy();
+
+		// When
+		eventDispatcher.dispatch(firstSessionID, "event");
+
+		// Then
+		assertThat(receivedEvents).containsExactly("event");
+	}
+
+	@Test
+	public void shouldDeliverOnCallingThreadGivenSynchronousDispatch() {
+		// Given
+		List<Thread> deliveringThreads = new ArrayList<>();
+		eventDispatcher = new RingBufferEventDispatcher(event -> {
+			deliveringThreads.add(Thread.currentThread());
+			if ("failing".equals(event)) {
+				throw new IllegalStateException("Listener failed");
+			}
+		}, 8, 1, WaitStrategy.BLOCKING);
+
+		// When
+		eventDispatcher.dispatchSynchronously(firstSessionID, "event");
+
+		// Then
+		assertThat(deliveringThreads).containsExactly(Thread.currentThread());
+		assertThatExceptionOfType(IllegalStateException.class)
+				.isThrownBy(() -> eventDispatcher.dispatchSynchronously(firstSessionID, "failing"));
+	}
+
+	@Test
+	public void shouldRoundUpBufferSizeToPowerOfTwo() {
+		// When
+		eventDispatcher = new RingBufferEventDispatcher(event -> {
+		}, 1000, 1, WaitStrategy.BLOCKING);
+
+		// Then
+		assertThat(eventDispatcher.getBufferSize()).isEqualTo(1024);
+	}
+
+	@Test
+	public void shouldFailGivenRingBufferFullAndFailOverflowPolicy() throws Exception {
+		// Given
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		eventDispatcher = new RingBufferEventDispatcher(event -> {
+			started.countDown();
+			awaitQuietly(release);
+		}, 1, 1, WaitStrategy.BLOCKING, OverflowPolicy.FAIL);
+		eventDispatcher.dispatch(firstSessionID, "taken");
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		eventDispatcher.dispatch(firstSessionID, "queued");
+
+		// When / Then
+		assertThatExceptionOfType(EventQueueFullException.class)
+				.isThrownBy(() -> eventDispatcher.dispatch(firstSessionID, "dropped"));
+		assertThat(eventDispatcher.getDroppedCount()).isEqualTo(1);
+		assertThat(eventDispatcher.getHighWaterMark(firstSessionID)).isEqualTo(1);
+		release.countDown();
+	}
+
+	@Test
+	public void shouldDeliverOnConsumerThreadGivenListenerDispatchesWhileRingBufferFull() throws Exception {
+		// Given
+		List<Object> receivedEvents = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch delivered = new CountDownLatch(3);
+		eventDispatcher = new RingBufferEventDispatcher(event -> {
+			if ("received".equals(event)) {
+				eventDispatcher.dispatch(firstSessionID, "queued");
+				eventDispatcher.dispatch(firstSessionID, "sent");
+			}
+			receivedEvents.add(event);
+			delivered.countDown();
+		}, 1, 1, WaitStrategy.BLOCKING, OverflowPolicy.BLOCK);
+
+		// When
+		eventDispatcher.dispatch(firstSessionID, "received");
+
+		// Then
+		assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(receivedEvents).containsExactly("sent", "received", "queued");
+		assertThat(eventDispatcher.getDroppedCount()).isZero();
+	}
+
+	private void publish(SessionID sessionID, int count) {
+		for (int i = 0; i < count; i++) {
+			eventDispatcher.dispatch(sessionID, new SessionEvent(sessionID.getTargetCompID(), i));
+		}
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static final class SessionEvent {
+
+		private final String session;
+
+		private final int index;
+
+		SessionEvent(String session, int index) {
+			this.session = session;
+			this.index = index;
+		}
+	}
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.application;
+
+import io.allune.quickfixj.spring.boot.starter.exception.EventQueueFullException;
+import io.allune.quickfixj.spring.boot.starter.model.FromAdmin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import quickfix.Message;
+import quickfix.SessionID;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class StripedEventDispatcherTest {
+
+	private final SessionID firstSessionID = new SessionID("FIX.4.4", "Sender", "Target1");
+
+	private final SessionID secondSessionID = new SessionID("FIX.4.4", "Sender", "Target2");
+
+	private StripedEventDispatcher eventDispatcher;
+
+	@AfterEach
+	public void tearDown() {
+		if (eventDispatcher != null) {
+			eventDispatcher.destroy();
+		}
+	}
+
+	@Test
+	public void shouldDeliverEventsInOrderPerSession() throws Exception {
+		// Given
+		Map<SessionID, List<Integer>> receivedEvents = new ConcurrentHashMap<>();
+		CountDownLatch latch = new CountDownLatch(2000);
+		eventDispatcher = new StripedEventDispatcher(event -> {
+			SessionEvent sessionEvent = (SessionEvent) event;
+			receivedEvents.computeIfAbsent(sessionEvent.sessionID, sessionID -> Collections.synchronizedList(new ArrayList<>()))
+					.add(sessionEvent.index);
+			latch.countDown();
+		}, 4);
+
+		// When
+		Thread first = new Thread(() -> dispatch(firstSessionID, 1000));
+		Thread second = new Thread(() -> dispatch(secondSessionID, 1000));
+		first.start();
+		second.start();
+
+		// Then
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(receivedEvents.get(firstSessionID)).isSorted().hasSize(1000);
+		assertThat(receivedEvents.get(secondSessionID)).isSorted().hasSize(1000);
+	}
+
+	@Test
+	public void shouldDeliverEventsOfSessionOnSameLaneThread() throws Exception {
+		// Given
+		List<String> threadNames = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch latch = new CountDownLatch(10);
+		eventDispatcher = new StripedEventDispatcher(event -> {
+			threadNames.add(Thread.currentThread().getName());
+			latch.countDown();
+		}, 4);
+
+		// When
+		dispatch(firstSessionID, 10);
+
+		// Then
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(threadNames).hasSize(10).containsOnly(threadNames.get(0));
+		assertThat(threadNames.get(0)).startsWith("QuickFixJ event lane-");
+		assertThat(eventDispatcher.getLane(firstSessionID)).isBetween(0, 3);
+	}
+
+	@Test
+	public void shouldExposeQueueDepthPerLane() throws Exception {
+		// Given
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch delivered = new CountDownLatch(3);
+		eventDispatcher = new StripedEventDispatcher(event -> {
+			awaitQuietly(release);
+			delivered.countDown();
+		}, 2);
+		int lane = eventDispatcher.getLane(firstSessionID);
+
+		// When
+		eventDispatcher.dispatch(firstSessionID, "first");
+		eventDispatcher.dispatch(firstSessionID, "second");
+		eventDispatcher.dispatch(firstSessionID, "third");
+
+		// Then
+		assertThat(eventDispatcher.getLaneCount()).isEqualTo(2);
+		await().atMost(Duration.ofSeconds(5)).until(() -> eventDispatcher.getQueueDepth(lane) == 2);
+		assertThat(eventDispatcher.getQueueDepth(1 - lane)).isZero();
+		release.countDown();
+		assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(eventDispatcher.getQueueDepth(lane)).isZero();
+	}
+
+	@Test
+	public void shouldKeepDeliveringGivenListenerThrowsException() throws Exception {
+		// Given
+		CountDownLatch delivered = new CountDownLatch(1);
+		eventDispatcher = new StripedEventDispatcher(event -> {
+			if ("failing".equals(event)) {
+				throw new IllegalStateException("Listener failed");
+			}
+			delivered.countDown();
+		}, 1);
+
+		// When
+		eventDispatcher.dispatch(firstSessionID, "failing");
+		eventDispatcher.dispatch(firstSessionID, "delivered");
+
+		// Then
+		assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void shouldDeliverOnCallerThreadGivenDestroyed() {
+		// Given
+		List<String> threadNames = new ArrayList<>();
+		eventDispatcher = new StripedEventDispatcher(event -> threadNames.add(Thread.currentThread().getName()), 1);
+		eventDispatcher.destroy();
+
+		// When
+		eventDispatcher.dispatch(firstSessionID, "event");
+
+		// Then
+		assertThat(threadNames).containsExactly(Thread.currentThread().getName());
+	}
+
+	@Test
+	public void shouldFailGivenQueueFullAndFailOverflowPolicy() throws Exception {
+		// Given
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		eventDispatcher = new StripedEventDispatcher(event -> {
+			started.countDown();
+			awaitQuietly(release);
+		}, 1, 2, OverflowPolicy.FAIL);
+		eventDispatcher.dispatch(firstSessionID, "taken");
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		eventDispatcher.dispatch(firstSessionID, "first");
+		eventDispatcher.dispatch(firstSessionID, "second");
+
+		// When / Then
+		assertThatExceptionOfType(EventQueueFullException.class)
+				.isThrownBy(() -> eventDispatcher.dispatch(firstSessionID, "third"));
+		assertThat(eventDispatcher.getDroppedCount()).isEqualTo(1);
+		assertThat(eventDispatcher.getHighWaterMark(0)).isEqualTo(2);
+		release.countDown();
+	}
+
+	@Test
+	public void shouldDropAdminEventsGivenQueueFullAndDropAdminFirstOverflowPolicy() throws Exception {
+		// Given
+		List<Object> receivedEvents = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		eventDispatcher = new StripedEventDispatcher(event -> {
+			started.countDown();
+			awaitQuietly(release);
+			receivedEvents.add(event);
+		}, 1, 1, OverflowPolicy.DROP_ADMIN_FIRST);
+		eventDispatcher.dispatch(firstSessionID, "taken");
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		eventDispatcher.dispatch(firstSessionID, "queued");
+
+		// When
+		eventDispatcher.dispatch(firstSessionID, FromAdmin.of(new Message(), firstSessionID));
+		Thread application = new Thread(() -> eventDispatcher.dispatch(firstSessionID, "application"));
+		application.start();
+
+		// Then
+		await().atMost(Duration.ofSeconds(5)).until(() -> application.getState() == Thread.State.WAITING);
+		assertThat(eventDispatcher.getDroppedCount()).isEqualTo(1);
+		release.countDown();
+		application.join(5000);
+		await().atMost(Duration.ofSeconds(5)).until(() -> receivedEvents.size() == 3);
+		assertThat(receivedEvents).containsExactly("taken", "queued", "application");
+	}
+
+	@Test
+	public void shouldDeliverOnLaneThreadGivenListenerDispatchesWhileQueueFull() throws Exception {
+		// Given
+		List<Object> receivedEvents = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch delivered = new CountDownLatch(3);
+		eventDispatcher = new StripedEventDispatcher(event -> {
+			if ("received".equals(event)) {
+				eventDispatcher.dispatch(firstSessionID, "queued");
+				eventDispatcher.dispatch(firstSessionID, "sent");
+			}
+			receivedEvents.add(event);
+			delivered.countDown();
+		}, 1, 1, OverflowPolicy.BLOCK);
+
+		// When
+		eventDispatcher.dispatch(firstSessionID, "received");
+
+		// Then
+		assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(receivedEvents).containsExactly("sent", "received", "queued");
+		assertThat(eventDispatcher.getDroppedCount()).isZero();
+	}
+
+	@Test
+	public void shouldRecordDispatchLatency() throws Exception {
+		// Given
+		AtomicLong latency = new AtomicLong(-1);
+		CountDownLatch delivered = new CountDownLatch(1);
+		eventDispatcher = new StripedEventDispatcher(event -> delivered.countDown(), 1, 16, OverflowPolicy.BLOCK);
+		eventDispatcher.setDispatchLatencyRecorder(latency::set);
+
+		// When
+		eventDispatcher.dispatch(firstSessionID, "event");
+
+		// Then
+		assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+		await().atMost(Duration.ofSeconds(5)).until(() -> latency.get() >= 0);
+	}
+
+	private void dispatch(SessionID sessionID, int count) {
+		for (int i = 0; i < count; i++) {
+			eventDispatcher.dispatch(sessionID, new SessionEvent(sessionID, i));
+		}
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static final class SessionEvent {
+
+		private final SessionID sessionID;
+
+		private final int index;
+
+		SessionEvent(SessionID sessionID, int index) {
+			this.sessionID = sessionID;
+			this.index = index;
+		}
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.listener;
+
+import io.allune.quickfixj.spring.boot.starter.model.FromApp;
+import io.allune.quickfixj.spring.boot.starter.model.ToApp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.ResolvableType;
+import quickfix.Message;
+import quickfix.SessionID;
+import quickfix.field.MsgType;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class QuickFixJListenerRegistryTest {
+
+	private final SessionID primarySessionID = new SessionID("FIX.4.4", "Sender", "Target", "primary");
+
+	private final SessionID secondarySessionID = new SessionID("FIX.4.4", "Sender", "Target", "secondary");
+
+	private QuickFixJListenerRegistry listenerRegistry;
+
+	private Listeners listeners;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		listenerRegistry = new QuickFixJListenerRegistry();
+		listeners = new Listeners();
+		for (String methodName : List.of("onExecutionReport", "onOrder", "onAnyMessage")) {
+			listenerRegistry.registerListenerMethod(listeners, findMethod(Listeners.class, methodName));
+		}
+	}
+
+	@Test
+	public void shouldDispatchGivenMsgTypeOfParameterType() {
+		// Given
+		ExecutionReport executionReport = new ExecutionReport();
+
+		// When
+		listenerRegistry.dispatch(executionReport, primarySessionID);
+
+		// Then
+		assertThat(listeners.received).containsExactly(
+				"onExecutionReport:" + primarySessionID,
+				"onAnyMessage");
+	}
+
+	@Test
+	public void shouldNotDispatchGivenMessageNotInstanceOfParameterType() {
+		// Given
+		Message message = createMessage(ExecutionReport.MSGTYPE);
+
+		// When
+		listenerRegistry.dispatch(message, primarySessionID);
+
+		// Then
+		assertThat(listeners.received).containsExactly("onAnyMessage");
+	}
+
+	@Test
+	public void shouldDispatchGivenMsgTypeAndSessionQualifier() {
+		// Given
+		Message newOrderSingle = createMessage("D");
+		Message orderCancelRequest = createMessage("F");
+
+		// When
+		listenerRegistry.dispatch(newOrderSingle, primarySessionID);
+		listenerRegistry.dispatch(newOrderSingle, secondarySessionID);
+		listenerRegistry.dispatch(orderCancelRequest, primarySessionID);
+
+		// Then
+		assertThat(listeners.received).containsExactly(
+				"onOrder:D:" + primarySessionID,
+				"onAnyMessage",
+				"onAnyMessage",
+				"onOrder:F:" + primarySessionID,
+				"onAnyMessage");
+	}
+
+	@Test
+	public void shouldThrowExceptionGivenUnsupportedParameter() {
+		assertThatIllegalStateException()
+				.isThrownBy(() -> listenerRegistry.registerListenerMethod(new InvalidListeners(),
+						findMethod(InvalidListeners.class, "onText")))
+				.withMessageContaining("onText");
+	}
+
+	@Test
+	public void shouldDispatchFromAppEventsToDiscoveredListenerMethods() {
+		// Given
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.registerBean(QuickFixJListenerRegistry.class);
+		context.registerBean(QuickFixJListenerMethodProcessor.class);
+		context.registerBean(Listeners.class);
+		context.refresh();
+
+		// When
+		context.publishEvent(FromApp.of(new ExecutionReport(), primarySessionID));
+
+		// Then
+		assertThat(context.getBean(Listeners.class).received).containsExactlyInAnyOrder(
+				"onExecutionReport:" + primarySessionID,
+				"onAnyMessage");
+		context.close();
+	}
+
+	@Test
+	public void shouldSupportFromAppEventsOnlyGivenListenerMethods() {
+		// Given
+		QuickFixJListenerRegistry emptyListenerRegistry = new QuickFixJListenerRegistry();
+		ResolvableType fromAppEventType = ResolvableType.forClassWithGenerics(PayloadApplicationEvent.class, FromApp.class);
+		ResolvableType toAppEventType = ResolvableType.forClassWithGenerics(PayloadApplicationEvent.class, ToApp.class);
+
+		// Then
+		assertThat(emptyListenerRegistry.supportsEventType(fromAppEventType)).isFalse();
+		assertThat(listenerRegistry.supportsEventType(fromAppEventType)).isTrue();
+		assertThat(listenerRegistry.supportsEventType(toAppEventType)).isFalse();
+	}
+
+	private static Method findMethod(Class<?> type, String methodName) {
+		for (Method method : type.getDeclaredMethods()) {
+			if (method.getName().equals(methodName)) {
+				return method;
+			}
+		}
+		throw new IllegalArgumentException(methodName);
+	}
+
+	private static Message createMessage(String msgType) {
+		Message message = new Message();
+		message.getHeader().setString(MsgType.FIELD, msgType);
+		return message;
+	}
+
+	public static class ExecutionReport extends Message {
+
+		public static final String MSGTYPE = "8";
+
+		public ExecutionReport() {
+			getHeader().setString(MsgType.FIELD, MSGTYPE);
+		}
+	}
+
+	public static class Listeners {
+
+		private final List<String> received = new ArrayList<>();
+
+		@QuickFixJListener
+		public void onExecutionReport(ExecutionReport executionReport, SessionID sessionID) {
+			received.add("onExecutionReport:" + sessionID);
+		}
+
+		@QuickFixJListener(msgType = {"D", "F"}, sessionQualifier = "primary")
+		public void onOrder(SessionID sessionID, Message message) throws Exception {
+			received.add("onOrder:" + message.getHeader().getString(MsgType.FIELD) + ":" + sessionID);
+		}
+
+		@QuickFixJListener
+		public void onAnyMessage(Message message) {
+			received.add("onAnyMessage");
+		}
+	}
+
+	public static class InvalidListeners {
+
+		@QuickFixJListener
+		public void onText(String text) {
+		}
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import quickfix.FileStoreFactory;
+import quickfix.MessageStore;
+import quickfix.SessionID;
+import quickfix.SessionSettings;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class GroupCommitFileStoreTest {
+
+	private final SessionID sessionID = new SessionID("FIX.4.4", "Sender", "Target");
+
+	private final SessionID otherSessionID = new SessionID("FIX.4.4", "Sender", "Other");
+
+	@TempDir
+	Path directory;
+
+	private GroupCommitFileStoreFactory factory;
+
+	@AfterEach
+	public void tearDown() {
+		if (factory != null) {
+			factory.destroy();
+		}
+	}
+
+	@Test
+	public void shouldStoreAndRetrieveMessages() throws IOException {
+		// Given
+		factory = new GroupCommitFileStoreFactory(settings(1000, 1000));
+		MessageStore store = factory.create(sessionID);
+
+		// When
+		store.set(1, message(1));
+		store.set(2, message(2));
+		store.set(3, message(3));
+		store.incrNextSenderMsgSeqNum();
+
+		// Then
+		List<String> messages = new ArrayList<>();
+		store.get(2, 10, messages);
+		assertThat(messages).containsExactly(message(2), message(3));
+		assertThat(store.getNextSenderMsgSeqNum()).isEqualTo(2);
+	}
+
+	@Test
+	public void shouldCommitWritesOfAllSessionsInBatches() throws IOException {
+		// Given
+		SessionSettings settings = settings(60_000_000, 10);
+		factory = new GroupCommitFileStoreFactory(settings);
+		List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+		List<Long> fsyncLatencies = new CopyOnWriteArrayList<>();
+		factory.setCommitBatchSizeRecorder(batchSizes::add);
+		factory.setFsyncLatencyRecorder(fsyncLatencies::add);
+		MessageStore store = factory.create(sessionID);
+		MessageStore otherStore = factory.create(otherSessionID);
+
+		// When
+		for (int i = 1; i <= 5; i++) {
+			store.set(i, message(i));
+			otherStore.set(i, message(i));
+		}
+
+		// Then
+		await().atMost(Duration.ofSeconds(10)).until(() -> factory.getCommitCount() == 1);
+		assertThat(batchSizes).containsExactly(10);
+		assertThat(fsyncLatencies).hasSize(2);
+		assertThat(factory.getPendingCount()).isZero();
+	}
+
+	@Test
+	public void shouldCommitPendingWritesWithinInterval() throws IOException {
+		// Given
+		factory = new GroupCommitFileStoreFactory(settings(1000, 1000));
+		MessageStore store = factory.create(sessionID);
+
+		// When
+		store.set(1, message(1));
+
+		// Then
+		await().atMost(Duration.ofSeconds(10)).until(() -> factory.getCommitCount() == 1);
+		assertThat(factory.getPendingCount()).isZero();
+	}
+
+	@Test
+	public void shouldWaitForCommitGivenZeroStaleness() throws IOException {
+		// Given
+		SessionSettings settings = settings(60_000_000, 1000);
+		settings.setLong(sessionID, GroupCommitFileStoreFactory.SETTING_GROUP_COMMIT_MAX_STALENESS, 0);
+		factory = new GroupCommitFileStoreFactory(settings);
+		MessageStore store = factory.create(sessionID);
+		long commitCount = factory.getCommitCount();
+
+		// When
+		store.set(1, message(1));
+
+		// Then the write waited for its own commit
+		assertThat(factory.getCommitCount()).isGreaterThan(commitCount);
+	}
+
+	@Test
+	public void shouldRecoverMessagesAndSequenceNumbers() throws IOException {
+		// Given
+		factory = new GroupCommitFileStoreFactory(settings(1000, 1000));
+		MessageStore store = factory.create(sessionID);
+		for (int i = 1; i <= 20; i++) {
+			store.set(i, message(i));
+			store.incrNextSenderMsgSeqNum();
+		}
+		store.setNextTargetMsgSeqNum(7);
+		long creationTime = store.getCreationTime().getTime();
+		((Closeable) store).close();
+
+		// When
+		MessageStore recovered = factory.create(sessionID);
+
+		// Then
+		List<String> messages = new ArrayList<>();
+		recovered.get(1, 20, messages);
+		assertThat(messages).hasSize(20).startsWith(message(1)).endsWith(message(20));
+		assertThat(recovered.getNextSenderMsgSeqNum()).isEqualTo(21);
+		assertThat(recovered.getNextTargetMsgSeqNum()).isEqualTo(7);
+		assertThat(recovered.getCreationTime().getTime()).isEqualTo(creationTime);
+	}
+
+	@Test
+	public void shouldTruncateTornRecordOnRecovery() throws IOException {
+		// Given
+		factory = new GroupCommitFileStoreFactory(settings(1000, 1000));
+		MessageStore store = factory.create(sessionID);
+		store.set(1, message(1));
+		store.set(2, message(2));
+		((Closeable) store).close();
+
+		// When the process died half way through writing the last record
+		try (RandomAccessFile file = new RandomAccessFile(directory.resolve("FIX.4.4-Sender-Target.body").toFile(), "rw")) {
+			file.setLength(file.length() - 5);
+		}
+		MessageStore recovered = factory.create(sessionID);
+		recovered.set(2, message(2));
+		recovered.set(3, message(3));
+
+		// Then
+		List<String> messages = new ArrayList<>();
+		recovered.get(1, 3, messages);
+		assertThat(messages).containsExactly(message(1), message(2), message(3));
+	}
+
+	@Test
+	public void shouldResetMessagesAndSequenceNumbers() throws IOException {
+		// Given
+		factory = new GroupCommitFileStoreFactory(settings(1000, 1000));
+		MessageStore store = factory.create(sessionID);
+		store.set(1, message(1));
+		store.setNextSenderMsgSeqNum(2);
+
+		// When
+		store.reset();
+
+		// Then
+		List<String> messages = new ArrayList<>();
+		store.get(1, 10, messages);
+		assertThat(messages).isEmpty();
+		assertThat(store.getNextSenderMsgSeqNum()).isEqualTo(1);
+		assertThat(store.getNextTargetMsgSeqNum()).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldStreamMessagesInChunks() throws IOException {
+		// Given
+		factory = new GroupCommitFileStoreFactory(settings(1000, 1000));
+		GroupCommitFileStore store = (GroupCommitFileStore) factory.create(sessionID);
+		for (int i = 1; i <= 25; i++) {
+			store.set(i, message(i));
+		}
+
+		// When
+		List<List<String>> chunks = new ArrayList<>();
+		store.get(1, 20, 8, chunk -> chunks.add(new ArrayList<>(chunk)));
+
+		// Then
+		assertThat(chunks).extracting(List::size).containsExactly(8, 8, 4);
+		assertThat(chunks.get(1)).startsWith(message(9)).endsWith(message(16));
+		assertThat(chunks.get(2)).endsWith(message(20));
+	}
+
+	private SessionSettings settings(long intervalMicros, int maxMessages) {
+		SessionSettings settings = new SessionSettings();
+		settings.setString(sessionID, FileStoreFactory.SETTING_FILE_STORE_PATH, directory.toString());
+		settings.setString(otherSessionID, FileStoreFactory.SETTING_FILE_STORE_PATH, directory.toString());
+		settings.setLong(GroupCommitFileStoreFactory.SETTING_GROUP_COMMIT_INTERVAL, intervalMicros);
+		settings.setLong(GroupCommitFileStoreFactory.SETTING_GROUP_COMMIT_MAX_MESSAGES, maxMessages);
+		return settings;
+	}
+
+	private static String message(int sequence) {
+		return "8=FIX.4.4\u00019=20\u000135=0\u000134=" + sequence + "\u000149=Sender\u000156=Target\u000110=000\u0001";
+	}
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import quickfix.CachedFileStoreFactory;
+import quickfix.FileStoreFactory;
+import quickfix.MessageStore;
+import quickfix.MessageStoreFactory;
+import quickfix.SessionID;
+import quickfix.SessionSettings;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class MappedFileStoreTest {
+
+	private static final Logger log = LoggerFactory.getLogger(MappedFileStoreTest.class);
+
+	private final SessionID sessionID = new SessionID("FIX.4.4", "Sender", "Target");
+
+	@TempDir
+	Path directory;
+
+	private MappedFileStore store;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		store = open(1024);
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		store.close();
+	}
+
+	@Test
+	public void shouldStoreAndRetrieveMessages() throws IOException {
+		// Given
+		store.set(1, message(1));
+		store.set(2, message(2));
+		store.set(3, message(3));
+
+		// When
+		List<String> messages = new ArrayList<>();
+		store.get(2, 10, messages);
+
+		// Then
+		assertThat(messages).containsExactly(message(2), message(3));
+	}
+
+	@Test
+	public void shouldRollToNewSegmentWhenCurrentIsFull() throws IOException {
+		// When
+		for (int i = 1; i <= 100; i++) {
+			store.set(i, message(i));
+		}
+
+		// Then
+		List<String> messages = new ArrayList<>();
+		store.get(1, 100, messages);
+		assertThat(messages).hasSize(100).startsWith(message(1)).endsWith(message(100));
+		assertThat(store.getSegmentCount()).isGreaterThan(1);
+	}
+
+	@Test
+	public void shouldStoreMessageLargerThanSegment() throws IOException {
+		// Given
+		char[] body = new char[4096];
+		Arrays.fill(body, 'A');
+		String largeMessage = new String(body);
+
+		// When
+		store.set(1, message(1));
+		store.set(2, largeMessage);
+		store.set(3, message(3));
+
+		// Then
+		List<String> messages = new ArrayList<>();
+		store.get(1, 3, messages);
+		assertThat(messages).containsExactly(message(1), largeMessage, message(3));
+	}
+
+	@Test
+	public void shouldRecoverMessagesAndSequenceNumbersAfterCrash() throws IOException {
+		// Given
+		for (int i = 1; i <= 50; i++) {
+			store.set(i, message(i));
+			store.incrNextSenderMsgSeqNum();
+		}
+		store.setNextTargetMsgSeqNum(42);
+		long creationTime = store.getCreationTime().getTime();
+
+		// When the process dies without closing the store
+		MappedFileStore recovered = open(1024);
+
+		// Then
+		try (recovered) {
+			List<String> messages = new ArrayList<>();
+			recovered.get(1, 50, messages);
+			assertThat(messages).hasSize(50).startsWith(message(1)).endsWith(message(50));
+			assertThat(recovered.getNextSenderMsgSeqNum()).isEqualTo(51);
+			assertThat(recovered.getNextTargetMsgSeqNum()).isEqualTo(42);
+			assertThat(recovered.getCreationTime().getTime()).isEqualTo(creationTime);
+		}
+	}
+
+	@Test
+	public void shouldDiscardTornRecordOnRecovery() throws IOException {
+		// Given
+		store.set(1, message(1));
+		store.set(2, message(2));
+		long tornRecordOffset = store.getWrittenBytes();
+		store.set(3, message(3));
+
+		// When the process dies half way through writing the last record
+		corrupt(0, tornRecordOffset + 20);
+		MappedFileStore recovered = open(1024);
+
+		// Then
+		try (recovered) {
+			List<String> messages = new ArrayList<>();
+			recovered.get(1, 3, messages);
+			assertThat(messages).containsExactly(message(1), message(2));
+			assertThat(recovered.getWrittenBytes()).isEqualTo(tornRecordOffset);
+
+			recovered.set(3, message(3));
+			messages.clear();
+			recovered.get(1, 3, messages);
+			assertThat(messages).containsExactly(message(1), message(2), message(3));
+		}
+	}
+
+	@Test
+	public void shouldDiscardRecordWithIncompleteLengthOnRecovery() throws IOException {
+		// Given
+		store.set(1, message(1));
+		long tornRecordOffset = store.getWrittenBytes();
+		store.set(2, message(2));
+
+		// When the length of the last record points past the end of the segment
+		try (RandomAccessFile file = new RandomAccessFile(segmentFile(0), "rw")) {
+			file.seek(tornRecordOffset);
+			file.writeInt(Integer.MAX_VALUE);
+		}
+		MappedFileStore recovered = open(1024);
+
+		// Then
+		try (recovered) {
+			List<String> messages = new ArrayList<>();
+			recovered.get(1, 2, messages);
+			assertThat(messages).containsExactly(message(1));
+		}
+	}
+
+	@Test
+	public void shouldResetMessagesAndSequenceNumbers() throws IOException {
+		// Given
+		for (int i = 1; i <= 100; i++) {
+			store.set(i, message(i));
+		}
+		store.setNextSenderMsgSeqNum(101);
+		store.setNextTargetMsgSeqNum(50);
+
+		// When
+		store.reset();
+		store.set(1, message(1));
+
+		// Then
+		List<String> messages = new ArrayList<>();
+		store.get(1, 100, messages);
+		assertThat(messages).containsExactly(message(1));
+		assertThat(store.getNextSenderMsgSeqNum()).isEqualTo(1);
+		assertThat(store.getNextTargetMsgSeqNum()).isEqualTo(1);
+
+		try (MappedFileStore recovered = open(1024)) {
+			messages.clear();
+			recovered.get(1, 100, messages);
+			assertThat(messages).containsExactly(message(1));
+		}
+	}
+
+	/**
+	 * Compares the latency of storing a message and incrementing the sender sequence number, as done by the session
+	 * on every outbound message, against the file stores of QuickFIX/J. Run with {@code -Dquickfixj.store.benchmark=true}.
+	 */
+	@Test
+	public void shouldStreamMessagesInChunks() throws IOException {
+		// Given
+		for (int i = 1; i <= 25; i++) {
+			store.set(i, message(i));
+		}
+
+		// When
+		List<List<String>> chunks = new ArrayList<>();
+		store.get(3, 30, 10, chunk -> chunks.add(new ArrayList<>(chunk)));
+
+		// Then
+		assertThat(chunks).extracting(List::size).containsExactly(10, 10, 3);
+		assertThat(chunks.get(0)).startsWith(message(3));
+		assertThat(chunks.get(2)).containsExactly(message(23), message(24), message(25));
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "quickfixj.store.benchmark", matches = "true")
+	public void shouldCompareLatencyWithFileStores() throws Exception {
+		String message = message(1).repeat(4);
+
+		for (MessageStoreFactory factory : List.of(
+				new FileStoreFactory(settings("file")),
+				new CachedFileStoreFactory(settings("cachedfile")),
+				new MappedFileStoreFactory(settings("mmap")))) {
+			MessageStore messageStore = factory.create(sessionID);
+			long[] latencies = new long[50_000];
+			for (int i = 0; i < latencies.length; i++) {
+				long start = System.nanoTime();
+				messageStore.set(i + 1, message);
+				messageStore.incrNextSenderMsgSeqNum();
+				latencies[i] = System.nanoTime() - start;
+			}
+			if (messageStore instanceof Closeable closeable) {
+				closeable.close();
+			}
+			Arrays.sort(latencies);
+			log.info("{}: p50={}ns p99={}ns p99.9={}ns", factory.getClass().getSimpleName(),
+					latencies[latencies.length / 2], latencies[latencies.length * 99 / 100], latencies[latencies.length * 999 / 1000]);
+		}
+	}
+
+	private SessionSettings settings(String name) {
+		SessionSettings settings = new SessionSettings();
+		settings.setString(sessionID, FileStoreFactory.SETTING_FILE_STORE_PATH, directory.resolve(name).toString());
+		return settings;
+	}
+
+	private MappedFileStore open(int segmentSize) throws IOException {
+		return new MappedFileStore(sessionID, directory.toFile(), segmentSize, false);
+	}
+
+	private File segmentFile(int number) {
+		return directory.resolve("FIX.4.4-Sender-Target.body." + number).toFile();
+	}
+
+	private void corrupt(int segment, long position) throws IOException {
+		try (RandomAccessFile file = new RandomAccessFile(segmentFile(segment), "rw")) {
+			file.seek(position);
+			file.write(new byte[]{'X', 'X', 'X', 'X'});
+		}
+	}
+
+	private static String message(int sequence) {
+		return "8=FIX.4.4\u00019=20\u000135=0\u000134=" + sequence + "\u000149=Sender\u000156=Target\u000110=000\u0001";
+	}
+}
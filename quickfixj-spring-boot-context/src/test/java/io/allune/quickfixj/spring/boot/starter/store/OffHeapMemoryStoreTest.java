@@ -0,0 +1,162 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import org.junit.jupiter.api.Test;
+import quickfix.SessionID;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class OffHeapMemoryStoreTest {
+
+	private final SessionID sessionID = new SessionID("FIX.4.4", "Sender", "Target");
+
+	@Test
+	public void shouldStoreAndRetrieveMessages() throws IOException {
+		// Given
+		OffHeapMemoryStore store = new OffHeapMemoryStore(sessionID, 1024, 0, 0);
+		for (int i = 1; i <= 100; i++) {
+			store.set(i, message(i));
+		}
+
+		// When
+		List<String> messages = new ArrayList<>();
+		store.get(10, 12, messages);
+
+		// Then
+		assertThat(messages).containsExactly(message(10), message(11), message(12));
+		assertThat(store.getRetainedCount()).isEqualTo(100);
+		assertThat(store.getReservedBytes()).isGreaterThan(1024);
+	}
+
+	@Test
+	public void shouldEvictOldestMessagesGivenMaxMessages() throws IOException {
+		// Given
+		OffHeapMemoryStore store = new OffHeapMemoryStore(sessionID, 1024, 10, 0);
+
+		// When
+		for (int i = 1; i <= 100; i++) {
+			store.set(i, message(i));
+		}
+
+		// Then
+		List<String> messages = new ArrayList<>();
+		store.get(1, 100, messages);
+		assertThat(messages).hasSize(10).startsWith(message(91)).endsWith(message(100));
+		assertThat(store.getEvictedCount()).isEqualTo(90);
+		assertThat(store.getReservedBytes()).isLessThanOrEqualTo(3 * 1024);
+	}
+
+	@Test
+	public void shouldEvictOldestMessagesGivenMaxBytes() throws IOException {
+		// Given
+		int recordSize = message(100).length() + 4;
+		OffHeapMemoryStore store = new OffHeapMemoryStore(sessionID, 1024, 0, 5L * recordSize);
+
+		// When
+		for (int i = 100; i < 200; i++) {
+			store.set(i, message(i));
+		}
+
+		// Then
+		List<String> messages = new ArrayList<>();
+		store.get(100, 199, messages);
+		assertThat(messages).containsExactly(message(195), message(196), message(197), message(198), message(199));
+		assertThat(store.getRetainedBytes()).isEqualTo(5L * recordSize);
+	}
+
+	@Test
+	public void shouldStoreMessageLargerThanSlab() throws IOException {
+		// Given
+		OffHeapMemoryStore store = new OffHeapMemoryStore(sessionID, 64, 0, 0);
+		String largeMessage = "A".repeat(1000);
+
+		// When
+		store.set(1, message(1));
+		store.set(2, largeMessage);
+		store.set(3, message(3));
+
+		// Then
+		List<String> messages = new ArrayList<>();
+		store.get(1, 3, messages);
+		assertThat(messages).containsExactly(message(1), largeMessage, message(3));
+	}
+
+	@Test
+	public void shouldRetrieveMessagesStoredOutOfOrder() throws IOException {
+		// Given
+		OffHeapMemoryStore store = new OffHeapMemoryStore(sessionID, 1024, 0, 0);
+		store.set(5, message(5));
+		store.set(3, message(3));
+		store.set(4, message(4));
+
+		// When
+		List<String> messages = new ArrayList<>();
+		store.get(1, Integer.MAX_VALUE, messages);
+
+		// Then
+		assertThat(messages).containsExactly(message(3), message(4), message(5));
+	}
+
+	@Test
+	public void shouldResetMessagesAndSequenceNumbers() throws IOException {
+		// Given
+		OffHeapMemoryStore store = new OffHeapMemoryStore(sessionID, 1024, 0, 0);
+		for (int i = 1; i <= 100; i++) {
+			store.set(i, message(i));
+		}
+		store.setNextSenderMsgSeqNum(101);
+
+		// When
+		store.reset();
+		store.set(1, message(1));
+
+		// Then
+		List<String> messages = new ArrayList<>();
+		store.get(1, 100, messages);
+		assertThat(messages).containsExactly(message(1));
+		assertThat(store.getNextSenderMsgSeqNum()).isEqualTo(1);
+		assertThat(store.getReservedBytes()).isEqualTo(1024);
+	}
+
+	@Test
+	public void shouldStreamMessagesStoredOutOfOrderInChunks() throws IOException {
+		// Given
+		OffHeapMemoryStore store = new OffHeapMemoryStore(sessionID, 1024, 0, 0);
+		store.set(5, message(5));
+		store.set(3, message(3));
+		store.set(4, message(4));
+		store.set(1, message(1));
+
+		// When
+		List<List<String>> chunks = new ArrayList<>();
+		store.get(1, Integer.MAX_VALUE, 2, chunk -> chunks.add(new ArrayList<>(chunk)));
+
+		// Then
+		assertThat(chunks).containsExactly(List.of(message(1), message(3)), List.of(message(4), message(5)));
+	}
+
+	private static String message(int sequence) {
+		return "8=FIX.4.4\u00019=20\u000135=0\u000134=" + sequence + "\u000149=Sender\u000156=Target\u000110=000\u0001";
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import io.allune.quickfixj.spring.boot.starter.exception.SessionNotFoundException;
+import org.junit.jupiter.api.Test;
+import quickfix.MemoryStore;
+import quickfix.MessageStore;
+import quickfix.SessionID;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class ResendStreamTest {
+
+	private final SessionID sessionID = new SessionID("FIX.4.4", "Sender", "Target");
+
+	@Test
+	public void shouldStreamChunkedMessageStore() throws IOException {
+		// Given
+		OffHeapMemoryStore store = new OffHeapMemoryStore(sessionID, 1024, 0, 0);
+		fill(store, 25);
+		ResendStream resendStream = new ResendStream(10, 0);
+
+		// When
+		List<List<String>> chunks = new ArrayList<>();
+		resendStream.stream(store, 1, Integer.MAX_VALUE, chunk -> chunks.add(new ArrayList<>(chunk)));
+
+		// Then
+		assertThat(chunks).extracting(List::size).containsExactly(10, 10, 5);
+		assertThat(chunks.get(2)).endsWith(message(25));
+	}
+
+	@Test
+	public void shouldStreamOtherMessageStoreInSubRanges() throws IOException {
+		// Given
+		MessageStore store = new MemoryStore(sessionID);
+		fill(store, 25);
+		ResendStream resendStream = new ResendStream(10, 0);
+
+		// When
+		List<List<String>> chunks = new ArrayList<>();
+		resendStream.stream(store, 6, Integer.MAX_VALUE, chunk -> chunks.add(new ArrayList<>(chunk)));
+
+		// Then
+		assertThat(chunks).extracting(List::size).containsExactly(10, 10);
+		assertThat(chunks.get(0)).startsWith(message(6));
+		assertThat(chunks.get(1)).endsWith(message(25));
+	}
+
+	@Test
+	public void shouldPaceChunksGivenRate() throws IOException {
+		// Given
+		MessageStore store = new MemoryStore(sessionID);
+		fill(store, 300);
+		ResendStream resendStream = new ResendStream(100, 1000);
+
+		// When
+		List<Long> chunkNanos = new ArrayList<>();
+		long startNanos = System.nanoTime();
+		resendStream.stream(store, 1, 300, chunk -> chunkNanos.add(System.nanoTime() - startNanos));
+
+		// Then
+		assertThat(chunkNanos).hasSize(3);
+		assertThat(chunkNanos.get(2)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+	}
+
+	@Test
+	public void shouldThrowSessionNotFoundExceptionGivenUnknownSession() {
+		// Given
+		ResendStream resendStream = new ResendStream(10, 0);
+		SessionID unknownSessionID = new SessionID("FIX.4.4", "Sender", "Unknown");
+
+		// When / Then
+		assertThatExceptionOfType(SessionNotFoundException.class)
+				.isThrownBy(() -> resendStream.stream(unknownSessionID, 1, 10, chunk -> {
+				}));
+	}
+
+	@Test
+	public void shouldRejectInvalidChunkSize() {
+		// When / Then
+		assertThatIllegalArgumentException().isThrownBy(() -> new ResendStream(0, 0));
+	}
+
+	private static void fill(MessageStore store, int count) throws IOException {
+		for (int i = 1; i <= count; i++) {
+			store.set(i, message(i));
+		}
+		store.setNextSenderMsgSeqNum(count + 1);
+	}
+
+	private static String message(int sequence) {
+		return "8=FIX.4.4\u00019=20\u000135=0\u000134=" + sequence + "\u000149=Sender\u000156=Target\u000110=000\u0001";
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class SequenceIndexTest {
+
+	private final SequenceIndex index = new SequenceIndex();
+
+	@Test
+	public void shouldReturnAbsentGivenEmptyIndex() {
+		// When/Then
+		assertThat(index.get(1)).isEqualTo(SequenceIndex.ABSENT);
+		assertThat(index.getMaxSequence()).isZero();
+	}
+
+	@Test
+	public void shouldIndexLocationsBySequence() {
+		// Given
+		index.put(5, 0L);
+		index.put(6, 100L);
+		index.put(8, 300L);
+
+		// When/Then
+		assertThat(index.get(4)).isEqualTo(SequenceIndex.ABSENT);
+		assertThat(index.get(5)).isZero();
+		assertThat(index.get(6)).isEqualTo(100L);
+		assertThat(index.get(7)).isEqualTo(SequenceIndex.ABSENT);
+		assertThat(index.get(8)).isEqualTo(300L);
+		assertThat(index.get(9)).isEqualTo(SequenceIndex.ABSENT);
+		assertThat(index.getMaxSequence()).isEqualTo(8);
+	}
+
+	@Test
+	public void shouldReplaceLocationGivenSequenceIndexedAgain() {
+		// Given
+		index.put(1, 10L);
+
+		// When
+		index.put(1, 20L);
+
+		// Then
+		assertThat(index.get(1)).isEqualTo(20L);
+	}
+
+	@Test
+	public void shouldGrowGivenSequencesBeyondCapacity() {
+		// Given
+		int count = 10_000;
+
+		// When
+		for (int sequence = 1; sequence <= count; sequence++) {
+			index.put(sequence, sequence * 10L);
+		}
+
+		// Then
+		assertThat(index.get(1)).isEqualTo(10L);
+		assertThat(index.get(count)).isEqualTo(count * 10L);
+		assertThat(index.getMaxSequence()).isEqualTo(count);
+	}
+
+	@Test
+	public void shouldKeepLocationsGivenLowerSequenceIndexed() {
+		// Given
+		index.put(100, 1000L);
+		index.put(101, 1010L);
+
+		// When
+		index.put(3, 30L);
+
+		// Then
+		assertThat(index.get(3)).isEqualTo(30L);
+		assertThat(index.get(4)).isEqualTo(SequenceIndex.ABSENT);
+		assertThat(index.get(100)).isEqualTo(1000L);
+		assertThat(index.get(101)).isEqualTo(1010L);
+		assertThat(index.getMaxSequence()).isEqualTo(101);
+	}
+
+	@Test
+	public void shouldRemoveAllLocationsGivenCleared() {
+		// Given
+		index.put(1, 10L);
+		index.put(2, 20L);
+
+		// When
+		index.clear();
+		index.put(7, 70L);
+
+		// Then
+		assertThat(index.get(1)).isEqualTo(SequenceIndex.ABSENT);
+		assertThat(index.get(2)).isEqualTo(SequenceIndex.ABSENT);
+		assertThat(index.get(7)).isEqualTo(70L);
+		assertThat(index.getMaxSequence()).isEqualTo(7);
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import quickfix.FileStoreFactory;
+import quickfix.SessionID;
+import quickfix.SessionSettings;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class TieredMessageStoreTest {
+
+	private final SessionID sessionID = new SessionID("FIX.4.4", "Sender", "Target");
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void shouldSpillOldestMessagesToColdTier() throws IOException {
+		// Given
+		TieredMessageStoreFactory factory = new TieredMessageStoreFactory(settings(100, 25));
+
+		// When
+		try (TieredMessageStore store = (TieredMessageStore) factory.create(sessionID)) {
+			for (int i = 1; i <= 1000; i++) {
+				store.set(i, message(i));
+			}
+
+			// Then
+			assertThat(store.getHotCount()).isLessThanOrEqualTo(100);
+			assertThat(store.getColdBlockCount()).isEqualTo((1000 - store.getHotCount()) / 25);
+			assertThat(store.getColdBytes()).isLessThan(900L * message(1000).length());
+		}
+	}
+
+	@Test
+	public void shouldServeRangeAcrossBothTiers() throws IOException {
+		// Given
+		TieredMessageStoreFactory factory = new TieredMessageStoreFactory(settings(100, 25));
+		try (TieredMessageStore store = (TieredMessageStore) factory.create(sessionID)) {
+			for (int i = 1; i <= 1000; i++) {
+				store.set(i, message(i));
+			}
+
+			// When
+			List<String> messages = new ArrayList<>();
+			store.get(880, 1000, messages);
+
+			// Then
+			assertThat(messages).hasSize(121).startsWith(message(880)).endsWith(message(1000));
+			for (int i = 0; i < messages.size(); i++) {
+				assertThat(messages.get(i)).isEqualTo(message(880 + i));
+			}
+			assertThat(factory.getRequestedCount()).isEqualTo(121);
+			assertThat(factory.getHotHitCount()).isEqualTo(store.getHotCount());
+			assertThat(factory.getColdHitCount()).isEqualTo(121 - store.getHotCount());
+		}
+	}
+
+	@Test
+	public void shouldServeWholeSessionFromColdTier() throws IOException {
+		// Given
+		TieredMessageStoreFactory factory = new TieredMessageStoreFactory(settings(100, 25));
+		try (TieredMessageStore store = (TieredMessageStore) factory.create(sessionID)) {
+			for (int i = 1; i <= 1000; i++) {
+				store.set(i, message(i));
+			}
+
+			// When
+			List<String> messages = new ArrayList<>();
+			store.get(1, Integer.MAX_VALUE, messages);
+
+			// Then
+			assertThat(messages).hasSize(1000).startsWith(message(1)).endsWith(message(1000));
+			assertThat(factory.getRequestedCount()).isEqualTo(1000);
+		}
+	}
+
+	@Test
+	public void shouldResetBothTiers() throws IOException {
+		// Given
+		TieredMessageStoreFactory factory = new TieredMessageStoreFactory(settings(100, 25));
+		try (TieredMessageStore store = (TieredMessageStore) factory.create(sessionID)) {
+			for (int i = 1; i <= 1000; i++) {
+				store.set(i, message(i));
+			}
+			store.setNextSenderMsgSeqNum(1001);
+
+			// When
+			store.reset();
+			store.set(1, message(1));
+
+			// Then
+			List<String> messages = new ArrayList<>();
+			store.get(1, 1000, messages);
+			assertThat(messages).containsExactly(message(1));
+			assertThat(store.getColdBlockCount()).isZero();
+			assertThat(store.getColdBytes()).isZero();
+			assertThat(store.getNextSenderMsgSeqNum()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void shouldStreamRangeAcrossBothTiersInChunks() throws IOException {
+		// Given
+		TieredMessageStoreFactory factory = new TieredMessageStoreFactory(settings(100, 25));
+		try (TieredMessageStore store = (TieredMessageStore) factory.create(sessionID)) {
+			for (int i = 1; i <= 1000; i++) {
+				store.set(i, message(i));
+			}
+
+			// When
+			List<String> messages = new ArrayList<>();
+			List<Integer> chunkSizes = new ArrayList<>();
+			store.get(850, 1000, 40, chunk -> {
+				chunkSizes.add(chunk.size());
+				messages.addAll(chunk);
+			});
+
+			// Then
+			assertThat(chunkSizes).containsExactly(40, 40, 40, 31);
+			for (int i = 0; i < messages.size(); i++) {
+				assertThat(messages.get(i)).isEqualTo(message(850 + i));
+			}
+			assertThat(factory.getRequestedCount()).isEqualTo(151);
+			assertThat(factory.getHotHitCount() + factory.getColdHitCount()).isEqualTo(151);
+		}
+	}
+
+	private SessionSettings settings(int hotMessages, int spillBlockSize) {
+		SessionSettings settings = new SessionSettings();
+		settings.setString(sessionID, FileStoreFactory.SETTING_FILE_STORE_PATH, directory.toString());
+		settings.setLong(TieredMessageStoreFactory.SETTING_TIERED_STORE_HOT_MESSAGES, hotMessages);
+		settings.setLong(TieredMessageStoreFactory.SETTING_TIERED_STORE_SPILL_BLOCK_SIZE, spillBlockSize);
+		return settings;
+	}
+
+	private static String message(int sequence) {
+		return "8=FIX.4.4\u00019=20\u000135=0\u000134=" + sequence + "\u000149=Sender\u000156=Target\u000110=000\u0001";
+	}
+}
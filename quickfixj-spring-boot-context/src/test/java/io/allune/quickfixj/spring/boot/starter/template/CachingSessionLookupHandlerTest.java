@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import io.allune.quickfixj.spring.boot.starter.model.Create;
+import io.allune.quickfixj.spring.boot.starter.model.Logout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import quickfix.Session;
+import quickfix.SessionID;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+@ExtendWith(MockitoExtension.class)
+public class CachingSessionLookupHandlerTest {
+
+	@Mock
+	private SessionLookupHandler delegate;
+
+	@Mock
+	private Session session;
+
+	private CachingSessionLookupHandler cachingSessionLookupHandler;
+
+	private SessionID sessionID;
+
+	@BeforeEach
+	public void setUp() {
+		sessionID = new SessionID("FIX.4.4", "Sender", "Target", "Qualifier");
+		cachingSessionLookupHandler = new CachingSessionLookupHandler(delegate);
+	}
+
+	@Test
+	public void shouldDelegateLookupGivenSessionID() {
+		// Given
+		given(delegate.lookupBySessionID(sessionID)).willReturn(session);
+
+		// When
+		Session first = cachingSessionLookupHandler.lookupBySessionID(sessionID);
+		Session second = cachingSessionLookupHandler.lookupBySessionID(new SessionID("FIX.4.4", "Sender", "Target", "Qualifier"));
+
+		// Then
+		assertThat(first).isSameAs(session);
+		assertThat(second).isSameAs(session);
+		verify(delegate, times(2)).lookupBySessionID(sessionID);
+	}
+
+	@Test
+	public void shouldLookupSessionOnlyOnceGivenHeaderFields() {
+		// Given
+		given(delegate.lookupBySessionID(sessionID)).willReturn(session);
+
+		// When
+		Session first = cachingSessionLookupHandler.lookupSession("FIX.4.4", "Sender", "Target", "Qualifier");
+		Session second = cachingSessionLookupHandler.lookupSession("FIX.4.4", "Sender", "Target", "Qualifier");
+
+		// Then
+		assertThat(first).isSameAs(session);
+		assertThat(second).isSameAs(session);
+		verify(delegate).lookupBySessionID(sessionID);
+	}
+
+	@Test
+	public void shouldNotCacheMissingSessions() {
+		// Given
+		given(delegate.lookupBySessionID(sessionID)).willReturn(null, session);
+
+		// When
+		Session first = cachingSessionLookupHandler.lookupSession("FIX.4.4", "Sender", "Target", "Qualifier");
+		Session second = cachingSessionLookupHandler.lookupSession("FIX.4.4", "Sender", "Target", "Qualifier");
+
+		// Then
+		assertThat(first).isNull();
+		assertThat(second).isSameAs(session);
+		verify(delegate, times(2)).lookupBySessionID(sessionID);
+	}
+
+	@Test
+	public void shouldEvictSessionGivenSessionCreated() {
+		// Given
+		given(delegate.lookupBySessionID(sessionID)).willReturn(session);
+		cachingSessionLookupHandler.lookupSession("FIX.4.4", "Sender", "Target", "Qualifier");
+
+		// When
+		cachingSessionLookupHandler.onCreate(Create.of(sessionID));
+		cachingSessionLookupHandler.lookupSession("FIX.4.4", "Sender", "Target", "Qualifier");
+
+		// Then
+		verify(delegate, times(2)).lookupBySessionID(sessionID);
+	}
+
+	@Test
+	public void shouldEvictAllSessionsGivenContextStopped() {
+		// Given
+		given(delegate.lookupBySessionID(sessionID)).willReturn(session);
+		cachingSessionLookupHandler.lookupSession("FIX.4.4", "Sender", "Target", "Qualifier");
+
+		// When
+		cachingSessionLookupHandler.onContextStopped();
+		cachingSessionLookupHandler.lookupSession("FIX.4.4", "Sender", "Target", "Qualifier");
+
+		// Then
+		verify(delegate, times(2)).lookupBySessionID(sessionID);
+	}
+
+	@Test
+	public void shouldEvictSessionGivenSessionLoggedOut() {
+		// Given
+		given(delegate.lookupBySessionID(sessionID)).willReturn(session, (Session) null);
+		cachingSessionLookupHandler.lookupSession("FIX.4.4", "Sender", "Target", "Qualifier");
+
+		// When
+		cachingSessionLookupHandler.onLogout(Logout.of(sessionID));
+		Session lookedUp = cachingSessionLookupHandler.lookupSession("FIX.4.4", "Sender", "Target", "Qualifier");
+
+		// Then
+		assertThat(lookedUp).isNull();
+		verify(delegate, times(2)).lookupBySessionID(sessionID);
+	}
+
+	@Test
+	public void shouldNotAllocateGivenCachedSession() {
+		// Given
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled());
+		given(delegate.lookupBySessionID(sessionID)).willReturn(session);
+		int lookups = 100_000;
+		for (int i = 0; i < lookups; i++) {
+			cachingSessionLookupHandler.lookupSession("FIX.4.4", "Sender", "Target", "Qualifier");
+		}
+
+		// When
+		long threadId = Thread.currentThread().getId();
+		long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < lookups; i++) {
+			cachingSessionLookupHandler.lookupSession("FIX.4.4", "Sender", "Target", "Qualifier");
+		}
+		long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+		// Then
+		assertThat(allocated).isLessThan(lookups);
+		verify(delegate).lookupBySessionID(sessionID);
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import io.allune.quickfixj.spring.boot.starter.exception.AmbiguousSessionException;
+import io.allune.quickfixj.spring.boot.starter.model.Create;
+import io.allune.quickfixj.spring.boot.starter.model.Logout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import quickfix.Session;
+import quickfix.SessionID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+@ExtendWith(MockitoExtension.class)
+public class IndexedSessionLookupHandlerTest {
+
+	private final SessionID firstSessionID = new SessionID("FIX.4.4", "Sender", "Target", "First");
+
+	private final SessionID secondSessionID = new SessionID("FIX.4.4", "Sender", "Target", "Second");
+
+	private final SessionID otherSessionID = new SessionID("FIX.4.2", "Sender", "Other");
+
+	@Mock
+	private SessionLookupHandler delegate;
+
+	@Mock
+	private Session session;
+
+	private IndexedSessionLookupHandler indexedSessionLookupHandler;
+
+	@BeforeEach
+	public void setUp() {
+		indexedSessionLookupHandler = new IndexedSessionLookupHandler(delegate);
+		indexedSessionLookupHandler.onCreate(Create.of(firstSessionID));
+		indexedSessionLookupHandler.onCreate(Create.of(secondSessionID));
+		indexedSessionLookupHandler.onCreate(Create.of(otherSessionID));
+	}
+
+	@Test
+	public void shouldIndexSessionsByPartialIdentifiers() {
+		assertThat(indexedSessionLookupHandler.findByTargetCompID("Target")).containsExactlyInAnyOrder(firstSessionID, secondSessionID);
+		assertThat(indexedSessionLookupHandler.findBySenderAndTargetCompID("Sender", "Other")).containsExactly(otherSessionID);
+		assertThat(indexedSessionLookupHandler.findByQualifier("Second")).containsExactly(secondSessionID);
+		assertThat(indexedSessionLookupHandler.findByTargetCompID("Unknown")).isEmpty();
+	}
+
+	@Test
+	public void shouldLookupSessionByTargetCompID() {
+		// Given
+		given(delegate.lookupBySessionID(otherSessionID)).willReturn(session);
+
+		// When
+		Session found = indexedSessionLookupHandler.lookupByTargetCompID("Other");
+
+		// Then
+		assertThat(found).isSameAs(session);
+		assertThat(indexedSessionLookupHandler.lookupByTargetCompID("Unknown")).isNull();
+	}
+
+	@Test
+	public void shouldThrowAmbiguousSessionExceptionGivenSeveralSessionsWithTargetCompID() {
+		assertThatExceptionOfType(AmbiguousSessionException.class)
+				.isThrownBy(() -> indexedSessionLookupHandler.lookupByTargetCompID("Target"));
+	}
+
+	@Test
+	public void shouldRemoveUnregisteredSessionFromIndexesGivenLogout() {
+		// Given
+		given(delegate.lookupBySessionID(secondSessionID)).willReturn(null);
+
+		// When
+		indexedSessionLookupHandler.onLogout(Logout.of(secondSessionID));
+
+		// Then
+		assertThat(indexedSessionLookupHandler.findByTargetCompID("Target")).containsExactly(firstSessionID);
+		assertThat(indexedSessionLookupHandler.findByQualifier("Second")).isEmpty();
+	}
+
+	@Test
+	public void shouldKeepRegisteredSessionInIndexesGivenLogout() {
+		// Given
+		given(delegate.lookupBySessionID(secondSessionID)).willReturn(session);
+
+		// When
+		indexedSessionLookupHandler.onLogout(Logout.of(secondSessionID));
+
+		// Then
+		assertThat(indexedSessionLookupHandler.findByQualifier("Second")).containsExactly(secondSessionID);
+	}
+
+	@Test
+	public void shouldClearIndexesGivenContextStopped() {
+		// When
+		indexedSessionLookupHandler.onContextStopped();
+
+		// Then
+		assertThat(indexedSessionLookupHandler.findByTargetCompID("Target")).isEmpty();
+		assertThat(indexedSessionLookupHandler.findBySenderAndTargetCompID("Sender", "Other")).isEmpty();
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import quickfix.ConfigError;
+import quickfix.DataDictionary;
+import quickfix.FieldException;
+import quickfix.Group;
+import quickfix.IncorrectTagValue;
+import quickfix.Message;
+import quickfix.SessionRejectReason;
+import quickfix.field.MsgType;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class PrecompiledMessageValidatorTest {
+
+	private static final String DICTIONARY = """
+			<fix type="FIX" major="4" minor="4" servicepack="0">
+			  <header>
+			    <field name="BeginString" required="Y"/>
+			    <field name="BodyLength" required="Y"/>
+			    <field name="MsgType" required="Y"/>
+			  </header>
+			  <messages>
+			    <message name="NewOrderSingle" msgtype="D" msgcat="app">
+			      <field name="ClOrdID" required="Y"/>
+			      <field name="Side" required="Y"/>
+			      <field name="Text" required="N"/>
+			      <group name="NoPartyIDs" required="N">
+			        <field name="PartyID" required="Y"/>
+			        <field name="PartyRole" required="N"/>
+			      </group>
+			    </message>
+			  </messages>
+			  <trailer>
+			    <field name="CheckSum" required="Y"/>
+			  </trailer>
+			  <components/>
+			  <fields>
+			    <field number="8" name="BeginString" type="STRING"/>
+			    <field number="9" name="BodyLength" type="LENGTH"/>
+			    <field number="10" name="CheckSum" type="STRING"/>
+			    <field number="11" name="ClOrdID" type="STRING"/>
+			    <field number="35" name="MsgType" type="STRING"/>
+			    <field number="54" name="Side" type="CHAR">
+			      <value enum="1" description="BUY"/>
+			      <value enum="2" description="SELL"/>
+			    </field>
+			    <field number="58" name="Text" type="STRING"/>
+			    <field number="448" name="PartyID" type="STRING"/>
+			    <field number="452" name="PartyRole" type="INT"/>
+			    <field number="453" name="NoPartyIDs" type="NUMINGROUP"/>
+			  </fields>
+			</fix>
+			""";
+
+	private PrecompiledMessageValidator validator;
+
+	@BeforeEach
+	public void setUp() throws ConfigError {
+		DataDictionary dataDictionary = new DataDictionary(new ByteArrayInputStream(DICTIONARY.getBytes(StandardCharsets.UTF_8)));
+		validator = new PrecompiledMessageValidator(dataDictionary);
+	}
+
+	@Test
+	public void shouldValidateMessage() {
+		// Given
+		Message message = newOrderSingle();
+		message.addGroup(newParty("Party"));
+
+		// When/Then
+		assertThatCode(() -> validator.validate(message)).doesNotThrowAnyException();
+	}
+
+	@Test
+	public void shouldThrowFieldExceptionGivenRequiredFieldMissing() {
+		// Given
+		Message message = newOrderSingle();
+		message.removeField(54);
+
+		// When/Then
+		assertThatExceptionOfType(FieldException.class)
+				.isThrownBy(() -> validator.validate(message))
+				.matches(e -> e.getField() == 54 && e.getSessionRejectReason() == SessionRejectReason.REQUIRED_TAG_MISSING);
+	}
+
+	@Test
+	public void shouldThrowFieldExceptionGivenFieldNotDefinedForMsgType() {
+		// Given
+		Message message = newOrderSingle();
+		message.setString(1, "Account");
+
+		// When/Then
+		assertThatExceptionOfType(FieldException.class)
+				.isThrownBy(() -> validator.validate(message))
+				.matches(e -> e.getField() == 1 && e.getSessionRejectReason() == SessionRejectReason.TAG_NOT_DEFINED_FOR_THIS_MESSAGE_TYPE);
+	}
+
+	@Test
+	public void shouldThrowIncorrectTagValueGivenValueNotEnumerated() {
+		// Given
+		Message message = newOrderSingle();
+		message.setString(54, "9");
+
+		// When/Then
+		assertThatExceptionOfType(IncorrectTagValue.class)
+				.isThrownBy(() -> validator.validate(message));
+	}
+
+	@Test
+	public void shouldThrowFieldExceptionGivenUnknownMsgType() {
+		// Given
+		Message message = newOrderSingle();
+		message.getHeader().setString(MsgType.FIELD, "F");
+
+		// When/Then
+		assertThatExceptionOfType(FieldException.class)
+				.isThrownBy(() -> validator.validate(message))
+				.matches(e -> e.getSessionRejectReason() == SessionRejectReason.INVALID_MSGTYPE);
+	}
+
+	@Test
+	public void shouldThrowFieldExceptionGivenRequiredGroupFieldMissing() {
+		// Given
+		Message message = newOrderSingle();
+		Group party = newParty("Party");
+		party.removeField(448);
+		party.setInt(452, 3);
+		message.addGroup(party);
+
+		// When/Then
+		assertThatExceptionOfType(FieldException.class)
+				.isThrownBy(() -> validator.validate(message))
+				.matches(e -> e.getField() == 448 && e.getSessionRejectReason() == SessionRejectReason.REQUIRED_TAG_MISSING);
+	}
+
+	private static Message newOrderSingle() {
+		Message message = new Message();
+		message.getHeader().setString(MsgType.FIELD, MsgType.ORDER_SINGLE);
+		message.setString(11, "ClOrdID");
+		message.setChar(54, '1');
+		return message;
+	}
+
+	private static Group newParty(String partyID) {
+		Group party = new Group(453, 448);
+		party.setString(448, partyID);
+		return party;
+	}
+}
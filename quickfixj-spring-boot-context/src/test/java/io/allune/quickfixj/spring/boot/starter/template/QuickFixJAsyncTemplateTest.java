@@ -0,0 +1,187 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import io.allune.quickfixj.spring.boot.starter.exception.FieldNotFoundException;
+import io.allune.quickfixj.spring.boot.starter.exception.SessionNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import quickfix.Message;
+import quickfix.SessionID;
+import quickfix.field.TargetCompID;
+import quickfix.field.Text;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class QuickFixJAsyncTemplateTest {
+
+	private final SessionID firstSessionID = new SessionID("FIX.4.4", "Sender", "Target1");
+
+	private final SessionID secondSessionID = new SessionID("FIX.4.4", "Sender", "Target2");
+
+	private QuickFixJTemplate quickFixJTemplate;
+
+	private ExecutorService executor;
+
+	private QuickFixJAsyncTemplate quickFixJAsyncTemplate;
+
+	@BeforeEach
+	public void setUp() {
+		quickFixJTemplate = mock(QuickFixJTemplate.class);
+		executor = Executors.newFixedThreadPool(4);
+		quickFixJAsyncTemplate = new QuickFixJAsyncTemplate(quickFixJTemplate, executor);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void shouldPreserveOrderingPerSession() throws Exception {
+		// Given
+		Map<SessionID, List<Message>> sentMessages = new ConcurrentHashMap<>();
+		given(quickFixJTemplate.send(any(Message.class), any(SessionID.class))).willAnswer(invocation -> {
+			sentMessages.computeIfAbsent(invocation.getArgument(1), id -> Collections.synchronizedList(new ArrayList<>()))
+					.add(invocation.getArgument(0));
+			return true;
+		});
+
+		List<Message> firstSessionMessages = new ArrayList<>();
+		List<Message> secondSessionMessages = new ArrayList<>();
+		List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+
+		// When
+		for (int i = 0; i < 500; i++) {
+			Message first = new Message();
+			Message second = new Message();
+			firstSessionMessages.add(first);
+			secondSessionMessages.add(second);
+			futures.add(quickFixJAsyncTemplate.sendAsync(first, firstSessionID));
+			futures.add(quickFixJAsyncTemplate.sendAsync(second, secondSessionID));
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+		// Then
+		assertThat(futures).allMatch(future -> future.join());
+		assertThat(sentMessages.get(firstSessionID)).containsExactlyElementsOf(firstSessionMessages);
+		assertThat(sentMessages.get(secondSessionID)).containsExactlyElementsOf(secondSessionMessages);
+		assertThat(quickFixJAsyncTemplate.getPendingCount(firstSessionID)).isZero();
+		assertThat(quickFixJAsyncTemplate.getPendingCount(secondSessionID)).isZero();
+	}
+
+	@Test
+	public void shouldResolveSessionIDOnCallerThread() throws Exception {
+		// Given
+		Message message = new Message();
+		given(quickFixJTemplate.resolveSessionID(message, "Sender", "Target1", null)).willReturn(firstSessionID);
+		given(quickFixJTemplate.send(message, firstSessionID)).willReturn(true);
+
+		// When
+		boolean sent = quickFixJAsyncTemplate.sendAsync(message, "Sender", "Target1").get(10, TimeUnit.SECONDS);
+
+		// Then
+		assertThat(sent).isTrue();
+		verify(quickFixJTemplate).send(message, firstSessionID);
+	}
+
+	@Test
+	public void shouldCompleteExceptionallyGivenSessionNotFound() {
+		// Given
+		Message message = new Message();
+		given(quickFixJTemplate.send(message, firstSessionID)).willThrow(new SessionNotFoundException("Session not found"));
+
+		// When
+		CompletableFuture<Boolean> future = quickFixJAsyncTemplate.sendAsync(message, firstSessionID);
+
+		// Then
+		assertThatExceptionOfType(ExecutionException.class)
+				.isThrownBy(() -> future.get(10, TimeUnit.SECONDS))
+				.withCauseInstanceOf(SessionNotFoundException.class);
+	}
+
+	@Test
+	public void shouldCompleteExceptionallyGivenMissingHeaderField() {
+		// Given
+		Message message = new Message();
+		given(quickFixJTemplate.resolveSessionID(message, null, null, null))
+				.willThrow(new FieldNotFoundException("Field with ID 8 not found in message", null));
+
+		// When
+		CompletableFuture<Boolean> future = quickFixJAsyncTemplate.sendAsync(message);
+
+		// Then
+		assertThat(future).isCompletedExceptionally();
+		verify(quickFixJTemplate, never()).send(eq(message), any(SessionID.class));
+	}
+
+	@Test
+	public void shouldBroadcastCopyOfMessageToEachSession() throws Exception {
+		// Given
+		SessionID unknownSessionID = new SessionID("FIX.4.4", "Sender", "Unknown");
+		Map<SessionID, Message> sentMessages = new ConcurrentHashMap<>();
+		given(quickFixJTemplate.send(any(Message.class), any(SessionID.class))).willAnswer(invocation -> {
+			SessionID sessionID = invocation.getArgument(1);
+			if (sessionID.equals(unknownSessionID)) {
+				throw new SessionNotFoundException("Session not found: " + sessionID);
+			}
+			sentMessages.put(sessionID, invocation.getArgument(0));
+			return true;
+		});
+		Message message = new Message();
+		message.setString(Text.FIELD, "News");
+
+		// When
+		BroadcastResult result = quickFixJAsyncTemplate
+				.broadcast(message, List.of(firstSessionID, secondSessionID, unknownSessionID))
+				.get(10, TimeUnit.SECONDS);
+
+		// Then
+		assertThat(result.getSentCount()).isEqualTo(2);
+		assertThat(result.isSent(firstSessionID)).isTrue();
+		assertThat(result.isSent(secondSessionID)).isTrue();
+		assertThat(result.getFailures()).containsOnlyKeys(unknownSessionID);
+		assertThat(result.getFailures().get(unknownSessionID)).isInstanceOf(SessionNotFoundException.class);
+		assertThat(result.getLatency()).isPositive();
+		assertThat(sentMessages.get(firstSessionID)).isNotSameAs(message);
+		assertThat(sentMessages.get(firstSessionID).getHeader().getString(TargetCompID.FIELD)).isEqualTo("Target1");
+		assertThat(sentMessages.get(secondSessionID).getHeader().getString(TargetCompID.FIELD)).isEqualTo("Target2");
+		assertThat(sentMessages.get(secondSessionID).getString(Text.FIELD)).isEqualTo("News");
+		assertThat(message.getHeader().isSetField(TargetCompID.FIELD)).isFalse();
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import quickfix.Message;
+import quickfix.field.Text;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class QuickFixJOperationsTest {
+
+	@Test
+	public void shouldSendAllMessagesOneAtATimeByDefault() {
+		// Given
+		QuickFixJOperations quickFixJOperations = mock(QuickFixJOperations.class, CALLS_REAL_METHODS);
+		Message first = new Message();
+		first.setString(Text.FIELD, "First");
+		Message second = new Message();
+		second.setString(Text.FIELD, "Second");
+		given(quickFixJOperations.send(first)).willReturn(true);
+		given(quickFixJOperations.send(second)).willReturn(false);
+
+		// When
+		boolean[] results = quickFixJOperations.sendAll(List.of(first, second));
+
+		// Then
+		assertThat(results).containsExactly(true, false);
+		InOrder inOrder = inOrder(quickFixJOperations);
+		inOrder.verify(quickFixJOperations).send(first);
+		inOrder.verify(quickFixJOperations).send(second);
+	}
+}
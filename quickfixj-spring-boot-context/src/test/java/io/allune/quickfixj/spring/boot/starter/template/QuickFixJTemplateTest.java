@@ -18,10 +18,12 @@ package io.allune.quickfixj.spring.boot.starter.template;
 import io.allune.quickfixj.spring.boot.starter.exception.FieldNotFoundException;
 import io.allune.quickfixj.spring.boot.starter.exception.MessageValidationException;
 import io.allune.quickfixj.spring.boot.starter.exception.SessionNotFoundException;
+import io.allune.quickfixj.spring.boot.starter.model.Create;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import quickfix.DataDictionary;
@@ -37,6 +39,8 @@ import quickfix.field.BeginString;
 import quickfix.field.SenderCompID;
 import quickfix.field.TargetCompID;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -44,8 +48,10 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 
@@ -345,6 +351,7 @@ public class QuickFixJTemplateTest {
 		// Given
 		Message.Header header = mock(Message.Header.class);
 		given(message.getHeader()).willReturn(header);
+		given(header.isSetField(ApplVerID.FIELD)).willReturn(true);
 		given(header.getString(ApplVerID.FIELD)).willReturn(ApplVerID.FIX43);
 		given(header.getString(SenderCompID.FIELD)).willReturn(expectedSender);
 		given(header.getString(TargetCompID.FIELD)).willReturn(expectedTarget);
@@ -362,6 +369,335 @@ public class QuickFixJTemplateTest {
 		verify(applicationDataDictionary).validate(any(), any(Boolean.class));
 	}
 
+	@Test
+	public void shouldNotReadApplVerIDGivenItIsNotSetInHeader() throws FieldNotFound, IncorrectTagValue, IncorrectDataFormat {
+		// Given
+		Message.Header header = mock(Message.Header.class);
+		given(message.getHeader()).willReturn(header);
+		given(header.getString(SenderCompID.FIELD)).willReturn(expectedSender);
+		given(header.getString(TargetCompID.FIELD)).willReturn(expectedTarget);
+		given(header.getString(BeginString.FIELD)).willReturn(expectedBeginString);
+		given(sessionLookupHandler.lookupBySessionID(any())).willReturn(session);
+		given(session.getDataDictionaryProvider()).willReturn(dataDictionaryProvider);
+		given(dataDictionaryProvider.getApplicationDataDictionary(new ApplVerID(ApplVerID.FIX41))).willReturn(applicationDataDictionary);
+
+		// When
+		quickFixJTemplate.send(message);
+
+		// Then
+		verify(header, never()).getString(ApplVerID.FIELD);
+		verify(applicationDataDictionary).validate(message, true);
+	}
+
+	@Test
+	public void shouldCacheApplicationDataDictionaryPerSession() throws FieldNotFound, IncorrectTagValue, IncorrectDataFormat {
+		// Given
+		Message.Header header = mock(Message.Header.class);
+		given(message.getHeader()).willReturn(header);
+		given(header.getString(SenderCompID.FIELD)).willReturn(expectedSender);
+		given(header.getString(TargetCompID.FIELD)).willReturn(expectedTarget);
+		given(header.getString(BeginString.FIELD)).willReturn(expectedBeginString);
+		given(sessionLookupHandler.lookupBySessionID(any())).willReturn(session);
+		given(session.getDataDictionaryProvider()).willReturn(dataDictionaryProvider);
+		given(dataDictionaryProvider.getApplicationDataDictionary(any())).willReturn(applicationDataDictionary);
+
+		// When
+		quickFixJTemplate.send(message);
+		quickFixJTemplate.send(message);
+
+		// Then
+		verify(dataDictionaryProvider).getApplicationDataDictionary(any());
+		verify(applicationDataDictionary, times(2)).validate(message, true);
+	}
+
+	@Test
+	public void shouldReloadApplicationDataDictionaryGivenDataDictionaryProviderChanged() throws FieldNotFound {
+		// Given
+		DataDictionaryProvider newDataDictionaryProvider = mock(DataDictionaryProvider.class);
+		Message.Header header = mock(Message.Header.class);
+		given(message.getHeader()).willReturn(header);
+		given(header.getString(SenderCompID.FIELD)).willReturn(expectedSender);
+		given(header.getString(TargetCompID.FIELD)).willReturn(expectedTarget);
+		given(header.getString(BeginString.FIELD)).willReturn(expectedBeginString);
+		given(sessionLookupHandler.lookupBySessionID(any())).willReturn(session);
+		given(session.getDataDictionaryProvider()).willReturn(dataDictionaryProvider, newDataDictionaryProvider);
+		given(dataDictionaryProvider.getApplicationDataDictionary(any())).willReturn(applicationDataDictionary);
+		given(newDataDictionaryProvider.getApplicationDataDictionary(any())).willReturn(applicationDataDictionary);
+
+		// When
+		quickFixJTemplate.send(message);
+		quickFixJTemplate.send(message);
+
+		// Then
+		verify(dataDictionaryProvider).getApplicationDataDictionary(any());
+		verify(newDataDictionaryProvider).getApplicationDataDictionary(any());
+	}
+
+	@Test
+	public void shouldNotCountValidatedMessagesGivenNoDataDictionaryProvider() throws FieldNotFound {
+		// Given
+		Message.Header header = mock(Message.Header.class);
+		given(message.getHeader()).willReturn(header);
+		given(header.getString(SenderCompID.FIELD)).willReturn(expectedSender);
+		given(header.getString(TargetCompID.FIELD)).willReturn(expectedTarget);
+		given(header.getString(BeginString.FIELD)).willReturn(expectedBeginString);
+		given(sessionLookupHandler.lookupBySessionID(any())).willReturn(session);
+		given(session.send(message)).willReturn(true);
+
+		// When
+		boolean sent = quickFixJTemplate.send(message);
+
+		// Then
+		assertThat(sent).isTrue();
+		assertThat(quickFixJTemplate.getValidatedCount()).isZero();
+		assertThat(quickFixJTemplate.getSkippedCount()).isZero();
+	}
+
+	@Test
+	public void shouldCountValidatedAndSkippedMessagesGivenValidationPolicy() throws FieldNotFound, IncorrectTagValue, IncorrectDataFormat {
+		// Given
+		Message.Header header = mock(Message.Header.class);
+		given(message.getHeader()).willReturn(header);
+		given(header.getString(SenderCompID.FIELD)).willReturn(expectedSender);
+		given(header.getString(TargetCompID.FIELD)).willReturn(expectedTarget);
+		given(header.getString(BeginString.FIELD)).willReturn(expectedBeginString);
+		given(sessionLookupHandler.lookupBySessionID(any())).willReturn(session);
+		given(session.getDataDictionaryProvider()).willReturn(dataDictionaryProvider);
+		given(dataDictionaryProvider.getApplicationDataDictionary(any())).willReturn(applicationDataDictionary);
+		quickFixJTemplate.setValidationPolicy(new SamplingValidationPolicy(1, 0));
+
+		// When
+		quickFixJTemplate.send(message);
+		quickFixJTemplate.send(message);
+		quickFixJTemplate.send(message);
+
+		// Then
+		assertThat(quickFixJTemplate.getValidatedCount()).isEqualTo(1);
+		assertThat(quickFixJTemplate.getSkippedCount()).isEqualTo(2);
+		verify(applicationDataDictionary).validate(message, true);
+		verify(session, times(3)).send(message);
+	}
+
+	@Test
+	public void shouldResolveSessionOnceGivenCachingSessionLookupHandler() throws FieldNotFound {
+		// Given
+		quickFixJTemplate.setSessionLookupHandler(new CachingSessionLookupHandler(sessionLookupHandler));
+		quickFixJTemplate.setDoValidation(false);
+
+		Message.Header header = mock(Message.Header.class);
+		given(message.getHeader()).willReturn(header);
+		given(header.getString(SenderCompID.FIELD)).willReturn(expectedSender);
+		given(header.getString(TargetCompID.FIELD)).willReturn(expectedTarget);
+		given(header.getString(BeginString.FIELD)).willReturn(expectedBeginString);
+
+		SessionID expectedSessionID = new SessionID(expectedBeginString, expectedSender, expectedTarget);
+		given(sessionLookupHandler.lookupBySessionID(expectedSessionID)).willReturn(session);
+		given(session.send(message)).willReturn(true);
+
+		// When
+		boolean firstSent = quickFixJTemplate.send(message);
+		boolean secondSent = quickFixJTemplate.send(message);
+
+		// Then
+		assertThat(firstSent).isTrue();
+		assertThat(secondSent).isTrue();
+		verify(sessionLookupHandler).lookupBySessionID(expectedSessionID);
+		verify(session, times(2)).send(message);
+	}
+
+	@Test
+	public void shouldSendAllMessagesGroupedBySession() {
+		// Given
+		Session otherSession = mock(Session.class);
+		SessionID sessionID = new SessionID(expectedBeginString, expectedSender, expectedTarget);
+		SessionID otherSessionID = new SessionID(expectedBeginString, expectedSender, "OtherTarget");
+		given(sessionLookupHandler.lookupBySessionID(sessionID)).willReturn(session);
+		given(sessionLookupHandler.lookupBySessionID(otherSessionID)).willReturn(otherSession);
+		quickFixJTemplate.setDoValidation(false);
+
+		Message first = newMessage(expectedTarget);
+		Message second = newMessage("OtherTarget");
+		Message third = newMessage(expectedTarget);
+		given(session.send(first)).willReturn(true);
+		given(otherSession.send(second)).willReturn(false);
+		given(session.send(third)).willReturn(true);
+
+		// When
+		boolean[] sent = quickFixJTemplate.sendAll(List.of(first, second, third));
+
+		// Then
+		assertThat(sent).containsExactly(true, false, true);
+		verify(sessionLookupHandler).lookupBySessionID(sessionID);
+		verify(sessionLookupHandler).lookupBySessionID(otherSessionID);
+		InOrder inOrder = inOrder(session);
+		inOrder.verify(session).send(first);
+		inOrder.verify(session).send(third);
+	}
+
+	@Test
+	public void shouldSendAllMessagesGivenCachingSessionLookupHandler() {
+		// Given
+		quickFixJTemplate.setSessionLookupHandler(new CachingSessionLookupHandler(sessionLookupHandler));
+		quickFixJTemplate.setDoValidation(false);
+		SessionID sessionID = new SessionID(expectedBeginString, expectedSender, expectedTarget);
+		given(sessionLookupHandler.lookupBySessionID(sessionID)).willReturn(session);
+		given(session.getSessionID()).willReturn(sessionID);
+
+		Message first = newMessage(expectedTarget);
+		Message second = newMessage(expectedTarget);
+		given(session.send(first)).willReturn(true);
+		given(session.send(second)).willReturn(true);
+
+		// When
+		boolean[] sent = quickFixJTemplate.sendAll(List.of(first, second));
+
+		// Then
+		assertThat(sent).containsExactly(true, true);
+		verify(sessionLookupHandler).lookupBySessionID(sessionID);
+	}
+
+	@Test
+	public void shouldThrowSessionNotFoundExceptionGivenUnknownSessionAndCachingSessionLookupHandler() {
+		// Given
+		quickFixJTemplate.setSessionLookupHandler(new CachingSessionLookupHandler(sessionLookupHandler));
+		given(sessionLookupHandler.lookupBySessionID(any())).willReturn(null);
+
+		// When/Then
+		assertThatExceptionOfType(SessionNotFoundException.class)
+				.isThrownBy(() -> quickFixJTemplate.resolveSessionID(newMessage(expectedTarget), null, null, null));
+	}
+
+	@Test
+	public void shouldValidateAllMessagesAgainstOneDataDictionaryPerSession()throws IncorrectTagValue, FieldNotFound, IncorrectDataFormat {
+		// Given
+		given(sessionLookupHandler.lookupBySessionID(any())).willReturn(session);
+		given(session.getDataDictionaryProvider()).willReturn(dataDictionaryProvider);
+		given(dataDictionaryProvider.getApplicationDataDictionary(any())).willReturn(applicationDataDictionary);
+		given(session.send(any())).willReturn(true);
+
+		Message first = newMessage(expectedTarget);
+		Message second = newMessage(expectedTarget);
+
+		// When
+		boolean[] sent = quickFixJTemplate.sendAll(List.of(first, second));
+
+		// Then
+		assertThat(sent).containsExactly(true, true);
+		verify(dataDictionaryProvider).getApplicationDataDictionary(any());
+		verify(applicationDataDictionary).validate(first, true);
+		verify(applicationDataDictionary).validate(second, true);
+	}
+
+	@Test
+	public void shouldNotSendAnyMessageGivenOneFailsValidation() throws IncorrectTagValue, FieldNotFound, IncorrectDataFormat {
+		// Given
+		given(sessionLookupHandler.lookupBySessionID(any())).willReturn(session);
+		given(session.getDataDictionaryProvider()).willReturn(dataDictionaryProvider);
+		given(dataDictionaryProvider.getApplicationDataDictionary(any())).willReturn(applicationDataDictionary);
+
+		Message first = newMessage(expectedTarget);
+		Message second = newMessage(expectedTarget);
+		willThrow(IncorrectDataFormat.class).given(applicationDataDictionary).validate(second, true);
+
+		// When/Then
+		assertThatExceptionOfType(MessageValidationException.class)
+				.isThrownBy(() -> quickFixJTemplate.sendAll(List.of(first, second)));
+		verify(session, never()).send(any());
+	}
+
+	@Test
+	public void shouldThrowSessionNotFoundExceptionGivenBatchWithUnknownSession() {
+		// Given
+		given(sessionLookupHandler.lookupBySessionID(any())).willReturn(null);
+
+		// When/Then
+		assertThatExceptionOfType(SessionNotFoundException.class)
+				.isThrownBy(() -> quickFixJTemplate.sendAll(List.of(newMessage(expectedTarget))));
+	}
+
+	@Test
+	public void shouldSendMessageToTargetCompIDGivenIndexedSessionLookupHandler() {
+		// Given
+		SessionID sessionID = new SessionID(expectedBeginString, expectedSender, expectedTarget);
+		IndexedSessionLookupHandler indexedSessionLookupHandler = new IndexedSessionLookupHandler(sessionLookupHandler);
+		indexedSessionLookupHandler.onCreate(Create.of(sessionID));
+		quickFixJTemplate.setSessionLookupHandler(indexedSessionLookupHandler);
+		quickFixJTemplate.setDoValidation(false);
+		given(sessionLookupHandler.lookupBySessionID(sessionID)).willReturn(session);
+		given(session.getSessionID()).willReturn(sessionID);
+		given(session.send(message)).willReturn(true);
+
+		// When
+		boolean sent = quickFixJTemplate.sendToTarget(message, expectedTarget);
+
+		// Then
+		assertThat(sent).isTrue();
+		verify(session).send(message);
+	}
+
+	@Test
+	public void shouldThrowIllegalStateExceptionGivenSendToTargetWithoutIndexedSessionLookupHandler() {
+		assertThatExceptionOfType(IllegalStateException.class)
+				.isThrownBy(() -> quickFixJTemplate.sendToTarget(message, expectedTarget));
+	}
+
+	@Test
+	public void shouldSendRoutedMessageToLoggedOnSessionOnly() {
+		// Given
+		SessionID primarySessionID = new SessionID(expectedBeginString, expectedSender, expectedTarget, "Primary");
+		SessionID backupSessionID = new SessionID(expectedBeginString, expectedSender, expectedTarget, "Backup");
+		Session backupSession = mock(Session.class);
+		IndexedSessionLookupHandler indexedSessionLookupHandler = new IndexedSessionLookupHandler(sessionLookupHandler);
+		indexedSessionLookupHandler.onCreate(Create.of(primarySessionID));
+		indexedSessionLookupHandler.onCreate(Create.of(backupSessionID));
+		quickFixJTemplate.setSessionLookupHandler(indexedSessionLookupHandler);
+		quickFixJTemplate.setDoValidation(false);
+		given(sessionLookupHandler.lookupBySessionID(primarySessionID)).willReturn(session);
+		given(sessionLookupHandler.lookupBySessionID(backupSessionID)).willReturn(backupSession);
+		given(session.isLoggedOn()).willReturn(false);
+		given(backupSession.isLoggedOn()).willReturn(true);
+		given(backupSession.send(any(Message.class))).willReturn(true);
+		Message routedMessage = newMessage(expectedTarget);
+
+		// When
+		boolean sent = quickFixJTemplate.sendRouted(routedMessage, new RoundRobinRoutingStrategy());
+
+		// Then
+		assertThat(sent).isTrue();
+		verify(backupSession).send(routedMessage);
+		verify(session, never()).send(any(Message.class));
+	}
+
+	@Test
+	public void shouldThrowSessionNotFoundExceptionGivenNoLoggedOnSessionToRouteTo() {
+		// Given
+		SessionID sessionID = new SessionID(expectedBeginString, expectedSender, expectedTarget);
+		IndexedSessionLookupHandler indexedSessionLookupHandler = new IndexedSessionLookupHandler(sessionLookupHandler);
+		indexedSessionLookupHandler.onCreate(Create.of(sessionID));
+		quickFixJTemplate.setSessionLookupHandler(indexedSessionLookupHandler);
+		given(sessionLookupHandler.lookupBySessionID(sessionID)).willReturn(session);
+		given(session.isLoggedOn()).willReturn(false);
+
+		// When/Then
+		assertThatExceptionOfType(SessionNotFoundException.class)
+				.isThrownBy(() -> quickFixJTemplate.sendRouted(newMessage(expectedTarget), new RoundRobinRoutingStrategy()));
+		verify(session, never()).send(any(Message.class));
+	}
+
+	@Test
+	public void shouldThrowIllegalStateExceptionGivenSendRoutedWithoutIndexedSessionLookupHandler() {
+		assertThatExceptionOfType(IllegalStateException.class)
+				.isThrownBy(() -> quickFixJTemplate.sendRouted(message, new RoundRobinRoutingStrategy()));
+	}
+
+	private Message newMessage(String targetCompID) {
+		Message message = new Message();
+		message.getHeader().setString(BeginString.FIELD, expectedBeginString);
+		message.getHeader().setString(SenderCompID.FIELD, expectedSender);
+		message.getHeader().setString(TargetCompID.FIELD, targetCompID);
+		return message;
+	}
+
 	private void assertSessionID(SessionID expectedSessionID) {
 		ArgumentCaptor<SessionID> sessionIDCaptor = ArgumentCaptor.forClass(SessionID.class);
 		verify(sessionLookupHandler).lookupBySessionID(sessionIDCaptor.capture());
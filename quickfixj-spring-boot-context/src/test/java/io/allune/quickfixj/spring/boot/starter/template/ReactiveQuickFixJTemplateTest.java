@@ -0,0 +1,189 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import io.allune.quickfixj.spring.boot.starter.exception.SessionNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import quickfix.Message;
+import quickfix.Session;
+import quickfix.SessionID;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReactiveQuickFixJTemplateTest {
+
+	private final SessionID sessionID = new SessionID("FIX.4.4", "Sender", "Target");
+
+	@Mock
+	private QuickFixJTemplate quickFixJTemplate;
+
+	@Mock
+	private SessionLookupHandler sessionLookupHandler;
+
+	@Mock
+	private Session session;
+
+	private ReactiveQuickFixJTemplate reactiveQuickFixJTemplate;
+
+	@BeforeEach
+	public void setUp() {
+		reactiveQuickFixJTemplate = new ReactiveQuickFixJTemplate(quickFixJTemplate, sessionLookupHandler, Schedulers.immediate());
+		reactiveQuickFixJTemplate.setLogonCheckInterval(Duration.ofMillis(10));
+	}
+
+	@Test
+	public void shouldSendMessagesInOrderGivenSessionLoggedOn() {
+		// Given
+		Message first = new Message();
+		Message second = new Message();
+		given(sessionLookupHandler.lookupBySessionID(sessionID)).willReturn(session);
+		given(session.isLoggedOn()).willReturn(true);
+		given(quickFixJTemplate.send(any(Message.class), any(SessionID.class))).willReturn(true, false);
+
+		// When/Then
+		StepVerifier.create(reactiveQuickFixJTemplate.send(Flux.just(first, second), sessionID))
+				.expectNext(true, false)
+				.verifyComplete();
+
+		InOrder inOrder = inOrder(quickFixJTemplate);
+		inOrder.verify(quickFixJTemplate).send(first, sessionID);
+		inOrder.verify(quickFixJTemplate).send(second, sessionID);
+	}
+
+	@Test
+	public void shouldWaitForSessionToBeLoggedOn() {
+		// Given
+		Message message = new Message();
+		given(sessionLookupHandler.lookupBySessionID(sessionID)).willReturn(session);
+		given(session.isLoggedOn()).willReturn(false, false, true);
+		given(quickFixJTemplate.send(message, sessionID)).willReturn(true);
+
+		// When/Then
+		StepVerifier.create(reactiveQuickFixJTemplate.send(Flux.just(message), sessionID))
+				.expectNext(true)
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+
+		verify(session, times(3)).isLoggedOn();
+	}
+
+	@Test
+	public void shouldFailGivenSessionNotLoggedOnWithinLogonTimeout() {
+		// Given
+		Message message = new Message();
+		given(sessionLookupHandler.lookupBySessionID(sessionID)).willReturn(session);
+		given(session.isLoggedOn()).willReturn(false);
+		reactiveQuickFixJTemplate.setLogonTimeout(Duration.ofMillis(50));
+
+		// When/Then
+		StepVerifier.create(reactiveQuickFixJTemplate.send(Flux.just(message), sessionID))
+				.expectError(TimeoutException.class)
+				.verify(Duration.ofSeconds(5));
+
+		verify(quickFixJTemplate, never()).send(any(Message.class), any(SessionID.class));
+	}
+
+	@Test
+	public void shouldFailGivenSessionNotFound() {
+		// Given
+		given(sessionLookupHandler.lookupBySessionID(sessionID)).willReturn(null);
+
+		// When/Then
+		StepVerifier.create(reactiveQuickFixJTemplate.send(Flux.just(new Message()), sessionID))
+				.expectError(SessionNotFoundException.class)
+				.verify();
+	}
+
+	@Test
+	public void shouldResolveSessionFromMessageHeader() {
+		// Given
+		Message message = new Message();
+		given(quickFixJTemplate.resolveSessionID(message, null, null, null)).willReturn(sessionID);
+		given(sessionLookupHandler.lookupBySessionID(sessionID)).willReturn(session);
+		given(session.isLoggedOn()).willReturn(true);
+		given(quickFixJTemplate.send(message, sessionID)).willReturn(true);
+
+		// When/Then
+		StepVerifier.create(reactiveQuickFixJTemplate.send(Flux.just(message)))
+				.expectNext(true)
+				.verifyComplete();
+	}
+
+	@Test
+	public void shouldFailFastGivenErrorOverflowStrategy() {
+		// Given
+		given(sessionLookupHandler.lookupBySessionID(sessionID)).willReturn(session);
+		given(session.isLoggedOn()).willReturn(false);
+		reactiveQuickFixJTemplate.setOverflowStrategy(ReactiveQuickFixJTemplate.OverflowStrategy.ERROR);
+		Flux<Message> hotMessages = Flux.create(sink -> {
+			for (int i = 0; i < 3; i++) {
+				sink.next(new Message());
+			}
+		}, FluxSink.OverflowStrategy.IGNORE);
+
+		// When/Then
+		StepVerifier.create(reactiveQuickFixJTemplate.sendHot(hotMessages, sessionID))
+				.expectErrorMatches(Exceptions::isOverflow)
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void shouldRequestOneMessageGivenSessionNotLoggedOn() {
+		// Given
+		given(sessionLookupHandler.lookupBySessionID(sessionID)).willReturn(session);
+		given(session.isLoggedOn()).willReturn(false);
+		List<Long> requests = new CopyOnWriteArrayList<>();
+		Flux<Message> messages = Flux.range(0, 1000)
+				.map(i -> new Message())
+				.doOnRequest(requests::add);
+
+		// When
+		StepVerifier.create(reactiveQuickFixJTemplate.send(messages, sessionID))
+				.expectSubscription()
+				.expectNoEvent(Duration.ofMillis(200))
+				.thenCancel()
+				.verify(Duration.ofSeconds(5));
+
+		// Then
+		assertThat(requests).containsExactly(1L);
+		verify(quickFixJTemplate, never()).send(any(Message.class), any(SessionID.class));
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import org.junit.jupiter.api.Test;
+import quickfix.Message;
+import quickfix.SessionID;
+import quickfix.field.ClOrdID;
+import quickfix.field.MsgType;
+import quickfix.field.OrigClOrdID;
+import quickfix.field.TestReqID;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class SessionRoutingStrategyTest {
+
+	private final SessionID firstSessionID = new SessionID("FIX.4.4", "Sender", "Target", "First");
+
+	private final SessionID secondSessionID = new SessionID("FIX.4.4", "Sender", "Target", "Second");
+
+	private final SessionID thirdSessionID = new SessionID("FIX.4.4", "Sender", "Target", "Third");
+
+	private final List<SessionID> candidates = List.of(firstSessionID, secondSessionID, thirdSessionID);
+
+	@Test
+	public void shouldSelectSessionsInTurnGivenRoundRobin() {
+		// Given
+		RoundRobinRoutingStrategy routingStrategy = new RoundRobinRoutingStrategy();
+		Message message = new Message();
+
+		// When/Then
+		assertThat(routingStrategy.select(message, candidates)).isEqualTo(firstSessionID);
+		assertThat(routingStrategy.select(message, candidates)).isEqualTo(secondSessionID);
+		assertThat(routingStrategy.select(message, candidates)).isEqualTo(thirdSessionID);
+		assertThat(routingStrategy.select(message, candidates)).isEqualTo(firstSessionID);
+		assertThat(routingStrategy.select(message, List.of(secondSessionID))).isEqualTo(secondSessionID);
+	}
+
+	@Test
+	public void shouldSelectSessionWithFewestOutstandingMessages() {
+		// Given
+		Map<SessionID, Integer> outstanding = Map.of(firstSessionID, 5, secondSessionID, 1, thirdSessionID, 3);
+		LeastOutstandingRoutingStrategy routingStrategy = new LeastOutstandingRoutingStrategy(outstanding::get);
+
+		// When
+		SessionID selected = routingStrategy.select(new Message(), candidates);
+
+		// Then
+		assertThat(selected).isEqualTo(secondSessionID);
+	}
+
+	@Test
+	public void shouldSelectSessionWithLowestHeartbeatRoundTripTime() {
+		// Given
+		HeartbeatRttTracker heartbeatRttTracker = new HeartbeatRttTracker();
+		heartbeatRttTracker.testRequestSent(firstSessionID, "TEST", 0);
+		heartbeatRttTracker.heartbeatReceived(firstSessionID, "TEST", 3_000_000);
+		heartbeatRttTracker.testRequestSent(thirdSessionID, "TEST", 0);
+		heartbeatRttTracker.heartbeatReceived(thirdSessionID, "TEST", 1_000_000);
+		LowestHeartbeatRttRoutingStrategy routingStrategy = new LowestHeartbeatRttRoutingStrategy(heartbeatRttTracker);
+
+		// When
+		SessionID selected = routingStrategy.select(new Message(), candidates);
+
+		// Then
+		assertThat(selected).isEqualTo(thirdSessionID);
+		assertThat(heartbeatRttTracker.getRoundTripTime(secondSessionID)).isNull();
+	}
+
+	@Test
+	public void shouldSelectSessionsInTurnGivenNoHeartbeatRoundTripTimeMeasured() {
+		// Given
+		LowestHeartbeatRttRoutingStrategy routingStrategy = new LowestHeartbeatRttRoutingStrategy(new HeartbeatRttTracker());
+		Message message = new Message();
+
+		// When/Then
+		assertThat(routingStrategy.select(message, candidates)).isEqualTo(firstSessionID);
+		assertThat(routingStrategy.select(message, candidates)).isEqualTo(secondSessionID);
+		assertThat(routingStrategy.select(message, candidates)).isEqualTo(thirdSessionID);
+		assertThat(routingStrategy.select(message, candidates)).isEqualTo(firstSessionID);
+	}
+
+	@Test
+	public void shouldMeasureRoundTripTimeFromTestRequestAndHeartbeat() {
+		// Given
+		HeartbeatRttTracker heartbeatRttTracker = new HeartbeatRttTracker();
+		Message testRequest = new Message();
+		testRequest.getHeader().setString(MsgType.FIELD, MsgType.TEST_REQUEST);
+		testRequest.setString(TestReqID.FIELD, "TEST");
+		Message heartbeat = new Message();
+		heartbeat.getHeader().setString(MsgType.FIELD, MsgType.HEARTBEAT);
+		heartbeat.setString(TestReqID.FIELD, "TEST");
+		Message unsolicitedHeartbeat = new Message();
+		unsolicitedHeartbeat.getHeader().setString(MsgType.FIELD, MsgType.HEARTBEAT);
+
+		// When
+		heartbeatRttTracker.fromAdmin(heartbeat, firstSessionID);
+		heartbeatRttTracker.toAdmin(testRequest, firstSessionID);
+		heartbeatRttTracker.fromAdmin(unsolicitedHeartbeat, firstSessionID);
+		heartbeatRttTracker.fromAdmin(heartbeat, secondSessionID);
+
+		// Then
+		assertThat(heartbeatRttTracker.getRoundTripTime(secondSessionID)).isNull();
+		assertThat(heartbeatRttTracker.getRoundTripTime(firstSessionID)).isNull();
+
+		// When
+		heartbeatRttTracker.fromAdmin(heartbeat, firstSessionID);
+
+		// Then
+		assertThat(heartbeatRttTracker.getRoundTripTime(firstSessionID)).isNotNull();
+	}
+
+	@Test
+	public void shouldRouteAmendmentToSessionOfOriginalOrder() {
+		// Given
+		StickyRoutingStrategy routingStrategy = new StickyRoutingStrategy(new RoundRobinRoutingStrategy(),
+				ClOrdID.FIELD, OrigClOrdID.FIELD, 100);
+
+		// When
+		SessionID firstOrder = routingStrategy.select(newOrder("1", null), candidates);
+		SessionID secondOrder = routingStrategy.select(newOrder("2", null), candidates);
+		SessionID amendment = routingStrategy.select(newOrder("3", "1"), candidates);
+		SessionID secondAmendment = routingStrategy.select(newOrder("4", "3"), candidates);
+
+		// Then
+		assertThat(firstOrder).isEqualTo(firstSessionID);
+		assertThat(secondOrder).isEqualTo(secondSessionID);
+		assertThat(amendment).isEqualTo(firstSessionID);
+		assertThat(secondAmendment).isEqualTo(firstSessionID);
+	}
+
+	@Test
+	public void shouldRerouteStickyKeyGivenSessionNoLongerCandidate() {
+		// Given
+		StickyRoutingStrategy routingStrategy = new StickyRoutingStrategy(new RoundRobinRoutingStrategy(), ClOrdID.FIELD);
+		routingStrategy.select(newOrder("1", null), candidates);
+
+		// When
+		SessionID rerouted = routingStrategy.select(newOrder("1", null), List.of(secondSessionID, thirdSessionID));
+		SessionID followed = routingStrategy.select(newOrder("1", null), candidates);
+
+		// Then
+		assertThat(rerouted).isNotEqualTo(firstSessionID);
+		assertThat(followed).isEqualTo(rerouted);
+	}
+
+	@Test
+	public void shouldEvictLeastRecentlyUsedStickyKeys() {
+		// Given
+		StickyRoutingStrategy routingStrategy = new StickyRoutingStrategy(new RoundRobinRoutingStrategy(),
+				ClOrdID.FIELD, 0, 1);
+		routingStrategy.select(newOrder("1", null), candidates);
+		routingStrategy.select(newOrder("2", null), candidates);
+
+		// When
+		SessionID selected = routingStrategy.select(newOrder("1", null), candidates);
+
+		// Then
+		assertThat(selected).isEqualTo(thirdSessionID);
+	}
+
+	private static Message newOrder(String clOrdID, String origClOrdID) {
+		Message message = new Message();
+		message.setString(ClOrdID.FIELD, clOrdID);
+		if (origClOrdID != null) {
+			message.setString(OrigClOrdID.FIELD, origClOrdID);
+		}
+		return message;
+	}
+}
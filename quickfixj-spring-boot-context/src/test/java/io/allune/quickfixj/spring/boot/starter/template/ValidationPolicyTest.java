@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.allune.quickfixj.spring.boot.starter.template;
+
+import org.junit.jupiter.api.Test;
+import quickfix.Message;
+import quickfix.SessionID;
+import quickfix.field.MsgType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Eduardo Sanchez-Ros
+ */
+public class ValidationPolicyTest {
+
+	private final SessionID sessionID = new SessionID("FIX.4.4", "Sender", "Target");
+
+	@Test
+	public void shouldValidateInitialMessagesThenSamplePerMsgType() {
+		// Given
+		SamplingValidationPolicy validationPolicy = new SamplingValidationPolicy(2, 3);
+		Message newOrderSingle = newMessage(MsgType.ORDER_SINGLE);
+		Message orderCancelRequest = newMessage(MsgType.ORDER_CANCEL_REQUEST);
+
+		// When
+		List<Boolean> newOrderSingleDecisions = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			newOrderSingleDecisions.add(validationPolicy.shouldValidate(newOrderSingle, sessionID));
+		}
+		boolean orderCancelRequestDecision = validationPolicy.shouldValidate(orderCancelRequest, sessionID);
+
+		// Then
+		assertThat(newOrderSingleDecisions).containsExactly(true, true, false, false, true, false, false, true);
+		assertThat(orderCancelRequestDecision).isTrue();
+	}
+
+	@Test
+	public void shouldStopValidatingAfterInitialMessagesGivenZeroSampleRate() {
+		// Given
+		SamplingValidationPolicy validationPolicy = new SamplingValidationPolicy(1, 0);
+		Message message = newMessage(MsgType.ORDER_SINGLE);
+
+		// When/Then
+		assertThat(validationPolicy.shouldValidate(message, sessionID)).isTrue();
+		assertThat(validationPolicy.shouldValidate(message, sessionID)).isFalse();
+		assertThat(validationPolicy.shouldValidate(message, sessionID)).isFalse();
+	}
+
+	@Test
+	public void shouldDelegateToPolicyOfMsgType() {
+		// Given
+		MsgTypeValidationPolicy validationPolicy = new MsgTypeValidationPolicy(
+				Map.of(MsgType.ORDER_SINGLE, ValidationPolicy.always()), ValidationPolicy.never());
+
+		// When/Then
+		assertThat(validationPolicy.shouldValidate(newMessage(MsgType.ORDER_SINGLE), sessionID)).isTrue();
+		assertThat(validationPolicy.shouldValidate(newMessage(MsgType.ORDER_CANCEL_REQUEST), sessionID)).isFalse();
+		assertThat(validationPolicy.shouldValidate(new Message(), sessionID)).isFalse();
+	}
+
+	@Test
+	public void shouldDelegateToPolicyOfSession() {
+		// Given
+		SessionID otherSessionID = new SessionID("FIX.4.4", "Sender", "Other");
+		SessionValidationPolicy validationPolicy = new SessionValidationPolicy(
+				Map.of(sessionID, ValidationPolicy.never()), ValidationPolicy.always());
+		Message message = newMessage(MsgType.ORDER_SINGLE);
+
+		// When/Then
+		assertThat(validationPolicy.shouldValidate(message, sessionID)).isFalse();
+		assertThat(validationPolicy.shouldValidate(message, otherSessionID)).isTrue();
+	}
+
+	private static Message newMessage(String msgType) {
+		Message message = new Message();
+		message.getHeader().setString(MsgType.FIELD, msgType);
+		return message;
+	}
+}